@@ -1,12 +1,21 @@
 package com.miempresa.ecommerce;
 
+import java.util.TimeZone;
+
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import com.miempresa.ecommerce.utils.TimeWindow;
 
 @SpringBootApplication
+@EnableScheduling
 public class EcommerceApplication {
 
 	public static void main(String[] args) {
+		// Las fechas (@CreationTimestamp, LocalDateTime.now()) se guardan en hora de Lima,
+		// la misma zona con la que TimeWindow arma los rangos de día, mes y año
+		TimeZone.setDefault(TimeZone.getTimeZone(TimeWindow.ZONA));
 		SpringApplication.run(EcommerceApplication.class, args);
 	}
 
@@ -0,0 +1,55 @@
+package com.miempresa.ecommerce.config;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import com.miempresa.ecommerce.services.OverdueInstallmentCounter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Agrega ${cuotasVencidas} a las vistas HTML del panel.
+ * 
+ * No se ejecuta para respuestas JSON (sin ModelAndView) ni redirecciones,
+ * y respeta el valor si el controller ya lo puso en el modelo.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OverdueInstallmentsInterceptor implements HandlerInterceptor {
+
+    private static final String ATRIBUTO = "cuotasVencidas";
+
+    private final OverdueInstallmentCounter overdueInstallmentCounter;
+
+    @Override
+    public void postHandle(HttpServletRequest request,
+            HttpServletResponse response,
+            Object handler,
+            ModelAndView modelAndView) throws Exception {
+
+        if (modelAndView == null || !esVistaHtml(modelAndView)
+                || modelAndView.getModelMap().containsAttribute(ATRIBUTO)) {
+            return;
+        }
+
+        try {
+            modelAndView.getModelMap().addAttribute(ATRIBUTO, overdueInstallmentCounter.obtener());
+        } catch (Exception e) {
+            log.warn("No se pudo cargar el contador de cuotas vencidas: {}", e.getMessage());
+            modelAndView.getModelMap().addAttribute(ATRIBUTO, 0L);
+        }
+    }
+
+    private boolean esVistaHtml(ModelAndView modelAndView) {
+        String vista = modelAndView.getViewName();
+        if (vista == null) {
+            return modelAndView.getView() != null;
+        }
+        return !vista.startsWith("redirect:") && !vista.startsWith("forward:");
+    }
+}
@@ -1,5 +1,6 @@
 package com.miempresa.ecommerce.config;
 
+import com.miempresa.ecommerce.security.PermissionRegistry;
 import com.miempresa.ecommerce.security.UserDetailsServiceImpl;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
@@ -25,6 +26,7 @@ import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 public class SecurityConfig {
 
         private final UserDetailsServiceImpl userDetailsService;
+        private final PermissionRegistry permissionRegistry;
 
         // PasswordEncoder (sin cambios)
         @Bean
@@ -89,24 +91,24 @@ public class SecurityConfig {
                                                                 "/login", "/logout", "/error" // Auth y error
                                                 ).permitAll()
 
-                                                // Rutas Admin (protegidas por permisos)
+                                                // Rutas Admin (protegidas por permisos, ver PermissionRegistry)
                                                 .requestMatchers("/admin/dashboard").authenticated()
                                                 .requestMatchers("/admin/productos/**", "/admin/categorias/**",
                                                                 "/admin/marcas/**")
-                                                .hasAuthority("MODULO_PRODUCTOS")
+                                                .access(permissionRegistry.requiere("MODULO_PRODUCTOS"))
                                                 .requestMatchers("/admin/ventas/**", "/admin/pedidos/**",
                                                                 "/admin/pos/**", "/admin/creditos/**")
-                                                .hasAuthority("MODULO_VENTAS") // Incluye /admin/ventas/pos/registrar
-                                                .requestMatchers("/admin/clientes/**").hasAuthority("MODULO_CLIENTES")
-                                                .requestMatchers("/admin/reportes/**").hasAuthority("MODULO_REPORTES")
+                                                .access(permissionRegistry.requiere("MODULO_VENTAS")) // Incluye /admin/ventas/pos/registrar
+                                                .requestMatchers("/admin/clientes/**").access(permissionRegistry.requiere("MODULO_CLIENTES"))
+                                                .requestMatchers("/admin/reportes/**").access(permissionRegistry.requiere("MODULO_REPORTES"))
                                                 .requestMatchers("/admin/inventario/**")
-                                                .hasAuthority("MODULO_INVENTARIO")
+                                                .access(permissionRegistry.requiere("MODULO_INVENTARIO"))
                                                 .requestMatchers("/admin/usuarios/**", "/admin/perfiles/**")
-                                                .hasAuthority("MODULO_USUARIOS")
+                                                .access(permissionRegistry.requiere("MODULO_USUARIOS"))
                                                 .requestMatchers("/admin/proveedores/**")
-                                                .hasAuthority("MODULO_PROVEEDORES")
+                                                .access(permissionRegistry.requiere("MODULO_PROVEEDORES"))
                                                 .requestMatchers("/admin/configuracion/**")
-                                                .hasAuthority("MODULO_CONFIGURACION")
+                                                .access(permissionRegistry.requiere("MODULO_CONFIGURACION"))
 
                                                 // Cualquier otra ruta (no API, no pública) requiere autenticación
                                                 .anyRequest().authenticated())
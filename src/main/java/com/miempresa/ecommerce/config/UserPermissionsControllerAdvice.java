@@ -1,22 +1,18 @@
 
 package com.miempresa.ecommerce.config;
 
-import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ModelAttribute;
 
-import com.miempresa.ecommerce.models.Installment;
 import com.miempresa.ecommerce.models.User;
+import com.miempresa.ecommerce.security.PermissionRegistry;
 import com.miempresa.ecommerce.security.UserDetailsImpl;
-import com.miempresa.ecommerce.services.CreditService;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -31,9 +27,10 @@ import lombok.extern.slf4j.Slf4j;
 
 @ControllerAdvice
 @Slf4j
+@RequiredArgsConstructor
 public class UserPermissionsControllerAdvice {
-    @Autowired
-    private CreditService creditService;
+
+    private final PermissionRegistry permissionRegistry;
 
     /**
      * Agrega los permisos del usuario al modelo en cada petición
@@ -47,32 +44,20 @@ public class UserPermissionsControllerAdvice {
             // Si no hay autenticación o es anónimo, retornar set vacío
             if (authentication == null || !authentication.isAuthenticated() ||
                     authentication.getPrincipal().equals("anonymousUser")) {
-                return new HashSet<>();
+                return Set.of();
             }
 
-            // Obtener el UserDetails
-            Object principal = authentication.getPrincipal();
-
-            if (principal instanceof UserDetailsImpl) {
-                UserDetailsImpl userDetails = (UserDetailsImpl) principal;
-                User user = userDetails.getUser();
-
-                // Extraer los códigos de permisos del perfil del usuario
-                Set<String> permisos = user.getPerfil().getPermisos()
-                        .stream()
-                        .map(permiso -> permiso.getCodigo())
-                        .collect(Collectors.toSet());
-
-                log.debug("Permisos cargados para usuario {}: {}", user.getUsername(), permisos);
-
+            // Permisos del perfil (conjunto en caché, no se crea uno por petición)
+            Set<String> permisos = permissionRegistry.permisosDe(authentication);
+            if (permisos != null) {
                 return permisos;
             }
 
-            return new HashSet<>();
+            return Set.of();
 
         } catch (Exception e) {
             log.error("Error al cargar permisos del usuario: {}", e.getMessage());
-            return new HashSet<>();
+            return Set.of();
         }
     }
 
@@ -136,18 +121,6 @@ public class UserPermissionsControllerAdvice {
             return "Invitado";
         }
     }
-
-    @ModelAttribute("cuotasVencidas")
-    public Long addCuotasVencidas() {
-        try {
-            // Assuming creditService is an injected instance of CreditService
-            List<Installment> cuotas = creditService.obtenerCuotasVencidas();
-            return (long) cuotas.size(); // Returns the count as Long
-        } catch (Exception e) {
-            log.warn("No se pudo cargar el contador de cuotas vencidas: {}", e.getMessage());
-            return 0L;
-        }
-    }
 }
 
 /**
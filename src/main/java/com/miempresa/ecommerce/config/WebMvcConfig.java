@@ -14,6 +14,7 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class WebMvcConfig implements WebMvcConfigurer {
     private final CurrentURIInterceptor currentURIInterceptor;
+    private final OverdueInstallmentsInterceptor overdueInstallmentsInterceptor;
     @Value("${app.upload.dir}")
     private String uploadDir;
 
@@ -23,6 +24,9 @@ public class WebMvcConfig implements WebMvcConfigurer {
                 .addPathPatterns("/**")
                 .excludePathPatterns("/css/**", "/js/**", "/img/**", /* ... */ "/uploads/productos/**"); // <-- Excluir
                                                                                                          // nueva ruta
+        registry.addInterceptor(overdueInstallmentsInterceptor)
+                .addPathPatterns("/**")
+                .excludePathPatterns("/api/**", "/css/**", "/js/**", "/img/**", "/uploads/productos/**");
     }
 
     @Override
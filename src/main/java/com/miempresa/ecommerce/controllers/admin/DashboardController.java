@@ -1,7 +1,8 @@
 package com.miempresa.ecommerce.controllers.admin;
 
+import com.miempresa.ecommerce.models.DashboardResumen;
 import com.miempresa.ecommerce.security.SecurityUtils;
-import com.miempresa.ecommerce.services.*;
+import com.miempresa.ecommerce.services.DashboardService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Controller;
@@ -9,10 +10,6 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
-
 /**
  * CONTROLLER: DASHBOARD
  * 
@@ -25,11 +22,7 @@ import java.time.LocalTime;
 @Slf4j
 public class DashboardController {
 
-    private final SaleService saleService;
-    private final ProductService productService;
-    private final CustomerService customerService;
-    private final OrderService orderService;
-    private final CreditService creditService;
+    private final DashboardService dashboardService;
 
     /**
      * Dashboard principal
@@ -42,66 +35,14 @@ public class DashboardController {
         log.info("Usuario {} accedió al dashboard", SecurityUtils.getCurrentUsername());
 
         try {
-            // ========================================
-            // ESTADÍSTICAS DEL DÍA
-            // ========================================
-
-            LocalDateTime inicioDia = LocalDateTime.now().with(LocalTime.MIN);
-            LocalDateTime finDia = LocalDateTime.now().with(LocalTime.MAX);
-
-            // Ventas del día
-            BigDecimal ventasDelDia = saleService.calcularTotalVentasPorFecha(inicioDia, finDia);
-            model.addAttribute("ventasDelDia", ventasDelDia);
-
-            // Pedidos pendientes
-            long pedidosPendientes = orderService.contarPorEstado(
-                    com.miempresa.ecommerce.models.enums.EstadoPedido.PENDIENTE);
-            model.addAttribute("pedidosPendientes", pedidosPendientes);
-
-            // ========================================
-            // ESTADÍSTICAS GENERALES
-            // ========================================
-
-            // Total de productos
-            long totalProductos = productService.contarActivos();
-            model.addAttribute("totalProductos", totalProductos);
-
-            // Total de clientes
-            long totalClientes = customerService.contarActivos();
-            model.addAttribute("totalClientes", totalClientes);
-
-            // Productos con stock bajo
-            int productosStockBajo = productService.obtenerProductosStockBajo().size();
-            model.addAttribute("productosStockBajo", productosStockBajo);
-
-            // ========================================
-            // CRÉDITOS Y CUOTAS
-            // ========================================
-
-            // Créditos activos
-            long creditosActivos = creditService.contarActivos();
-            model.addAttribute("creditosActivos", creditosActivos);
-
-            // Deuda total pendiente
-            BigDecimal deudaTotal = creditService.obtenerTotalDeudaPendiente();
-            model.addAttribute("deudaTotal", deudaTotal);
-
-            // Cuotas vencidas
-            long cuotasVencidas = creditService.contarCuotasVencidas();
-            model.addAttribute("cuotasVencidas", cuotasVencidas);
-
-            // ========================================
-            // LISTAS PARA WIDGETS
-            // ========================================
-
-            // Últimas ventas
-            model.addAttribute("ultimasVentas", saleService.obtenerDelDia());
-
-            // Últimos pedidos
-            model.addAttribute("ultimosPedidos", orderService.obtenerPendientes());
+            // Todas las tarjetas se cargan en paralelo (ver DashboardService)
+            DashboardResumen resumen = dashboardService.cargar();
+            model.addAllAttributes(resumen.getValores());
 
-            // Productos con stock bajo
-            model.addAttribute("productosAlerta", productService.obtenerProductosStockBajo());
+            if (resumen.esParcial()) {
+                log.warn("Dashboard cargado parcialmente. Sin datos: {}", resumen.getFallidos());
+                model.addAttribute("error", "Algunas estadísticas no se pudieron cargar");
+            }
 
             // Usuario actual
             model.addAttribute("usuarioActual", SecurityUtils.getCurrentUsername());
@@ -141,7 +82,7 @@ public class DashboardController {
  * 
  * Usuario visita /admin/dashboard
  * ↓
- * Controller llama a varios services:
+ * Controller llama a DashboardService.cargar(), que consulta en paralelo:
  * - saleService.calcularTotalVentasPorFecha()
  * - productService.contarActivos()
  * - customerService.contarActivos()
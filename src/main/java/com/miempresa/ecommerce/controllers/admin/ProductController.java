@@ -17,7 +17,9 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import com.miempresa.ecommerce.models.KeysetPage;
 import com.miempresa.ecommerce.models.Product;
+import com.miempresa.ecommerce.models.enums.OrdenProducto;
 import com.miempresa.ecommerce.services.BrandService;
 import com.miempresa.ecommerce.services.CategoryService;
 import com.miempresa.ecommerce.services.ProductService;
@@ -37,6 +39,7 @@ public class ProductController {
     private final CategoryService categoryService;
     private final BrandService brandService;
 
+    private static final int PRODUCTOS_POR_PAGINA = 50;
     private static final int MAX_IMAGENES = 5;
     private static final long MAX_SIZE_MB = 5;
     private static final List<String> EXTENSIONES_PERMITIDAS = List.of("jpg", "jpeg", "png", "gif", "webp");
@@ -56,9 +59,16 @@ public class ProductController {
     // ========================================
 
     @GetMapping
-    public String listar(Model model) {
+    public String listar(
+            @RequestParam(required = false) OrdenProducto orden,
+            @RequestParam(required = false) String cursor,
+            Model model) {
         log.debug("Listando productos");
-        model.addAttribute("productos", productService.obtenerTodos());
+        KeysetPage<Product> pagina = productService.paginar(orden, cursor, PRODUCTOS_POR_PAGINA, false, null);
+        model.addAttribute("productos", pagina.getContenido());
+        model.addAttribute("siguienteCursor", pagina.getSiguienteCursor());
+        model.addAttribute("orden", orden != null ? orden : OrdenProducto.RECIENTES);
+        model.addAttribute("ordenes", OrdenProducto.values());
         model.addAttribute("titulo", "Gestión de Productos");
         return "admin/productos/lista";
     }
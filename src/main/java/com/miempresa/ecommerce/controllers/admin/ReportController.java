@@ -1,7 +1,9 @@
 package com.miempresa.ecommerce.controllers.admin;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -14,16 +16,26 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import com.miempresa.ecommerce.config.EmpresaConfig;
+import com.miempresa.ecommerce.models.ReportSpec;
 import com.miempresa.ecommerce.models.Sale;
 import com.miempresa.ecommerce.services.CreditService;
 import com.miempresa.ecommerce.services.CustomerService;
 import com.miempresa.ecommerce.services.ProductService;
+import com.miempresa.ecommerce.services.ReportExportService;
 import com.miempresa.ecommerce.services.SaleService;
+import com.miempresa.ecommerce.services.SalesSummaryService;
+import com.miempresa.ecommerce.utils.ExcelExportUtil;
 import com.miempresa.ecommerce.utils.PdfGeneratorUtil;
+import com.miempresa.ecommerce.utils.TimeWindow;
+
+import jakarta.servlet.http.HttpServletResponse;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -48,6 +60,8 @@ public class ReportController {
     private final CustomerService customerService;
     private final CreditService creditService;
     private final EmpresaConfig empresaConfig;
+    private final SalesSummaryService salesSummaryService;
+    private final ReportExportService reportExportService;
 
     // ========================================
     // ÍNDICE DE REPORTES
@@ -76,38 +90,20 @@ public class ReportController {
             @RequestParam(required = false) String periodo,
             Model model) {
 
-        // ✅ Procesar período si se especifica
-        LocalDateTime ahora = LocalDateTime.now();
-
-        if (periodo != null) {
-            switch (periodo) {
-                case "hoy":
-                    fechaInicio = ahora.withHour(0).withMinute(0).withSecond(0);
-                    fechaFin = ahora;
-                    break;
-                case "ayer":
-                    fechaInicio = ahora.minusDays(1).withHour(0).withMinute(0).withSecond(0);
-                    fechaFin = ahora.minusDays(1).withHour(23).withMinute(59).withSecond(59);
-                    break;
-                case "semana":
-                    fechaInicio = ahora.minusDays(7).withHour(0).withMinute(0).withSecond(0);
-                    fechaFin = ahora;
-                    break;
-                case "mes":
-                    fechaInicio = ahora.withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
-                    fechaFin = ahora;
-                    break;
-                default:
-                    break;
-            }
+        // Período con nombre (hoy, ayer, semana, mes): días completos en hora de Lima
+        TimeWindow ventana = TimeWindow.periodo(periodo);
+        if (ventana == null && fechaInicio == null && fechaFin == null) {
+            ventana = TimeWindow.mesActual(); // Valor por defecto: mes actual
+        }
+        if (ventana != null) {
+            fechaInicio = ventana.inicio();
+            fechaFin = ventana.ultimoInstante();
         }
-
-        // Valores por defecto: mes actual
         if (fechaInicio == null) {
-            fechaInicio = ahora.withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
+            fechaInicio = TimeWindow.mesActual().inicio();
         }
         if (fechaFin == null) {
-            fechaFin = ahora;
+            fechaFin = TimeWindow.ahora();
         }
 
         log.debug("Mostrando reporte de ventas: {} - {}", fechaInicio, fechaFin);
@@ -125,86 +121,24 @@ public class ReportController {
     }
 
     /**
-     * Genera PDF de reporte de ventas usando PdfGeneratorUtil
+     * Genera PDF de reporte de ventas usando PdfGeneratorUtil.
+     * El PDF se escribe en la respuesta a medida que se leen las ventas
+     * (no se arma en memoria).
      * 
      * URL: GET /admin/reportes/ventas/pdf
      * Retorna: PDF para descargar
      */
     @GetMapping("/ventas/pdf")
-    public ResponseEntity<byte[]> generarPdfVentas(
+    public ResponseEntity<StreamingResponseBody> generarPdfVentas(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin,
             @RequestParam(required = false) String periodo) {
 
-        try {
-            // Determinar fechas según período
-            LocalDateTime ahora = LocalDateTime.now();
-
-            if (periodo != null) {
-                switch (periodo) {
-                    case "dia":
-                        fechaInicio = ahora.withHour(0).withMinute(0).withSecond(0);
-                        fechaFin = ahora;
-                        break;
-                    case "semana":
-                        fechaInicio = ahora.minusDays(7).withHour(0).withMinute(0).withSecond(0);
-                        fechaFin = ahora;
-                        break;
-                    case "mes":
-                        fechaInicio = ahora.withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
-                        fechaFin = ahora;
-                        break;
-                    case "anio":
-                        fechaInicio = ahora.withDayOfYear(1).withHour(0).withMinute(0).withSecond(0);
-                        fechaFin = ahora;
-                        break;
-                    default:
-                        break;
-                }
-            }
-
-            // Valores por defecto si no se especificaron
-            if (fechaInicio == null) {
-                fechaInicio = ahora.withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
-            }
-            if (fechaFin == null) {
-                fechaFin = ahora;
-            }
-
-            log.info("Generando PDF de reporte de ventas desde {} hasta {}", fechaInicio, fechaFin);
-
-            // Obtener datos
-            List<Sale> ventas = saleService.buscarPorFechas(fechaInicio, fechaFin);
-            BigDecimal totalVentas = saleService.calcularTotalVentasPorFecha(fechaInicio, fechaFin);
-
-            // ✅ USAR PdfGeneratorUtil para mantener coherencia
-            byte[] pdfBytes = PdfGeneratorUtil.generateReporteVentasPdf(
-                    ventas,
-                    totalVentas,
-                    fechaInicio,
-                    fechaFin,
-                    empresaConfig.getNombre(),
-                    empresaConfig.getRuc());
+        TimeWindow ventana = ReportSpec.rango(fechaInicio, fechaFin, periodo);
+        log.info("Generando PDF de reporte de ventas: {}", ventana);
 
-            // Configurar headers de respuesta
-            String nombreArchivo = PdfGeneratorUtil.generarNombreArchivo("ventas");
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("attachment", nombreArchivo);
-
-            log.info("Reporte PDF generado exitosamente: {} ventas, total S/ {}",
-                    ventas.size(), totalVentas);
-
-            return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
-
-        } catch (IOException e) {
-            log.error("Error al generar PDF de ventas: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        } catch (Exception e) {
-            log.error("Error inesperado al generar PDF de ventas: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        return respuestaPdf("ventas", salida -> reportExportService.exportarVentasPdf(
+                ventana, salida, empresaConfig.getNombre(), empresaConfig.getRuc()));
     }
 
     // ========================================
@@ -230,43 +164,18 @@ public class ReportController {
     }
 
     /**
-     * ✅ NUEVO: Genera PDF de inventario completo
+     * ✅ NUEVO: Genera PDF de inventario completo (escrito en la respuesta
+     * a medida que se leen los productos)
      *
      * URL: GET /admin/reportes/productos/pdf
      * Retorna: PDF para descargar
      */
     @GetMapping("/productos/pdf")
-    public ResponseEntity<byte[]> generarPdfInventario() {
-        try {
-            log.info("Generando PDF de inventario completo");
-
-            // Obtener todos los productos activos
-            var productos = productService.obtenerActivos();
-
-            // Generar PDF usando PdfGeneratorUtil
-            byte[] pdfBytes = PdfGeneratorUtil.generateReporteInventarioPdf(
-                    productos,
-                    empresaConfig.getNombre(),
-                    empresaConfig.getRuc());
-
-            // Configurar headers de respuesta
-            String nombreArchivo = PdfGeneratorUtil.generarNombreArchivo("inventario");
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("attachment", nombreArchivo);
+    public ResponseEntity<StreamingResponseBody> generarPdfInventario() {
+        log.info("Generando PDF de inventario completo");
 
-            log.info("Reporte PDF de inventario generado exitosamente: {} productos", productos.size());
-
-            return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
-
-        } catch (IOException e) {
-            log.error("Error al generar PDF de inventario: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        } catch (Exception e) {
-            log.error("Error inesperado al generar PDF de inventario: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        return respuestaPdf("inventario", salida -> reportExportService.exportarInventarioPdf(
+                salida, empresaConfig.getNombre(), empresaConfig.getRuc()));
     }
 
     // ========================================
@@ -336,6 +245,132 @@ public class ReportController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    // ========================================
+    // EXPORTACIÓN A EXCEL
+    // ========================================
+
+    /**
+     * Exporta las ventas de un período a Excel, escribiendo directo en la
+     * respuesta (no se arma el archivo en memoria)
+     *
+     * URL: GET /admin/reportes/ventas/excel
+     */
+    @GetMapping("/ventas/excel")
+    public void exportarVentasExcel(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin,
+            @RequestParam(required = false) String periodo,
+            HttpServletResponse response) {
+
+        TimeWindow ventana = ReportSpec.rango(fechaInicio, fechaFin, periodo);
+        exportarExcel(response, "ventas", salida -> reportExportService.exportarVentas(ventana, salida));
+    }
+
+    /**
+     * URL: GET /admin/reportes/productos/excel
+     */
+    @GetMapping("/productos/excel")
+    public void exportarInventarioExcel(HttpServletResponse response) {
+        exportarExcel(response, "inventario", reportExportService::exportarInventario);
+    }
+
+    /**
+     * URL: GET /admin/reportes/movimientos/excel
+     */
+    @GetMapping("/movimientos/excel")
+    public void exportarMovimientosExcel(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin,
+            @RequestParam(required = false) String periodo,
+            HttpServletResponse response) {
+
+        TimeWindow ventana = ReportSpec.rango(fechaInicio, fechaFin, periodo);
+        exportarExcel(response, "movimientos", salida -> reportExportService.exportarMovimientos(ventana, salida));
+    }
+
+    /**
+     * URL: GET /admin/reportes/creditos/excel
+     */
+    @GetMapping("/creditos/excel")
+    public void exportarCreditosExcel(HttpServletResponse response) {
+        exportarExcel(response, "creditos", reportExportService::exportarCreditos);
+    }
+
+    @FunctionalInterface
+    private interface Exportacion {
+        void escribir(OutputStream salida) throws IOException;
+    }
+
+    private void exportarExcel(HttpServletResponse response, String tipoReporte, Exportacion exportacion) {
+        String nombreArchivo = ExcelExportUtil.generarNombreArchivo(tipoReporte);
+        response.setContentType(ExcelExportUtil.CONTENT_TYPE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + nombreArchivo + "\"");
+
+        try {
+            exportacion.escribir(response.getOutputStream());
+            log.info("Excel de {} generado", tipoReporte);
+        } catch (Exception e) {
+            log.error("Error al generar Excel de {}: {}", tipoReporte, e.getMessage(), e);
+            // Si ya se empezó a enviar el archivo no se puede cambiar el estado
+            if (!response.isCommitted()) {
+                response.reset();
+                response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            }
+        }
+    }
+
+    /**
+     * Respuesta PDF que se genera mientras se envía. Los errores durante
+     * la escritura solo se pueden registrar: el encabezado 200 ya salió.
+     */
+    private ResponseEntity<StreamingResponseBody> respuestaPdf(String tipoReporte, Exportacion exportacion) {
+        StreamingResponseBody cuerpo = salida -> {
+            try {
+                exportacion.escribir(salida);
+                log.info("Reporte PDF de {} generado exitosamente", tipoReporte);
+            } catch (IOException e) {
+                log.error("Error al generar PDF de {}: {}", tipoReporte, e.getMessage(), e);
+                throw e;
+            }
+        };
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentDispositionFormData("attachment", PdfGeneratorUtil.generarNombreArchivo(tipoReporte));
+
+        return new ResponseEntity<>(cuerpo, headers, HttpStatus.OK);
+    }
+
+    // ========================================
+    // RESUMEN DIARIO DE VENTAS
+    // ========================================
+
+    /**
+     * Recalcula el resumen diario desde la tabla de ventas
+     * (por defecto, los últimos 30 días)
+     *
+     * URL: POST /admin/reportes/resumen-diario/reconstruir
+     */
+    @PostMapping("/resumen-diario/reconstruir")
+    public String reconstruirResumenDiario(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            RedirectAttributes redirectAttributes) {
+
+        LocalDate fin = hasta != null ? hasta : TimeWindow.hoy();
+        LocalDate inicio = desde != null ? desde : fin.minusDays(30);
+
+        try {
+            int dias = salesSummaryService.reconstruir(inicio, fin);
+            redirectAttributes.addFlashAttribute("success",
+                    "Resumen diario reconstruido: " + dias + " días con ventas");
+        } catch (Exception e) {
+            log.error("Error al reconstruir resumen diario: {}", e.getMessage(), e);
+            redirectAttributes.addFlashAttribute("error", "Error al reconstruir el resumen: " + e.getMessage());
+        }
+        return "redirect:/admin/reportes";
+    }
 }
 
 /**
@@ -0,0 +1,203 @@
+package com.miempresa.ecommerce.controllers.admin;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import com.miempresa.ecommerce.models.ReportJob;
+import com.miempresa.ecommerce.models.ReportSpec;
+import com.miempresa.ecommerce.models.enums.EstadoTrabajoReporte;
+import com.miempresa.ecommerce.models.enums.FormatoReporte;
+import com.miempresa.ecommerce.models.enums.TipoReporte;
+import com.miempresa.ecommerce.services.ReportJobService;
+import com.miempresa.ecommerce.utils.TimeWindow;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * CONTROLLER: REPORTES EN SEGUNDO PLANO
+ *
+ * Solicitud, estado y descarga de reportes generados por ReportJobService.
+ *
+ * 1. POST /admin/reportes/trabajos            → { id, estado }
+ * 2. GET  /admin/reportes/trabajos/{id}       → estado (consultar hasta COMPLETADO)
+ * 3. GET  /admin/reportes/trabajos/{id}/descarga → archivo
+ */
+
+@Controller
+@RequestMapping("/admin/reportes/trabajos")
+@RequiredArgsConstructor
+@Slf4j
+public class ReportJobController {
+
+    // Atributos de Tomcat para enviar el archivo con sendfile (sin copiarlo a la JVM)
+    private static final String SENDFILE_SOPORTADO = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_ARCHIVO = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_INICIO = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_FIN = "org.apache.tomcat.sendfile.end";
+
+    private final ReportJobService reportJobService;
+
+    // ========================================
+    // SOLICITUD Y ESTADO
+    // ========================================
+
+    @PostMapping
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> solicitar(
+            @RequestParam TipoReporte tipo,
+            @RequestParam FormatoReporte formato,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin,
+            @RequestParam(required = false) String periodo,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        try {
+            ReportSpec spec = ReportSpec.de(tipo, formato, fechaInicio, fechaFin, periodo);
+            ReportJob trabajo = reportJobService.solicitar(spec, userDetails.getUsername());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("data", aMapa(trabajo));
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+
+        } catch (Exception e) {
+            log.warn("Solicitud de reporte rechazada: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(crearErrorResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> listar(@AuthenticationPrincipal UserDetails userDetails) {
+        List<Map<String, Object>> lista = reportJobService.listar(userDetails.getUsername()).stream()
+                .map(this::aMapa)
+                .toList();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", lista);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{id}")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> estado(@PathVariable String id,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            ReportJob trabajo = reportJobService.obtener(id, userDetails.getUsername());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("data", aMapa(trabajo));
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(crearErrorResponse(e.getMessage()));
+        }
+    }
+
+    // ========================================
+    // DESCARGA
+    // ========================================
+
+    /**
+     * Envía el archivo generado. Si el conector lo permite se usa sendfile
+     * (el kernel copia del disco al socket); si no, FileChannel.transferTo
+     * hacia la salida de la respuesta.
+     */
+    @GetMapping("/{id}/descarga")
+    public void descargar(@PathVariable String id, @AuthenticationPrincipal UserDetails userDetails,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+        ReportJob trabajo;
+        try {
+            trabajo = reportJobService.obtener(id, userDetails.getUsername());
+        } catch (RuntimeException e) {
+            response.sendError(HttpStatus.NOT_FOUND.value(), e.getMessage());
+            return;
+        }
+
+        if (trabajo.getEstado() != EstadoTrabajoReporte.COMPLETADO) {
+            response.sendError(HttpStatus.CONFLICT.value(), "El reporte aún no está listo");
+            return;
+        }
+
+        try (FileChannel archivo = FileChannel.open(trabajo.getArchivo(), StandardOpenOption.READ)) {
+            long tamanio = archivo.size();
+
+            response.setContentType(trabajo.getSpec().formato().getContentType());
+            response.setContentLengthLong(tamanio);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"" + trabajo.getNombreArchivo() + "\"");
+
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SOPORTADO))) {
+                request.setAttribute(SENDFILE_ARCHIVO, trabajo.getArchivo().toString());
+                request.setAttribute(SENDFILE_INICIO, 0L);
+                request.setAttribute(SENDFILE_FIN, tamanio);
+                return;
+            }
+
+            WritableByteChannel salida = Channels.newChannel(response.getOutputStream());
+            long enviado = 0;
+            while (enviado < tamanio) {
+                enviado += archivo.transferTo(enviado, tamanio - enviado, salida);
+            }
+            response.flushBuffer();
+        }
+    }
+
+    // ========================================
+    // UTILIDADES
+    // ========================================
+
+    private Map<String, Object> aMapa(ReportJob trabajo) {
+        Map<String, Object> datos = new LinkedHashMap<>();
+        datos.put("id", trabajo.getId());
+        datos.put("tipo", trabajo.getSpec().tipo());
+        datos.put("formato", trabajo.getSpec().formato());
+        TimeWindow ventana = trabajo.getSpec().ventana();
+        datos.put("fechaInicio", ventana != null ? ventana.inicio() : null);
+        datos.put("fechaFin", ventana != null ? ventana.ultimoInstante() : null);
+        datos.put("estado", trabajo.getEstado());
+        datos.put("fechaSolicitud", trabajo.getFechaSolicitud());
+        datos.put("fechaTermino", trabajo.getFechaFin());
+        datos.put("tamanio", trabajo.getTamanio());
+        datos.put("error", trabajo.getError());
+        if (trabajo.getEstado() == EstadoTrabajoReporte.COMPLETADO) {
+            datos.put("urlDescarga", "/admin/reportes/trabajos/" + trabajo.getId() + "/descarga");
+        }
+        return datos;
+    }
+
+    private Map<String, Object> crearErrorResponse(String mensaje) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("error", mensaje);
+        return response;
+    }
+}
@@ -1,11 +1,18 @@
 package com.miempresa.ecommerce.controllers.admin;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders; // <<--- AÑADIDO
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType; // <<--- AÑADIDO
@@ -17,11 +24,13 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import com.fasterxml.jackson.annotation.JsonAlias;
-import com.miempresa.ecommerce.config.EmpresaConfig; // <<--- AÑADIDO
+import com.miempresa.ecommerce.config.EmpresaConfig;
 import com.miempresa.ecommerce.controllers.admin.SaleController.PagoRequest;
 import com.miempresa.ecommerce.controllers.admin.SaleController.VentaProducto;
 import com.miempresa.ecommerce.models.Customer;
@@ -33,11 +42,12 @@ import com.miempresa.ecommerce.models.User;
 import com.miempresa.ecommerce.models.enums.MetodoPago;
 import com.miempresa.ecommerce.models.enums.TipoPago;
 import com.miempresa.ecommerce.security.SecurityUtils;
+import com.miempresa.ecommerce.services.BoletaService;
 import com.miempresa.ecommerce.services.CustomerService;
 import com.miempresa.ecommerce.services.ProductService;
 import com.miempresa.ecommerce.services.SaleService;
 import com.miempresa.ecommerce.services.UserService;
-import com.miempresa.ecommerce.utils.PdfGeneratorUtil; // <<--- AÑADIDO
+import com.miempresa.ecommerce.utils.TicketEscPosUtil;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -54,11 +64,14 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class SaleController {
 
+    private static final DateTimeFormatter LOTE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
     private final SaleService saleService;
     private final ProductService productService;
     private final CustomerService customerService;
     private final UserService userService;
-    private final EmpresaConfig empresaConfig; // <<--- AÑADIDO (Asegúrate de que esté inyectado)
+    private final BoletaService boletaService;
+    private final EmpresaConfig empresaConfig;
 
     // ========================================
     // LISTAR VENTAS
@@ -366,6 +379,10 @@ public class SaleController {
             List<SaleDetail> detalles = new ArrayList<>();
             BigDecimal subtotalCalculado = BigDecimal.ZERO;
 
+            // Todos los productos de la venta en una consulta
+            Map<Long, Product> productos = productService.buscarPorIds(
+                    request.getProductos().stream().map(VentaProducto::getId).toList());
+
             for (VentaProducto productoReq : request.getProductos()) {
                 if (productoReq.getId() == null) {
                     response.put("success", false);
@@ -379,8 +396,10 @@ public class SaleController {
                     return ResponseEntity.badRequest().body(response);
                 }
 
-                Product producto = productService.buscarPorId(productoReq.getId())
-                        .orElseThrow(() -> new RuntimeException("Producto no encontrado: ID " + productoReq.getId()));
+                Product producto = productos.get(productoReq.getId());
+                if (producto == null) {
+                    throw new RuntimeException("Producto no encontrado: ID " + productoReq.getId());
+                }
 
                 if (!producto.hayStock() || producto.getStockActual() < productoReq.getCantidad()) {
                     response.put("success", false);
@@ -600,27 +619,25 @@ public class SaleController {
     // ========================================
     // IMPRIMIR BOLETA
     // ========================================
+    /**
+     * Sirve la boleta guardada en disco (se genera una sola vez por venta).
+     * no-cache + ETag: el navegador siempre revalida (una venta anulada
+     * cambia su boleta) y, si no cambió, recibe 304 sin contenido.
+     */
     @GetMapping("/imprimir/{id}")
-    public ResponseEntity<byte[]> imprimirBoleta(@PathVariable Long id) {
+    public ResponseEntity<Resource> imprimirBoleta(@PathVariable Long id) {
         log.info("Solicitud para imprimir boleta de venta ID: {}", id);
         try {
-            Sale venta = saleService.buscarPorId(id)
-                    .orElseThrow(() -> new RuntimeException("Venta no encontrada con ID: " + id));
-
-            byte[] pdfBytes = PdfGeneratorUtil.generateBoletaPdf(
-                    venta,
-                    empresaConfig.getNombre(),
-                    empresaConfig.getRuc(),
-                    empresaConfig.getDireccion());
+            BoletaService.Boleta boleta = boletaService.obtener(id);
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_PDF);
-            String filename = "Boleta-" + venta.getNumeroVenta() + ".pdf";
+            String filename = "Boleta-" + boleta.numeroVenta() + ".pdf";
             headers.setContentDispositionFormData("inline", filename); // inline para ver en navegador
-            headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
+            headers.setCacheControl(CacheControl.noCache().cachePrivate());
+            headers.setETag(boleta.etag());
 
-            log.info("Boleta PDF generada para venta {}, enviando respuesta.", venta.getNumeroVenta());
-            return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
+            return new ResponseEntity<>(new FileSystemResource(boleta.archivo()), headers, HttpStatus.OK);
 
         } catch (RuntimeException re) {
             log.error("Error al buscar venta para imprimir PDF (ID {}): {}", id, re.getMessage());
@@ -631,4 +648,86 @@ public class SaleController {
         }
     }
 
+    // ========================================
+    // IMPRIMIR BOLETAS EN LOTE
+    // ========================================
+    /**
+     * Varias boletas en un solo PDF, enviado a medida que se genera.
+     *
+     * ids=1,2,3                    → esas ventas, en ese orden
+     * fechaInicio=...&fechaFin=... → ventas completadas del rango (ISO, ej. 2025-01-15T00:00:00)
+     */
+    @GetMapping("/imprimir/lote")
+    public ResponseEntity<StreamingResponseBody> imprimirLote(
+            @RequestParam(required = false) List<Long> ids,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin) {
+
+        List<Long> lote;
+        try {
+            if (ids != null && !ids.isEmpty()) {
+                lote = boletaService.validarLote(ids);
+            } else if (fechaInicio != null && fechaFin != null && !fechaFin.isBefore(fechaInicio)) {
+                lote = boletaService.idsParaLote(fechaInicio, fechaFin);
+            } else {
+                throw new RuntimeException("Indique los IDs de venta o un rango de fechas válido");
+            }
+        } catch (RuntimeException re) {
+            log.warn("Impresión en lote rechazada: {}", re.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+
+        log.info("Imprimiendo lote de {} boletas", lote.size());
+
+        StreamingResponseBody cuerpo = salida -> boletaService.escribirLote(lote, salida);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentDispositionFormData("inline",
+                "Boletas-" + LocalDateTime.now().format(LOTE_FORMAT) + ".pdf");
+        return new ResponseEntity<>(cuerpo, headers, HttpStatus.OK);
+    }
+
+    // ========================================
+    // IMPRIMIR TICKET (IMPRESORA TÉRMICA)
+    // ========================================
+    /**
+     * Comprobante compacto para impresoras térmicas del POS, sin PDF.
+     *
+     * formato=texto  → texto plano de ancho fijo (vista previa / impresión desde el navegador)
+     * formato=escpos → bytes ESC/POS para enviar directo a la impresora
+     * columnas       → caracteres por línea (32 para 58 mm, 42 o 48 para 80 mm)
+     */
+    @GetMapping("/ticket/{id}")
+    public ResponseEntity<byte[]> imprimirTicket(@PathVariable Long id,
+            @RequestParam(defaultValue = "texto") String formato,
+            @RequestParam(defaultValue = "42") int columnas) {
+        log.info("Solicitud de ticket ({}) para venta ID: {}", formato, id);
+        try {
+            Sale venta = saleService.buscarPorId(id)
+                    .orElseThrow(() -> new RuntimeException("Venta no encontrada con ID: " + id));
+
+            HttpHeaders headers = new HttpHeaders();
+            byte[] contenido;
+
+            if ("escpos".equalsIgnoreCase(formato)) {
+                contenido = TicketEscPosUtil.generarTicketEscPos(venta, empresaConfig.getNombre(),
+                        empresaConfig.getRuc(), empresaConfig.getDireccion(), columnas);
+                headers.setContentType(MediaType.parseMediaType(TicketEscPosUtil.CONTENT_TYPE_ESCPOS));
+                headers.setContentDispositionFormData("attachment", "Ticket-" + venta.getNumeroVenta() + ".bin");
+            } else {
+                contenido = TicketEscPosUtil.generarTicketTexto(venta, empresaConfig.getNombre(),
+                        empresaConfig.getRuc(), empresaConfig.getDireccion(), columnas)
+                        .getBytes(StandardCharsets.UTF_8);
+                headers.setContentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8));
+            }
+
+            headers.setContentLength(contenido.length);
+            return new ResponseEntity<>(contenido, headers, HttpStatus.OK);
+
+        } catch (RuntimeException re) {
+            log.error("Error al generar ticket de venta ID {}: {}", id, re.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package com.miempresa.ecommerce.controllers.api;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -25,8 +26,10 @@ import com.miempresa.ecommerce.models.User;
 import com.miempresa.ecommerce.models.enums.MotivoMovimiento;
 import com.miempresa.ecommerce.models.enums.TipoMovimiento;
 import com.miempresa.ecommerce.services.InventoryMovementService;
+import com.miempresa.ecommerce.services.InventorySnapshotService;
 import com.miempresa.ecommerce.services.ProductService;
 import com.miempresa.ecommerce.services.UserService;
+import com.miempresa.ecommerce.utils.TimeWindow;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -44,6 +47,7 @@ import lombok.extern.slf4j.Slf4j;
 public class InventoryRestController {
 
     private final InventoryMovementService inventoryMovementService;
+    private final InventorySnapshotService inventorySnapshotService;
     private final ProductService productService;
     private final UserService userService;
 
@@ -493,6 +497,77 @@ public class InventoryRestController {
         }
     }
 
+    // ========================================
+    // STOCK A UNA FECHA
+    // ========================================
+
+    /**
+     * GET /api/inventario/valorizacion
+     * Inventario valorizado al cierre de un día (por defecto, hoy)
+     *
+     * Params: fecha (formato: yyyy-MM-dd)
+     */
+    @GetMapping("/valorizacion")
+    public ResponseEntity<Map<String, Object>> obtenerValorizacion(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha) {
+        try {
+            LocalDate dia = fecha != null ? fecha : TimeWindow.hoy();
+            InventorySnapshotService.Valorizacion valorizacion = inventorySnapshotService
+                    .valorizar(TimeWindow.dia(dia).fin());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("data", valorizacion.productos());
+            response.put("total", valorizacion.productos().size());
+            response.put("unidades", valorizacion.unidades());
+            response.put("valorTotal", valorizacion.total());
+            response.put("fecha", dia);
+
+            return ResponseEntity.ok(response);
+
+        } catch (RuntimeException e) {
+            log.error("Error al valorizar inventario: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(crearErrorResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /api/inventario/kardex/{productoId}
+     * Movimientos de un producto con saldo inicial y final (por defecto, el mes actual)
+     *
+     * Params: fechaInicio, fechaFin (formato: yyyy-MM-dd, ambos días incluidos)
+     */
+    @GetMapping("/kardex/{productoId}")
+    public ResponseEntity<Map<String, Object>> obtenerKardex(
+            @PathVariable Long productoId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin) {
+        try {
+            TimeWindow mes = TimeWindow.mesActual();
+            LocalDateTime desde = fechaInicio != null ? fechaInicio.atStartOfDay() : mes.inicio();
+            LocalDateTime hasta = fechaFin != null ? TimeWindow.dia(fechaFin).fin() : mes.fin();
+            InventorySnapshotService.Kardex kardex = inventorySnapshotService.obtenerKardex(productoId, desde, hasta);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("data", kardex.movimientos());
+            response.put("total", kardex.movimientos().size());
+            response.put("productoId", productoId);
+            response.put("saldoInicial", kardex.saldoInicial());
+            response.put("saldoFinal", kardex.saldoFinal());
+            response.put("fechaInicio", desde);
+            response.put("fechaFin", hasta);
+
+            return ResponseEntity.ok(response);
+
+        } catch (RuntimeException e) {
+            log.error("Error al obtener kardex: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(crearErrorResponse(e.getMessage()));
+        }
+    }
+
     // ========================================
     // ESTADÍSTICAS
     // ========================================
@@ -507,8 +582,8 @@ public class InventoryRestController {
             long totalMovimientos = inventoryMovementService.obtenerTodos().size();
             long totalEntradas = inventoryMovementService.contarPorTipo(TipoMovimiento.ENTRADA);
             long totalSalidas = inventoryMovementService.contarPorTipo(TipoMovimiento.SALIDA);
-            int productosStockBajo = productService.obtenerProductosStockBajo().size();
-            int productosSinStock = productService.obtenerProductosSinStock().size();
+            long productosStockBajo = productService.contarProductosStockBajo();
+            long productosSinStock = productService.contarProductosSinStock();
 
             Map<String, Object> estadisticas = new HashMap<>();
             estadisticas.put("totalMovimientos", totalMovimientos);
@@ -19,8 +19,10 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.miempresa.ecommerce.models.KeysetPage;
 import com.miempresa.ecommerce.models.Product;
 import com.miempresa.ecommerce.models.ProductImage;
+import com.miempresa.ecommerce.models.enums.OrdenProducto;
 import com.miempresa.ecommerce.services.ProductService;
 
 import lombok.RequiredArgsConstructor;
@@ -45,24 +47,33 @@ public class ProductRestController {
     // ========================================
 
     /**
-     * GET /api/productos
-     * Obtiene todos los productos activos
+     * GET /api/productos?activos=true&orden=NOMBRE&tamanio=50&cursor=...
+     * Obtiene una página de productos. Para la siguiente página se envía
+     * el "siguienteCursor" de la respuesta (null en la última página).
      */
     @GetMapping
     public ResponseEntity<Map<String, Object>> obtenerTodos(
-            @RequestParam(required = false) Boolean activos) {
+            @RequestParam(required = false) Boolean activos,
+            @RequestParam(required = false) OrdenProducto orden,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamanio) {
         try {
-            List<Product> productos = activos != null && activos
-                    ? productService.obtenerActivos()
-                    : productService.obtenerTodos();
+            KeysetPage<Product> pagina = productService.paginar(orden, cursor, tamanio,
+                    activos != null && activos, null);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("data", productos);
-            response.put("total", productos.size());
+            response.put("data", pagina.getContenido());
+            response.put("total", pagina.getTamanio());
+            response.put("siguienteCursor", pagina.getSiguienteCursor());
 
             return ResponseEntity.ok(response);
 
+        } catch (RuntimeException e) {
+            log.error("Error al obtener productos: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(crearErrorResponse(e.getMessage()));
+
         } catch (Exception e) {
             log.error("Error al obtener productos: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -31,6 +31,7 @@ import com.miempresa.ecommerce.models.enums.TipoPago;
 import com.miempresa.ecommerce.services.CreditService;
 import com.miempresa.ecommerce.services.SaleService;
 import com.miempresa.ecommerce.services.UserService;
+import com.miempresa.ecommerce.utils.TimeWindow;
 
 // <<--- IMPORTAR DTOs INTERNOS SI LOS MOVIERON A CLASES SEPARADAS --->>>
 // import com.miempresa.ecommerce.controllers.admin.SaleController.PagoRequest;
@@ -179,16 +180,10 @@ public class SaleRestController {
             @RequestParam(required = false) String periodo) {
         try {
             List<Sale> ventas;
-            LocalDateTime now = LocalDateTime.now();
-            LocalDateTime startOfDay = now.toLocalDate().atStartOfDay();
-            LocalDateTime startOfMonth = now.withDayOfMonth(1).toLocalDate().atStartOfDay();
-
-            if ("dia".equalsIgnoreCase(periodo)) {
-                log.info("API: Obteniendo ventas del día {}", now.toLocalDate());
-                ventas = saleService.buscarPorFechas(startOfDay, now); // Usar buscarPorFechas
-            } else if ("mes".equalsIgnoreCase(periodo)) {
-                log.info("API: Obteniendo ventas del mes {}", now.getMonth());
-                ventas = saleService.buscarPorFechas(startOfMonth, now); // Usar buscarPorFechas
+            if ("dia".equalsIgnoreCase(periodo) || "mes".equalsIgnoreCase(periodo)) {
+                TimeWindow ventana = TimeWindow.periodo(periodo);
+                log.info("API: Obteniendo ventas del {} [{} - {})", periodo, ventana.inicio(), ventana.fin());
+                ventas = saleService.buscarPorFechas(ventana.inicio(), ventana.ultimoInstante());
             } else {
                 log.info("API: Obteniendo todas las ventas");
                 ventas = saleService.obtenerTodas();
@@ -343,19 +338,18 @@ public class SaleRestController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin) {
         try {
-            LocalDateTime now = LocalDateTime.now();
             // Si no se especifican fechas, usar el mes actual por defecto
             if (fechaInicio == null) {
-                fechaInicio = now.withDayOfMonth(1).toLocalDate().atStartOfDay();
+                fechaInicio = TimeWindow.mesActual().inicio();
             }
             if (fechaFin == null) {
-                fechaFin = now; // Hasta el momento actual
+                fechaFin = TimeWindow.ahora(); // Hasta el momento actual
             }
             log.info("API: Calculando estadísticas de ventas entre {} y {}", fechaInicio, fechaFin);
 
-            List<Sale> ventas = saleService.buscarPorFechas(fechaInicio, fechaFin);
+            // Total y cantidad salen del resumen diario: no se cargan las ventas
             BigDecimal totalVentas = saleService.calcularTotalVentasPorFecha(fechaInicio, fechaFin);
-            int cantidadVentas = ventas.size();
+            long cantidadVentas = saleService.contarVentasPorFecha(fechaInicio, fechaFin);
             BigDecimal promedioVenta = cantidadVentas > 0
                     ? totalVentas.divide(BigDecimal.valueOf(cantidadVentas), 2, java.math.RoundingMode.HALF_UP)
                     : BigDecimal.ZERO;
@@ -442,6 +436,7 @@ public class SaleRestController {
             throw new IllegalArgumentException("El objeto 'detalles' debe ser una lista JSON.");
         List<?> detallesList = (List<?>) detallesObj;
         List<SaleDetail> detallesResult = new ArrayList<>();
+        List<Long> productoIds = new ArrayList<>();
 
         for (Object itemObj : detallesList) {
             if (!(itemObj instanceof Map))
@@ -460,26 +455,36 @@ public class SaleRestController {
                 throw new IllegalArgumentException(
                         "La cantidad para el producto ID " + productoId + " debe ser mayor a cero.");
 
-            // Buscar producto
-            Product producto = productService.buscarPorId(productoId)
-                    .orElseThrow(
-                            () -> new IllegalArgumentException("Producto con ID " + productoId + " no encontrado."));
-
-            // Podrías permitir que el precio venga en el request o usar el actual del
-            // producto
-            BigDecimal precioUnitario = producto.getPrecioActual(); // Usar precio actual como default
+            // El producto se resuelve después, junto con el de las demás líneas
+            BigDecimal precioUnitario = null;
             if (itemMap.containsKey("precioUnitario")) { // Permitir override desde API
                 precioUnitario = new BigDecimal(itemMap.get("precioUnitario").toString());
             }
 
             SaleDetail detalle = SaleDetail.builder()
-                    .producto(producto)
                     .cantidad(cantidad)
-                    .precioUnitario(precioUnitario) // Usar precio determinado
+                    .precioUnitario(precioUnitario)
                     // nombre, sku, subtotal se calcularán/establecerán en el servicio
                     .build();
+            productoIds.add(productoId);
             detallesResult.add(detalle);
         }
+
+        // Buscar todos los productos en una consulta
+        Map<Long, Product> productos = productService.buscarPorIds(productoIds);
+        for (int i = 0; i < detallesResult.size(); i++) {
+            Long productoId = productoIds.get(i);
+            Product producto = productos.get(productoId);
+            if (producto == null) {
+                throw new IllegalArgumentException("Producto con ID " + productoId + " no encontrado.");
+            }
+
+            SaleDetail detalle = detallesResult.get(i);
+            detalle.setProducto(producto);
+            if (detalle.getPrecioUnitario() == null) {
+                detalle.setPrecioUnitario(producto.getPrecioActual()); // Usar precio actual como default
+            }
+        }
         return detallesResult;
     }
 
@@ -2,6 +2,7 @@ package com.miempresa.ecommerce.controllers.web;
 
 import java.math.BigDecimal;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.http.ResponseEntity;
@@ -16,6 +17,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
 import com.miempresa.ecommerce.models.CartItem;
+import com.miempresa.ecommerce.models.ConfigurationSnapshot;
 import com.miempresa.ecommerce.models.Order;
 import com.miempresa.ecommerce.models.OrderDetail;
 import com.miempresa.ecommerce.models.Product;
@@ -213,15 +215,14 @@ public class CartController {
 
             // Solo calcular costo si es DELIVERY
             if (tipoEntregaEnum == TipoEntrega.DELIVERY) { // [cite: 242]
-                String costoEnvioStr;
+                ConfigurationSnapshot config = configurationService.obtenerSnapshot();
                 // Lógica simple: si la dirección NO contiene "lima", se asume provincia.
                 if (direccion != null && !direccion.trim().isEmpty() && !direccion.toLowerCase().contains("lima")) {
-                    costoEnvioStr = configurationService.obtenerValor("costo_envio_provincia", "25.00"); // [cite: 420]
+                    costoEnvio = config.getCostoEnvioProvincia(); // [cite: 420]
                 } else {
                     // Si es Lima o la dirección está vacía, se cobra Lima.
-                    costoEnvioStr = configurationService.obtenerValor("costo_envio_lima", "15.00"); // [cite: 420]
+                    costoEnvio = config.getCostoEnvioLima(); // [cite: 420]
                 }
-                costoEnvio = new BigDecimal(costoEnvioStr);
             }
 
             // --- FIN DE LA CORRECCIÓN ---
@@ -237,10 +238,16 @@ public class CartController {
                     .estado(EstadoPedido.PENDIENTE) // [cite: 233-234]
                     .build();
 
-            // Agregar detalles desde el carrito
-            for (CartItem item : cartService.obtenerItems()) {
-                Product producto = productService.buscarPorId(item.getProductoId())
-                        .orElseThrow(() -> new RuntimeException("Producto no encontrado"));
+            // Agregar detalles desde el carrito (productos en una consulta)
+            List<CartItem> items = cartService.obtenerItems();
+            Map<Long, Product> productos = productService.buscarPorIds(
+                    items.stream().map(CartItem::getProductoId).toList());
+
+            for (CartItem item : items) {
+                Product producto = productos.get(item.getProductoId());
+                if (producto == null) {
+                    throw new RuntimeException("Producto no encontrado");
+                }
 
                 OrderDetail detalle = OrderDetail.builder()
                         .producto(producto)
@@ -13,9 +13,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import com.miempresa.ecommerce.models.KeysetPage;
 import com.miempresa.ecommerce.models.Order;
 import com.miempresa.ecommerce.models.OrderDetail;
 import com.miempresa.ecommerce.models.Product;
+import com.miempresa.ecommerce.models.enums.OrdenProducto;
 import com.miempresa.ecommerce.services.CategoryService;
 import com.miempresa.ecommerce.services.ConfigurationService;
 import com.miempresa.ecommerce.services.CustomerService;
@@ -43,6 +45,8 @@ public class HomeController {
     private final OrderService orderService;
     private final ConfigurationService configurationService;
 
+    private static final int PRODUCTOS_POR_PAGINA = 24;
+
     // ========================================
     // PÁGINA PRINCIPAL
     // ========================================
@@ -69,19 +73,27 @@ public class HomeController {
     public String catalogo(
             @RequestParam(required = false) Long categoriaId,
             @RequestParam(required = false) String busqueda,
+            @RequestParam(required = false) OrdenProducto orden,
+            @RequestParam(required = false) String cursor,
             Model model) {
 
         List<Product> productos;
+        String siguienteCursor = null;
 
         if (busqueda != null && !busqueda.isEmpty()) {
             productos = productService.buscarPorNombre(busqueda);
-        } else if (categoriaId != null) {
-            productos = productService.buscarPorCategoria(categoriaId);
         } else {
-            productos = productService.obtenerActivos();
+            // Catálogo completo o por categoría: paginado por cursor
+            KeysetPage<Product> pagina = productService.paginar(orden, cursor,
+                    PRODUCTOS_POR_PAGINA, true, categoriaId);
+            productos = pagina.getContenido();
+            siguienteCursor = pagina.getSiguienteCursor();
         }
 
         model.addAttribute("productos", productos);
+        model.addAttribute("siguienteCursor", siguienteCursor);
+        model.addAttribute("orden", orden != null ? orden : OrdenProducto.RECIENTES);
+        model.addAttribute("ordenes", OrdenProducto.values());
         model.addAttribute("categorias", categoryService.obtenerActivas());
         model.addAttribute("categoriaSeleccionada", categoriaId);
         model.addAttribute("config", configurationService.obtenerTodasComoMapa());
@@ -153,11 +165,12 @@ public class HomeController {
         List<Map<String, Object>> items = new ArrayList<>();
         BigDecimal total = BigDecimal.ZERO;
 
+        Map<Long, Product> productos = productService.buscarPorIds(carrito.keySet());
+
         for (Map.Entry<Long, Integer> entry : carrito.entrySet()) {
-            var productoOpt = productService.buscarPorId(entry.getKey());
+            Product producto = productos.get(entry.getKey());
 
-            if (productoOpt.isPresent()) {
-                Product producto = productoOpt.get();
+            if (producto != null) {
                 Integer cantidad = entry.getValue();
                 BigDecimal subtotal = producto.getPrecioActual()
                         .multiply(BigDecimal.valueOf(cantidad));
@@ -221,9 +234,9 @@ public class HomeController {
 
             // Crear detalles
             List<OrderDetail> detalles = new ArrayList<>();
+            Map<Long, Product> productos = productService.obtenerPorIds(carrito.keySet());
             for (Map.Entry<Long, Integer> entry : carrito.entrySet()) {
-                var producto = productService.buscarPorId(entry.getKey())
-                        .orElseThrow(() -> new RuntimeException("Producto no encontrado"));
+                Product producto = productos.get(entry.getKey());
 
                 OrderDetail detalle = OrderDetail.builder()
                         .producto(producto)
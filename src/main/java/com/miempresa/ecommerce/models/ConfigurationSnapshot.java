@@ -0,0 +1,101 @@
+package com.miempresa.ecommerce.models;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Foto inmutable de la tabla 'configuraciones'.
+ * No se persiste en BD.
+ *
+ * ConfigurationService la reemplaza completa cuando se guarda una
+ * configuración; quien ya la tiene sigue viendo valores coherentes.
+ */
+@Slf4j
+public final class ConfigurationSnapshot {
+
+    private static final BigDecimal COSTO_ENVIO_LIMA = new BigDecimal("15.00");
+    private static final BigDecimal COSTO_ENVIO_PROVINCIA = new BigDecimal("25.00");
+    private static final BigDecimal ENVIO_GRATIS_DESDE = new BigDecimal("200.00");
+
+    private final long version;
+    private final Map<String, String> valores;
+
+    public ConfigurationSnapshot(long version, List<Configuration> configuraciones) {
+        Map<String, String> mapa = new HashMap<>();
+        for (Configuration config : configuraciones) {
+            mapa.put(config.getClave(), config.getValor());
+        }
+        this.version = version;
+        this.valores = Collections.unmodifiableMap(mapa);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Todas las configuraciones (solo lectura), para las vistas: ${config['clave']}
+     */
+    public Map<String, String> getValores() {
+        return valores;
+    }
+
+    public String getValor(String clave) {
+        return valores.get(clave);
+    }
+
+    public String getValor(String clave, String valorPorDefecto) {
+        String valor = valores.get(clave);
+        return valor != null ? valor : valorPorDefecto;
+    }
+
+    /**
+     * Valor DECIMAL; si falta o no es numérico se usa el valor por defecto
+     */
+    public BigDecimal getDecimal(String clave, BigDecimal valorPorDefecto) {
+        String valor = valores.get(clave);
+        if (valor == null || valor.isBlank()) {
+            return valorPorDefecto;
+        }
+        try {
+            return new BigDecimal(valor.trim());
+        } catch (NumberFormatException e) {
+            log.warn("Configuración '{}' no es un número válido: {}", clave, valor);
+            return valorPorDefecto;
+        }
+    }
+
+    /**
+     * Valor BOOLEAN ("true", "1", "si"); si falta se usa el valor por defecto
+     */
+    public boolean getBoolean(String clave, boolean valorPorDefecto) {
+        String valor = valores.get(clave);
+        if (valor == null || valor.isBlank()) {
+            return valorPorDefecto;
+        }
+        String normalizado = valor.trim().toLowerCase();
+        return normalizado.equals("true") || normalizado.equals("1") || normalizado.equals("si")
+                || normalizado.equals("sí");
+    }
+
+    // ========================================
+    // ENVÍOS
+    // ========================================
+
+    public BigDecimal getCostoEnvioLima() {
+        return getDecimal("costo_envio_lima", COSTO_ENVIO_LIMA);
+    }
+
+    public BigDecimal getCostoEnvioProvincia() {
+        return getDecimal("costo_envio_provincia", COSTO_ENVIO_PROVINCIA);
+    }
+
+    public BigDecimal getEnvioGratisDesde() {
+        return getDecimal("envio_gratis_desde", ENVIO_GRATIS_DESDE);
+    }
+}
@@ -20,7 +20,23 @@ import java.util.Optional;
 import org.springframework.transaction.annotation.Transactional;
 
 @Entity
-@Table(name = "creditos")
+// Planes de carga por caso de uso (se aplican desde CreditRepository)
+@NamedEntityGraphs({
+        @NamedEntityGraph(name = "Credit.listado", attributeNodes = {
+                @NamedAttributeNode("cliente"),
+                @NamedAttributeNode("venta") }),
+        @NamedEntityGraph(name = "Credit.detalle", attributeNodes = {
+                @NamedAttributeNode("cliente"),
+                @NamedAttributeNode("venta"),
+                @NamedAttributeNode("cuotas") })
+})
+// Índices de los filtros frecuentes (ver CreditRepository)
+@Table(name = "creditos", indexes = {
+        // créditos y deuda de un cliente
+        @Index(name = "idx_creditos_cliente_estado", columnList = "cliente_id, estado"),
+        // créditos activos ordenados por fecha
+        @Index(name = "idx_creditos_estado_fecha", columnList = "estado, fecha_creacion")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -37,7 +53,7 @@ public class Credit {
     @ToString.Exclude
     private Sale venta;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cliente_id", nullable = false)
     private Customer cliente;
 
@@ -1,5 +1,6 @@
 package com.miempresa.ecommerce.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.miempresa.ecommerce.models.enums.TipoDocumento;
 import jakarta.persistence.*;
 import lombok.*;
@@ -26,6 +27,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" }) // proxies LAZY serializables
 public class Customer {
 
     // ========================================
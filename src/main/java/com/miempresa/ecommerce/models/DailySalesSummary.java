@@ -0,0 +1,95 @@
+package com.miempresa.ecommerce.models;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.UpdateTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ENTIDAD: RESUMEN DIARIO DE VENTAS
+ * 
+ * Totales de las ventas COMPLETADAS de un día. SaleService la mantiene
+ * al crear y anular ventas, en la misma transacción.
+ * Los reportes por rango leen una fila por día en vez de cada venta.
+ */
+
+@Entity
+@Table(name = "ventas_resumen_diario")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailySalesSummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "fecha", nullable = false, unique = true)
+    private LocalDate fecha;
+
+    // ========================================
+    // TOTALES DEL DÍA
+    // ========================================
+
+    @Column(name = "cantidad_ventas", nullable = false)
+    @Builder.Default
+    private Long cantidadVentas = 0L;
+
+    @Column(name = "subtotal", nullable = false, precision = 12, scale = 2)
+    @Builder.Default
+    private BigDecimal subtotal = BigDecimal.ZERO;
+
+    @Column(name = "descuento", nullable = false, precision = 12, scale = 2)
+    @Builder.Default
+    private BigDecimal descuento = BigDecimal.ZERO;
+
+    @Column(name = "costo_envio", nullable = false, precision = 12, scale = 2)
+    @Builder.Default
+    private BigDecimal costoEnvio = BigDecimal.ZERO;
+
+    @Column(name = "igv", nullable = false, precision = 12, scale = 2)
+    @Builder.Default
+    private BigDecimal igv = BigDecimal.ZERO;
+
+    @Column(name = "total", nullable = false, precision = 12, scale = 2)
+    @Builder.Default
+    private BigDecimal total = BigDecimal.ZERO;
+
+    // ========================================
+    // POR TIPO DE PAGO
+    // ========================================
+
+    @Column(name = "cantidad_contado", nullable = false)
+    @Builder.Default
+    private Long cantidadContado = 0L;
+
+    @Column(name = "total_contado", nullable = false, precision = 12, scale = 2)
+    @Builder.Default
+    private BigDecimal totalContado = BigDecimal.ZERO;
+
+    @Column(name = "cantidad_credito", nullable = false)
+    @Builder.Default
+    private Long cantidadCredito = 0L;
+
+    @Column(name = "total_credito", nullable = false, precision = 12, scale = 2)
+    @Builder.Default
+    private BigDecimal totalCredito = BigDecimal.ZERO;
+
+    @UpdateTimestamp
+    @Column(name = "fecha_actualizacion")
+    private LocalDateTime fechaActualizacion;
+}
@@ -0,0 +1,29 @@
+package com.miempresa.ecommerce.models;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Datos del panel principal, cargados por DashboardService.
+ * No se persiste en BD.
+ *
+ * valores usa los mismos nombres que la vista (ventasDelDia, ...).
+ * Las tarjetas que fallaron o excedieron el tiempo quedan con su
+ * valor por defecto y se listan en fallidos.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardResumen {
+
+    private Map<String, Object> valores;
+    private List<String> fallidos;
+
+    public boolean esParcial() {
+        return this.fallidos != null && !this.fallidos.isEmpty();
+    }
+}
@@ -0,0 +1,54 @@
+package com.miempresa.ecommerce.models;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.UpdateTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ENTIDAD: CONTADOR DE DOCUMENTOS
+ * 
+ * Último correlativo repartido por prefijo y año (ej: VEN 2025).
+ * Los nodos toman bloques de números de aquí y los asignan en memoria,
+ * así que 'ultimoAsignado' es el tope del último bloque entregado,
+ * no necesariamente el último número usado.
+ */
+
+@Entity
+@Table(name = "contadores_documento", uniqueConstraints = @UniqueConstraint(name = "uk_contador_prefijo_anio", columnNames = {
+        "prefijo", "anio" }))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentCounter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "prefijo", nullable = false, length = 10)
+    private String prefijo;
+
+    @Column(name = "anio", nullable = false)
+    private Integer anio;
+
+    @Column(name = "ultimo_asignado", nullable = false)
+    private Long ultimoAsignado;
+
+    @UpdateTimestamp
+    @Column(name = "fecha_actualizacion")
+    private LocalDateTime fechaActualizacion;
+}
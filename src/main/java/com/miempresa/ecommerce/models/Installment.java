@@ -10,15 +10,23 @@ import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 
 @Entity
-@Table(name = "cuotas")
+// Índices de los filtros frecuentes (ver InstallmentRepository)
+@Table(name = "cuotas", indexes = {
+        // cuotas vencidas y próximas a vencer
+        @Index(name = "idx_cuotas_vencimiento_pendiente", columnList = "fecha_vencimiento, monto_pendiente"),
+        // cronograma de un crédito
+        @Index(name = "idx_cuotas_credito_numero", columnList = "credito_id, numero_cuota")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Installment {
 
+    // Secuencia por bloques: las cuotas de un crédito se insertan en lote
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cuotas_seq")
+    @SequenceGenerator(name = "cuotas_seq", sequenceName = "cuotas_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -20,7 +20,17 @@ import java.time.LocalDateTime;
  */
 
 @Entity
-@Table(name = "movimientos_inventario")
+// Plan de carga del listado de movimientos (ver InventoryMovementRepository)
+@NamedEntityGraph(name = "InventoryMovement.listado", attributeNodes = {
+        @NamedAttributeNode("producto"),
+        @NamedAttributeNode("usuario") })
+// Índices de los filtros frecuentes (ver InventoryMovementRepository)
+@Table(name = "movimientos_inventario", indexes = {
+        // kardex de un producto
+        @Index(name = "idx_movimientos_producto_fecha", columnList = "producto_id, fecha_movimiento"),
+        // movimientos por rango y exportación
+        @Index(name = "idx_movimientos_fecha", columnList = "fecha_movimiento")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -31,8 +41,10 @@ public class InventoryMovement {
     // CLAVE PRIMARIA
     // ========================================
 
+    // Secuencia por bloques: los movimientos de una venta se insertan en lote
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movimientos_inventario_seq")
+    @SequenceGenerator(name = "movimientos_inventario_seq", sequenceName = "movimientos_inventario_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -43,14 +55,14 @@ public class InventoryMovement {
     /**
      * Producto afectado por el movimiento
      */
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "producto_id", nullable = false)
     private Product producto;
 
     /**
      * Usuario que registró el movimiento
      */
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "usuario_id", nullable = false)
     private User usuario;
 
@@ -0,0 +1,75 @@
+package com.miempresa.ecommerce.models;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * ENTIDAD: CORTE DE INVENTARIO
+ *
+ * Stock de un producto en un instante de corte (por defecto, cada
+ * medianoche). Un corte guarda una fila por producto existente.
+ *
+ * El stock a una fecha pasada se obtiene del corte más cercano más los
+ * movimientos entre el corte y la fecha, sin recorrer todo el historial
+ * de 'movimientos_inventario' (ver InventorySnapshotService).
+ */
+
+@Entity
+@Table(name = "inventario_cortes", uniqueConstraints = {
+        // Un corte se lee completo por su fecha
+        @UniqueConstraint(name = "uk_cortes_fecha_producto", columnNames = { "fecha_corte", "producto_id" })
+}, indexes = {
+        // Corte más cercano de un producto (kardex)
+        @Index(name = "idx_cortes_producto_fecha", columnList = "producto_id, fecha_corte")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventorySnapshot {
+
+    // Secuencia por bloques: las filas de un corte se insertan en lote
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventario_cortes_seq")
+    @SequenceGenerator(name = "inventario_cortes_seq", sequenceName = "inventario_cortes_seq", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "producto_id", nullable = false)
+    @ToString.Exclude
+    private Product producto;
+
+    /**
+     * Instante del corte: incluye los movimientos anteriores a él
+     */
+    @Column(name = "fecha_corte", nullable = false)
+    private LocalDateTime fechaCorte;
+
+    @Column(name = "stock", nullable = false)
+    private Integer stock;
+
+    /**
+     * Precio base vigente al generar el corte (para valorizar)
+     */
+    @Column(name = "precio_unitario", nullable = false, precision = 10, scale = 2)
+    private BigDecimal precioUnitario;
+}
@@ -0,0 +1,31 @@
+package com.miempresa.ecommerce.models;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Página de resultados obtenida por cursor (keyset).
+ * No se persiste en BD.
+ *
+ * siguienteCursor es opaco: se devuelve tal cual en la siguiente petición.
+ * Es null cuando no hay más resultados.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetPage<T> {
+
+    private List<T> contenido;
+    private String siguienteCursor;
+
+    public boolean haySiguiente() {
+        return this.siguienteCursor != null;
+    }
+
+    public int getTamanio() {
+        return this.contenido != null ? this.contenido.size() : 0;
+    }
+}
@@ -14,7 +14,15 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "pedidos")
+// Plan de carga del listado de pedidos (ver OrderRepository)
+@NamedEntityGraph(name = "Order.listado", attributeNodes = @NamedAttributeNode("cliente"))
+// Índices de los filtros frecuentes (ver OrderRepository)
+@Table(name = "pedidos", indexes = {
+        // pedidos por estado (pendientes primero por fecha)
+        @Index(name = "idx_pedidos_estado_fecha", columnList = "estado, fecha_pedido"),
+        // listados ordenados por fecha
+        @Index(name = "idx_pedidos_fecha", columnList = "fecha_pedido")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -29,7 +37,7 @@ public class Order {
     @Column(name = "numero_pedido", nullable = false, unique = true, length = 20)
     private String numeroPedido;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cliente_id", nullable = false)
     private Customer cliente;
 
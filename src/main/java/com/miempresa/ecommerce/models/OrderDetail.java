@@ -14,8 +14,10 @@ import java.math.BigDecimal;
 @Builder
 public class OrderDetail {
 
+    // Secuencia por bloques: las líneas de un pedido se insertan en lote
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pedido_detalles_seq")
+    @SequenceGenerator(name = "pedido_detalles_seq", sequenceName = "pedido_detalles_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -26,7 +28,7 @@ public class OrderDetail {
     @ToString.Exclude
     private Order pedido;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "producto_id", nullable = false)
     private Product producto;
 
@@ -19,8 +19,10 @@ import java.util.List;
 @Builder
 public class Payment {
 
+    // Secuencia por bloques: los pagos se insertan en lote con la venta
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pagos_seq")
+    @SequenceGenerator(name = "pagos_seq", sequenceName = "pagos_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -34,7 +36,7 @@ public class Payment {
     @ToString.Exclude
     private Credit credito;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "usuario_id", nullable = false)
     private User usuario;
 
@@ -14,8 +14,10 @@ import java.math.BigDecimal;
 @Builder
 public class PaymentInstallment {
 
+    // Secuencia por bloques: un pago que cubre varias cuotas se inserta en lote
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pago_cuota_seq")
+    @SequenceGenerator(name = "pago_cuota_seq", sequenceName = "pago_cuota_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
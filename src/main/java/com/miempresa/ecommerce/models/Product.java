@@ -1,10 +1,14 @@
 package com.miempresa.ecommerce.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonManagedReference; // Importar
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Generated;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.generator.EventType;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -12,11 +16,26 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "productos")
+// Plan de carga de los listados de productos (ver ProductRepository)
+@NamedEntityGraph(name = "Product.catalogo", attributeNodes = {
+        @NamedAttributeNode("categoria"),
+        @NamedAttributeNode("marca") })
+// Índices de los filtros frecuentes (ver ProductRepository)
+@Table(name = "productos", indexes = {
+        // catálogo activo por categoría
+        @Index(name = "idx_productos_activo_categoria", columnList = "activo, categoria_id"),
+        // paginación por cursor: una por orden, con y sin categoría
+        @Index(name = "idx_productos_activo_id", columnList = "activo, id"),
+        @Index(name = "idx_productos_activo_nombre", columnList = "activo, nombre, id"),
+        @Index(name = "idx_productos_activo_precio", columnList = "activo, precio_vigente, id"),
+        @Index(name = "idx_productos_activo_categoria_nombre", columnList = "activo, categoria_id, nombre, id"),
+        @Index(name = "idx_productos_activo_categoria_precio", columnList = "activo, categoria_id, precio_vigente, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" }) // proxies LAZY serializables
 public class Product {
 
     @Id
@@ -39,17 +58,31 @@ public class Product {
     @Column(name = "precio_oferta", precision = 10, scale = 2)
     private BigDecimal precioOferta;
 
+    // Precio que ve el cliente (getPrecioActual), calculado por la base de
+    // datos para que el orden por precio del catálogo tenga índice
+    @Column(name = "precio_vigente", precision = 10, scale = 2, insertable = false, updatable = false,
+            columnDefinition = "DECIMAL(10,2) GENERATED ALWAYS AS "
+                    + "(CASE WHEN precio_oferta > 0 THEN precio_oferta ELSE precio_base END)")
+    @Generated(event = { EventType.INSERT, EventType.UPDATE })
+    private BigDecimal precioVigente;
+
     @Column(name = "stock_actual", nullable = false)
     private Integer stockActual = 0;
 
+    // Unidades apartadas por pedidos web pendientes (ver StockReservation)
+    @Column(name = "stock_reservado", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer stockReservado = 0;
+
     @Column(name = "stock_minimo", nullable = false)
     private Integer stockMinimo = 5;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "categoria_id", nullable = false)
     private Category categoria;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "marca_id")
     private Brand marca;
 
@@ -117,6 +150,15 @@ public class Product {
         return this.stockActual != null && this.stockActual > 0;
     }
 
+    /**
+     * Stock que se puede vender: stock físico menos lo reservado por pedidos
+     */
+    public int getStockDisponible() {
+        int actual = this.stockActual != null ? this.stockActual : 0;
+        int reservado = this.stockReservado != null ? this.stockReservado : 0;
+        return Math.max(0, actual - reservado);
+    }
+
     /**
      * Verifica si el stock está por debajo del mínimo
      */
@@ -1,5 +1,6 @@
 package com.miempresa.ecommerce.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -26,6 +27,7 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" }) // proxies LAZY serializables
 public class Profile {
 
     // ========================================
@@ -78,11 +80,12 @@ public class Profile {
      *            - inverseJoinColumns: columna que referencia a permisos
      *            (permiso_id)
      * 
-     *            fetch = FetchType.EAGER - Carga los permisos automáticamente
+     *            fetch = FetchType.LAZY - Los permisos se cargan solo cuando se
+     *            piden (el login usa el grafo "User.autenticacion")
      *            cascade = CascadeType.MERGE - Actualiza permisos al actualizar
      *            perfil
      */
-    @ManyToMany(fetch = FetchType.EAGER, cascade = CascadeType.MERGE)
+    @ManyToMany(fetch = FetchType.LAZY, cascade = CascadeType.MERGE)
     @JoinTable(name = "perfil_permiso", // Nombre de la tabla intermedia
             joinColumns = @JoinColumn(name = "perfil_id"), // FK hacia perfiles
             inverseJoinColumns = @JoinColumn(name = "permiso_id") // FK hacia permisos
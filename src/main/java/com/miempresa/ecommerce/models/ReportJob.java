@@ -0,0 +1,56 @@
+package com.miempresa.ecommerce.models;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.miempresa.ecommerce.models.enums.EstadoTrabajoReporte;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Reporte generado en segundo plano por ReportJobService.
+ * No se persiste en BD: vive en memoria hasta que vence su retención.
+ *
+ * solicitantes incluye a todos los usuarios que pidieron el mismo
+ * reporte mientras se generaba (comparten el archivo).
+ */
+@Getter
+public class ReportJob {
+
+    private static final DateTimeFormatter FILE_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final String id;
+    private final ReportSpec spec;
+    private final Set<String> solicitantes = ConcurrentHashMap.newKeySet();
+    private final LocalDateTime fechaSolicitud = LocalDateTime.now();
+
+    // Se actualizan desde el hilo que genera el reporte
+    @Setter
+    private volatile EstadoTrabajoReporte estado = EstadoTrabajoReporte.PENDIENTE;
+    @Setter
+    private volatile Path archivo;
+    @Setter
+    private volatile long tamanio;
+    @Setter
+    private volatile String error;
+    @Setter
+    private volatile LocalDateTime fechaFin;
+
+    public ReportJob(String id, ReportSpec spec, String solicitante) {
+        this.id = id;
+        this.spec = spec;
+        this.solicitantes.add(solicitante);
+    }
+
+    /**
+     * Nombre con el que se descarga el archivo
+     */
+    public String getNombreArchivo() {
+        return "reporte-" + spec.tipo().name().toLowerCase() + "-"
+                + fechaSolicitud.format(FILE_DATE_FORMAT) + spec.formato().getExtension();
+    }
+}
@@ -0,0 +1,70 @@
+package com.miempresa.ecommerce.models;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import com.miempresa.ecommerce.models.enums.FormatoReporte;
+import com.miempresa.ecommerce.models.enums.TipoReporte;
+import com.miempresa.ecommerce.utils.TimeWindow;
+
+/**
+ * Parámetros de un reporte. No se persiste en BD.
+ *
+ * Dos solicitudes con el mismo ReportSpec (equals) generan el mismo
+ * archivo, así que se atienden con un solo trabajo. Por eso los períodos
+ * se toman completos y un fin abierto ("hasta ahora") se redondea al
+ * final del minuto.
+ *
+ * El rango es una ventana semiabierta [inicio, fin) (ver TimeWindow): las
+ * consultas comparan fecha < fin, sin un último instante que la BD pueda
+ * redondear al día siguiente.
+ */
+public record ReportSpec(TipoReporte tipo, FormatoReporte formato, TimeWindow ventana) {
+
+    /**
+     * Arma la especificación a partir de los parámetros de la petición.
+     * Los reportes sin fechas (inventario, créditos) las ignoran.
+     */
+    public static ReportSpec de(TipoReporte tipo, FormatoReporte formato, LocalDateTime fechaInicio,
+            LocalDateTime fechaFin, String periodo) {
+        if (tipo == null || formato == null) {
+            throw new RuntimeException("Debe indicar el tipo y el formato del reporte");
+        }
+        if (!tipo.admite(formato)) {
+            throw new RuntimeException("El reporte de " + tipo.getNombre() + " no está disponible en " + formato);
+        }
+        if (!tipo.usaFechas()) {
+            return new ReportSpec(tipo, formato, null);
+        }
+        return new ReportSpec(tipo, formato, rango(fechaInicio, fechaFin, periodo));
+    }
+
+    /**
+     * Ventana según el período ("dia", "semana", "mes", "anio"; ver
+     * TimeWindow), tomado completo en hora de Lima; por defecto, el mes
+     * actual. Las fechas del formulario incluyen a 'fechaFin'.
+     */
+    public static TimeWindow rango(LocalDateTime fechaInicio, LocalDateTime fechaFin, String periodo) {
+        TimeWindow ventana = TimeWindow.periodo(periodo);
+        if (ventana == null && fechaInicio == null && fechaFin == null) {
+            ventana = TimeWindow.mesActual();
+        }
+        if (ventana != null) {
+            return ventana;
+        }
+
+        if (fechaInicio == null) {
+            fechaInicio = TimeWindow.mesActual().inicio();
+        }
+        // El fin del formulario queda dentro: la ventana cierra en el
+        // microsegundo siguiente (precisión de DATETIME(6)). Sin fin, hasta
+        // el final del minuto actual
+        LocalDateTime fin = fechaFin != null
+                ? fechaFin.truncatedTo(ChronoUnit.MICROS).plus(1, ChronoUnit.MICROS)
+                : TimeWindow.ahora().truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+        if (!fechaInicio.isBefore(fin)) {
+            throw new RuntimeException("La fecha de inicio no puede ser posterior a la fecha de fin");
+        }
+        return new TimeWindow(fechaInicio, fin);
+    }
+}
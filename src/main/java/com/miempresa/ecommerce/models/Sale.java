@@ -14,7 +14,30 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "ventas")
+// Planes de carga por caso de uso (se aplican desde SaleRepository)
+@NamedEntityGraphs({
+        @NamedEntityGraph(name = "Sale.listado", attributeNodes = {
+                @NamedAttributeNode("cliente"),
+                @NamedAttributeNode("usuario") }),
+        @NamedEntityGraph(name = "Sale.detalle", attributeNodes = {
+                @NamedAttributeNode("cliente"),
+                @NamedAttributeNode("usuario"),
+                @NamedAttributeNode(value = "detalles", subgraph = "detalle.producto") }, subgraphs = {
+                        @NamedSubgraph(name = "detalle.producto", attributeNodes = @NamedAttributeNode("producto")) }),
+        @NamedEntityGraph(name = "Sale.boleta", attributeNodes = {
+                @NamedAttributeNode("cliente"),
+                @NamedAttributeNode("usuario"),
+                @NamedAttributeNode("detalles") })
+})
+// Índices de los filtros frecuentes (ver SaleRepository)
+@Table(name = "ventas", indexes = {
+        // ventas completadas por rango y del día/mes
+        @Index(name = "idx_ventas_estado_fecha", columnList = "estado, fecha_venta"),
+        // listados ordenados por fecha y exportación
+        @Index(name = "idx_ventas_fecha", columnList = "fecha_venta"),
+        // historial de un cliente
+        @Index(name = "idx_ventas_cliente_fecha", columnList = "cliente_id, fecha_venta")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -29,11 +52,11 @@ public class Sale {
     @Column(name = "numero_venta", nullable = false, unique = true, length = 20)
     private String numeroVenta;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cliente_id", nullable = false)
     private Customer cliente;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "usuario_id", nullable = false)
     private User usuario;
 
@@ -14,8 +14,10 @@ import java.math.BigDecimal;
 @Builder
 public class SaleDetail {
 
+    // Secuencia por bloques (no IDENTITY): las líneas de una venta se insertan en lote
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "venta_detalles_seq")
+    @SequenceGenerator(name = "venta_detalles_seq", sequenceName = "venta_detalles_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -26,7 +28,7 @@ public class SaleDetail {
     @ToString.Exclude
     private Sale venta;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "producto_id", nullable = false)
     private Product producto;
 
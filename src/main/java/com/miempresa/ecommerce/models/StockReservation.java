@@ -0,0 +1,81 @@
+package com.miempresa.ecommerce.models;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import com.miempresa.ecommerce.models.enums.EstadoReserva;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * ENTIDAD: RESERVA DE STOCK
+ * 
+ * Unidades apartadas por un pedido web mientras el personal lo confirma.
+ * Mientras está ACTIVA, su cantidad suma en Product.stockReservado
+ * y no puede venderse a otro cliente.
+ */
+
+@Entity
+@Table(name = "reservas_stock")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservation {
+
+    // Secuencia por bloques: las reservas de un pedido se insertan en lote
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservas_stock_seq")
+    @SequenceGenerator(name = "reservas_stock_seq", sequenceName = "reservas_stock_seq", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "pedido_id", nullable = false)
+    @ToString.Exclude
+    private Order pedido;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "producto_id", nullable = false)
+    @ToString.Exclude
+    private Product producto;
+
+    @Column(name = "cantidad", nullable = false)
+    private Integer cantidad;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 15)
+    @Builder.Default
+    private EstadoReserva estado = EstadoReserva.ACTIVA;
+
+    @CreationTimestamp
+    @Column(name = "fecha_creacion", nullable = false, updatable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_expiracion", nullable = false)
+    private LocalDateTime fechaExpiracion;
+
+    /**
+     * Verifica si la reserva sigue apartando stock
+     */
+    public boolean estaActiva() {
+        return this.estado == EstadoReserva.ACTIVA;
+    }
+}
@@ -1,5 +1,6 @@
 package com.miempresa.ecommerce.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -30,11 +31,19 @@ import java.time.LocalDateTime;
  */
 
 @Entity // Esto es una entidad JPA (tabla en BD)
+// Planes de carga: login (perfil y permisos) y listado de usuarios (ver UserRepository)
+@NamedEntityGraphs({
+        @NamedEntityGraph(name = "User.autenticacion", attributeNodes = {
+                @NamedAttributeNode(value = "perfil", subgraph = "perfil.permisos") }, subgraphs = {
+                        @NamedSubgraph(name = "perfil.permisos", attributeNodes = @NamedAttributeNode("permisos")) }),
+        @NamedEntityGraph(name = "User.listado", attributeNodes = @NamedAttributeNode("perfil"))
+})
 @Table(name = "usuarios") // Nombre de la tabla en MySQL
 @Data // Lombok: genera getters, setters, toString, equals, hashCode automáticamente
 @NoArgsConstructor // Lombok: genera constructor sin parámetros
 @AllArgsConstructor // Lombok: genera constructor con todos los parámetros
 @Builder // Lombok: permite crear objetos con patrón Builder
+@JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" }) // proxies LAZY serializables
 public class User {
 
     // ========================================
@@ -109,10 +118,10 @@ public class User {
      * 
      * @ManyToOne - Muchos a Uno
      * @JoinColumn - Define la columna que almacena la relación (perfil_id)
-     *             fetch = FetchType.EAGER - Carga el perfil automáticamente al
-     *             consultar el usuario
+     *             fetch = FetchType.LAZY - El perfil se carga solo cuando se
+     *             pide; las consultas que lo necesitan usan un grafo de entidad
      */
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "perfil_id", nullable = false)
     private Profile perfil;
 
@@ -0,0 +1,58 @@
+package com.miempresa.ecommerce.models.enums;
+
+/**
+ * ENUMERACIÓN: ESTADO DE RESERVA DE STOCK
+ * 
+ * Ciclo de vida de una reserva creada por un pedido web.
+ * Solo las reservas ACTIVA descuentan del stock disponible.
+ */
+public enum EstadoReserva {
+
+    /**
+     * ACTIVA - Las unidades están apartadas para el pedido
+     */
+    ACTIVA("Activa", "Unidades apartadas para el pedido"),
+
+    /**
+     * CONSUMIDA - El pedido se convirtió en venta y el stock se descontó
+     */
+    CONSUMIDA("Consumida", "El pedido se convirtió en venta"),
+
+    /**
+     * LIBERADA - El pedido se canceló y las unidades volvieron a estar disponibles
+     */
+    LIBERADA("Liberada", "El pedido fue cancelado"),
+
+    /**
+     * EXPIRADA - Venció el tiempo de la reserva sin confirmar el pedido
+     */
+    EXPIRADA("Expirada", "Venció el tiempo de la reserva");
+
+    // ========================================
+    // ATRIBUTOS
+    // ========================================
+
+    private final String nombre;
+    private final String descripcion;
+
+    // ========================================
+    // CONSTRUCTOR
+    // ========================================
+
+    EstadoReserva(String nombre, String descripcion) {
+        this.nombre = nombre;
+        this.descripcion = descripcion;
+    }
+
+    // ========================================
+    // GETTERS
+    // ========================================
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+}
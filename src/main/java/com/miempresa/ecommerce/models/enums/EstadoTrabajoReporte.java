@@ -0,0 +1,41 @@
+package com.miempresa.ecommerce.models.enums;
+
+/**
+ * ENUMERACIÓN: ESTADO DE UN REPORTE EN SEGUNDO PLANO
+ */
+public enum EstadoTrabajoReporte {
+
+    /**
+     * PENDIENTE - En cola, esperando un hilo libre
+     */
+    PENDIENTE("Pendiente"),
+
+    /**
+     * EN_PROCESO - Generándose
+     */
+    EN_PROCESO("En proceso"),
+
+    /**
+     * COMPLETADO - Archivo listo para descargar
+     */
+    COMPLETADO("Completado"),
+
+    /**
+     * ERROR - Falló la generación
+     */
+    ERROR("Error");
+
+    private final String nombre;
+
+    EstadoTrabajoReporte(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public boolean estaTerminado() {
+        return this == COMPLETADO || this == ERROR;
+    }
+}
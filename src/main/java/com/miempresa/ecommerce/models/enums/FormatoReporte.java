@@ -0,0 +1,39 @@
+package com.miempresa.ecommerce.models.enums;
+
+/**
+ * ENUMERACIÓN: FORMATO DE REPORTE
+ */
+public enum FormatoReporte {
+
+    PDF(".pdf", "application/pdf"),
+
+    EXCEL(".xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+    // ========================================
+    // ATRIBUTOS
+    // ========================================
+
+    private final String extension;
+    private final String contentType;
+
+    // ========================================
+    // CONSTRUCTOR
+    // ========================================
+
+    FormatoReporte(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    // ========================================
+    // GETTERS
+    // ========================================
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+}
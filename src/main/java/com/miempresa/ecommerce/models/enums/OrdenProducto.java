@@ -0,0 +1,53 @@
+package com.miempresa.ecommerce.models.enums;
+
+/**
+ * ENUMERACIÓN: ORDEN DE PRODUCTOS
+ * 
+ * Ordenamientos estables disponibles para la paginación por cursor
+ * del catálogo, el panel de administración y la API.
+ * Todos desempatan por ID para que el cursor sea único.
+ */
+public enum OrdenProducto {
+
+    /**
+     * RECIENTES - Último producto creado primero (id DESC)
+     */
+    RECIENTES("Más recientes"),
+
+    /**
+     * NOMBRE - Alfabético (nombre ASC, id ASC)
+     */
+    NOMBRE("Nombre (A-Z)"),
+
+    /**
+     * PRECIO_MENOR - Precio vigente, el de oferta si la hay (precio ASC, id ASC)
+     */
+    PRECIO_MENOR("Precio: menor a mayor"),
+
+    /**
+     * PRECIO_MAYOR - Precio vigente, el de oferta si la hay (precio DESC, id DESC)
+     */
+    PRECIO_MAYOR("Precio: mayor a menor");
+
+    // ========================================
+    // ATRIBUTOS
+    // ========================================
+
+    private final String nombre;
+
+    // ========================================
+    // CONSTRUCTOR
+    // ========================================
+
+    OrdenProducto(String nombre) {
+        this.nombre = nombre;
+    }
+
+    // ========================================
+    // GETTERS
+    // ========================================
+
+    public String getNombre() {
+        return nombre;
+    }
+}
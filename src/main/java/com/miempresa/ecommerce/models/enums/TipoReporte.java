@@ -0,0 +1,63 @@
+package com.miempresa.ecommerce.models.enums;
+
+/**
+ * ENUMERACIÓN: TIPO DE REPORTE
+ * 
+ * Reportes que se pueden generar en segundo plano.
+ */
+public enum TipoReporte {
+
+    /**
+     * VENTAS - Ventas de un período
+     */
+    VENTAS("Ventas", true, true),
+
+    /**
+     * INVENTARIO - Productos activos con su stock (foto actual)
+     */
+    INVENTARIO("Inventario", false, true),
+
+    /**
+     * MOVIMIENTOS - Movimientos de inventario de un período (solo Excel)
+     */
+    MOVIMIENTOS("Movimientos", true, false),
+
+    /**
+     * CREDITOS - Créditos (foto actual)
+     */
+    CREDITOS("Créditos", false, true);
+
+    // ========================================
+    // ATRIBUTOS
+    // ========================================
+
+    private final String nombre;
+    private final boolean usaFechas;
+    private final boolean admitePdf;
+
+    // ========================================
+    // CONSTRUCTOR
+    // ========================================
+
+    TipoReporte(String nombre, boolean usaFechas, boolean admitePdf) {
+        this.nombre = nombre;
+        this.usaFechas = usaFechas;
+        this.admitePdf = admitePdf;
+    }
+
+    // ========================================
+    // GETTERS
+    // ========================================
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public boolean usaFechas() {
+        return usaFechas;
+    }
+
+    public boolean admite(FormatoReporte formato) {
+        return formato != FormatoReporte.PDF || admitePdf;
+    }
+}
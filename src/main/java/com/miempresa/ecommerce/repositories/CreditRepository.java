@@ -4,15 +4,21 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.miempresa.ecommerce.models.Credit;
 import com.miempresa.ecommerce.models.enums.EstadoCredito;
 
+import jakarta.persistence.QueryHint;
+
 /**
  * REPOSITORY: CRÉDITO
  * 
@@ -24,34 +30,69 @@ public interface CreditRepository extends JpaRepository<Credit, Long> {
         /**
          * Busca un crédito por su venta
          */
-        Optional<Credit> findByVentaId(Long ventaId);
+        @EntityGraph("Credit.detalle")
+        @Query("""
+                        SELECT c FROM Credit c WHERE c.venta.id = :ventaId
+                        """)
+        Optional<Credit> findByVentaId(@Param("ventaId") Long ventaId);
+
+        /**
+         * Carga un crédito con cliente, venta y cuotas (vista de detalle)
+         */
+        @EntityGraph("Credit.detalle")
+        @Query("SELECT c FROM Credit c WHERE c.id = :id")
+        Optional<Credit> findDetalleById(@Param("id") Long id);
+
+        /**
+         * Listado general de créditos (con cliente y venta)
+         */
+        @Override
+        @EntityGraph("Credit.listado")
+        List<Credit> findAll();
 
         /**
          * Busca créditos de un cliente
          */
-        List<Credit> findByClienteIdOrderByFechaCreacionDesc(Long clienteId);
+        @EntityGraph("Credit.listado")
+        @Query("""
+                        SELECT c FROM Credit c
+                        WHERE c.cliente.id = :clienteId
+                        ORDER BY c.fechaCreacion DESC
+                        """)
+        List<Credit> findByClienteIdOrderByFechaCreacionDesc(@Param("clienteId") Long clienteId);
 
         /**
-         * Busca créditos por estado
+         * Busca créditos por estado (con cuotas: el listado muestra cuotas
+         * pagadas y próximo vencimiento de cada crédito)
          */
+        @EntityGraph("Credit.detalle")
         List<Credit> findByEstadoOrderByFechaCreacionDesc(EstadoCredito estado);
 
         /**
          * Busca créditos activos
          */
+        @EntityGraph("Credit.listado")
         @Query("SELECT c FROM Credit c WHERE c.estado = 'ACTIVO' ORDER BY c.fechaCreacion DESC")
         List<Credit> findActivosOrderByFechaCreacionDesc();
 
         /**
          * Busca créditos de un cliente por estado
          */
+        @EntityGraph("Credit.listado")
+        @Query("""
+                        SELECT c FROM Credit c
+                        WHERE c.cliente.id = :clienteId
+                        AND c.estado = :estado
+                        ORDER BY c.fechaCreacion DESC
+                        """)
         List<Credit> findByClienteIdAndEstadoOrderByFechaCreacionDesc(
-                        Long clienteId,
-                        EstadoCredito estado);
+                        @Param("clienteId") Long clienteId,
+                        @Param("estado") EstadoCredito estado);
 
         /**
          * Busca créditos con cuotas vencidas
          */
+        @EntityGraph("Credit.listado")
         @Query("""
                         SELECT DISTINCT c FROM Credit c
                         JOIN c.cuotas cu
@@ -64,6 +105,7 @@ public interface CreditRepository extends JpaRepository<Credit, Long> {
         /**
          * Busca créditos con cuotas próximas a vencer
          */
+        @EntityGraph("Credit.listado")
         @Query("""
                         SELECT DISTINCT c FROM Credit c
                         JOIN c.cuotas cu
@@ -124,5 +166,26 @@ public interface CreditRepository extends JpaRepository<Credit, Long> {
         /**
          * Obtiene los últimos créditos creados
          */
+        @EntityGraph("Credit.listado")
         List<Credit> findTop20ByOrderByFechaCreacionDesc();
+
+        /**
+         * Recorre todos los créditos para exportarlos (solo columnas,
+         * sin cargar cuotas).
+         */
+        @QueryHints({
+                        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+        })
+        @Query("""
+                        SELECT v.numeroVenta, c.fechaInicio,
+                               cl.tipoDocumento, cl.numeroDocumento, cl.nombres, cl.apellidoPaterno,
+                               cl.apellidoMaterno, cl.razonSocial,
+                               c.numCuotas, c.montoCuota, c.montoTotal, c.montoPendiente, c.estado
+                        FROM Credit c
+                        JOIN c.venta v
+                        JOIN c.cliente cl
+                        ORDER BY c.fechaCreacion DESC, c.id DESC
+                        """)
+        Stream<Object[]> streamParaExportar();
 }
@@ -0,0 +1,93 @@
+package com.miempresa.ecommerce.repositories;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.miempresa.ecommerce.models.DailySalesSummary;
+
+/**
+ * REPOSITORY: RESUMEN DIARIO DE VENTAS
+ * 
+ * Interface para acceder a la tabla 'ventas_resumen_diario'.
+ */
+@Repository
+public interface DailySalesSummaryRepository extends JpaRepository<DailySalesSummary, Long> {
+
+        boolean existsByFecha(LocalDate fecha);
+
+        Optional<DailySalesSummary> findByFecha(LocalDate fecha);
+
+        /**
+         * Suma o resta una venta en la fila del día, sin leerla antes.
+         * Con cantidad = -1 y montos negativos revierte una venta anulada.
+         * Devuelve 0 si el día aún no tiene fila.
+         */
+        @Modifying(flushAutomatically = true)
+        @Query("""
+                        UPDATE DailySalesSummary r SET
+                        r.cantidadVentas = r.cantidadVentas + :cantidad,
+                        r.subtotal = r.subtotal + :subtotal,
+                        r.descuento = r.descuento + :descuento,
+                        r.costoEnvio = r.costoEnvio + :costoEnvio,
+                        r.igv = r.igv + :igv,
+                        r.total = r.total + :total,
+                        r.cantidadContado = r.cantidadContado + :cantidadContado,
+                        r.totalContado = r.totalContado + :totalContado,
+                        r.cantidadCredito = r.cantidadCredito + :cantidadCredito,
+                        r.totalCredito = r.totalCredito + :totalCredito,
+                        r.fechaActualizacion = CURRENT_TIMESTAMP
+                        WHERE r.fecha = :fecha
+                        """)
+        int acumular(
+                        @Param("fecha") LocalDate fecha,
+                        @Param("cantidad") long cantidad,
+                        @Param("subtotal") BigDecimal subtotal,
+                        @Param("descuento") BigDecimal descuento,
+                        @Param("costoEnvio") BigDecimal costoEnvio,
+                        @Param("igv") BigDecimal igv,
+                        @Param("total") BigDecimal total,
+                        @Param("cantidadContado") long cantidadContado,
+                        @Param("totalContado") BigDecimal totalContado,
+                        @Param("cantidadCredito") long cantidadCredito,
+                        @Param("totalCredito") BigDecimal totalCredito);
+
+        /**
+         * Total vendido entre dos días (ambos incluidos).
+         */
+        @Query("""
+                        SELECT COALESCE(SUM(r.total), 0)
+                        FROM DailySalesSummary r
+                        WHERE r.fecha BETWEEN :desde AND :hasta
+                        """)
+        BigDecimal sumarTotal(
+                        @Param("desde") LocalDate desde,
+                        @Param("hasta") LocalDate hasta);
+
+        /**
+         * Cantidad de ventas entre dos días (ambos incluidos).
+         */
+        @Query("""
+                        SELECT COALESCE(SUM(r.cantidadVentas), 0)
+                        FROM DailySalesSummary r
+                        WHERE r.fecha BETWEEN :desde AND :hasta
+                        """)
+        Long contarVentas(
+                        @Param("desde") LocalDate desde,
+                        @Param("hasta") LocalDate hasta);
+
+        @Modifying
+        @Query("""
+                        DELETE FROM DailySalesSummary r
+                        WHERE r.fecha BETWEEN :desde AND :hasta
+                        """)
+        int eliminarEntre(
+                        @Param("desde") LocalDate desde,
+                        @Param("hasta") LocalDate hasta);
+}
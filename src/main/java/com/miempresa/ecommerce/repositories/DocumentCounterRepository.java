@@ -0,0 +1,36 @@
+package com.miempresa.ecommerce.repositories;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.miempresa.ecommerce.models.DocumentCounter;
+
+import jakarta.persistence.LockModeType;
+
+/**
+ * REPOSITORY: CONTADOR DE DOCUMENTOS
+ * 
+ * Interface para acceder a la tabla 'contadores_documento'.
+ */
+@Repository
+public interface DocumentCounterRepository extends JpaRepository<DocumentCounter, Long> {
+
+        /**
+         * Busca el contador bloqueando la fila (SELECT ... FOR UPDATE)
+         * hasta que termine la transacción que reparte el bloque.
+         */
+        @Lock(LockModeType.PESSIMISTIC_WRITE)
+        @Query("""
+                        SELECT c FROM DocumentCounter c
+                        WHERE c.prefijo = :prefijo
+                        AND c.anio = :anio
+                        """)
+        Optional<DocumentCounter> buscarParaActualizar(
+                        @Param("prefijo") String prefijo,
+                        @Param("anio") Integer anio);
+}
@@ -39,12 +39,16 @@ public interface InstallmentRepository extends JpaRepository<Installment, Long>
 
         /**
          * Busca cuotas vencidas.
+         * Las consultas por vencimiento recorren idx_cuotas_vencimiento_pendiente
+         * y miran el crédito de cada cuota por su PK (EXISTS); con un JOIN
+         * el planificador puede empezar por todos los créditos activos.
          */
         @Query("""
                         SELECT i FROM Installment i
                         WHERE i.fechaVencimiento < :fecha
                           AND i.montoPendiente > 0
-                          AND i.credito.estado = 'ACTIVO'
+                          AND EXISTS (SELECT 1 FROM Credit c
+                                      WHERE c.id = i.credito.id AND c.estado = 'ACTIVO')
                         ORDER BY i.fechaVencimiento ASC
                         """)
         List<Installment> obtenerCuotasVencidas(@Param("fecha") LocalDate fecha);
@@ -56,7 +60,8 @@ public interface InstallmentRepository extends JpaRepository<Installment, Long>
                         SELECT i FROM Installment i
                         WHERE i.fechaVencimiento = :fecha
                           AND i.montoPendiente > 0
-                          AND i.credito.estado = 'ACTIVO'
+                          AND EXISTS (SELECT 1 FROM Credit c
+                                      WHERE c.id = i.credito.id AND c.estado = 'ACTIVO')
                         ORDER BY i.credito.id, i.numeroCuota
                         """)
         List<Installment> obtenerCuotasQueVencenHoy(@Param("fecha") LocalDate fecha);
@@ -68,7 +73,8 @@ public interface InstallmentRepository extends JpaRepository<Installment, Long>
                         SELECT i FROM Installment i
                         WHERE i.fechaVencimiento BETWEEN :fechaInicio AND :fechaFin
                           AND i.montoPendiente > 0
-                          AND i.credito.estado = 'ACTIVO'
+                          AND EXISTS (SELECT 1 FROM Credit c
+                                      WHERE c.id = i.credito.id AND c.estado = 'ACTIVO')
                         ORDER BY i.fechaVencimiento ASC
                         """)
         List<Installment> obtenerCuotasProximasAVencer(
@@ -96,27 +102,29 @@ public interface InstallmentRepository extends JpaRepository<Installment, Long>
         long countByEstado(EstadoCuota estado);
 
         /**
-         * Cuenta cuotas vencidas totales.
+         * Cuenta cuotas vencidas totales (fecha = hoy en la zona del negocio).
          */
         @Query("""
                         SELECT COUNT(i) FROM Installment i
-                        WHERE i.fechaVencimiento < CURRENT_DATE
+                        WHERE i.fechaVencimiento < :fecha
                           AND i.montoPendiente > 0
-                          AND i.credito.estado = 'ACTIVO'
+                          AND EXISTS (SELECT 1 FROM Credit c
+                                      WHERE c.id = i.credito.id AND c.estado = 'ACTIVO')
                         """)
-        long contarCuotasVencidas();
+        long contarCuotasVencidas(@Param("fecha") LocalDate fecha);
 
         /**
-         * Suma monto total pendiente de cuotas vencidas.
+         * Suma monto total pendiente de cuotas vencidas (fecha = hoy en la zona del negocio).
          */
         @Query("""
                         SELECT COALESCE(SUM(i.montoPendiente), 0)
                         FROM Installment i
-                        WHERE i.fechaVencimiento < CURRENT_DATE
+                        WHERE i.fechaVencimiento < :fecha
                           AND i.montoPendiente > 0
-                          AND i.credito.estado = 'ACTIVO'
+                          AND EXISTS (SELECT 1 FROM Credit c
+                                      WHERE c.id = i.credito.id AND c.estado = 'ACTIVO')
                         """)
-        BigDecimal sumarMontoPendienteCuotasVencidas();
+        BigDecimal sumarMontoPendienteCuotasVencidas(@Param("fecha") LocalDate fecha);
 
         /**
          * Obtiene la primera cuota pendiente de un crédito.
@@ -1,10 +1,15 @@
 package com.miempresa.ecommerce.repositories;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -12,6 +17,8 @@ import com.miempresa.ecommerce.models.InventoryMovement;
 import com.miempresa.ecommerce.models.enums.MotivoMovimiento;
 import com.miempresa.ecommerce.models.enums.TipoMovimiento;
 
+import jakarta.persistence.QueryHint;
+
 /**
  * REPOSITORY: MOVIMIENTO DE INVENTARIO
  * 
@@ -23,21 +30,37 @@ public interface InventoryMovementRepository extends JpaRepository<InventoryMove
   /**
    * Busca movimientos de un producto específico.
    */
-  List<InventoryMovement> findByProductoIdOrderByFechaMovimientoDesc(Long productoId);
+  @EntityGraph("InventoryMovement.listado")
+  @Query("""
+      SELECT m FROM InventoryMovement m
+      WHERE m.producto.id = :productoId
+      ORDER BY m.fechaMovimiento DESC
+      """)
+  List<InventoryMovement> findByProductoIdOrderByFechaMovimientoDesc(@Param("productoId") Long productoId);
+
+  /**
+   * Listado general de movimientos (con producto y usuario).
+   */
+  @Override
+  @EntityGraph("InventoryMovement.listado")
+  List<InventoryMovement> findAll();
 
   /**
    * Busca movimientos por tipo.
    */
+  @EntityGraph("InventoryMovement.listado")
   List<InventoryMovement> findByTipoOrderByFechaMovimientoDesc(TipoMovimiento tipo);
 
   /**
    * Busca movimientos por motivo.
    */
+  @EntityGraph("InventoryMovement.listado")
   List<InventoryMovement> findByMotivoOrderByFechaMovimientoDesc(MotivoMovimiento motivo);
 
   /**
    * Busca movimientos en un rango de fechas.
    */
+  @EntityGraph("InventoryMovement.listado")
   List<InventoryMovement> findByFechaMovimientoBetweenOrderByFechaMovimientoDesc(
       LocalDateTime fechaInicio,
       LocalDateTime fechaFin);
@@ -45,19 +68,33 @@ public interface InventoryMovementRepository extends JpaRepository<InventoryMove
   /**
    * Busca movimientos de un producto en un rango de fechas.
    */
+  @EntityGraph("InventoryMovement.listado")
+  @Query("""
+      SELECT m FROM InventoryMovement m
+      WHERE m.producto.id = :productoId
+        AND m.fechaMovimiento BETWEEN :fechaInicio AND :fechaFin
+      ORDER BY m.fechaMovimiento DESC
+      """)
   List<InventoryMovement> findByProductoIdAndFechaMovimientoBetweenOrderByFechaMovimientoDesc(
-      Long productoId,
-      LocalDateTime fechaInicio,
-      LocalDateTime fechaFin);
+      @Param("productoId") Long productoId,
+      @Param("fechaInicio") LocalDateTime fechaInicio,
+      @Param("fechaFin") LocalDateTime fechaFin);
 
   /**
    * Busca movimientos por usuario.
    */
-  List<InventoryMovement> findByUsuarioIdOrderByFechaMovimientoDesc(Long usuarioId);
+  @EntityGraph("InventoryMovement.listado")
+  @Query("""
+      SELECT m FROM InventoryMovement m
+      WHERE m.usuario.id = :usuarioId
+      ORDER BY m.fechaMovimiento DESC
+      """)
+  List<InventoryMovement> findByUsuarioIdOrderByFechaMovimientoDesc(@Param("usuarioId") Long usuarioId);
 
   /**
    * Busca movimientos con filtros múltiples (dinámicos).
    */
+  @EntityGraph("InventoryMovement.listado")
   @Query("""
       SELECT m FROM InventoryMovement m
       WHERE (:productoId IS NULL OR m.producto.id = :productoId)
@@ -77,6 +114,7 @@ public interface InventoryMovementRepository extends JpaRepository<InventoryMove
   /**
    * Obtiene los últimos movimientos registrados.
    */
+  @EntityGraph("InventoryMovement.listado")
   List<InventoryMovement> findTop20ByOrderByFechaMovimientoDesc();
 
   /**
@@ -90,8 +128,76 @@ public interface InventoryMovementRepository extends JpaRepository<InventoryMove
    */
   List<InventoryMovement> findByReferenciaIdAndReferenciaTipo(Long referenciaId, String referenciaTipo);
 
-  List<InventoryMovement> findByProductoIdAndMotivoAndTipoAndReferenciaIdIsNullOrderByFechaMovimientoDesc(
-      Long productoId,
-      MotivoMovimiento motivo,
-      TipoMovimiento tipo);
+  /**
+   * Kardex: movimientos de un producto en [desde, hasta), en orden.
+   */
+  @EntityGraph("InventoryMovement.listado")
+  @Query("""
+      SELECT m FROM InventoryMovement m
+      WHERE m.producto.id = :productoId
+        AND m.fechaMovimiento >= :desde
+        AND m.fechaMovimiento < :hasta
+      ORDER BY m.fechaMovimiento, m.id
+      """)
+  List<InventoryMovement> obtenerKardex(
+      @Param("productoId") Long productoId,
+      @Param("desde") LocalDateTime desde,
+      @Param("hasta") LocalDateTime hasta);
+
+  /**
+   * Variación neta de stock por producto (entradas - salidas) desde una
+   * fecha, hasta otra o hasta hoy si 'hasta' es null.
+   * Filas: [productoId, neto]
+   */
+  @Query("""
+      SELECT m.producto.id,
+             SUM(CASE WHEN m.tipo = 'ENTRADA' THEN m.cantidad ELSE -m.cantidad END)
+      FROM InventoryMovement m
+      WHERE m.fechaMovimiento >= :desde
+        AND (:hasta IS NULL OR m.fechaMovimiento < :hasta)
+      GROUP BY m.producto.id
+      """)
+  List<Object[]> sumarNetoPorProducto(
+      @Param("desde") LocalDateTime desde,
+      @Param("hasta") LocalDateTime hasta);
+
+  /**
+   * Variación neta de stock de productos puntuales. Filas: [productoId, neto]
+   */
+  @Query("""
+      SELECT m.producto.id,
+             SUM(CASE WHEN m.tipo = 'ENTRADA' THEN m.cantidad ELSE -m.cantidad END)
+      FROM InventoryMovement m
+      WHERE m.producto.id IN :ids
+        AND m.fechaMovimiento >= :desde
+        AND (:hasta IS NULL OR m.fechaMovimiento < :hasta)
+      GROUP BY m.producto.id
+      """)
+  List<Object[]> sumarNetoPorProducto(
+      @Param("desde") LocalDateTime desde,
+      @Param("hasta") LocalDateTime hasta,
+      @Param("ids") Collection<Long> ids);
+
+  /**
+   * Recorre los movimientos de una ventana [inicio, fin) para exportarlos
+   * (solo columnas).
+   */
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("""
+      SELECT m.fechaMovimiento, p.codigoSku, p.nombre, m.tipo, m.motivo, m.cantidad,
+             m.stockAnterior, m.stockNuevo, m.referenciaTipo, m.referenciaId, u.username,
+             m.observaciones
+      FROM InventoryMovement m
+      JOIN m.producto p
+      JOIN m.usuario u
+      WHERE m.fechaMovimiento >= :inicio
+      AND m.fechaMovimiento < :fin
+      ORDER BY m.fechaMovimiento, m.id
+      """)
+  Stream<Object[]> streamParaExportar(
+      @Param("inicio") LocalDateTime inicio,
+      @Param("fin") LocalDateTime fin);
 }
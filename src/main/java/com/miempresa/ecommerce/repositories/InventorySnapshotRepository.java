@@ -0,0 +1,55 @@
+package com.miempresa.ecommerce.repositories;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.miempresa.ecommerce.models.InventorySnapshot;
+
+/**
+ * REPOSITORY: CORTES DE INVENTARIO
+ *
+ * Interface para acceder a la tabla 'inventario_cortes'.
+ */
+@Repository
+public interface InventorySnapshotRepository extends JpaRepository<InventorySnapshot, Long> {
+
+    boolean existsByFechaCorte(LocalDateTime fechaCorte);
+
+    /**
+     * Último corte en o antes de la fecha (null si no hay).
+     */
+    @Query("SELECT MAX(s.fechaCorte) FROM InventorySnapshot s WHERE s.fechaCorte <= :fecha")
+    LocalDateTime obtenerCorteAnterior(@Param("fecha") LocalDateTime fecha);
+
+    /**
+     * Primer corte después de la fecha (null si no hay).
+     */
+    @Query("SELECT MIN(s.fechaCorte) FROM InventorySnapshot s WHERE s.fechaCorte > :fecha")
+    LocalDateTime obtenerCortePosterior(@Param("fecha") LocalDateTime fecha);
+
+    /**
+     * Filas de un corte. Filas: [productoId, stock, precioUnitario]
+     */
+    @Query("""
+            SELECT s.producto.id, s.stock, s.precioUnitario FROM InventorySnapshot s
+            WHERE s.fechaCorte = :fechaCorte
+            """)
+    List<Object[]> obtenerCorte(@Param("fechaCorte") LocalDateTime fechaCorte);
+
+    /**
+     * Filas de un corte para productos puntuales. Filas: [productoId, stock, precioUnitario]
+     */
+    @Query("""
+            SELECT s.producto.id, s.stock, s.precioUnitario FROM InventorySnapshot s
+            WHERE s.fechaCorte = :fechaCorte AND s.producto.id IN :ids
+            """)
+    List<Object[]> obtenerCorte(
+            @Param("fechaCorte") LocalDateTime fechaCorte,
+            @Param("ids") Collection<Long> ids);
+}
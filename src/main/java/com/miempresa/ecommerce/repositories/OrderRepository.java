@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -25,24 +26,40 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
          */
         Optional<Order> findByNumeroPedido(String numeroPedido);
 
+        /**
+         * Listado general de pedidos (con cliente).
+         */
+        @Override
+        @EntityGraph("Order.listado")
+        List<Order> findAll();
+
         /**
          * Busca pedidos por estado.
          */
+        @EntityGraph("Order.listado")
         List<Order> findByEstadoOrderByFechaPedidoDesc(EstadoPedido estado);
 
         /**
          * Busca todos los pedidos ordenados por fecha (sin filtrar por estado).
          */
+        @EntityGraph("Order.listado")
         List<Order> findAllByOrderByFechaPedidoDesc();
 
         /**
          * Busca pedidos de un cliente.
          */
-        List<Order> findByClienteIdOrderByFechaPedidoDesc(Long clienteId);
+        @EntityGraph("Order.listado")
+        @Query("""
+                        SELECT o FROM Order o
+                        WHERE o.cliente.id = :clienteId
+                        ORDER BY o.fechaPedido DESC
+                        """)
+        List<Order> findByClienteIdOrderByFechaPedidoDesc(@Param("clienteId") Long clienteId);
 
         /**
          * Busca pedidos en un rango de fechas.
          */
+        @EntityGraph("Order.listado")
         List<Order> findByFechaPedidoBetweenOrderByFechaPedidoDesc(
                         LocalDateTime fechaInicio,
                         LocalDateTime fechaFin);
@@ -50,9 +67,16 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
         /**
          * Busca pedidos de un cliente por estado.
          */
+        @EntityGraph("Order.listado")
+        @Query("""
+                        SELECT o FROM Order o
+                        WHERE o.cliente.id = :clienteId
+                        AND o.estado = :estado
+                        ORDER BY o.fechaPedido DESC
+                        """)
         List<Order> findByClienteIdAndEstadoOrderByFechaPedidoDesc(
-                        Long clienteId,
-                        EstadoPedido estado);
+                        @Param("clienteId") Long clienteId,
+                        @Param("estado") EstadoPedido estado);
 
         /**
          * Cuenta pedidos por estado.
@@ -62,11 +86,13 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
         /**
          * Obtiene los últimos pedidos creados.
          */
+        @EntityGraph("Order.listado")
         List<Order> findTop20ByOrderByFechaPedidoDesc();
 
         /**
          * Busca pedidos con filtros múltiples (cliente, estado, fechas).
          */
+        @EntityGraph("Order.listado")
         @Query("""
                         SELECT o FROM Order o
                         WHERE (:clienteId IS NULL OR o.cliente.id = :clienteId)
@@ -83,6 +109,9 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
         /**
          * Genera el siguiente número de pedido (según prefijo).
+         *
+         * Recorre todos los documentos del año: solo se usa para
+         * inicializar 'contadores_documento' (ver DocumentNumberService).
          */
         @Query("""
                         SELECT COALESCE(MAX(CAST(SUBSTRING(o.numeroPedido, 10) AS long)), 0) + 1
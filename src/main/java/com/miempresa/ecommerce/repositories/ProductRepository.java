@@ -1,16 +1,26 @@
 package com.miempresa.ecommerce.repositories;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.miempresa.ecommerce.models.Product;
 
+import jakarta.persistence.QueryHint;
+
 /**
  * REPOSITORY: PRODUCTO
  * 
@@ -24,46 +34,111 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      */
     Optional<Product> findByCodigoSku(String codigoSku);
 
+    /**
+     * Listado general de productos (con categoría y marca).
+     */
+    @Override
+    @EntityGraph("Product.catalogo")
+    List<Product> findAll();
+
     /**
      * Busca productos activos.
      */
+    @EntityGraph("Product.catalogo")
     List<Product> findByActivoTrue();
 
     /**
      * Busca productos destacados y activos.
      */
+    @EntityGraph("Product.catalogo")
     List<Product> findByEsDestacadoTrueAndActivoTrue();
 
     /**
      * Busca productos por categoría.
      */
-    List<Product> findByCategoriaIdAndActivoTrue(Long categoriaId);
+    @EntityGraph("Product.catalogo")
+    @Query("""
+            SELECT p FROM Product p
+            WHERE p.activo = true
+            AND p.categoria.id = :categoriaId
+            """)
+    List<Product> findByCategoriaIdAndActivoTrue(@Param("categoriaId") Long categoriaId);
 
     /**
      * Busca productos por marca.
      */
-    List<Product> findByMarcaIdAndActivoTrue(Long marcaId);
+    @EntityGraph("Product.catalogo")
+    @Query("""
+            SELECT p FROM Product p
+            WHERE p.activo = true
+            AND p.marca.id = :marcaId
+            """)
+    List<Product> findByMarcaIdAndActivoTrue(@Param("marcaId") Long marcaId);
 
     /**
      * Busca productos cuyo nombre contenga un texto.
      */
+    @EntityGraph("Product.catalogo")
     List<Product> findByNombreContainingIgnoreCaseAndActivoTrue(String nombre);
 
     /**
      * Busca productos con stock bajo mínimo (alerta de reposición).
      */
+    @EntityGraph("Product.catalogo")
     @Query("SELECT p FROM Product p WHERE p.stockActual <= p.stockMinimo AND p.activo = true")
     List<Product> obtenerProductosStockBajo();
 
     /**
      * Busca productos sin stock.
      */
+    @EntityGraph("Product.catalogo")
     @Query("SELECT p FROM Product p WHERE p.stockActual = 0 AND p.activo = true")
     List<Product> obtenerProductosSinStock();
 
+    /**
+     * Carga los productos indicados (alertas de stock de LowStockTracker).
+     */
+    @EntityGraph("Product.catalogo")
+    List<Product> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Nivel de stock de los productos activos en alerta (bajo mínimo o sin
+     * stock), para cargar LowStockTracker al arrancar.
+     * Filas: [id, stockActual, stockMinimo, activo]
+     */
+    @Query("""
+            SELECT p.id, p.stockActual, p.stockMinimo, p.activo FROM Product p
+            WHERE p.activo = true
+            AND (p.stockActual <= p.stockMinimo OR p.stockActual = 0)
+            """)
+    List<Object[]> obtenerNivelesStockEnAlerta();
+
+    /**
+     * Nivel de stock de productos puntuales (tras una venta, un movimiento
+     * o una edición). Filas: [id, stockActual, stockMinimo, activo]
+     */
+    @Query("SELECT p.id, p.stockActual, p.stockMinimo, p.activo FROM Product p WHERE p.id IN :ids")
+    List<Object[]> obtenerNivelesStock(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Productos que ya existían antes de la fecha (todos o uno), para cortes
+     * y consultas de stock a una fecha.
+     * Filas: [id, codigoSku, nombre, stockActual, precioBase]
+     */
+    @Query("""
+            SELECT p.id, p.codigoSku, p.nombre, p.stockActual, p.precioBase FROM Product p
+            WHERE p.fechaCreacion < :fecha
+            AND (:productoId IS NULL OR p.id = :productoId)
+            ORDER BY p.nombre, p.id
+            """)
+    List<Object[]> obtenerCreadosAntesDe(
+            @Param("fecha") LocalDateTime fecha,
+            @Param("productoId") Long productoId);
+
     /**
      * Busca productos con stock disponible.
      */
+    @EntityGraph("Product.catalogo")
     @Query("SELECT p FROM Product p WHERE p.stockActual > 0 AND p.activo = true")
     List<Product> obtenerProductosConStock();
 
@@ -71,6 +146,7 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      * Busca productos en un rango de precios.
      * Corrige el alcance de 'p.activo = true' para aplicar a ambos casos.
      */
+    @EntityGraph("Product.catalogo")
     @Query("""
             SELECT p FROM Product p
             WHERE (
@@ -87,12 +163,14 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     /**
      * Busca productos con oferta activa.
      */
+    @EntityGraph("Product.catalogo")
     @Query("SELECT p FROM Product p WHERE p.precioOferta IS NOT NULL AND p.precioOferta > 0 AND p.precioOferta < p.precioBase AND p.activo = true")
     List<Product> obtenerProductosConOferta();
 
     /**
      * Busca productos con filtros múltiples.
      */
+    @EntityGraph("Product.catalogo")
     @Query("""
             SELECT p FROM Product p
             WHERE (:nombre IS NULL OR LOWER(p.nombre) LIKE LOWER(CONCAT('%', :nombre, '%')))
@@ -119,6 +197,82 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
             @Param("precioMin") BigDecimal precioMin,
             @Param("precioMax") BigDecimal precioMax);
 
+    // ========================================
+    // STOCK ATÓMICO
+    // ========================================
+    // Un solo UPDATE condicional: la BD bloquea la fila solo durante la
+    // sentencia y nunca deja el stock en negativo. No usar
+    // Product.disminuirStock() + save() para ventas ni salidas.
+    // Las copias ya cargadas en la sesión conservan el stock anterior: leer
+    // el nuevo con obtenerStockActual() o refrescar la entidad. Sin
+    // clearAutomatically, para no desprender la venta o pedido en curso.
+
+    /**
+     * Descuenta stock solo si alcanza sin tocar lo reservado por pedidos.
+     *
+     * @return 1 si se descontó, 0 si el stock era insuficiente o no existe
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE Product p
+            SET p.stockActual = p.stockActual - :cantidad,
+                p.fechaActualizacion = CURRENT_TIMESTAMP
+            WHERE p.id = :id
+            AND p.stockActual - p.stockReservado >= :cantidad
+            """)
+    int disminuirStockSiDisponible(@Param("id") Long id, @Param("cantidad") int cantidad);
+
+    /**
+     * Aumenta stock (entradas y devoluciones).
+     *
+     * @return 1 si se actualizó, 0 si el producto no existe
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE Product p
+            SET p.stockActual = p.stockActual + :cantidad,
+                p.fechaActualizacion = CURRENT_TIMESTAMP
+            WHERE p.id = :id
+            """)
+    int aumentarStock(@Param("id") Long id, @Param("cantidad") int cantidad);
+
+    /**
+     * Aparta unidades para un pedido si hay stock disponible
+     * (stockActual - stockReservado).
+     *
+     * @return 1 si se reservó, 0 si no alcanza
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE Product p
+            SET p.stockReservado = p.stockReservado + :cantidad
+            WHERE p.id = :id
+            AND p.stockActual - p.stockReservado >= :cantidad
+            """)
+    int reservarStock(@Param("id") Long id, @Param("cantidad") int cantidad);
+
+    /**
+     * Devuelve unidades reservadas al stock disponible.
+     *
+     * @return 1 si se liberó, 0 si no había tanto reservado
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE Product p
+            SET p.stockReservado = p.stockReservado - :cantidad
+            WHERE p.id = :id
+            AND p.stockReservado >= :cantidad
+            """)
+    int liberarStockReservado(@Param("id") Long id, @Param("cantidad") int cantidad);
+
+    /**
+     * Lee el stock vigente en BD (ignora la copia en memoria de la sesión).
+     * Tras un UPDATE en la misma transacción, la fila sigue bloqueada y el
+     * valor leído es exacto.
+     */
+    @Query("SELECT p.stockActual FROM Product p WHERE p.id = :id")
+    Optional<Integer> obtenerStockActual(@Param("id") Long id);
+
     /**
      * Cuenta productos activos.
      */
@@ -132,4 +286,175 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     long countByCategoriaIdAndActivoTrue(Long categoriaId);
 
     long countByMarcaIdAndActivoTrue(Long marcaId);
+
+    // ========================================
+    // PAGINACIÓN POR CURSOR (KEYSET)
+    // ========================================
+    // El Pageable solo se usa para el LIMIT (siempre página 0).
+    // Los parámetros "ultimo*" son la posición del último registro de la
+    // página anterior; en la primera página llegan valores que quedan antes
+    // de todos (ver ProductService.paginar), no null: así el filtro es un
+    // rango sobre el índice del orden y no un "IS NULL OR ...".
+    // "activos" es [true] en el catálogo y [true, false] en el panel.
+    // Cada orden tiene su variante por categoría para usar el índice
+    // (activo, categoria_id, ...) en lugar de un "categoriaId IS NULL OR".
+
+    /**
+     * Productos del más reciente al más antiguo (id DESC).
+     */
+    @EntityGraph("Product.catalogo")
+    @Query("""
+            SELECT p FROM Product p
+            WHERE p.activo IN :activos
+            AND p.id < :ultimoId
+            ORDER BY p.id DESC
+            """)
+    List<Product> paginarPorRecientes(
+            @Param("activos") Collection<Boolean> activos,
+            @Param("ultimoId") Long ultimoId,
+            Pageable limite);
+
+    /**
+     * Igual que paginarPorRecientes, de una categoría.
+     */
+    @EntityGraph("Product.catalogo")
+    @Query("""
+            SELECT p FROM Product p
+            WHERE p.activo IN :activos
+            AND p.categoria.id = :categoriaId
+            AND p.id < :ultimoId
+            ORDER BY p.id DESC
+            """)
+    List<Product> paginarPorRecientesEnCategoria(
+            @Param("activos") Collection<Boolean> activos,
+            @Param("categoriaId") Long categoriaId,
+            @Param("ultimoId") Long ultimoId,
+            Pageable limite);
+
+    /**
+     * Productos por nombre (nombre ASC, id ASC).
+     */
+    @EntityGraph("Product.catalogo")
+    @Query("""
+            SELECT p FROM Product p
+            WHERE p.activo IN :activos
+            AND p.nombre >= :ultimoNombre
+            AND (p.nombre > :ultimoNombre OR p.id > :ultimoId)
+            ORDER BY p.nombre ASC, p.id ASC
+            """)
+    List<Product> paginarPorNombre(
+            @Param("activos") Collection<Boolean> activos,
+            @Param("ultimoNombre") String ultimoNombre,
+            @Param("ultimoId") Long ultimoId,
+            Pageable limite);
+
+    /**
+     * Igual que paginarPorNombre, de una categoría.
+     */
+    @EntityGraph("Product.catalogo")
+    @Query("""
+            SELECT p FROM Product p
+            WHERE p.activo IN :activos
+            AND p.categoria.id = :categoriaId
+            AND p.nombre >= :ultimoNombre
+            AND (p.nombre > :ultimoNombre OR p.id > :ultimoId)
+            ORDER BY p.nombre ASC, p.id ASC
+            """)
+    List<Product> paginarPorNombreEnCategoria(
+            @Param("activos") Collection<Boolean> activos,
+            @Param("categoriaId") Long categoriaId,
+            @Param("ultimoNombre") String ultimoNombre,
+            @Param("ultimoId") Long ultimoId,
+            Pageable limite);
+
+    /**
+     * Productos por precio vigente ascendente (precio ASC, id ASC).
+     */
+    @EntityGraph("Product.catalogo")
+    @Query("""
+            SELECT p FROM Product p
+            WHERE p.activo IN :activos
+            AND p.precioVigente >= :ultimoPrecio
+            AND (p.precioVigente > :ultimoPrecio OR p.id > :ultimoId)
+            ORDER BY p.precioVigente ASC, p.id ASC
+            """)
+    List<Product> paginarPorPrecioAsc(
+            @Param("activos") Collection<Boolean> activos,
+            @Param("ultimoPrecio") BigDecimal ultimoPrecio,
+            @Param("ultimoId") Long ultimoId,
+            Pageable limite);
+
+    /**
+     * Igual que paginarPorPrecioAsc, de una categoría.
+     */
+    @EntityGraph("Product.catalogo")
+    @Query("""
+            SELECT p FROM Product p
+            WHERE p.activo IN :activos
+            AND p.categoria.id = :categoriaId
+            AND p.precioVigente >= :ultimoPrecio
+            AND (p.precioVigente > :ultimoPrecio OR p.id > :ultimoId)
+            ORDER BY p.precioVigente ASC, p.id ASC
+            """)
+    List<Product> paginarPorPrecioAscEnCategoria(
+            @Param("activos") Collection<Boolean> activos,
+            @Param("categoriaId") Long categoriaId,
+            @Param("ultimoPrecio") BigDecimal ultimoPrecio,
+            @Param("ultimoId") Long ultimoId,
+            Pageable limite);
+
+    /**
+     * Productos por precio vigente descendente (precio DESC, id DESC).
+     */
+    @EntityGraph("Product.catalogo")
+    @Query("""
+            SELECT p FROM Product p
+            WHERE p.activo IN :activos
+            AND p.precioVigente <= :ultimoPrecio
+            AND (p.precioVigente < :ultimoPrecio OR p.id < :ultimoId)
+            ORDER BY p.precioVigente DESC, p.id DESC
+            """)
+    List<Product> paginarPorPrecioDesc(
+            @Param("activos") Collection<Boolean> activos,
+            @Param("ultimoPrecio") BigDecimal ultimoPrecio,
+            @Param("ultimoId") Long ultimoId,
+            Pageable limite);
+
+    /**
+     * Igual que paginarPorPrecioDesc, de una categoría.
+     */
+    @EntityGraph("Product.catalogo")
+    @Query("""
+            SELECT p FROM Product p
+            WHERE p.activo IN :activos
+            AND p.categoria.id = :categoriaId
+            AND p.precioVigente <= :ultimoPrecio
+            AND (p.precioVigente < :ultimoPrecio OR p.id < :ultimoId)
+            ORDER BY p.precioVigente DESC, p.id DESC
+            """)
+    List<Product> paginarPorPrecioDescEnCategoria(
+            @Param("activos") Collection<Boolean> activos,
+            @Param("categoriaId") Long categoriaId,
+            @Param("ultimoPrecio") BigDecimal ultimoPrecio,
+            @Param("ultimoId") Long ultimoId,
+            Pageable limite);
+
+    /**
+     * Recorre los productos activos para exportar el inventario
+     * (solo columnas, sin entidades ni imágenes).
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT p.codigoSku, p.nombre, cat.nombre, m.nombre, p.precioBase, p.precioOferta,
+                   p.stockActual, p.stockReservado, p.stockMinimo
+            FROM Product p
+            LEFT JOIN p.categoria cat
+            LEFT JOIN p.marca m
+            WHERE p.activo = true
+            ORDER BY p.nombre, p.id
+            """)
+    Stream<Object[]> streamInventarioParaExportar();
 }
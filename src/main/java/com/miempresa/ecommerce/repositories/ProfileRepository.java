@@ -3,7 +3,10 @@ package com.miempresa.ecommerce.repositories;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.miempresa.ecommerce.models.Profile;
@@ -22,9 +25,17 @@ public interface ProfileRepository extends JpaRepository<Profile, Long> {
      */
     Optional<Profile> findByNombre(String nombre);
 
+    /**
+     * Listado general de perfiles (con sus permisos).
+     */
+    @Override
+    @EntityGraph(attributePaths = "permisos")
+    List<Profile> findAll();
+
     /**
      * Busca perfiles activos.
      */
+    @EntityGraph(attributePaths = "permisos")
     List<Profile> findByActivoTrue();
 
     /**
@@ -37,4 +48,14 @@ public interface ProfileRepository extends JpaRepository<Profile, Long> {
      * mayúsculas).
      */
     List<Profile> findByNombreContainingIgnoreCase(String nombre);
+
+    /**
+     * Códigos de los permisos de un perfil (sin cargar las entidades).
+     */
+    @Query("""
+            SELECT p.codigo FROM Profile pr
+            JOIN pr.permisos p
+            WHERE pr.id = :perfilId
+            """)
+    List<String> obtenerCodigosPermisos(@Param("perfilId") Long perfilId);
 }
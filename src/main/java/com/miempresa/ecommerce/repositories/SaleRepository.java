@@ -2,11 +2,16 @@ package com.miempresa.ecommerce.repositories;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -14,6 +19,8 @@ import com.miempresa.ecommerce.models.Sale;
 import com.miempresa.ecommerce.models.enums.EstadoVenta;
 import com.miempresa.ecommerce.models.enums.TipoPago;
 
+import jakarta.persistence.QueryHint;
+
 /**
  * REPOSITORY: VENTA
  * 
@@ -25,16 +32,67 @@ public interface SaleRepository extends JpaRepository<Sale, Long> {
         /**
          * Busca una venta por su número.
          */
+        @EntityGraph("Sale.detalle")
         Optional<Sale> findByNumeroVenta(String numeroVenta);
 
+        /**
+         * Indica si un pedido ya se convirtió en venta.
+         */
+        boolean existsByPedidoId(Long pedidoId);
+
+        /**
+         * Carga una venta con cliente, usuario y detalles (con su producto)
+         * para la vista de detalle.
+         */
+        @EntityGraph("Sale.detalle")
+        @Query("SELECT s FROM Sale s WHERE s.id = :id")
+        Optional<Sale> findDetalleById(@Param("id") Long id);
+
+        /**
+         * Listado general de ventas (con cliente y vendedor).
+         */
+        @Override
+        @EntityGraph("Sale.listado")
+        List<Sale> findAll();
+
+        /**
+         * Obtiene solo el número de una venta (sin cargar la venta).
+         */
+        @Query("SELECT s.numeroVenta FROM Sale s WHERE s.id = :id")
+        Optional<String> obtenerNumeroVenta(@Param("id") Long id);
+
+        /**
+         * Carga ventas por ID con cliente, usuario y detalles en una sola
+         * consulta (impresión de boletas en lote).
+         */
+        @EntityGraph("Sale.boleta")
+        @Query("SELECT s FROM Sale s WHERE s.id IN :ids")
+        List<Sale> buscarParaBoletas(@Param("ids") Collection<Long> ids);
+
+        /**
+         * IDs de las ventas en un estado dentro de un rango, en orden cronológico.
+         */
+        @Query("""
+                        SELECT s.id FROM Sale s
+                        WHERE s.estado = :estado
+                        AND s.fechaVenta BETWEEN :inicio AND :fin
+                        ORDER BY s.fechaVenta, s.id
+                        """)
+        List<Long> obtenerIdsPorEstadoYFecha(
+                        @Param("estado") EstadoVenta estado,
+                        @Param("inicio") LocalDateTime inicio,
+                        @Param("fin") LocalDateTime fin);
+
         /**
          * Busca ventas por estado.
          */
+        @EntityGraph("Sale.listado")
         List<Sale> findByEstadoOrderByFechaVentaDesc(EstadoVenta estado);
 
         /**
          * Busca ventas completadas.
          */
+        @EntityGraph("Sale.listado")
         @Query("""
                         SELECT s FROM Sale s
                         WHERE s.estado = 'COMPLETADA'
@@ -45,16 +103,29 @@ public interface SaleRepository extends JpaRepository<Sale, Long> {
         /**
          * Busca ventas de un cliente.
          */
-        List<Sale> findByClienteIdOrderByFechaVentaDesc(Long clienteId);
+        @EntityGraph("Sale.listado")
+        @Query("""
+                        SELECT s FROM Sale s
+                        WHERE s.cliente.id = :clienteId
+                        ORDER BY s.fechaVenta DESC
+                        """)
+        List<Sale> findByClienteIdOrderByFechaVentaDesc(@Param("clienteId") Long clienteId);
 
         /**
          * Busca ventas de un usuario (vendedor).
          */
-        List<Sale> findByUsuarioIdOrderByFechaVentaDesc(Long usuarioId);
+        @EntityGraph("Sale.listado")
+        @Query("""
+                        SELECT s FROM Sale s
+                        WHERE s.usuario.id = :usuarioId
+                        ORDER BY s.fechaVenta DESC
+                        """)
+        List<Sale> findByUsuarioIdOrderByFechaVentaDesc(@Param("usuarioId") Long usuarioId);
 
         /**
          * Busca ventas en un rango de fechas.
          */
+        @EntityGraph("Sale.listado")
         List<Sale> findByFechaVentaBetweenOrderByFechaVentaDesc(
                         LocalDateTime fechaInicio,
                         LocalDateTime fechaFin);
@@ -62,11 +133,13 @@ public interface SaleRepository extends JpaRepository<Sale, Long> {
         /**
          * Busca ventas por tipo de pago.
          */
+        @EntityGraph("Sale.listado")
         List<Sale> findByTipoPagoOrderByFechaVentaDesc(TipoPago tipoPago);
 
         /**
          * Busca ventas a crédito.
          */
+        @EntityGraph("Sale.listado")
         List<Sale> findByTipoPagoAndEstadoOrderByFechaVentaDesc(TipoPago tipoPago, EstadoVenta estado);
 
         /**
@@ -74,14 +147,22 @@ public interface SaleRepository extends JpaRepository<Sale, Long> {
          */
         long countByEstado(EstadoVenta estado);
 
+        /**
+         * Cuenta las ventas de una ventana [inicio, fin) (cualquier estado).
+         */
+        @Query("SELECT COUNT(s) FROM Sale s WHERE s.fechaVenta >= :inicio AND s.fechaVenta < :fin")
+        long contarEnVentana(@Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin);
+
         /**
          * Obtiene las últimas ventas.
          */
+        @EntityGraph("Sale.listado")
         List<Sale> findTop20ByOrderByFechaVentaDesc();
 
         /**
          * Busca ventas con filtros múltiples.
          */
+        @EntityGraph("Sale.listado")
         @Query("""
                         SELECT s FROM Sale s
                         WHERE (:clienteId IS NULL OR s.cliente.id = :clienteId)
@@ -115,6 +196,9 @@ public interface SaleRepository extends JpaRepository<Sale, Long> {
 
         /**
          * Genera el siguiente número de venta.
+         *
+         * Recorre todos los documentos del año: solo se usa para
+         * inicializar 'contadores_documento' (ver DocumentNumberService).
          */
         @Query("""
                         SELECT COALESCE(MAX(CAST(SUBSTRING(s.numeroVenta, 10) AS long)), 0) + 1
@@ -124,42 +208,90 @@ public interface SaleRepository extends JpaRepository<Sale, Long> {
         Long generarSiguienteNumero(@Param("prefijo") String prefijo);
 
         /**
-         * Obtiene ventas del día actual.
+         * Ventas completadas en una ventana [inicio, fin) (día, mes... ver TimeWindow).
+         * Compara fecha_venta contra los límites: recorre el índice por rango.
          */
+        @EntityGraph("Sale.listado")
         @Query("""
                         SELECT s FROM Sale s
-                        WHERE FUNCTION('DATE', s.fechaVenta) = CURRENT_DATE
-                        AND s.estado = 'COMPLETADA'
+                        WHERE s.estado = 'COMPLETADA'
+                        AND s.fechaVenta >= :inicio
+                        AND s.fechaVenta < :fin
                         ORDER BY s.fechaVenta DESC
                         """)
-        List<Sale> obtenerVentasDelDia();
+        List<Sale> obtenerVentasCompletadasEnVentana(
+                        @Param("inicio") LocalDateTime inicio,
+                        @Param("fin") LocalDateTime fin);
 
         /**
-         * Obtiene ventas del mes actual.
+         * Cantidad de ventas completadas en un rango de fechas.
          */
         @Query("""
-                        SELECT s FROM Sale s
-                        WHERE FUNCTION('YEAR', s.fechaVenta) = FUNCTION('YEAR', CURRENT_DATE)
-                        AND FUNCTION('MONTH', s.fechaVenta) = FUNCTION('MONTH', CURRENT_DATE)
-                        AND s.estado = 'COMPLETADA'
-                        ORDER BY s.fechaVenta DESC
+                        SELECT COUNT(s)
+                        FROM Sale s
+                        WHERE s.estado = 'COMPLETADA'
+                        AND s.fechaVenta BETWEEN :fechaInicio AND :fechaFin
+                        """)
+        long contarVentasPorFecha(
+                        @Param("fechaInicio") LocalDateTime fechaInicio,
+                        @Param("fechaFin") LocalDateTime fechaFin);
+
+        /**
+         * Totales por día de las ventas completadas, para reconstruir
+         * 'ventas_resumen_diario'. Columnas: fecha, cantidad, subtotal,
+         * descuento, costoEnvio, igv, total, cantidadContado, totalContado,
+         * cantidadCredito, totalCredito.
+         */
+        @Query("""
+                        SELECT CAST(s.fechaVenta AS LocalDate),
+                               COUNT(s),
+                               COALESCE(SUM(s.subtotal), 0),
+                               COALESCE(SUM(COALESCE(s.descuento, 0)), 0),
+                               COALESCE(SUM(COALESCE(s.costoEnvio, 0)), 0),
+                               COALESCE(SUM(COALESCE(s.igv, 0)), 0),
+                               COALESCE(SUM(s.total), 0),
+                               SUM(CASE WHEN s.tipoPago = 'CONTADO' THEN 1 ELSE 0 END),
+                               COALESCE(SUM(CASE WHEN s.tipoPago = 'CONTADO' THEN s.total END), 0),
+                               SUM(CASE WHEN s.tipoPago = 'CREDITO' THEN 1 ELSE 0 END),
+                               COALESCE(SUM(CASE WHEN s.tipoPago = 'CREDITO' THEN s.total END), 0)
+                        FROM Sale s
+                        WHERE s.estado = 'COMPLETADA'
+                        AND s.fechaVenta >= :inicio
+                        AND s.fechaVenta < :fin
+                        GROUP BY CAST(s.fechaVenta AS LocalDate)
                         """)
-        List<Sale> obtenerVentasDelMes();
+        List<Object[]> resumirPorDia(
+                        @Param("inicio") LocalDateTime inicio,
+                        @Param("fin") LocalDateTime fin);
+
+        /**
+         * Fecha de la venta más antigua (null si no hay ventas).
+         */
+        @Query("SELECT MIN(s.fechaVenta) FROM Sale s")
+        LocalDateTime obtenerFechaPrimeraVenta();
 
         /**
-         * Obtiene estadísticas de ventas por día.
+         * Recorre las ventas de un rango para exportarlas (solo columnas,
+         * sin entidades). Debe consumirse dentro de una transacción y cerrarse.
          */
+        @QueryHints({
+                        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+        })
         @Query("""
-                        SELECT FUNCTION('DATE', s.fechaVenta) AS fecha,
-                               COUNT(s) AS cantidad,
-                               SUM(s.total) AS total
+                        SELECT s.numeroVenta, s.fechaVenta,
+                               c.tipoDocumento, c.numeroDocumento, c.nombres, c.apellidoPaterno,
+                               c.apellidoMaterno, c.razonSocial,
+                               s.tipoPago, s.estado, s.subtotal, s.descuento, s.costoEnvio,
+                               s.igv, s.total, u.username
                         FROM Sale s
-                        WHERE s.fechaVenta BETWEEN :fechaInicio AND :fechaFin
-                        AND s.estado = 'COMPLETADA'
-                        GROUP BY FUNCTION('DATE', s.fechaVenta)
-                        ORDER BY fecha DESC
+                        JOIN s.cliente c
+                        JOIN s.usuario u
+                        WHERE s.fechaVenta >= :inicio
+                        AND s.fechaVenta < :fin
+                        ORDER BY s.fechaVenta, s.id
                         """)
-        List<Object[]> obtenerEstadisticasPorDia(
-                        @Param("fechaInicio") LocalDateTime fechaInicio,
-                        @Param("fechaFin") LocalDateTime fechaFin);
+        Stream<Object[]> streamParaExportar(
+                        @Param("inicio") LocalDateTime inicio,
+                        @Param("fin") LocalDateTime fin);
 }
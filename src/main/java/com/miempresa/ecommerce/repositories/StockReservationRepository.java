@@ -0,0 +1,76 @@
+package com.miempresa.ecommerce.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.miempresa.ecommerce.models.StockReservation;
+import com.miempresa.ecommerce.models.enums.EstadoReserva;
+
+/**
+ * REPOSITORY: RESERVA DE STOCK
+ * 
+ * Interface para acceder a la tabla 'reservas_stock'.
+ */
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+        /**
+         * Busca las reservas de un pedido por estado.
+         */
+        @Query("""
+                        SELECT r FROM StockReservation r
+                        JOIN FETCH r.producto
+                        WHERE r.pedido.id = :pedidoId
+                        AND r.estado = :estado
+                        ORDER BY r.producto.id ASC
+                        """)
+        List<StockReservation> buscarPorPedidoYEstado(
+                        @Param("pedidoId") Long pedidoId,
+                        @Param("estado") EstadoReserva estado);
+
+        /**
+         * IDs de reservas activas vencidas: pedidos pendientes tras el TTL y
+         * pedidos confirmados que no se facturaron tras el TTL de confirmados.
+         * Las de pedidos facturados o cancelados ya no están ACTIVAS.
+         */
+        @Query("""
+                        SELECT r.id FROM StockReservation r
+                        WHERE r.estado = 'ACTIVA'
+                        AND r.fechaExpiracion < :ahora
+                        ORDER BY r.fechaExpiracion ASC
+                        """)
+        List<Long> buscarVencidas(@Param("ahora") LocalDateTime ahora, Pageable limite);
+
+        /**
+         * Cambia el estado de una reserva solo si sigue ACTIVA.
+         * Retorna 0 si otro proceso ya la liberó, consumió o expiró.
+         */
+        @Modifying(flushAutomatically = true)
+        @Query("""
+                        UPDATE StockReservation r
+                        SET r.estado = :nuevoEstado
+                        WHERE r.id = :id
+                        AND r.estado = 'ACTIVA'
+                        """)
+        int cerrarSiActiva(@Param("id") Long id, @Param("nuevoEstado") EstadoReserva nuevoEstado);
+
+        /**
+         * Cambia el vencimiento de las reservas activas de un pedido.
+         */
+        @Modifying(flushAutomatically = true)
+        @Query("""
+                        UPDATE StockReservation r
+                        SET r.fechaExpiracion = :fechaExpiracion
+                        WHERE r.pedido.id = :pedidoId
+                        AND r.estado = 'ACTIVA'
+                        """)
+        int cambiarVencimiento(@Param("pedidoId") Long pedidoId,
+                        @Param("fechaExpiracion") LocalDateTime fechaExpiracion);
+}
@@ -3,6 +3,7 @@ package com.miempresa.ecommerce.repositories;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -23,6 +24,20 @@ public interface UserRepository extends JpaRepository<User, Long> {
          */
         Optional<User> findByUsername(String username);
 
+        /**
+         * Carga un usuario con su perfil y permisos para el login
+         * (los permisos se leen al armar las autoridades).
+         */
+        @EntityGraph("User.autenticacion")
+        Optional<User> findParaAutenticacionByUsername(String username);
+
+        /**
+         * Listado general de usuarios (con su perfil).
+         */
+        @Override
+        @EntityGraph("User.listado")
+        List<User> findAll();
+
         /**
          * Busca un usuario por su email.
          */
@@ -31,21 +46,28 @@ public interface UserRepository extends JpaRepository<User, Long> {
         /**
          * Busca usuarios activos.
          */
+        @EntityGraph("User.listado")
         List<User> findByActivoTrue();
 
         /**
          * Busca usuarios inactivos.
          */
+        @EntityGraph("User.listado")
         List<User> findByActivoFalse();
 
         /**
          * Busca usuarios por perfil.
          */
-        List<User> findByPerfilId(Long perfilId);
+        @EntityGraph("User.listado")
+        @Query("""
+                        SELECT u FROM User u WHERE u.perfil.id = :perfilId
+                        """)
+        List<User> findByPerfilId(@Param("perfilId") Long perfilId);
 
         /**
          * Busca usuarios cuyo nombre contenga un texto.
          */
+        @EntityGraph("User.listado")
         List<User> findByNombreContainingIgnoreCase(String nombre);
 
         /**
@@ -61,7 +83,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
         /**
          * Busca usuarios por perfil y estado activo.
          */
-        List<User> findByPerfilIdAndActivoTrue(Long perfilId);
+        @EntityGraph("User.listado")
+        @Query("""
+                        SELECT u FROM User u
+                        WHERE u.perfil.id = :perfilId
+                        AND u.activo = true
+                        """)
+        List<User> findByPerfilIdAndActivoTrue(@Param("perfilId") Long perfilId);
 
         /**
          * Busca usuario por username y que esté activo.
@@ -72,6 +100,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
         /**
          * Busca usuarios activos por nombre de perfil.
          */
+        @EntityGraph("User.listado")
         @Query("""
                         SELECT u FROM User u
                         WHERE u.perfil.nombre = :nombrePerfil
@@ -88,6 +117,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
         /**
          * Busca usuarios con filtros múltiples.
          */
+        @EntityGraph("User.listado")
         @Query("""
                         SELECT u FROM User u
                         WHERE (:nombre IS NULL OR LOWER(TRIM(u.nombre)) LIKE LOWER(CONCAT('%', TRIM(:nombre), '%')))
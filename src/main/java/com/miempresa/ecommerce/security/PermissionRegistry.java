@@ -0,0 +1,157 @@
+package com.miempresa.ecommerce.security;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.miempresa.ecommerce.repositories.ProfileRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * REGISTRO DE PERMISOS
+ * 
+ * Asigna a cada código de permiso (MODULO_PRODUCTOS, ...) una posición
+ * de bit y guarda un ProfilePermissions por perfil.
+ * 
+ * - Verificar un permiso no recorre colecciones ni crea objetos
+ * - El conjunto de cada perfil se carga una vez desde la base de datos
+ * - PermissionService y ProfileService lo invalidan al cambiar permisos,
+ *   y el cambio aplica sin volver a iniciar sesión
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PermissionRegistry {
+
+    private static final AuthorizationDecision PERMITIDO = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENEGADO = new AuthorizationDecision(false);
+
+    private final ProfileRepository profileRepository;
+
+    // código -> posición del bit
+    private final Map<String, Integer> indices = new ConcurrentHashMap<>();
+
+    // posición del bit -> código
+    private final List<String> codigos = new CopyOnWriteArrayList<>();
+
+    // perfilId -> permisos
+    private final Map<Long, ProfilePermissions> porPerfil = new ConcurrentHashMap<>();
+
+    // ========================================
+    // POSICIONES DE BIT
+    // ========================================
+
+    /**
+     * Posición del código, o -1 si ningún perfil lo tiene todavía
+     */
+    public int indice(String codigo) {
+        Integer indice = indices.get(codigo);
+        return indice != null ? indice : -1;
+    }
+
+    String codigo(int indice) {
+        return codigos.get(indice);
+    }
+
+    /**
+     * Devuelve la posición del código, asignándole una nueva si no tenía.
+     * Las posiciones no cambian mientras la aplicación está levantada.
+     */
+    public int registrar(String codigo) {
+        Integer indice = indices.get(codigo);
+        if (indice != null) {
+            return indice;
+        }
+        synchronized (this) {
+            return indices.computeIfAbsent(codigo, c -> {
+                codigos.add(c);
+                return codigos.size() - 1;
+            });
+        }
+    }
+
+    // ========================================
+    // PERMISOS POR PERFIL
+    // ========================================
+
+    /**
+     * Permisos del perfil (cargados una vez y reutilizados)
+     */
+    public ProfilePermissions permisosDe(Long perfilId) {
+        return porPerfil.computeIfAbsent(perfilId, this::cargar);
+    }
+
+    private ProfilePermissions cargar(Long perfilId) {
+        BitSet bits = new BitSet();
+        for (String codigo : profileRepository.obtenerCodigosPermisos(perfilId)) {
+            bits.set(registrar(codigo));
+        }
+        log.debug("Permisos del perfil ID {} cargados: {}", perfilId, bits.cardinality());
+        return new ProfilePermissions(this, bits);
+    }
+
+    /**
+     * Permisos del usuario autenticado, o null si no es un usuario del sistema
+     */
+    public ProfilePermissions permisosDe(Authentication authentication) {
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserDetailsImpl userDetails)) {
+            return null;
+        }
+        Long perfilId = userDetails.getUser().getPerfil().getId();
+        return perfilId != null ? permisosDe(perfilId) : null;
+    }
+
+    /**
+     * Regla para SecurityConfig: el usuario debe tener el permiso indicado
+     */
+    public AuthorizationManager<RequestAuthorizationContext> requiere(String codigo) {
+        int indice = registrar(codigo);
+        return (authentication, contexto) -> {
+            ProfilePermissions permisos = permisosDe(authentication.get());
+            return permisos != null && permisos.tieneIndice(indice) ? PERMITIDO : DENEGADO;
+        };
+    }
+
+    // ========================================
+    // INVALIDACIÓN
+    // ========================================
+
+    /**
+     * Descarta los permisos guardados de un perfil al confirmar la transacción
+     */
+    public void invalidar(Long perfilId) {
+        alConfirmar(() -> porPerfil.remove(perfilId));
+    }
+
+    /**
+     * Descarta los permisos guardados de todos los perfiles
+     */
+    public void invalidarTodos() {
+        alConfirmar(porPerfil::clear);
+    }
+
+    private void alConfirmar(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.miempresa.ecommerce.security;
+
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Iterator;
+
+/**
+ * PERMISOS DE UN PERFIL
+ * 
+ * Conjunto inmutable de códigos de permiso guardado como bits.
+ * Cada código tiene una posición fija asignada por PermissionRegistry,
+ * así que contains("MODULO_VENTAS") es una sola prueba de bit.
+ * 
+ * Al ser un Set<String>, las vistas lo siguen usando igual:
+ * th:if="${userPermisos.contains('MODULO_PRODUCTOS')}"
+ */
+public final class ProfilePermissions extends AbstractSet<String> {
+
+    private final PermissionRegistry registro;
+    private final BitSet bits;
+    private final int tamanio;
+
+    ProfilePermissions(PermissionRegistry registro, BitSet bits) {
+        this.registro = registro;
+        this.bits = (BitSet) bits.clone();
+        this.tamanio = bits.cardinality();
+    }
+
+    /**
+     * Verifica el permiso por su posición (ver PermissionRegistry.indice)
+     */
+    public boolean tieneIndice(int indice) {
+        return indice >= 0 && bits.get(indice);
+    }
+
+    @Override
+    public boolean contains(Object codigo) {
+        return codigo instanceof String texto && tieneIndice(registro.indice(texto));
+    }
+
+    @Override
+    public int size() {
+        return tamanio;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return bits.stream().mapToObj(registro::codigo).iterator();
+    }
+}
@@ -2,6 +2,7 @@ package com.miempresa.ecommerce.security;
 
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.springframework.security.core.GrantedAuthority;
@@ -32,19 +33,27 @@ public class UserDetailsImpl implements UserDetails {
 
     private final User user;
 
+    // Se arma una sola vez por sesión
+    private transient volatile List<GrantedAuthority> authorities;
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        Set<GrantedAuthority> authorities = new HashSet<>();
+        List<GrantedAuthority> resultado = authorities;
+        if (resultado == null) {
+            Set<GrantedAuthority> conjunto = new HashSet<>();
 
-        // Agregar el perfil como rol
-        authorities.add(new SimpleGrantedAuthority("ROLE_" + user.getPerfil().getNombre()));
+            // Agregar el perfil como rol
+            conjunto.add(new SimpleGrantedAuthority("ROLE_" + user.getPerfil().getNombre()));
 
-        // Agregar cada permiso como authority
-        for (Permission permission : user.getPerfil().getPermisos()) {
-            authorities.add(new SimpleGrantedAuthority(permission.getCodigo()));
-        }
+            // Agregar cada permiso como authority
+            for (Permission permission : user.getPerfil().getPermisos()) {
+                conjunto.add(new SimpleGrantedAuthority(permission.getCodigo()));
+            }
 
-        return authorities;
+            resultado = List.copyOf(conjunto);
+            authorities = resultado;
+        }
+        return resultado;
     }
 
     @Override
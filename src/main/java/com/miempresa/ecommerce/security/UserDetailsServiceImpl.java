@@ -45,8 +45,8 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         log.debug("Intentando cargar usuario: {}", username);
 
-        // Buscar usuario en la base de datos
-        User user = userRepository.findByUsername(username)
+        // Buscar usuario con perfil y permisos (las autoridades se leen fuera de la transacción)
+        User user = userRepository.findParaAutenticacionByUsername(username)
                 .orElseThrow(() -> {
                     log.error("Usuario no encontrado: {}", username);
                     return new UsernameNotFoundException("Usuario no encontrado: " + username);
@@ -0,0 +1,412 @@
+package com.miempresa.ecommerce.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.miempresa.ecommerce.config.EmpresaConfig;
+import com.miempresa.ecommerce.models.Sale;
+import com.miempresa.ecommerce.models.enums.EstadoVenta;
+import com.miempresa.ecommerce.repositories.SaleRepository;
+import com.miempresa.ecommerce.utils.PdfGeneratorUtil;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * SERVICE: BOLETAS GENERADAS
+ *
+ * Guarda en disco el PDF de la boleta de cada venta (por número de venta).
+ * Una venta completada no cambia, así que la boleta se genera una sola vez
+ * y las reimpresiones solo leen el archivo.
+ *
+ * - crearVenta → se genera en segundo plano cuando la transacción confirma
+ *   (cola acotada: si está llena, se genera al imprimirla)
+ * - anularVenta → se borra el archivo (la próxima impresión la regenera);
+ *   una generación en curso que leyó la venta antes de anularse no lo
+ *   vuelve a escribir
+ * - Si se pide antes de que exista, se genera en el hilo de la petición;
+ *   si ya se está generando se espera a lo sumo 'espera-ms' por ella
+ * - Reimpresión en lote: varias boletas en un solo PDF, leyendo las ventas
+ *   por bloques (no usa los archivos guardados)
+ */
+
+@Service
+@Slf4j
+public class BoletaService {
+
+    private final SaleRepository saleRepository;
+    private final EmpresaConfig empresaConfig;
+    private final TransactionTemplate lectura;
+    private final EntityManager entityManager;
+    private final Path directorio;
+    private final int maxPorLote;
+    private final int tamanioBloque;
+    private final long esperaMs;
+    private final ExecutorService executor;
+
+    // numeroVenta -> generación en curso
+    private final Map<String, CompletableFuture<Path>> enCurso = new ConcurrentHashMap<>();
+
+    // numeroVenta -> generación de las boletas que se están renderizando.
+    // Solo hay entrada mientras alguna se renderiza (es lo único que la
+    // lee), así el mapa no crece con cada venta anulada o editada. Se
+    // modifica, y se compara antes de mover el archivo, bajo su propio lock.
+    private final Map<String, Generacion> generaciones = new HashMap<>();
+
+    /**
+     * Boleta lista para enviar. El ETag cambia si el archivo se regenera.
+     */
+    public record Boleta(String numeroVenta, Path archivo, String etag) {
+    }
+
+    /**
+     * Veces que se invalidó la boleta y renderizados en curso que lo miran
+     */
+    private static class Generacion {
+        private long valor;
+        private int renderizando;
+    }
+
+    public BoletaService(SaleRepository saleRepository, EmpresaConfig empresaConfig,
+            PlatformTransactionManager transactionManager, EntityManager entityManager,
+            @Value("${app.boletas.dir:boletas/}") String directorio,
+            @Value("${app.boletas.max-por-lote:500}") int maxPorLote,
+            @Value("${app.boletas.tamanio-bloque:50}") int tamanioBloque,
+            @Value("${app.boletas.tamanio-cola:100}") int tamanioCola,
+            @Value("${app.boletas.espera-ms:5000}") long esperaMs) {
+        this.saleRepository = saleRepository;
+        this.empresaConfig = empresaConfig;
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+        this.entityManager = entityManager;
+        this.directorio = Paths.get(directorio).toAbsolutePath();
+        this.maxPorLote = maxPorLote;
+        this.tamanioBloque = tamanioBloque;
+        this.esperaMs = esperaMs;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(tamanioCola), tarea -> {
+                    Thread hilo = new Thread(tarea, "boletas");
+                    hilo.setDaemon(true);
+                    return hilo;
+                });
+    }
+
+    @PostConstruct
+    public void inicializar() throws IOException {
+        Files.createDirectories(directorio);
+        log.info("Directorio de boletas: {}", directorio);
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        executor.shutdown();
+    }
+
+    // ========================================
+    // CONSULTA
+    // ========================================
+
+    /**
+     * Devuelve la boleta de una venta, generándola si aún no existe
+     */
+    public Boleta obtener(Long ventaId) throws IOException {
+        String numeroVenta = saleRepository.obtenerNumeroVenta(ventaId)
+                .orElseThrow(() -> new RuntimeException("Venta no encontrada con ID: " + ventaId));
+
+        Path archivo = ruta(numeroVenta);
+        if (!Files.exists(archivo)) {
+            archivo = generarAhora(ventaId, numeroVenta);
+        }
+
+        String etag = "\"" + numeroVenta + "-"
+                + Long.toHexString(Files.getLastModifiedTime(archivo).toMillis()) + "\"";
+        return new Boleta(numeroVenta, archivo, etag);
+    }
+
+    // ========================================
+    // IMPRESIÓN EN LOTE
+    // ========================================
+
+    /**
+     * IDs de las ventas completadas en el rango, validando el máximo por lote
+     */
+    public List<Long> idsParaLote(LocalDateTime inicio, LocalDateTime fin) {
+        return validarLote(saleRepository.obtenerIdsPorEstadoYFecha(EstadoVenta.COMPLETADA, inicio, fin));
+    }
+
+    /**
+     * Valida una lista de IDs para el lote (sin repetidos, en el orden recibido)
+     */
+    public List<Long> validarLote(List<Long> ids) {
+        List<Long> unicos = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (unicos.size() > maxPorLote) {
+            throw new RuntimeException("Se pueden imprimir a lo sumo " + maxPorLote
+                    + " boletas por lote (solicitadas: " + unicos.size() + ")");
+        }
+        return unicos;
+    }
+
+    /**
+     * Escribe las boletas de las ventas indicadas en un solo PDF.
+     *
+     * Las ventas se cargan de a 'tamanio-bloque' con cliente, usuario y
+     * detalles en una consulta; al pasar al siguiente bloque se limpia el
+     * contexto de persistencia, así la memoria no crece con el lote.
+     *
+     * @return Cantidad de boletas escritas (los IDs inexistentes se omiten)
+     */
+    public int escribirLote(List<Long> ids, OutputStream salida) throws IOException {
+        long inicio = System.currentTimeMillis();
+
+        Integer cantidad = lectura.execute(status -> {
+            try {
+                return PdfGeneratorUtil.writeBoletasPdf(salida, new VentasPorBloque(ids),
+                        empresaConfig.getNombre(), empresaConfig.getRuc(), empresaConfig.getDireccion());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        log.info("Lote de boletas: {} de {} ventas en {} ms", cantidad, ids.size(),
+                System.currentTimeMillis() - inicio);
+        return cantidad != null ? cantidad : 0;
+    }
+
+    /**
+     * Recorre las ventas en el orden de 'ids', cargándolas por bloques
+     */
+    private class VentasPorBloque implements Iterator<Sale> {
+
+        private final List<Long> ids;
+        private int siguienteBloque = 0;
+        private Iterator<Sale> bloque = Collections.emptyIterator();
+
+        VentasPorBloque(List<Long> ids) {
+            this.ids = ids;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!bloque.hasNext() && siguienteBloque < ids.size()) {
+                List<Long> idsBloque = ids.subList(siguienteBloque,
+                        Math.min(ids.size(), siguienteBloque + tamanioBloque));
+                siguienteBloque += idsBloque.size();
+
+                // El bloque anterior ya se escribió en el PDF
+                entityManager.clear();
+
+                Map<Long, Sale> porId = new HashMap<>();
+                for (Sale venta : saleRepository.buscarParaBoletas(idsBloque)) {
+                    porId.put(venta.getId(), venta);
+                }
+                bloque = idsBloque.stream().map(porId::get).filter(Objects::nonNull).iterator();
+            }
+            return bloque.hasNext();
+        }
+
+        @Override
+        public Sale next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return bloque.next();
+        }
+    }
+
+    // ========================================
+    // GENERACIÓN E INVALIDACIÓN
+    // ========================================
+
+    /**
+     * Genera la boleta cuando la transacción actual confirma
+     * (fuera de una transacción, de inmediato)
+     */
+    public void generarDespuesDelCommit(Long ventaId, String numeroVenta) {
+        despuesDelCommit(() -> generarEnSegundoPlano(ventaId, numeroVenta));
+    }
+
+    /**
+     * Borra la boleta guardada cuando la transacción actual confirma
+     */
+    public void invalidarDespuesDelCommit(String numeroVenta) {
+        despuesDelCommit(() -> {
+            synchronized (generaciones) {
+                // Sin renderizado en curso no hay a quién avisar: basta borrar el archivo
+                Generacion generacion = generaciones.get(numeroVenta);
+                if (generacion != null) {
+                    generacion.valor++;
+                }
+                try {
+                    if (Files.deleteIfExists(ruta(numeroVenta))) {
+                        log.info("Boleta {} invalidada", numeroVenta);
+                    }
+                } catch (IOException e) {
+                    log.warn("No se pudo borrar la boleta {}: {}", numeroVenta, e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Genera en el hilo de la petición. Si la boleta ya se está generando
+     * se espera esa generación, pero no más de 'espera-ms'.
+     */
+    private Path generarAhora(Long ventaId, String numeroVenta) throws IOException {
+        CompletableFuture<Path> nueva = new CompletableFuture<>();
+        CompletableFuture<Path> existente = enCurso.putIfAbsent(numeroVenta, nueva);
+        if (existente == null) {
+            return ejecutar(ventaId, numeroVenta, nueva);
+        }
+
+        try {
+            return existente.get(esperaMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            log.warn("Boleta {}: la generación en curso no terminó ({}); se genera aquí",
+                    numeroVenta, e.getClass().getSimpleName());
+            return renderizar(ventaId, numeroVenta);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrumpido esperando la boleta " + numeroVenta, e);
+        }
+    }
+
+    /**
+     * Encola la generación. La entrada en 'enCurso' se crea recién cuando
+     * el hilo la toma: una impresión mientras espera en cola no la espera.
+     */
+    private void generarEnSegundoPlano(Long ventaId, String numeroVenta) {
+        try {
+            executor.execute(() -> {
+                CompletableFuture<Path> nueva = new CompletableFuture<>();
+                if (Files.exists(ruta(numeroVenta)) || enCurso.putIfAbsent(numeroVenta, nueva) != null) {
+                    return;
+                }
+                try {
+                    ejecutar(ventaId, numeroVenta, nueva);
+                } catch (RuntimeException e) {
+                    log.error("Error al generar boleta {}: {}", numeroVenta, e.getMessage(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Cola de boletas llena: la boleta {} se generará al imprimirla", numeroVenta);
+        }
+    }
+
+    private Path ejecutar(Long ventaId, String numeroVenta, CompletableFuture<Path> futuro) {
+        try {
+            Path archivo = renderizar(ventaId, numeroVenta);
+            futuro.complete(archivo);
+            return archivo;
+        } catch (RuntimeException e) {
+            futuro.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCurso.remove(numeroVenta, futuro);
+        }
+    }
+
+    private Path renderizar(Long ventaId, String numeroVenta) {
+        Generacion actual;
+        synchronized (generaciones) {
+            actual = generaciones.computeIfAbsent(numeroVenta, n -> new Generacion());
+            actual.renderizando++;
+        }
+        try {
+            return renderizar(ventaId, numeroVenta, actual);
+        } finally {
+            synchronized (generaciones) {
+                if (--actual.renderizando == 0) {
+                    generaciones.remove(numeroVenta);
+                }
+            }
+        }
+    }
+
+    private Path renderizar(Long ventaId, String numeroVenta, Generacion actual) {
+        while (true) {
+            // Se toma antes de leer la venta: si cambia, lo leído puede ser anterior a la anulación
+            long generacion;
+            synchronized (generaciones) {
+                generacion = actual.valor;
+            }
+
+            // Misma carga que el lote: cliente, usuario y detalles en una consulta
+            byte[] pdf = lectura.execute(status -> {
+                Sale venta = saleRepository.buscarParaBoletas(List.of(ventaId)).stream().findFirst()
+                        .orElseThrow(() -> new RuntimeException("Venta no encontrada con ID: " + ventaId));
+                try {
+                    return PdfGeneratorUtil.generateBoletaPdf(venta, empresaConfig.getNombre(),
+                            empresaConfig.getRuc(), empresaConfig.getDireccion());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            try {
+                Path temporal = Files.createTempFile(directorio, "boleta-", ".tmp");
+                Files.write(temporal, pdf);
+                Path destino = ruta(numeroVenta);
+                synchronized (generaciones) {
+                    if (actual.valor == generacion) {
+                        Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING,
+                                StandardCopyOption.ATOMIC_MOVE);
+                        log.info("Boleta {} guardada ({} bytes)", numeroVenta, pdf.length);
+                        return destino;
+                    }
+                }
+                Files.deleteIfExists(temporal);
+                log.info("Boleta {} invalidada mientras se generaba; se genera de nuevo", numeroVenta);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void despuesDelCommit(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+
+    private Path ruta(String numeroVenta) {
+        return directorio.resolve(numeroVenta.replaceAll("[^A-Za-z0-9-]", "_") + ".pdf");
+    }
+}
@@ -21,6 +21,7 @@ public class BrandService {
 
     private final BrandRepository brandRepository;
     private final ProductRepository productRepository; // <<--- INYECTAR ProductRepository
+    private final CatalogSearchService catalogSearchService;
 
     public Brand guardar(Brand brand) {
         log.info("Guardando marca: {}", brand.getNombre());
@@ -73,7 +74,11 @@ public class BrandService {
         // brand.setActivo(brandActualizada.getActivo()); // No actualizar aquí
 
         log.info("Actualizando marca ID: {}", id);
-        return brandRepository.save(brand);
+        Brand guardada = brandRepository.save(brand);
+
+        // El nombre forma parte del índice de búsqueda de sus productos
+        catalogSearchService.indexarTodos(productRepository.findByMarcaIdAndActivoTrue(id));
+        return guardada;
     }
 
     // Corregido: Añadir validación de productos asociados al desactivar
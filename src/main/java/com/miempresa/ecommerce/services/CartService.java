@@ -11,6 +11,7 @@ import java.io.Serializable;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -38,7 +39,7 @@ public class CartService implements Serializable {
                 .orElseThrow(() -> new RuntimeException("Producto no encontrado"));
 
         // Verificar stock
-        if (!producto.hayStock() || producto.getStockActual() < cantidad) {
+        if (producto.getStockDisponible() < cantidad) {
             throw new RuntimeException("Stock insuficiente");
         }
 
@@ -52,7 +53,7 @@ public class CartService implements Serializable {
             CartItem item = existente.get();
             int nuevaCantidad = item.getCantidad() + cantidad;
 
-            if (nuevaCantidad > producto.getStockActual()) {
+            if (nuevaCantidad > producto.getStockDisponible()) {
                 throw new RuntimeException("No hay suficiente stock disponible");
             }
 
@@ -71,7 +72,7 @@ public class CartService implements Serializable {
                     .precio(producto.getPrecioActual())
                     .cantidad(cantidad)
                     .imagenUrl(imagenUrl)
-                    .stockDisponible(producto.getStockActual())
+                    .stockDisponible(producto.getStockDisponible())
                     .build();
 
             items.add(nuevoItem);
@@ -99,8 +100,8 @@ public class CartService implements Serializable {
         Product producto = productService.buscarPorId(productoId)
                 .orElseThrow(() -> new RuntimeException("Producto no encontrado"));
 
-        if (cantidad > producto.getStockActual()) {
-            throw new RuntimeException("Stock insuficiente. Disponible: " + producto.getStockActual());
+        if (cantidad > producto.getStockDisponible()) {
+            throw new RuntimeException("Stock insuficiente. Disponible: " + producto.getStockDisponible());
         }
 
         item.setCantidad(cantidad);
@@ -171,11 +172,14 @@ public class CartService implements Serializable {
      * Verifica stock de todos los productos
      */
     public boolean verificarStockDisponible() {
+        // Todos los productos del carrito en una consulta
+        Map<Long, Product> productos = productService.buscarPorIds(
+                items.stream().map(CartItem::getProductoId).toList());
+
         for (CartItem item : items) {
-            Product producto = productService.buscarPorId(item.getProductoId())
-                    .orElse(null);
+            Product producto = productos.get(item.getProductoId());
 
-            if (producto == null || !producto.hayStock() || producto.getStockActual() < item.getCantidad()) {
+            if (producto == null || producto.getStockDisponible() < item.getCantidad()) {
                 log.warn("Stock insuficiente para producto: {}", item.getNombre());
                 return false;
             }
@@ -0,0 +1,261 @@
+package com.miempresa.ecommerce.services;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.miempresa.ecommerce.models.Product;
+import com.miempresa.ecommerce.repositories.ProductRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * SERVICE: BÚSQUEDA EN CATÁLOGO
+ *
+ * Índice invertido en memoria sobre los productos activos.
+ * Evita el LIKE '%texto%' sobre la tabla 'productos' en cada búsqueda.
+ *
+ * Campos indexados (con su peso en el ranking):
+ * - nombre (5), codigoSku (4), marca (3), categoría (2), descripción (1)
+ *
+ * Coincidencia por PREFIJO de palabra, no por subcadena como el LIKE
+ * anterior: "play" encuentra "PlayStation", pero "station" ya no.
+ * Tampoco distingue tildes ni mayúsculas ("cámara" = "camara").
+ */
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogSearchService {
+
+    private static final int PESO_NOMBRE = 5;
+    private static final int PESO_SKU = 4;
+    private static final int PESO_MARCA = 3;
+    private static final int PESO_CATEGORIA = 2;
+    private static final int PESO_DESCRIPCION = 1;
+
+    private static final Pattern DIACRITICOS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9]+");
+
+    private final ProductRepository productRepository;
+
+    // token -> (productoId -> peso)
+    private final ConcurrentSkipListMap<String, Map<Long, Integer>> indice = new ConcurrentSkipListMap<>();
+
+    // productoId -> tokens indexados (para poder quitarlo al actualizar)
+    private final Map<Long, Map<String, Integer>> tokensPorProducto = new ConcurrentHashMap<>();
+
+    private volatile boolean listo = false;
+
+    // ========================================
+    // CONSTRUCCIÓN DEL ÍNDICE
+    // ========================================
+
+    /**
+     * Reconstruye el índice completo al arrancar la aplicación
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void reconstruir() {
+        long inicio = System.currentTimeMillis();
+        List<Product> activos = productRepository.findByActivoTrue();
+
+        synchronized (this) {
+            indice.clear();
+            tokensPorProducto.clear();
+            activos.forEach(p -> aplicarTokens(p.getId(), calcularTokens(p)));
+            listo = true;
+        }
+
+        log.info("Índice de catálogo construido: {} productos, {} términos en {} ms",
+                tokensPorProducto.size(), indice.size(), System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * Indexa (o quita, si está inactivo) un producto cuando la transacción
+     * actual confirma. Fuera de una transacción se aplica de inmediato.
+     * La categoría y la marca deben ser las entidades administradas (no
+     * solo su ID), o sus términos no quedarán en el índice.
+     */
+    public void indexar(Product producto) {
+        if (producto == null || producto.getId() == null) {
+            return;
+        }
+
+        // Los tokens se calculan ahora, mientras las relaciones siguen cargables
+        Long id = producto.getId();
+        Map<String, Integer> tokens = Boolean.TRUE.equals(producto.getActivo()) ? calcularTokens(producto) : null;
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    aplicar(id, tokens);
+                }
+            });
+        } else {
+            aplicar(id, tokens);
+        }
+    }
+
+    /**
+     * Reindexa varios productos (ej: al renombrar una categoría o marca)
+     */
+    public void indexarTodos(Collection<Product> productos) {
+        productos.forEach(this::indexar);
+    }
+
+    private synchronized void aplicar(Long productoId, Map<String, Integer> tokens) {
+        quitarInterno(productoId);
+        if (tokens != null) {
+            aplicarTokens(productoId, tokens);
+        }
+    }
+
+    private Map<String, Integer> calcularTokens(Product producto) {
+        Map<String, Integer> tokens = new HashMap<>();
+        agregarTokens(tokens, producto.getNombre(), PESO_NOMBRE);
+        agregarTokens(tokens, producto.getCodigoSku(), PESO_SKU);
+        if (producto.getMarca() != null) {
+            agregarTokens(tokens, producto.getMarca().getNombre(), PESO_MARCA);
+        }
+        if (producto.getCategoria() != null) {
+            agregarTokens(tokens, producto.getCategoria().getNombre(), PESO_CATEGORIA);
+        }
+        agregarTokens(tokens, producto.getDescripcion(), PESO_DESCRIPCION);
+        return tokens;
+    }
+
+    private void aplicarTokens(Long id, Map<String, Integer> tokens) {
+        tokens.forEach((token, peso) -> indice
+                .computeIfAbsent(token, t -> new ConcurrentHashMap<>())
+                .put(id, peso));
+        tokensPorProducto.put(id, tokens);
+    }
+
+    private void quitarInterno(Long productoId) {
+        Map<String, Integer> anteriores = tokensPorProducto.remove(productoId);
+        if (anteriores == null) {
+            return;
+        }
+        for (String token : anteriores.keySet()) {
+            indice.computeIfPresent(token, (t, productos) -> {
+                productos.remove(productoId);
+                return productos.isEmpty() ? null : productos;
+            });
+        }
+    }
+
+    private void agregarTokens(Map<String, Integer> tokens, String texto, int peso) {
+        for (String token : tokenizar(texto)) {
+            tokens.merge(token, peso, Math::max);
+        }
+    }
+
+    // ========================================
+    // CONSULTAS
+    // ========================================
+
+    /**
+     * Indica si el índice ya fue construido
+     */
+    public boolean estaListo() {
+        return listo;
+    }
+
+    /**
+     * Busca productos que tengan TODOS los términos de la consulta como
+     * inicio de alguna de sus palabras (búsqueda mientras se escribe).
+     *
+     * @return IDs de productos ordenados por relevancia
+     */
+    public List<Long> buscar(String consulta, int limite) {
+        List<String> terminos = tokenizar(consulta);
+        if (terminos.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Integer> acumulado = null;
+        for (String termino : terminos) {
+            Map<Long, Integer> coincidencias = buscarPrefijo(termino);
+            if (acumulado == null) {
+                acumulado = coincidencias;
+            } else {
+                Map<Long, Integer> interseccion = new HashMap<>();
+                for (Map.Entry<Long, Integer> entry : acumulado.entrySet()) {
+                    Integer peso = coincidencias.get(entry.getKey());
+                    if (peso != null) {
+                        interseccion.put(entry.getKey(), entry.getValue() + peso);
+                    }
+                }
+                acumulado = interseccion;
+            }
+            if (acumulado.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        List<Map.Entry<Long, Integer>> ordenados = new ArrayList<>(acumulado.entrySet());
+        ordenados.sort(Map.Entry.<Long, Integer>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+
+        int hasta = Math.min(limite, ordenados.size());
+        List<Long> ids = new ArrayList<>(hasta);
+        for (int i = 0; i < hasta; i++) {
+            ids.add(ordenados.get(i).getKey());
+        }
+        return ids;
+    }
+
+    /**
+     * Une las listas de todos los tokens que empiezan con el término.
+     * La coincidencia exacta pesa el doble que la de prefijo.
+     */
+    private Map<Long, Integer> buscarPrefijo(String termino) {
+        Map<Long, Integer> resultado = new HashMap<>();
+        ConcurrentNavigableMap<String, Map<Long, Integer>> rango = indice.subMap(termino, true,
+                termino + Character.MAX_VALUE, false);
+
+        rango.forEach((token, productos) -> {
+            boolean exacto = token.equals(termino);
+            productos.forEach((id, peso) -> resultado.merge(id, exacto ? peso * 2 : peso, Math::max));
+        });
+        return resultado;
+    }
+
+    /**
+     * Normaliza un texto: minúsculas, sin tildes y separado en palabras
+     */
+    static List<String> tokenizar(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return List.of();
+        }
+        String normalizado = DIACRITICOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase();
+
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARADORES.split(normalizado)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -21,6 +21,7 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final ProductRepository productRepository; // <<--- INYECTAR ProductRepository
+    private final CatalogSearchService catalogSearchService;
 
     // Corregido: Añadir lógica de orden por defecto
     public Category guardar(Category category) {
@@ -93,7 +94,11 @@ public class CategoryService {
         // category.setActivo(categoryActualizada.getActivo()); // No actualizar aquí
 
         log.info("Actualizando categoría ID: {}", id);
-        return categoryRepository.save(category);
+        Category guardada = categoryRepository.save(category);
+
+        // El nombre forma parte del índice de búsqueda de sus productos
+        catalogSearchService.indexarTodos(productRepository.findByCategoriaIdAndActivoTrue(id));
+        return guardada;
     }
 
     // Corregido: Añadir validación de productos asociados al desactivar
@@ -1,14 +1,17 @@
 package com.miempresa.ecommerce.services;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.miempresa.ecommerce.models.Configuration;
+import com.miempresa.ecommerce.models.ConfigurationSnapshot;
 import com.miempresa.ecommerce.repositories.ConfigurationRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -18,6 +21,10 @@ import lombok.extern.slf4j.Slf4j;
  * SERVICE: CONFIGURACIÓN - GAMER ZONE
  * 
  * Gestiona las configuraciones del sistema temática gaming
+ *
+ * Las lecturas salen de una foto en memoria (ConfigurationSnapshot):
+ * la tienda no consulta la tabla al renderizar. La foto se reemplaza
+ * completa cuando una transacción que guardó configuraciones confirma.
  */
 
 @Service
@@ -28,26 +35,36 @@ public class ConfigurationService {
 
         private final ConfigurationRepository configurationRepository;
 
+        private volatile ConfigurationSnapshot snapshot;
+
         // ========================================
         // OBTENER CONFIGURACIONES
         // ========================================
 
-        @Transactional(readOnly = true)
+        /**
+         * Foto actual de las configuraciones (se carga en el primer uso).
+         * Las lecturas no abren transacción: no tocan la base de datos.
+         */
+        @Transactional(propagation = Propagation.SUPPORTS)
+        public ConfigurationSnapshot obtenerSnapshot() {
+                ConfigurationSnapshot actual = snapshot;
+                return actual != null ? actual : recargar(false);
+        }
+
+        @Transactional(propagation = Propagation.SUPPORTS)
         public String obtenerValor(String clave) {
-                Optional<Configuration> config = configurationRepository.findByClave(clave);
-                return config.map(Configuration::getValor).orElse(null);
+                return obtenerSnapshot().getValor(clave);
         }
 
-        @Transactional(readOnly = true)
+        @Transactional(propagation = Propagation.SUPPORTS)
         public String obtenerValor(String clave, String valorPorDefecto) {
-                String valor = obtenerValor(clave);
-                return valor != null ? valor : valorPorDefecto;
+                return obtenerSnapshot().getValor(clave, valorPorDefecto);
         }
 
         /**
          * Backwards-compatible alias for code that previously used `obtener(String)`.
          */
-        @Transactional(readOnly = true)
+        @Transactional(propagation = Propagation.SUPPORTS)
         public String obtener(String clave) {
                 return obtenerValor(clave);
         }
@@ -56,21 +73,17 @@ public class ConfigurationService {
          * Backwards-compatible alias for code that previously used `obtener(String,
          * String)`.
          */
-        @Transactional(readOnly = true)
+        @Transactional(propagation = Propagation.SUPPORTS)
         public String obtener(String clave, String valorPorDefecto) {
                 return obtenerValor(clave, valorPorDefecto);
         }
 
-        @Transactional(readOnly = true)
+        /**
+         * Todas las configuraciones como mapa de solo lectura
+         */
+        @Transactional(propagation = Propagation.SUPPORTS)
         public Map<String, String> obtenerTodasComoMapa() {
-                List<Configuration> configs = configurationRepository.findAll();
-                Map<String, String> mapa = new HashMap<>();
-
-                for (Configuration config : configs) {
-                        mapa.put(config.getClave(), config.getValor());
-                }
-
-                return mapa;
+                return obtenerSnapshot().getValores();
         }
 
         @Transactional(readOnly = true)
@@ -114,7 +127,9 @@ public class ConfigurationService {
                                         .build();
                 }
 
-                return configurationRepository.save(config);
+                Configuration guardada = configurationRepository.save(config);
+                programarRecarga();
+                return guardada;
         }
 
         public void guardarMultiples(Map<String, String> configuraciones) {
@@ -289,6 +304,7 @@ public class ConfigurationService {
                 crearSiNoExiste("costo_envio_provincia", "25.00",
                                 "DECIMAL", "Costo de envío en provincia", "ENVIOS");
 
+                programarRecarga();
                 log.info("✓ Configuraciones GAMER ZONE inicializadas correctamente");
         }
 
@@ -312,4 +328,49 @@ public class ConfigurationService {
         public List<Configuration> obtenerTodas() {
                 return configurationRepository.findAll();
         }
+
+        // ========================================
+        // FOTO EN MEMORIA
+        // ========================================
+
+        /**
+         * Recarga la foto cuando confirma la transacción actual
+         * (una sola vez aunque se guarden varias claves).
+         */
+        private void programarRecarga() {
+                if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                        recargar(true);
+                        return;
+                }
+                if (TransactionSynchronizationManager.hasResource(this)) {
+                        return; // Ya programada en esta transacción
+                }
+                TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                                recargar(true);
+                        }
+
+                        @Override
+                        public void afterCompletion(int status) {
+                                TransactionSynchronizationManager.unbindResourceIfPossible(ConfigurationService.this);
+                        }
+                });
+        }
+
+        /**
+         * Lee la tabla completa y reemplaza la foto de una sola vez
+         */
+        private synchronized ConfigurationSnapshot recargar(boolean forzar) {
+                if (!forzar && snapshot != null) {
+                        return snapshot; // Otro hilo la cargó mientras se esperaba
+                }
+                long version = snapshot != null ? snapshot.getVersion() + 1 : 1;
+                ConfigurationSnapshot nueva = new ConfigurationSnapshot(version, configurationRepository.findAll());
+                snapshot = nueva;
+                log.info("Configuraciones cargadas en memoria: {} claves (versión {})",
+                                nueva.getValores().size(), version);
+                return nueva;
+        }
 }
\ No newline at end of file
@@ -17,6 +17,7 @@ import com.miempresa.ecommerce.models.enums.MetodoPago;
 import com.miempresa.ecommerce.repositories.CreditRepository;
 import com.miempresa.ecommerce.repositories.InstallmentRepository;
 import com.miempresa.ecommerce.repositories.PaymentRepository;
+import com.miempresa.ecommerce.utils.TimeWindow;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -37,6 +38,7 @@ public class CreditService {
     private final CreditRepository creditRepository; // [cite: 312]
     private final InstallmentRepository installmentRepository; // [cite: 321]
     private final PaymentRepository paymentRepository; // [cite: 339]
+    private final OverdueInstallmentCounter overdueInstallmentCounter;
 
     // ========================================
     // CONSULTAS DE CRÉDITOS
@@ -44,7 +46,7 @@ public class CreditService {
 
     @Transactional(readOnly = true)
     public Optional<Credit> buscarPorId(Long id) {
-        return creditRepository.findById(id); // [cite: 312]
+        return creditRepository.findDetalleById(id); // [cite: 312]
     }
 
     @Transactional(readOnly = true)
@@ -69,12 +71,12 @@ public class CreditService {
 
     @Transactional(readOnly = true)
     public List<Credit> obtenerCreditosConCuotasVencidas() {
-        return creditRepository.obtenerCreditosConCuotasVencidas(LocalDate.now()); // [cite: 314]
+        return creditRepository.obtenerCreditosConCuotasVencidas(TimeWindow.hoy()); // [cite: 314]
     }
 
     @Transactional(readOnly = true)
     public List<Credit> obtenerCreditosConCuotasProximasAVencer(int dias) {
-        LocalDate fechaInicio = LocalDate.now();
+        LocalDate fechaInicio = TimeWindow.hoy();
         LocalDate fechaFin = fechaInicio.plusDays(dias);
 
         return creditRepository.obtenerCreditosConCuotasProximasAVencer(fechaInicio, fechaFin); // [cite: 315]
@@ -101,17 +103,17 @@ public class CreditService {
 
     @Transactional(readOnly = true)
     public List<Installment> obtenerCuotasVencidas() {
-        return installmentRepository.obtenerCuotasVencidas(LocalDate.now()); // [cite: 323]
+        return installmentRepository.obtenerCuotasVencidas(TimeWindow.hoy()); // [cite: 323]
     }
 
     @Transactional(readOnly = true)
     public List<Installment> obtenerCuotasQueVencenHoy() {
-        return installmentRepository.obtenerCuotasQueVencenHoy(LocalDate.now()); // [cite: 324]
+        return installmentRepository.obtenerCuotasQueVencenHoy(TimeWindow.hoy()); // [cite: 324]
     }
 
     @Transactional(readOnly = true)
     public List<Installment> obtenerCuotasProximasAVencer(int dias) {
-        LocalDate fechaInicio = LocalDate.now();
+        LocalDate fechaInicio = TimeWindow.hoy();
         LocalDate fechaFin = fechaInicio.plusDays(dias);
 
         return installmentRepository.obtenerCuotasProximasAVencer(fechaInicio, fechaFin); // [cite: 325]
@@ -119,12 +121,12 @@ public class CreditService {
 
     @Transactional(readOnly = true)
     public long contarCuotasVencidas() {
-        return installmentRepository.contarCuotasVencidas(); // [cite: 327]
+        return installmentRepository.contarCuotasVencidas(TimeWindow.hoy()); // [cite: 327]
     }
 
     @Transactional(readOnly = true)
     public BigDecimal sumarMontoPendienteCuotasVencidas() {
-        return installmentRepository.sumarMontoPendienteCuotasVencidas(); // [cite: 328]
+        return installmentRepository.sumarMontoPendienteCuotasVencidas(TimeWindow.hoy()); // [cite: 328]
     }
 
     // ========================================
@@ -144,6 +146,7 @@ public class CreditService {
             installmentRepository.save(cuota); // [cite: 321]
         }
 
+        overdueInstallmentCounter.invalidar();
         log.info("Se actualizaron {} cuotas vencidas", cuotasVencidas.size());
     }
 
@@ -168,6 +171,7 @@ public class CreditService {
 
         credito.anular(); // [cite: 256]
         creditRepository.save(credito); // [cite: 312]
+        overdueInstallmentCounter.invalidar();
 
         log.info("Crédito anulado");
     }
@@ -230,6 +234,8 @@ public class CreditService {
         // Si quieres forzar el guardado inmediato (aunque no es usualmente necesario):
         // creditRepository.save(credito);
 
+        overdueInstallmentCounter.invalidar();
+
         log.info("Abono registrado exitosamente. Nuevo saldo: S/ {}", credito.getMontoPendiente());
         return pago;
     }
@@ -0,0 +1,161 @@
+package com.miempresa.ecommerce.services;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.miempresa.ecommerce.models.DashboardResumen;
+import com.miempresa.ecommerce.models.Order;
+import com.miempresa.ecommerce.models.Product;
+import com.miempresa.ecommerce.models.Sale;
+import com.miempresa.ecommerce.models.enums.EstadoPedido;
+import com.miempresa.ecommerce.utils.TimeWindow;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * SERVICE: DASHBOARD
+ *
+ * Carga las tarjetas del panel principal en paralelo, cada consulta en
+ * un hilo virtual con su propia transacción de solo lectura.
+ * La página tarda lo que la consulta más lenta, no la suma de todas.
+ *
+ * - Todas las tarjetas comparten un tiempo máximo; la que no responde
+ *   a tiempo se muestra con su valor por defecto y su hilo se interrumpe
+ * - Cada transacción lleva ese mismo tiempo como timeout de consulta
+ *   (el driver JDBC no atiende la interrupción): la consulta lenta se
+ *   corta en la BD y devuelve su conexión
+ * - Cada carga lanza todas sus tarjetas a la vez; el límite global de
+ *   consultas es el pool de conexiones (Hikari): con varios usuarios,
+ *   la tarjeta que no consigue conexión antes del tiempo máximo se
+ *   interrumpe y deja de esperarla
+ */
+
+@Service
+@Slf4j
+public class DashboardService {
+
+    private final SaleService saleService;
+    private final ProductService productService;
+    private final CustomerService customerService;
+    private final OrderService orderService;
+    private final CreditService creditService;
+    private final OverdueInstallmentCounter overdueInstallmentCounter;
+
+    private final TransactionTemplate lectura;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final long timeoutMs;
+
+    public DashboardService(SaleService saleService, ProductService productService,
+            CustomerService customerService, OrderService orderService, CreditService creditService,
+            OverdueInstallmentCounter overdueInstallmentCounter, PlatformTransactionManager transactionManager,
+            @Value("${app.dashboard.timeout-ms:3000}") long timeoutMs) {
+        this.saleService = saleService;
+        this.productService = productService;
+        this.customerService = customerService;
+        this.orderService = orderService;
+        this.creditService = creditService;
+        this.overdueInstallmentCounter = overdueInstallmentCounter;
+        this.timeoutMs = timeoutMs;
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+        // En segundos (redondeado hacia arriba)
+        this.lectura.setTimeout((int) Math.max(1, (timeoutMs + 999) / 1000));
+    }
+
+    // ========================================
+    // CARGA DEL PANEL
+    // ========================================
+
+    public DashboardResumen cargar() {
+        TimeWindow hoy = TimeWindow.diaActual();
+
+        Map<String, Tarjeta<?>> tarjetas = new LinkedHashMap<>();
+
+        // Estadísticas del día
+        tarjetas.put("ventasDelDia", lanzar(BigDecimal.ZERO,
+                () -> saleService.calcularTotalVentasPorFecha(hoy.inicio(), hoy.ultimoInstante())));
+        tarjetas.put("pedidosPendientes", lanzar(0L,
+                () -> orderService.contarPorEstado(EstadoPedido.PENDIENTE)));
+
+        // Estadísticas generales
+        tarjetas.put("totalProductos", lanzar(0L, productService::contarActivos));
+        tarjetas.put("totalClientes", lanzar(0L, customerService::contarActivos));
+
+        // Créditos y cuotas
+        tarjetas.put("creditosActivos", lanzar(0L, creditService::contarActivos));
+        tarjetas.put("deudaTotal", lanzar(BigDecimal.ZERO, creditService::obtenerTotalDeudaPendiente));
+        tarjetas.put("cuotasVencidas", lanzar(0L, overdueInstallmentCounter::obtener));
+
+        // Listas para widgets (se preparan dentro de la transacción: la vista
+        // se renderiza en otro hilo, sin sesión de Hibernate)
+        tarjetas.put("ultimasVentas", lanzar(List.<Sale>of(), saleService::obtenerDelDia));
+        tarjetas.put("ultimosPedidos", lanzar(List.<Order>of(), orderService::obtenerPendientes));
+        tarjetas.put("productosAlerta", lanzar(List.<Product>of(), () -> {
+            List<Product> productos = productService.obtenerProductosStockBajo();
+            productos.forEach(Product::getImagenPrincipal);
+            return productos;
+        }));
+
+        Map<String, Object> valores = new HashMap<>();
+        List<String> fallidos = new ArrayList<>();
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+
+        tarjetas.forEach((nombre, tarjeta) -> {
+            try {
+                long restante = Math.max(0, limite - System.nanoTime());
+                valores.put(nombre, tarjeta.futuro().get(restante, TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                // Interrumpe el hilo: si aún espera conexión del pool, deja de esperarla
+                tarjeta.futuro().cancel(true);
+                log.warn("Dashboard: la tarjeta '{}' excedió {} ms", nombre, timeoutMs);
+                fallidos.add(nombre);
+                valores.put(nombre, tarjeta.porDefecto());
+            } catch (ExecutionException e) {
+                log.error("Dashboard: error al cargar '{}': {}", nombre, e.getCause().getMessage(), e.getCause());
+                fallidos.add(nombre);
+                valores.put(nombre, tarjeta.porDefecto());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fallidos.add(nombre);
+                valores.put(nombre, tarjeta.porDefecto());
+            }
+        });
+
+        // El conteo de alertas está en memoria (LowStockTracker), sin consulta
+        valores.put("productosStockBajo", productService.contarProductosStockBajo());
+
+        return new DashboardResumen(valores, fallidos);
+    }
+
+    private <T> Tarjeta<T> lanzar(T porDefecto, Supplier<T> consulta) {
+        // submit (no CompletableFuture): cancel(true) sí interrumpe el hilo
+        Future<T> futuro = executor.submit(() -> lectura.execute(status -> consulta.get()));
+        return new Tarjeta<>(futuro, porDefecto);
+    }
+
+    private record Tarjeta<T>(Future<T> futuro, T porDefecto) {
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,277 @@
+package com.miempresa.ecommerce.services;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.miempresa.ecommerce.models.DocumentCounter;
+import com.miempresa.ecommerce.repositories.DocumentCounterRepository;
+import com.miempresa.ecommerce.repositories.OrderRepository;
+import com.miempresa.ecommerce.repositories.SaleRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * SERVICE: NUMERACIÓN DE DOCUMENTOS
+ *
+ * Genera los correlativos de ventas (VEN-2025-00001) y pedidos
+ * (PED-2025-00001) sin recorrer las tablas con MAX().
+ *
+ * Cada nodo toma de 'contadores_documento' un bloque de N números
+ * (una fila bloqueada, una vez cada N documentos) y los reparte
+ * en memoria con un AtomicLong.
+ *
+ * El bloque siguiente se pide en segundo plano al consumir la mitad del
+ * actual, y el primero de cada año al arrancar y la noche anterior al
+ * cambio de año: la venta o pedido que pide un número no abre una
+ * segunda transacción (ni toma otra conexión del pool) mientras tiene la
+ * suya abierta. Solo si el bloque adelantado no llegó a tiempo se
+ * reserva en el hilo actual.
+ *
+ * - Nunca se repite un número, ni entre nodos ni tras reiniciar
+ * - Puede haber saltos: los números no usados de un bloque se pierden
+ *   al reiniciar, y una venta revertida no devuelve su número
+ */
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentNumberService {
+
+    public static final String PREFIJO_VENTA = "VEN";
+    public static final String PREFIJO_PEDIDO = "PED";
+
+    private static final int INTENTOS_RESERVA = 5;
+
+    private final DocumentCounterRepository counterRepository;
+    private final SaleRepository saleRepository;
+    private final OrderRepository orderRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    // Números que cada nodo reserva de una sola vez
+    @Value("${app.numeracion.tamanio-bloque:20}")
+    private int tamanioBloque;
+
+    // "VEN-2025" -> bloque en uso
+    private final Map<String, Bloque> bloques = new ConcurrentHashMap<>();
+
+    // "VEN-2025" -> bloque siguiente, pedido por adelantado
+    private final Map<String, CompletableFuture<Bloque>> adelantados = new ConcurrentHashMap<>();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "numeracion");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    @PreDestroy
+    public void cerrar() {
+        executor.shutdown();
+    }
+
+    // ========================================
+    // NÚMEROS DE DOCUMENTO
+    // ========================================
+
+    /**
+     * Siguiente número de venta (ej: VEN-2025-00042)
+     */
+    public String siguienteNumeroVenta() {
+        return siguiente(PREFIJO_VENTA);
+    }
+
+    /**
+     * Siguiente número de pedido (ej: PED-2025-00042)
+     */
+    public String siguienteNumeroPedido() {
+        return siguiente(PREFIJO_PEDIDO);
+    }
+
+    private String siguiente(String prefijo) {
+        int anio = LocalDate.now().getYear();
+        String clave = prefijo + "-" + anio;
+
+        while (true) {
+            Bloque bloque = bloques.get(clave);
+            if (bloque != null) {
+                long numero = bloque.tomar();
+                if (numero > 0) {
+                    if (numero == bloque.mitad) {
+                        adelantar(clave, prefijo, anio);
+                    }
+                    return String.format("%s-%d-%05d", prefijo, anio, numero);
+                }
+            }
+            recargar(clave, bloque, prefijo, anio);
+        }
+    }
+
+    /**
+     * Reemplaza el bloque agotado por el adelantado. Solo un hilo lo hace;
+     * los demás esperan y usan el bloque nuevo.
+     */
+    private synchronized void recargar(String clave, Bloque agotado, String prefijo, int anio) {
+        if (bloques.get(clave) != agotado) {
+            return; // Otro hilo ya lo recargó
+        }
+
+        Bloque nuevo = null;
+        CompletableFuture<Bloque> adelantado = adelantados.remove(clave);
+        if (adelantado != null) {
+            try {
+                nuevo = adelantado.join();
+            } catch (CompletionException e) {
+                log.warn("No se pudo adelantar el bloque {}: {}", clave, e.getCause().getMessage());
+            }
+        }
+        if (nuevo == null) {
+            log.debug("Sin bloque adelantado para {}, reservando en el hilo actual", clave);
+            nuevo = reservarBloque(prefijo, anio);
+        }
+        bloques.put(clave, nuevo);
+    }
+
+    /**
+     * Pide el bloque siguiente en segundo plano (una sola vez por clave)
+     */
+    private void adelantar(String clave, String prefijo, int anio) {
+        adelantados.computeIfAbsent(clave,
+                c -> CompletableFuture.supplyAsync(() -> reservarBloque(prefijo, anio), executor));
+    }
+
+    /**
+     * Al arrancar: primer bloque del año en curso
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void prepararAnioActual() {
+        prepararAnio(LocalDate.now().getYear());
+    }
+
+    /**
+     * El 31 de diciembre a las 23:00 crea los contadores del año nuevo y
+     * reserva su primer bloque
+     */
+    @Scheduled(cron = "0 0 23 31 12 *")
+    public void prepararAnioSiguiente() {
+        prepararAnio(LocalDate.now().getYear() + 1);
+    }
+
+    private void prepararAnio(int anio) {
+        for (String prefijo : new String[] { PREFIJO_VENTA, PREFIJO_PEDIDO }) {
+            String clave = prefijo + "-" + anio;
+            if (!bloques.containsKey(clave)) {
+                adelantar(clave, prefijo, anio);
+            }
+        }
+    }
+
+    // ========================================
+    // RESERVA DE BLOQUES
+    // ========================================
+
+    /**
+     * Avanza el contador en su propia transacción: el bloque queda
+     * reservado aunque la venta que lo pidió se revierta.
+     * Reintenta si otro nodo creó el contador al mismo tiempo o si la
+     * fila no se pudo bloquear (espera agotada o deadlock).
+     */
+    private Bloque reservarBloque(String prefijo, int anio) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        for (int intento = 1;; intento++) {
+            try {
+                Bloque bloque = tx.execute(status -> {
+                    DocumentCounter contador = counterRepository.buscarParaActualizar(prefijo, anio)
+                            .orElseGet(() -> crearContador(prefijo, anio));
+
+                    long desde = contador.getUltimoAsignado() + 1;
+                    long hasta = contador.getUltimoAsignado() + tamanioBloque;
+                    contador.setUltimoAsignado(hasta);
+                    return new Bloque(desde, hasta);
+                });
+                log.debug("Bloque {}-{} reservado: {} a {}", prefijo, anio, bloque.desde, bloque.hasta);
+                return bloque;
+            } catch (DataIntegrityViolationException | PessimisticLockingFailureException e) {
+                if (intento >= INTENTOS_RESERVA) {
+                    throw new RuntimeException("No se pudo reservar un bloque del contador " + prefijo + "-" + anio, e);
+                }
+                log.info("Contador {}-{} ocupado o creado por otro nodo, reintento {}: {}",
+                        prefijo, anio, intento, e.getClass().getSimpleName());
+                esperar(intento);
+            }
+        }
+    }
+
+    private void esperar(int intento) {
+        try {
+            Thread.sleep(20L * intento);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Reserva de numeración interrumpida", e);
+        }
+    }
+
+    /**
+     * Primer uso del prefijo en el año: continúa desde el mayor número
+     * ya emitido, para no repetir documentos creados antes del contador.
+     */
+    private DocumentCounter crearContador(String prefijo, int anio) {
+        String patron = prefijo + "-" + anio + "-%";
+        Long siguienteLegado = PREFIJO_VENTA.equals(prefijo)
+                ? saleRepository.generarSiguienteNumero(patron)
+                : orderRepository.generarSiguienteNumero(patron);
+        long ultimo = siguienteLegado != null ? siguienteLegado - 1 : 0;
+
+        log.info("Inicializando contador {}-{} en {}", prefijo, anio, ultimo);
+        return counterRepository.saveAndFlush(DocumentCounter.builder()
+                .prefijo(prefijo)
+                .anio(anio)
+                .ultimoAsignado(ultimo)
+                .build());
+    }
+
+    /**
+     * Rango [desde, hasta] asignado a este nodo
+     */
+    private static final class Bloque {
+        private final AtomicLong proximo;
+        private final long desde;
+        private final long hasta;
+        // Al entregar este número se pide el bloque siguiente
+        private final long mitad;
+
+        Bloque(long desde, long hasta) {
+            this.proximo = new AtomicLong(desde);
+            this.desde = desde;
+            this.hasta = hasta;
+            this.mitad = desde + (hasta - desde) / 2;
+        }
+
+        /**
+         * @return el siguiente número, o -1 si el bloque se agotó
+         */
+        long tomar() {
+            long numero = proximo.getAndIncrement();
+            return numero <= hasta ? numero : -1;
+        }
+    }
+}
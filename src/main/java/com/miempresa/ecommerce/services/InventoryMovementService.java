@@ -7,6 +7,7 @@ import com.miempresa.ecommerce.models.enums.MotivoMovimiento;
 import com.miempresa.ecommerce.models.enums.TipoMovimiento;
 import com.miempresa.ecommerce.repositories.InventoryMovementRepository;
 import com.miempresa.ecommerce.repositories.ProductRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -31,6 +32,8 @@ public class InventoryMovementService {
 
     private final InventoryMovementRepository movementRepository;
     private final ProductRepository productRepository;
+    private final LowStockTracker lowStockTracker;
+    private final EntityManager entityManager;
 
     // ========================================
     // REGISTRAR MOVIMIENTOS
@@ -45,26 +48,33 @@ public class InventoryMovementService {
         log.info("Registrando movimiento: {} {} de {} unidades para producto ID: {}",
                 tipo, motivo, cantidad, productoId);
 
-        Optional<Product> productoOpt = productRepository.findById(productoId);
-
-        if (productoOpt.isEmpty()) {
-            throw new RuntimeException("Producto no encontrado");
+        if (cantidad == null || cantidad <= 0) {
+            throw new RuntimeException("La cantidad debe ser mayor a cero");
         }
 
-        Product producto = productoOpt.get();
-        Integer stockAnterior = producto.getStockActual();
+        // Aplicar movimiento con UPDATE atómico (sin leer-modificar-guardar)
+        int filas = tipo == TipoMovimiento.ENTRADA
+                ? productRepository.aumentarStock(productoId, cantidad)
+                : productRepository.disminuirStockSiDisponible(productoId, cantidad);
 
-        // Aplicar movimiento al producto
-        if (tipo == TipoMovimiento.ENTRADA) {
-            producto.aumentarStock(cantidad);
-        } else {
-            if (!producto.disminuirStock(cantidad)) {
-                throw new RuntimeException("Stock insuficiente");
+        if (filas == 0) {
+            if (!productRepository.existsById(productoId)) {
+                throw new RuntimeException("Producto no encontrado");
             }
+            throw new RuntimeException("Stock insuficiente");
         }
 
-        productRepository.save(producto);
-        Integer stockNuevo = producto.getStockActual();
+        // La fila queda bloqueada hasta el commit: el stock leído es exacto
+        Integer stockNuevo = productRepository.obtenerStockActual(productoId)
+                .orElseThrow(() -> new RuntimeException("Producto no encontrado"));
+        Integer stockAnterior = tipo == TipoMovimiento.ENTRADA
+                ? stockNuevo - cantidad
+                : stockNuevo + cantidad;
+
+        // Si ya estaba en la sesión conserva el stock previo al UPDATE
+        Product producto = productRepository.findById(productoId)
+                .orElseThrow(() -> new RuntimeException("Producto no encontrado"));
+        entityManager.refresh(producto);
 
         // Crear registro de movimiento
         InventoryMovement movement = InventoryMovement.builder()
@@ -79,6 +89,7 @@ public class InventoryMovementService {
                 .build();
 
         InventoryMovement movementGuardado = movementRepository.save(movement);
+        lowStockTracker.registrarCambio(productoId);
 
         log.info("Movimiento registrado. Stock: {} → {}", stockAnterior, stockNuevo);
 
@@ -0,0 +1,324 @@
+package com.miempresa.ecommerce.services;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.miempresa.ecommerce.models.InventoryMovement;
+import com.miempresa.ecommerce.models.InventorySnapshot;
+import com.miempresa.ecommerce.repositories.InventoryMovementRepository;
+import com.miempresa.ecommerce.repositories.InventorySnapshotRepository;
+import com.miempresa.ecommerce.repositories.ProductRepository;
+import com.miempresa.ecommerce.utils.TimeWindow;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * SERVICE: CORTES DE INVENTARIO
+ *
+ * Guarda periódicamente el stock de cada producto en 'inventario_cortes'
+ * y responde el stock, el kardex y la valorización a cualquier fecha.
+ *
+ * - Cada corte se programa con app.inventario.cortes.cron (por defecto a la
+ *   1:00) y se toma a la hora en punto de hace 'margen-minutos' (00:00).
+ *   El margen asegura que toda transacción con movimientos anteriores al
+ *   corte ya confirmó
+ * - El corte parte del stock actual menos lo movido desde el corte, así que
+ *   cada corte corrige cualquier diferencia del anterior
+ * - Stock a una fecha = corte anterior + movimientos desde el corte (o, si
+ *   la fecha es anterior a todos, corte posterior - movimientos hasta él):
+ *   se leen las filas de un corte y los movimientos de un intervalo, no
+ *   todo el historial
+ */
+
+@Service
+@Transactional
+@Slf4j
+public class InventorySnapshotService {
+
+    /**
+     * Stock de un producto a una fecha, con el precio del corte usado
+     */
+    public record StockALaFecha(Long productoId, String codigoSku, String nombre, Integer stock,
+            BigDecimal precioUnitario) {
+
+        public BigDecimal getValor() {
+            return precioUnitario.multiply(BigDecimal.valueOf(stock));
+        }
+    }
+
+    /**
+     * Inventario valorizado a una fecha
+     */
+    public record Valorizacion(LocalDateTime fecha, List<StockALaFecha> productos, long unidades,
+            BigDecimal total) {
+    }
+
+    /**
+     * Kardex de un producto en [desde, hasta)
+     */
+    public record Kardex(Long productoId, LocalDateTime desde, LocalDateTime hasta, int saldoInicial,
+            List<InventoryMovement> movimientos, int saldoFinal) {
+    }
+
+    private final InventorySnapshotRepository snapshotRepository;
+    private final ProductRepository productRepository;
+    private final InventoryMovementRepository movementRepository;
+    private final EntityManager entityManager;
+    private final long margenMinutos;
+    private final int tamanioLote;
+
+    public InventorySnapshotService(InventorySnapshotRepository snapshotRepository,
+            ProductRepository productRepository, InventoryMovementRepository movementRepository,
+            EntityManager entityManager,
+            @Value("${app.inventario.cortes.margen-minutos:60}") long margenMinutos,
+            @Value("${app.inventario.cortes.tamanio-lote:500}") int tamanioLote) {
+        this.snapshotRepository = snapshotRepository;
+        this.productRepository = productRepository;
+        this.movementRepository = movementRepository;
+        this.entityManager = entityManager;
+        this.margenMinutos = margenMinutos;
+        this.tamanioLote = tamanioLote;
+    }
+
+    // ========================================
+    // GENERACIÓN DE CORTES
+    // ========================================
+
+    /**
+     * Primer corte: si la tabla está vacía se toma uno al arrancar, para que
+     * las consultas no tengan que partir del stock actual.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        if (snapshotRepository.count() == 0) {
+            generarCorte(corteProgramado());
+        }
+    }
+
+    @Scheduled(cron = "${app.inventario.cortes.cron:0 0 1 * * *}", zone = "America/Lima")
+    public void generarCorteProgramado() {
+        generarCorte(corteProgramado());
+    }
+
+    /**
+     * Guarda el stock de todos los productos al instante del corte
+     * (incluye los movimientos anteriores a él). Las filas se insertan en
+     * bloques de 'tamanio-lote'.
+     *
+     * @return productos guardados (0 si el corte ya existía)
+     */
+    public int generarCorte(LocalDateTime fechaCorte) {
+        if (fechaCorte == null || fechaCorte.isAfter(TimeWindow.ahora())) {
+            throw new RuntimeException("Fecha de corte de inventario inválida");
+        }
+        if (snapshotRepository.existsByFechaCorte(fechaCorte)) {
+            log.info("Corte de inventario {} ya existe", fechaCorte);
+            return 0;
+        }
+        long inicio = System.currentTimeMillis();
+
+        // Stock actual y movimientos en la misma transacción: ven las mismas ventas
+        List<Object[]> productos = productRepository.obtenerCreadosAntesDe(fechaCorte, null);
+        Map<Long, Integer> movidoDesdeCorte = porProducto(movementRepository.sumarNetoPorProducto(fechaCorte, null));
+
+        List<InventorySnapshot> bloque = new ArrayList<>(tamanioLote);
+        for (Object[] fila : productos) {
+            Long productoId = (Long) fila[0];
+            bloque.add(InventorySnapshot.builder()
+                    .producto(productRepository.getReferenceById(productoId))
+                    .fechaCorte(fechaCorte)
+                    .stock(entero(fila[3]) - movidoDesdeCorte.getOrDefault(productoId, 0))
+                    .precioUnitario(precio(fila[4]))
+                    .build());
+            if (bloque.size() == tamanioLote) {
+                guardar(bloque);
+            }
+        }
+        guardar(bloque);
+
+        log.info("Corte de inventario {}: {} productos en {} ms", fechaCorte, productos.size(),
+                System.currentTimeMillis() - inicio);
+        return productos.size();
+    }
+
+    private void guardar(List<InventorySnapshot> bloque) {
+        if (bloque.isEmpty()) {
+            return;
+        }
+        snapshotRepository.saveAll(bloque);
+        snapshotRepository.flush();
+        // Las filas ya escritas no se vuelven a revisar al siguiente flush
+        entityManager.clear();
+        bloque.clear();
+    }
+
+    private LocalDateTime corteProgramado() {
+        return TimeWindow.ahora().minusMinutes(margenMinutos).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    // ========================================
+    // CONSULTAS A UNA FECHA
+    // ========================================
+
+    /**
+     * Stock de todos los productos existentes a la fecha (antes de los
+     * movimientos de ese instante), ordenado por nombre
+     */
+    @Transactional(readOnly = true)
+    public List<StockALaFecha> obtenerStockAl(LocalDateTime fecha) {
+        return calcular(fecha, null);
+    }
+
+    /**
+     * Stock de un producto a la fecha (0 si aún no existía)
+     */
+    @Transactional(readOnly = true)
+    public int obtenerStockAl(Long productoId, LocalDateTime fecha) {
+        List<StockALaFecha> stock = calcular(fecha, productoId);
+        return stock.isEmpty() ? 0 : stock.get(0).stock();
+    }
+
+    /**
+     * Inventario valorizado a la fecha, con el precio de cada corte
+     */
+    @Transactional(readOnly = true)
+    public Valorizacion valorizar(LocalDateTime fecha) {
+        List<StockALaFecha> productos = calcular(fecha, null);
+        long unidades = 0;
+        BigDecimal total = BigDecimal.ZERO;
+        for (StockALaFecha producto : productos) {
+            unidades += producto.stock();
+            total = total.add(producto.getValor());
+        }
+        return new Valorizacion(fecha, productos, unidades, total);
+    }
+
+    /**
+     * Movimientos de un producto en [desde, hasta) con el saldo al inicio
+     * (del corte más cercano) y al final
+     */
+    @Transactional(readOnly = true)
+    public Kardex obtenerKardex(Long productoId, LocalDateTime desde, LocalDateTime hasta) {
+        if (desde == null || hasta == null || !desde.isBefore(hasta)) {
+            throw new RuntimeException("Rango de fechas inválido para el kardex");
+        }
+        if (!productRepository.existsById(productoId)) {
+            throw new RuntimeException("Producto no encontrado");
+        }
+
+        int saldoInicial = obtenerStockAl(productoId, desde);
+        List<InventoryMovement> movimientos = movementRepository.obtenerKardex(productoId, desde, hasta);
+
+        int saldo = saldoInicial;
+        for (InventoryMovement movimiento : movimientos) {
+            saldo += movimiento.esEntrada() ? movimiento.getCantidad() : -movimiento.getCantidad();
+        }
+        return new Kardex(productoId, desde, hasta, saldoInicial, movimientos, saldo);
+    }
+
+    /**
+     * Stock a la fecha de todos los productos (productoId null) o de uno
+     */
+    private List<StockALaFecha> calcular(LocalDateTime fecha, Long productoId) {
+        if (fecha == null) {
+            throw new RuntimeException("Debe indicar la fecha del inventario");
+        }
+        List<Object[]> productos = productRepository.obtenerCreadosAntesDe(fecha, productoId);
+        if (productos.isEmpty()) {
+            return List.of();
+        }
+        Collection<Long> ids = productoId != null ? List.of(productoId) : null;
+
+        // Corte más cercano: el anterior, o el primero posterior si la fecha es más antigua
+        Map<Long, Object[]> corte = Map.of();
+        Map<Long, Integer> movido = Map.of();
+        int signo = 1;
+        LocalDateTime fechaCorte = snapshotRepository.obtenerCorteAnterior(fecha);
+        if (fechaCorte != null) {
+            corte = filasDelCorte(fechaCorte, ids);
+            movido = sumarNeto(fechaCorte, fecha, ids);
+        } else if ((fechaCorte = snapshotRepository.obtenerCortePosterior(fecha)) != null) {
+            corte = filasDelCorte(fechaCorte, ids);
+            movido = sumarNeto(fecha, fechaCorte, ids);
+            signo = -1;
+        }
+
+        // Productos creados después del corte (o sin cortes): desde el stock actual
+        List<Long> sinCorte = new ArrayList<>();
+        for (Object[] fila : productos) {
+            if (!corte.containsKey((Long) fila[0])) {
+                sinCorte.add((Long) fila[0]);
+            }
+        }
+        Map<Long, Integer> movidoHastaHoy = sinCorte.isEmpty() ? Map.of()
+                : sumarNeto(fecha, null, corte.isEmpty() ? ids : sinCorte);
+
+        List<StockALaFecha> resultado = new ArrayList<>(productos.size());
+        for (Object[] fila : productos) {
+            Long id = (Long) fila[0];
+            Object[] delCorte = corte.get(id);
+            int stock;
+            BigDecimal precioUnitario;
+            if (delCorte != null) {
+                stock = entero(delCorte[1]) + signo * movido.getOrDefault(id, 0);
+                precioUnitario = precio(delCorte[2]);
+            } else {
+                stock = entero(fila[3]) - movidoHastaHoy.getOrDefault(id, 0);
+                precioUnitario = precio(fila[4]);
+            }
+            resultado.add(new StockALaFecha(id, (String) fila[1], (String) fila[2], stock, precioUnitario));
+        }
+        return resultado;
+    }
+
+    private Map<Long, Object[]> filasDelCorte(LocalDateTime fechaCorte, Collection<Long> ids) {
+        List<Object[]> filas = ids == null
+                ? snapshotRepository.obtenerCorte(fechaCorte)
+                : snapshotRepository.obtenerCorte(fechaCorte, ids);
+        Map<Long, Object[]> porId = new HashMap<>();
+        for (Object[] fila : filas) {
+            porId.put((Long) fila[0], fila);
+        }
+        return porId;
+    }
+
+    private Map<Long, Integer> sumarNeto(LocalDateTime desde, LocalDateTime hasta, Collection<Long> ids) {
+        return porProducto(ids == null
+                ? movementRepository.sumarNetoPorProducto(desde, hasta)
+                : movementRepository.sumarNetoPorProducto(desde, hasta, ids));
+    }
+
+    // ========================================
+    // UTILIDADES
+    // ========================================
+
+    private static Map<Long, Integer> porProducto(List<Object[]> filas) {
+        Map<Long, Integer> porId = new HashMap<>();
+        for (Object[] fila : filas) {
+            porId.put((Long) fila[0], entero(fila[1]));
+        }
+        return porId;
+    }
+
+    private static int entero(Object valor) {
+        return valor != null ? ((Number) valor).intValue() : 0;
+    }
+
+    private static BigDecimal precio(Object valor) {
+        return valor != null ? (BigDecimal) valor : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,248 @@
+package com.miempresa.ecommerce.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.miempresa.ecommerce.repositories.ProductRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * SERVICE: ALERTAS DE STOCK
+ *
+ * IDs de los productos activos con stock bajo mínimo y sin stock, en memoria.
+ * El panel, el inventario y la API leen los conteos y listas de aquí en vez
+ * de recorrer 'productos' en cada vista.
+ *
+ * - Se carga al arrancar la aplicación
+ * - Cada cambio de stock (ventas, anulaciones, movimientos, ediciones del
+ *   producto) avisa con registrarCambio(); al confirmar la transacción se
+ *   relee solo el nivel de esos productos (una falla solo se registra en
+ *   el log: la transacción ya confirmó)
+ * - La lectura va fuera del candado; cada lectura lleva un número y no se
+ *   aplica sobre un producto que ya tiene aplicada una más nueva
+ * - Cuando un producto entra o sale de alerta se publica StockAlertEvent
+ *   (para notificaciones por correo, etc.)
+ */
+
+@Service
+@Slf4j
+public class LowStockTracker {
+
+    /**
+     * Un producto cambió de estado de alerta. Se publica después del commit.
+     */
+    public record StockAlertEvent(Long productoId, boolean stockBajo, boolean sinStock,
+            Integer stockActual, Integer stockMinimo) {
+    }
+
+    private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate lectura;
+
+    private final Set<Long> stockBajo = ConcurrentHashMap.newKeySet();
+    private final Set<Long> sinStock = ConcurrentHashMap.newKeySet();
+
+    // Número de cada lectura (se toma antes de leer: una lectura que empieza
+    // después ve el stock que confirmó cualquiera anterior)
+    private final AtomicLong lecturas = new AtomicLong();
+    // Con el candado: última carga completa y última lectura por producto
+    private long ultimaCarga = 0;
+    private final Map<Long, Long> ultimaLectura = new HashMap<>();
+
+    private volatile boolean listo = false;
+
+    public LowStockTracker(ProductRepository productRepository, ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+        // Se lee después del commit de quien avisa: transacción propia
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+        this.lectura.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // ========================================
+    // CARGA INICIAL
+    // ========================================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        long inicio = System.currentTimeMillis();
+
+        long numero = lecturas.incrementAndGet();
+        List<Object[]> filas = lectura.execute(status -> productRepository.obtenerNivelesStockEnAlerta());
+
+        synchronized (this) {
+            // Los productos releídos mientras se cargaba conservan su estado
+            stockBajo.removeIf(id -> !masNueva(id, numero));
+            sinStock.removeIf(id -> !masNueva(id, numero));
+            for (Object[] fila : filas) {
+                if (!masNueva((Long) fila[0], numero)) {
+                    aplicar(fila);
+                }
+            }
+            ultimaCarga = Math.max(ultimaCarga, numero);
+            ultimaLectura.values().removeIf(n -> n <= ultimaCarga);
+            listo = true;
+        }
+
+        log.info("Alertas de stock cargadas: {} con stock bajo, {} sin stock en {} ms",
+                stockBajo.size(), sinStock.size(), System.currentTimeMillis() - inicio);
+    }
+
+    public boolean estaListo() {
+        return listo;
+    }
+
+    // ========================================
+    // CAMBIOS DE STOCK
+    // ========================================
+
+    public void registrarCambio(Long productoId) {
+        registrarCambios(productoId != null ? List.of(productoId) : List.of());
+    }
+
+    /**
+     * Relee el nivel de los productos cuando la transacción actual confirma
+     * (si se revierte, no cambia nada). Fuera de una transacción, de inmediato.
+     */
+    public void registrarCambios(Collection<Long> productoIds) {
+        Set<Long> ids = productoIds.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recalcularSinPropagar(ids);
+                }
+            });
+        } else {
+            recalcularSinPropagar(ids);
+        }
+    }
+
+    /**
+     * El cambio ya se guardó: si no se pueden releer las alertas solo se
+     * registra (quedan como estaban hasta el próximo cambio del producto)
+     */
+    private void recalcularSinPropagar(Set<Long> ids) {
+        try {
+            recalcular(ids);
+        } catch (RuntimeException e) {
+            log.error("No se pudieron actualizar las alertas de stock de los productos {}: {}",
+                    ids, e.getMessage(), e);
+        }
+    }
+
+    private void recalcular(Set<Long> ids) {
+        List<StockAlertEvent> eventos = new ArrayList<>();
+
+        long numero = lecturas.incrementAndGet();
+        List<Object[]> filas = lectura.execute(status -> productRepository.obtenerNivelesStock(ids));
+
+        synchronized (this) {
+            Set<Long> sinFila = new HashSet<>(ids);
+            for (Object[] fila : filas) {
+                Long id = (Long) fila[0];
+                sinFila.remove(id);
+                if (masNueva(id, numero)) {
+                    continue;
+                }
+                ultimaLectura.put(id, numero);
+                StockAlertEvent evento = aplicar(fila);
+                if (evento != null) {
+                    eventos.add(evento);
+                }
+            }
+            // Productos que ya no existen
+            sinFila.stream().filter(id -> !masNueva(id, numero)).forEach(id -> {
+                ultimaLectura.put(id, numero);
+                stockBajo.remove(id);
+                sinStock.remove(id);
+            });
+        }
+
+        for (StockAlertEvent evento : eventos) {
+            if (evento.stockBajo() || evento.sinStock()) {
+                log.info("Alerta de stock: producto ID {} con {} unidades (mínimo {})",
+                        evento.productoId(), evento.stockActual(), evento.stockMinimo());
+            }
+            eventPublisher.publishEvent(evento);
+        }
+    }
+
+    /**
+     * Si el producto ya tiene aplicada una lectura posterior a 'numero'
+     * (la carga completa cuenta para todos). Requiere el candado.
+     */
+    private boolean masNueva(Long id, long numero) {
+        return Math.max(ultimaCarga, ultimaLectura.getOrDefault(id, 0L)) > numero;
+    }
+
+    /**
+     * Actualiza los conjuntos con una fila [id, stockActual, stockMinimo, activo].
+     *
+     * @return Evento si el producto entró o salió de alerta, null si no cambió
+     */
+    private StockAlertEvent aplicar(Object[] fila) {
+        Long id = (Long) fila[0];
+        Integer stockActual = (Integer) fila[1];
+        Integer stockMinimo = (Integer) fila[2];
+        boolean activo = Boolean.TRUE.equals(fila[3]);
+
+        // Mismos criterios que ProductRepository.obtenerProductosStockBajo/SinStock
+        boolean bajo = activo && stockActual != null && stockMinimo != null && stockActual <= stockMinimo;
+        boolean agotado = activo && stockActual != null && stockActual == 0;
+
+        boolean cambioBajo = bajo ? stockBajo.add(id) : stockBajo.remove(id);
+        boolean cambioAgotado = agotado ? sinStock.add(id) : sinStock.remove(id);
+
+        if (!cambioBajo && !cambioAgotado) {
+            return null;
+        }
+        return new StockAlertEvent(id, bajo, agotado, stockActual, stockMinimo);
+    }
+
+    // ========================================
+    // CONSULTAS
+    // ========================================
+
+    public int contarStockBajo() {
+        return stockBajo.size();
+    }
+
+    public int contarSinStock() {
+        return sinStock.size();
+    }
+
+    public List<Long> idsStockBajo() {
+        return List.copyOf(stockBajo);
+    }
+
+    public List<Long> idsSinStock() {
+        return List.copyOf(sinStock);
+    }
+}
@@ -1,9 +1,9 @@
 package com.miempresa.ecommerce.services;
 
 import java.math.BigDecimal; // <<--- AÑADIDO import
-import java.time.LocalDateTime;
 import java.util.ArrayList; // Added import for ArrayList
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors; // <<--- AÑADIDO import
 
@@ -20,8 +20,8 @@ import com.miempresa.ecommerce.models.User;
 import com.miempresa.ecommerce.models.enums.EstadoPedido;
 import com.miempresa.ecommerce.models.enums.TipoPago;
 import com.miempresa.ecommerce.repositories.OrderRepository;
-import com.miempresa.ecommerce.repositories.ProductRepository;
 import com.miempresa.ecommerce.repositories.SaleDetailRepository; // Added import for SaleDetailRepository
+import com.miempresa.ecommerce.repositories.SaleRepository;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -30,7 +30,8 @@ import lombok.extern.slf4j.Slf4j;
  * SERVICE: PEDIDO
  *
  * Gestiona los pedidos creados desde la web.
- * Los pedidos NO descuentan stock hasta que se convierten en venta.
+ * Los pedidos NO descuentan stock hasta que se convierten en venta,
+ * pero sí lo reservan (ver StockReservationService).
  */
 
 @Service
@@ -40,9 +41,12 @@ import lombok.extern.slf4j.Slf4j;
 public class OrderService {
 
     private final OrderRepository orderRepository;
-    private final ProductRepository productRepository;
+    private final ProductService productService;
     private final SaleService saleService;
     private final SaleDetailRepository saleDetailRepository; // Added repository
+    private final StockReservationService stockReservationService;
+    private final DocumentNumberService documentNumberService;
+    private final SaleRepository saleRepository;
 
     // ========================================
     // CREAR PEDIDO
@@ -57,24 +61,25 @@ public class OrderService {
                 pedido.getCliente() != null ? pedido.getCliente().getNombreCompleto() : "Desconocido");
 
         // Generar número de pedido
-        pedido.setNumeroPedido(generarNumeroPedido());
+        pedido.setNumeroPedido(documentNumberService.siguienteNumeroPedido());
         pedido.setEstado(EstadoPedido.PENDIENTE);
 
         // Validar stock y establecer datos de productos
         if (pedido.getDetalles() != null) {
+            // Recargar desde BD todos los productos del pedido en una consulta
+            Map<Long, Product> productos = productService.buscarPorIds(idsDeProductos(pedido.getDetalles()));
+
             for (OrderDetail detalle : pedido.getDetalles()) {
                 Product producto = detalle.getProducto();
                 if (producto == null || producto.getId() == null) {
                     throw new RuntimeException("Detalle de pedido inválido: producto no especificado");
                 }
 
-                // Recargar producto desde BD
-                Product productoActualizado = productRepository.findById(producto.getId())
-                        .orElseThrow(() -> new RuntimeException("Producto no encontrado: ID " + producto.getId()));
+                Product productoActualizado = productos.get(producto.getId());
+                if (productoActualizado == null) {
+                    throw new RuntimeException("Producto no encontrado: ID " + producto.getId());
+                }
 
-                Integer stockDisponible = productoActualizado.getStockActual() != null
-                        ? productoActualizado.getStockActual()
-                        : 0;
                 Integer cantidadNecesaria = detalle.getCantidad() != null ? detalle.getCantidad() : 0;
 
                 if (cantidadNecesaria <= 0) {
@@ -82,11 +87,7 @@ public class OrderService {
                             "La cantidad del producto '" + productoActualizado.getNombre() + "' debe ser mayor a cero.");
                 }
 
-                if (stockDisponible < cantidadNecesaria) {
-                    throw new RuntimeException("Stock insuficiente para: " + productoActualizado.getNombre()
-                            + " (Disponible: " + stockDisponible + ")");
-                }
-
+                // El stock se valida al reservar (después de guardar)
                 detalle.establecerDatosProducto();
                 detalle.calcularSubtotal();
             }
@@ -95,6 +96,9 @@ public class OrderService {
         pedido.calcularTotal();
         Order pedidoGuardado = orderRepository.save(pedido);
 
+        // Apartar stock: si no alcanza, se revierte todo el pedido
+        stockReservationService.reservarPedido(pedidoGuardado);
+
         log.info("Pedido web creado: {}", pedidoGuardado.getNumeroPedido());
         return pedidoGuardado;
     }
@@ -109,9 +113,12 @@ public class OrderService {
                 pedido.getCliente() != null ? pedido.getCliente().getNombreCompleto() : "Desconocido");
 
         // Generar número de pedido
-        pedido.setNumeroPedido(generarNumeroPedido());
+        pedido.setNumeroPedido(documentNumberService.siguienteNumeroPedido());
         pedido.setEstado(EstadoPedido.PENDIENTE);
 
+        // Productos actualizados (stock al día) de todas las líneas en una consulta
+        Map<Long, Product> productos = productService.buscarPorIds(idsDeProductos(detalles));
+
         // Agregar detalles y calcular totales
         for (OrderDetail detalle : detalles) {
             // Validar stock disponible
@@ -120,30 +127,18 @@ public class OrderService {
                 log.error("Error crítico: Detalle de pedido no tiene producto asociado.");
                 throw new RuntimeException("Error interno: Detalle de pedido inválido.");
             }
-            // Find the product again to get the latest stock information
-            Product productoActualizado = productRepository.findById(producto.getId())
-                    .orElseThrow(() -> new RuntimeException(
-                            "Producto no encontrado (ID: " + producto.getId() + ") al crear pedido."));
-
-            Integer stockDisponible = productoActualizado.getStockActual() != null
-                    ? productoActualizado.getStockActual()
-                    : 0;
+            Product productoActualizado = productos.get(producto.getId());
+            if (productoActualizado == null) {
+                throw new RuntimeException("Producto no encontrado (ID: " + producto.getId() + ") al crear pedido.");
+            }
+
             Integer cantidadNecesaria = detalle.getCantidad() != null ? detalle.getCantidad() : 0;
 
             if (cantidadNecesaria <= 0) {
                 log.warn("Cantidad inválida ({}) en detalle para producto ID {}. Saltando.", cantidadNecesaria,
-                        producto.getId());
+                        productoActualizado.getId());
                 throw new RuntimeException(
-                        "La cantidad del producto '" + producto.getNombre() + "' debe ser mayor a cero.");
-            }
-
-            if (stockDisponible < cantidadNecesaria) {
-                log.error(
-                        "Stock insuficiente al crear pedido {}. Producto: '{}' (ID {}), Necesario: {}, Disponible: {}",
-                        (pedido.getNumeroPedido() != null ? pedido.getNumeroPedido() : "N/A"),
-                        productoActualizado.getNombre(), productoActualizado.getId(), cantidadNecesaria,
-                        stockDisponible);
-                throw new RuntimeException("Stock insuficiente para: " + productoActualizado.getNombre());
+                        "La cantidad del producto '" + productoActualizado.getNombre() + "' debe ser mayor a cero.");
             }
 
             detalle.establecerDatosProducto(); // Use the original product reference potentially? Or updated? Using
@@ -156,6 +151,9 @@ public class OrderService {
 
         Order pedidoGuardado = orderRepository.save(pedido);
 
+        // Apartar stock: si no alcanza, se revierte todo el pedido
+        stockReservationService.reservarPedido(pedidoGuardado);
+
         log.info("Pedido creado: {}", pedidoGuardado.getNumeroPedido());
         return pedidoGuardado;
     }
@@ -180,51 +178,18 @@ public class OrderService {
             throw new RuntimeException("Solo se pueden confirmar pedidos que están pendientes.");
         }
 
-        // Validar stock nuevamente justo antes de confirmar
-        log.info("Validando stock para confirmar pedido ID {}", pedidoId);
+        // El stock ya está reservado desde la creación del pedido.
+        // Solo se re-reservan las líneas cuya reserva expiró.
         if (pedido.getDetalles() == null || pedido.getDetalles().isEmpty()) {
             log.warn("Pedido ID {} no tiene detalles. Confirmando de todas formas.", pedidoId);
         } else {
             for (OrderDetail detalle : pedido.getDetalles()) {
-                // <<--- CORRECCIÓN AQUÍ: Volver a buscar el producto --->>>
                 if (detalle.getProducto() == null || detalle.getProducto().getId() == null) {
                     log.error("Detalle ID {} no tiene producto asociado o ID nulo.", detalle.getId());
                     throw new RuntimeException("Detalle de pedido inválido al confirmar stock.");
                 }
-                Long productoId = detalle.getProducto().getId();
-                Product productoActualizado = productRepository.findById(productoId)
-                        .orElseThrow(() -> {
-                            log.error("Producto ID {} asociado al detalle {} no encontrado al confirmar.", productoId,
-                                    detalle.getId());
-                            return new RuntimeException(
-                                    "Producto no encontrado (ID: " + productoId + ") al confirmar stock.");
-                        });
-
-                // <<--- QUITAR ESTA LÍNEA (INCORRECTA) --->>>
-                // productRepository.refresh(producto); // <--- Eliminar esta línea
-
-                Integer stockDisponible = productoActualizado.getStockActual() != null
-                        ? productoActualizado.getStockActual()
-                        : 0;
-                Integer cantidadNecesaria = detalle.getCantidad() != null ? detalle.getCantidad() : 0;
-
-                if (cantidadNecesaria <= 0) {
-                    log.warn("Detalle ID {} tiene cantidad inválida ({}). Saltando validación de stock.",
-                            detalle.getId(), cantidadNecesaria);
-                    continue; // Saltar si la cantidad es 0 o negativa
-                }
-
-                if (stockDisponible < cantidadNecesaria) {
-                    log.error(
-                            "Stock insuficiente para confirmar pedido {}. Producto: '{}' (ID {}), Necesario: {}, Disponible: {}",
-                            pedido.getNumeroPedido(), productoActualizado.getNombre(), productoId, cantidadNecesaria,
-                            stockDisponible);
-                    throw new RuntimeException("Stock insuficiente para: " + productoActualizado.getNombre()
-                            + " (Disponible: " + stockDisponible + ")");
-                }
-                log.debug("Stock validado para producto ID {}: Necesario {}, Disponible {}", productoId,
-                        cantidadNecesaria, stockDisponible);
             }
+            stockReservationService.asegurarReservas(pedido);
         }
 
         pedido.confirmar(); // Cambia estado y fecha
@@ -310,6 +275,10 @@ public class OrderService {
         // abonos si es CREDITO)
         List<Payment> pagosIniciales = new ArrayList<>(); // Use ArrayList
 
+        // Liberar la reserva del pedido: en esta misma transacción la venta
+        // descuenta esas unidades del stock físico
+        stockReservationService.consumirPedido(pedidoId);
+
         log.info("Llamando a SaleService.crearVenta para pedido ID {}", pedidoId);
 
         // Pasar los 7 argumentos requeridos
@@ -336,7 +305,8 @@ public class OrderService {
     // ========================================
 
     /**
-     * Cancela un pedido
+     * Cancela un pedido pendiente, o uno confirmado que aún no se facturó,
+     * y libera el stock que tenía reservado
      */
     public void cancelarPedido(Long pedidoId) {
         log.info("Cancelando pedido ID: {}", pedidoId);
@@ -347,14 +317,15 @@ public class OrderService {
             log.warn("Pedido ID {} ya se encuentra cancelado.", pedidoId);
             return; // Ya está cancelado, no hacer nada más
         }
-        // Impedir cancelar si ya está facturado
-        if (pedido.getEstado() == EstadoPedido.CONFIRMADO) {
+        // Impedir cancelar si ya está facturado (convertirAVenta lo deja CONFIRMADO)
+        if (pedido.getEstado() == EstadoPedido.CONFIRMADO && saleRepository.existsByPedidoId(pedidoId)) {
             log.error("Intento de cancelar pedido ID {} que ya está FACTURADO.", pedidoId);
             throw new RuntimeException("No se puede cancelar un pedido que ya ha sido facturado (convertido a venta).");
         }
 
         pedido.cancelar(); // Cambia estado
         orderRepository.save(pedido);
+        stockReservationService.liberarPedido(pedidoId);
         log.info("Pedido {} cancelado.", pedido.getNumeroPedido());
     }
 
@@ -397,21 +368,11 @@ public class OrderService {
         return orderRepository.countByEstado(estado);
     }
 
-    // ========================================
-    // UTILIDADES
-    // ========================================
-
-    /**
-     * Genera número único de pedido
-     * Formato: PED-2025-00001
-     */
-    private String generarNumeroPedido() {
-        String year = String.valueOf(LocalDateTime.now().getYear());
-        String prefijo = "PED-" + year + "-";
-        // Asegúrate que generarSiguienteNumero maneje correctamente el caso inicial
-        // (devuelva 0 o null)
-        Long siguiente = orderRepository.generarSiguienteNumero(prefijo + "%");
-        return String.format("%s%05d", prefijo, siguiente != null ? siguiente : 1L); // Formato 5 dígitos, inicia en 1
-                                                                                     // si es el primero
+    private List<Long> idsDeProductos(List<OrderDetail> detalles) {
+        return detalles.stream()
+                .map(OrderDetail::getProducto)
+                .filter(p -> p != null)
+                .map(Product::getId)
+                .toList();
     }
 }
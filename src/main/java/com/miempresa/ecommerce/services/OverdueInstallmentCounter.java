@@ -0,0 +1,97 @@
+package com.miempresa.ecommerce.services;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.miempresa.ecommerce.repositories.InstallmentRepository;
+import com.miempresa.ecommerce.utils.TimeWindow;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * SERVICE: CONTADOR DE CUOTAS VENCIDAS
+ *
+ * Número de cuotas vencidas que muestra el panel de administración.
+ * Se calcula con un COUNT y se guarda unos segundos en memoria, para
+ * que cada página no consulte la cartera de créditos completa.
+ *
+ * Se invalida cuando cambian las cuotas (abonos, créditos nuevos o
+ * anulados); el TTL cubre el paso de los días. Cada invalidación sube
+ * una generación: un recálculo que empezó antes (y pudo no ver el
+ * cambio) no deja su valor guardado.
+ */
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OverdueInstallmentCounter {
+
+    private final InstallmentRepository installmentRepository;
+
+    @Value("${app.creditos.cache-vencidas-segundos:60}")
+    private long ttlSegundos;
+
+    // Sube con cada invalidación
+    private final AtomicLong generacion = new AtomicLong();
+
+    private volatile Guardado guardado;
+
+    /**
+     * Valor calculado en una generación, válido hasta 'expiraEn'
+     */
+    private record Guardado(long valor, long expiraEn, long generacion) {
+    }
+
+    /**
+     * Cantidad de cuotas vencidas (puede tener hasta TTL segundos de antigüedad)
+     */
+    public long obtener() {
+        Guardado actual = guardado;
+        if (vigente(actual, System.currentTimeMillis())) {
+            return actual.valor();
+        }
+        return recalcular();
+    }
+
+    private synchronized long recalcular() {
+        // Otro hilo pudo recalcular mientras se esperaba el bloqueo
+        long ahora = System.currentTimeMillis();
+        Guardado actual = guardado;
+        if (vigente(actual, ahora)) {
+            return actual.valor();
+        }
+
+        long inicio = generacion.get();
+        long valor = installmentRepository.contarCuotasVencidas(TimeWindow.hoy());
+        // Si se invalidó durante el COUNT, este valor ya no es vigente
+        guardado = new Guardado(valor, ahora + ttlSegundos * 1000, inicio);
+        log.debug("Cuotas vencidas recalculadas: {}", valor);
+        return valor;
+    }
+
+    private boolean vigente(Guardado actual, long ahora) {
+        return actual != null && ahora < actual.expiraEn() && actual.generacion() == generacion.get();
+    }
+
+    /**
+     * Descarta el valor guardado cuando la transacción actual confirma.
+     * Fuera de una transacción se descarta de inmediato.
+     */
+    public void invalidar() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generacion.incrementAndGet();
+                }
+            });
+        } else {
+            generacion.incrementAndGet();
+        }
+    }
+}
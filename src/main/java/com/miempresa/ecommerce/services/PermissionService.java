@@ -2,6 +2,7 @@ package com.miempresa.ecommerce.services;
 
 import com.miempresa.ecommerce.models.Permission;
 import com.miempresa.ecommerce.repositories.PermissionRepository;
+import com.miempresa.ecommerce.security.PermissionRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -24,6 +25,7 @@ import java.util.Optional;
 public class PermissionService {
 
     private final PermissionRepository permissionRepository;
+    private final PermissionRegistry permissionRegistry;
 
     // ========================================
     // OPERACIONES CRUD
@@ -36,6 +38,7 @@ public class PermissionService {
             throw new RuntimeException("Ya existe un permiso con ese código");
         }
 
+        permissionRegistry.invalidarTodos();
         return permissionRepository.save(permission);
     }
 
@@ -90,6 +93,7 @@ public class PermissionService {
         Permission permission = permissionOpt.get();
         permission.setActivo(activo);
 
+        permissionRegistry.invalidarTodos();
         return permissionRepository.save(permission);
     }
 
@@ -2,24 +2,41 @@ package com.miempresa.ecommerce.services;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.miempresa.ecommerce.models.KeysetPage;
 import com.miempresa.ecommerce.models.Product;
 import com.miempresa.ecommerce.models.ProductImage;
+import com.miempresa.ecommerce.models.enums.OrdenProducto;
+import com.miempresa.ecommerce.repositories.BrandRepository;
+import com.miempresa.ecommerce.repositories.CategoryRepository;
 import com.miempresa.ecommerce.repositories.ProductImageRepository;
 import com.miempresa.ecommerce.repositories.ProductRepository;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -37,6 +54,20 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final ProductImageRepository productImageRepository;
+    private final CategoryRepository categoryRepository;
+    private final BrandRepository brandRepository;
+    private final CatalogSearchService catalogSearchService;
+    private final LowStockTracker lowStockTracker;
+    private final EntityManager entityManager;
+
+    // Máximo de resultados devueltos por la búsqueda de catálogo
+    private static final int LIMITE_BUSQUEDA = 200;
+
+    // Máximo de productos por página en la paginación por cursor
+    public static final int TAMANIO_PAGINA_MAX = 100;
+
+    // Mayor precio que cabe en DECIMAL(10,2): inicio del orden por precio descendente
+    private static final String PRECIO_MAXIMO = "99999999.99";
 
     // Directorio donde se guardan las imágenes
     @Value("${app.upload.dir:uploads/productos/}")
@@ -61,7 +92,27 @@ public class ProductService {
             product.setCodigoSku(generarSKU());
         }
 
-        return productRepository.save(product);
+        resolverRelaciones(product);
+        Product guardado = productRepository.save(product);
+        catalogSearchService.indexar(guardado);
+        lowStockTracker.registrarCambio(guardado.getId());
+        return guardado;
+    }
+
+    /**
+     * El formulario envía la categoría y la marca solo con su ID: se
+     * reemplazan por las entidades administradas para que el índice de
+     * búsqueda (y la vista de respuesta) tengan sus nombres.
+     */
+    private void resolverRelaciones(Product product) {
+        if (product.getCategoria() != null && product.getCategoria().getId() != null) {
+            product.setCategoria(categoryRepository.findById(product.getCategoria().getId())
+                    .orElseThrow(() -> new RuntimeException("Categoría no encontrada")));
+        }
+        if (product.getMarca() != null && product.getMarca().getId() != null) {
+            product.setMarca(brandRepository.findById(product.getMarca().getId())
+                    .orElseThrow(() -> new RuntimeException("Marca no encontrada")));
+        }
     }
 
     @Transactional(readOnly = true)
@@ -69,11 +120,105 @@ public class ProductService {
         return productRepository.findById(id);
     }
 
+    /**
+     * Carga varios productos en una sola consulta (líneas del carrito,
+     * del POS o de un pedido). Los IDs nulos o repetidos se ignoran y
+     * los inexistentes no aparecen en el mapa.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Product> buscarPorIds(Collection<Long> ids) {
+        List<Long> unicos = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (unicos.isEmpty()) {
+            return Map.of();
+        }
+        return productRepository.findByIdIn(unicos).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
+
+    /**
+     * Igual que buscarPorIds, pero lanza excepción si falta alguno
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Product> obtenerPorIds(Collection<Long> ids) {
+        Map<Long, Product> porId = buscarPorIds(ids);
+        for (Long id : ids) {
+            if (id != null && !porId.containsKey(id)) {
+                throw new RuntimeException("Producto no encontrado: ID " + id);
+            }
+        }
+        return porId;
+    }
+
     @Transactional(readOnly = true)
     public List<Product> obtenerTodos() {
         return productRepository.findAll();
     }
 
+    /**
+     * Obtiene una página de productos por cursor (keyset), sin OFFSET ni
+     * COUNT: el costo es el mismo en la primera página y en la milésima.
+     *
+     * @param orden       ordenamiento estable (null = RECIENTES)
+     * @param cursor      valor devuelto en la página anterior (null = primera)
+     * @param tamanio     productos por página (1 a TAMANIO_PAGINA_MAX)
+     * @param soloActivos true para el catálogo público
+     * @param categoriaId filtro opcional por categoría
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<Product> paginar(OrdenProducto orden, String cursor, int tamanio,
+            boolean soloActivos, Long categoriaId) {
+        OrdenProducto ordenEfectivo = orden != null ? orden : OrdenProducto.RECIENTES;
+        int limite = Math.max(1, Math.min(tamanio, TAMANIO_PAGINA_MAX));
+
+        // Se pide un registro extra para saber si hay página siguiente
+        Pageable pageable = PageRequest.of(0, limite + 1);
+
+        // El panel ve también los inactivos
+        List<Boolean> activos = soloActivos ? List.of(true) : List.of(true, false);
+
+        // Sin cursor se parte de una posición anterior a todos los productos
+        String[] posicion = decodificarCursor(cursor, ordenEfectivo);
+        if (posicion == null) {
+            posicion = inicioDe(ordenEfectivo);
+        }
+        String ultimaClave = posicion[0];
+        Long ultimoId = Long.valueOf(posicion[1]);
+
+        List<Product> productos = switch (ordenEfectivo) {
+            case RECIENTES -> categoriaId == null
+                    ? productRepository.paginarPorRecientes(activos, ultimoId, pageable)
+                    : productRepository.paginarPorRecientesEnCategoria(activos, categoriaId, ultimoId, pageable);
+            case NOMBRE -> categoriaId == null
+                    ? productRepository.paginarPorNombre(activos, ultimaClave, ultimoId, pageable)
+                    : productRepository.paginarPorNombreEnCategoria(activos, categoriaId, ultimaClave,
+                            ultimoId, pageable);
+            case PRECIO_MENOR -> categoriaId == null
+                    ? productRepository.paginarPorPrecioAsc(activos, new BigDecimal(ultimaClave), ultimoId,
+                            pageable)
+                    : productRepository.paginarPorPrecioAscEnCategoria(activos, categoriaId,
+                            new BigDecimal(ultimaClave), ultimoId, pageable);
+            case PRECIO_MAYOR -> categoriaId == null
+                    ? productRepository.paginarPorPrecioDesc(activos, new BigDecimal(ultimaClave), ultimoId,
+                            pageable)
+                    : productRepository.paginarPorPrecioDescEnCategoria(activos, categoriaId,
+                            new BigDecimal(ultimaClave), ultimoId, pageable);
+        };
+
+        if (productos.size() <= limite) {
+            return new KeysetPage<>(productos, null);
+        }
+
+        List<Product> pagina = productos.subList(0, limite);
+        Product ultimo = pagina.get(limite - 1);
+        String clave = switch (ordenEfectivo) {
+            case RECIENTES -> "";
+            case NOMBRE -> ultimo.getNombre();
+            case PRECIO_MENOR, PRECIO_MAYOR -> ultimo.getPrecioVigente().toPlainString();
+        };
+
+        return new KeysetPage<>(new ArrayList<>(pagina), codificarCursor(clave, ultimo.getId()));
+    }
+
     @Transactional(readOnly = true)
     public List<Product> obtenerActivos() {
         return productRepository.findByActivoTrue();
@@ -84,9 +229,27 @@ public class ProductService {
         return productRepository.findByEsDestacadoTrueAndActivoTrue();
     }
 
+    /**
+     * Busca productos activos por texto (nombre, descripción, SKU, categoría
+     * o marca) usando el índice en memoria. Resultados ordenados por relevancia.
+     */
     @Transactional(readOnly = true)
     public List<Product> buscarPorNombre(String nombre) {
-        return productRepository.findByNombreContainingIgnoreCaseAndActivoTrue(nombre);
+        if (!catalogSearchService.estaListo()) {
+            return productRepository.findByNombreContainingIgnoreCaseAndActivoTrue(nombre);
+        }
+
+        List<Long> ids = catalogSearchService.buscar(nombre, LIMITE_BUSQUEDA);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Product> porId = buscarPorIds(ids);
+
+        return ids.stream()
+                .map(porId::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     @Transactional(readOnly = true)
@@ -115,8 +278,12 @@ public class ProductService {
         product.setCategoria(productActualizado.getCategoria());
         product.setMarca(productActualizado.getMarca());
         product.setEsDestacado(productActualizado.getEsDestacado());
+        resolverRelaciones(product);
 
-        return productRepository.save(product);
+        Product guardado = productRepository.save(product);
+        catalogSearchService.indexar(guardado);
+        lowStockTracker.registrarCambio(guardado.getId());
+        return guardado;
     }
 
     public Product cambiarEstado(Long id, boolean activo) {
@@ -129,7 +296,10 @@ public class ProductService {
         Product product = productOpt.get();
         product.setActivo(activo);
 
-        return productRepository.save(product);
+        Product guardado = productRepository.save(product);
+        catalogSearchService.indexar(guardado);
+        lowStockTracker.registrarCambio(guardado.getId());
+        return guardado;
     }
 
     public void eliminar(Long id) {
@@ -143,44 +313,95 @@ public class ProductService {
     public Product aumentarStock(Long id, Integer cantidad) {
         log.info("Aumentando stock del producto ID: {} en {} unidades", id, cantidad);
 
-        Optional<Product> productOpt = buscarPorId(id);
+        validarCantidad(cantidad);
 
-        if (productOpt.isEmpty()) {
+        if (productRepository.aumentarStock(id, cantidad) == 0) {
             throw new RuntimeException("Producto no encontrado");
         }
+        lowStockTracker.registrarCambio(id);
 
-        Product product = productOpt.get();
-        product.aumentarStock(cantidad);
-
-        return productRepository.save(product);
+        return recargar(id);
     }
 
     public Product disminuirStock(Long id, Integer cantidad) {
         log.info("Disminuyendo stock del producto ID: {} en {} unidades", id, cantidad);
 
-        Optional<Product> productOpt = buscarPorId(id);
+        validarCantidad(cantidad);
 
-        if (productOpt.isEmpty()) {
-            throw new RuntimeException("Producto no encontrado");
+        // UPDATE condicional: si no afecta filas, no hay stock (o no existe)
+        if (productRepository.disminuirStockSiDisponible(id, cantidad) == 0) {
+            if (!productRepository.existsById(id)) {
+                throw new RuntimeException("Producto no encontrado");
+            }
+            throw new RuntimeException("Stock insuficiente");
         }
+        lowStockTracker.registrarCambio(id);
 
-        Product product = productOpt.get();
+        return recargar(id);
+    }
 
-        if (!product.disminuirStock(cantidad)) {
-            throw new RuntimeException("Stock insuficiente");
-        }
+    /**
+     * El UPDATE de stock no toca la copia ya cargada en la sesión (ej: por
+     * open-in-view): se vuelve a leer de BD para devolver el stock vigente.
+     * No se usa clearAutomatically porque desprendería también la venta o
+     * el pedido que se está armando en la misma transacción.
+     */
+    private Product recargar(Long id) {
+        Product producto = productRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Producto no encontrado"));
+        entityManager.refresh(producto);
+        return producto;
+    }
 
-        return productRepository.save(product);
+    private void validarCantidad(Integer cantidad) {
+        if (cantidad == null || cantidad <= 0) {
+            throw new RuntimeException("La cantidad debe ser mayor a cero");
+        }
     }
 
+    /**
+     * Productos activos con stock bajo mínimo, del más escaso al menos.
+     * Se cargan solo los IDs en alerta (LowStockTracker), no toda la tabla.
+     */
     @Transactional(readOnly = true)
     public List<Product> obtenerProductosStockBajo() {
-        return productRepository.obtenerProductosStockBajo();
+        if (!lowStockTracker.estaListo()) {
+            return productRepository.obtenerProductosStockBajo();
+        }
+        return cargarAlertas(lowStockTracker.idsStockBajo(), Product::stockBajoMinimo);
     }
 
     @Transactional(readOnly = true)
     public List<Product> obtenerProductosSinStock() {
-        return productRepository.obtenerProductosSinStock();
+        if (!lowStockTracker.estaListo()) {
+            return productRepository.obtenerProductosSinStock();
+        }
+        return cargarAlertas(lowStockTracker.idsSinStock(), p -> Integer.valueOf(0).equals(p.getStockActual()));
+    }
+
+    @Transactional(readOnly = true)
+    public long contarProductosStockBajo() {
+        return lowStockTracker.estaListo()
+                ? lowStockTracker.contarStockBajo()
+                : productRepository.obtenerProductosStockBajo().size();
+    }
+
+    @Transactional(readOnly = true)
+    public long contarProductosSinStock() {
+        return lowStockTracker.estaListo()
+                ? lowStockTracker.contarSinStock()
+                : productRepository.obtenerProductosSinStock().size();
+    }
+
+    private List<Product> cargarAlertas(List<Long> ids, Predicate<Product> enAlerta) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        // Se vuelve a filtrar: entre el aviso y el commit el nivel pudo cambiar
+        return productRepository.findByIdIn(ids).stream()
+                .filter(p -> Boolean.TRUE.equals(p.getActivo()) && enAlerta.test(p))
+                .sorted(Comparator.comparing(Product::getStockActual).thenComparing(Product::getNombre))
+                .collect(Collectors.toCollection(ArrayList::new));
     }
 
     // ========================================
@@ -398,6 +619,53 @@ public class ProductService {
         return (lastDot == -1) ? "" : filename.substring(lastDot);
     }
 
+    /**
+     * Codifica la posición "clave|id" como texto opaco para la URL
+     */
+    private String codificarCursor(String clave, Long id) {
+        String posicion = clave + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(posicion.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Posición [clave, id] anterior al primer producto de cada orden, para
+     * la primera página (nombres no vacíos, precios e IDs positivos)
+     */
+    private String[] inicioDe(OrdenProducto orden) {
+        return switch (orden) {
+            case RECIENTES -> new String[] { "", String.valueOf(Long.MAX_VALUE) };
+            case NOMBRE -> new String[] { "", "0" };
+            case PRECIO_MENOR -> new String[] { "0", "0" };
+            case PRECIO_MAYOR -> new String[] { PRECIO_MAXIMO, String.valueOf(Long.MAX_VALUE) };
+        };
+    }
+
+    /**
+     * Decodifica un cursor en [clave, id]. Retorna null si no hay cursor o
+     * si no es válido para el orden pedido (alterado, truncado o de otro
+     * orden): en ese caso se devuelve la primera página en lugar de fallar.
+     */
+    private String[] decodificarCursor(String cursor, OrdenProducto orden) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String posicion = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = posicion.lastIndexOf('|');
+            String clave = posicion.substring(0, separador);
+            String id = posicion.substring(separador + 1);
+            Long.parseLong(id); // Validar formato
+            if (orden == OrdenProducto.PRECIO_MENOR || orden == OrdenProducto.PRECIO_MAYOR) {
+                new BigDecimal(clave); // Validar formato
+            }
+            return new String[] { clave, id };
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            log.warn("Cursor de paginación inválido, se devuelve la primera página: {}", cursor);
+            return null;
+        }
+    }
+
     /**
      * Genera un código SKU único
      */
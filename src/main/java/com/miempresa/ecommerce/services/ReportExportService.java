@@ -0,0 +1,197 @@
+package com.miempresa.ecommerce.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.miempresa.ecommerce.models.Customer;
+import com.miempresa.ecommerce.models.enums.TipoDocumento;
+import com.miempresa.ecommerce.repositories.CreditRepository;
+import com.miempresa.ecommerce.repositories.InventoryMovementRepository;
+import com.miempresa.ecommerce.repositories.ProductRepository;
+import com.miempresa.ecommerce.repositories.SaleRepository;
+import com.miempresa.ecommerce.utils.ExcelExportUtil;
+import com.miempresa.ecommerce.utils.PdfGeneratorUtil;
+import com.miempresa.ecommerce.utils.PdfGeneratorUtil.FilaReporteInventario;
+import com.miempresa.ecommerce.utils.PdfGeneratorUtil.FilaReporteVenta;
+import com.miempresa.ecommerce.utils.TimeWindow;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * SERVICE: EXPORTACIÓN DE REPORTES (EXCEL Y PDF)
+ *
+ * Cada exportación recorre un cursor de la base de datos (solo columnas,
+ * sin entidades) y escribe las filas directamente en la salida.
+ * La transacción de solo lectura se mantiene abierta mientras dura la
+ * descarga, porque el cursor vive dentro de ella.
+ */
+
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+@Slf4j
+public class ReportExportService {
+
+    private static final String[] COLUMNAS_VENTAS = {
+            "Nº Venta", "Fecha", "Documento", "Cliente", "Tipo Pago", "Estado",
+            "Subtotal", "Descuento", "Envío", "IGV", "Total", "Vendedor" };
+
+    private static final String[] COLUMNAS_INVENTARIO = {
+            "SKU", "Producto", "Categoría", "Marca", "Precio", "Precio Oferta",
+            "Stock", "Reservado", "Disponible", "Stock Mínimo" };
+
+    private static final String[] COLUMNAS_MOVIMIENTOS = {
+            "Fecha", "SKU", "Producto", "Tipo", "Motivo", "Cantidad",
+            "Stock Anterior", "Stock Nuevo", "Referencia", "Ref. ID", "Usuario", "Observaciones" };
+
+    private static final String[] COLUMNAS_CREDITOS = {
+            "Nº Venta", "Fecha Inicio", "Documento", "Cliente", "Cuotas",
+            "Monto Cuota", "Monto Total", "Pendiente", "Estado" };
+
+    private final SaleRepository saleRepository;
+    private final ProductRepository productRepository;
+    private final InventoryMovementRepository movementRepository;
+    private final CreditRepository creditRepository;
+    private final SalesSummaryService salesSummaryService;
+    private final CreditService creditService;
+
+    // ========================================
+    // EXPORTACIONES
+    // ========================================
+
+    public long exportarVentas(TimeWindow ventana, OutputStream salida) throws IOException {
+        log.info("Exportando ventas a Excel: {}", ventana);
+
+        try (Stream<Object[]> filas = saleRepository.streamParaExportar(ventana.inicio(), ventana.fin())) {
+            return ExcelExportUtil.exportar(salida, "Ventas", COLUMNAS_VENTAS, filas, f -> new Object[] {
+                    f[0], f[1], f[3], nombreCliente(f, 2),
+                    f[8], f[9], f[10], f[11], f[12], f[13], f[14], f[15] });
+        }
+    }
+
+    public long exportarInventario(OutputStream salida) throws IOException {
+        log.info("Exportando inventario a Excel");
+
+        try (Stream<Object[]> filas = productRepository.streamInventarioParaExportar()) {
+            return ExcelExportUtil.exportar(salida, "Inventario", COLUMNAS_INVENTARIO, filas, f -> new Object[] {
+                    f[0], f[1], f[2], f[3], f[4], f[5],
+                    f[6], f[7], disponible(f[6], f[7]), f[8] });
+        }
+    }
+
+    public long exportarMovimientos(TimeWindow ventana, OutputStream salida) throws IOException {
+        log.info("Exportando movimientos de inventario a Excel: {}", ventana);
+
+        try (Stream<Object[]> filas = movementRepository.streamParaExportar(ventana.inicio(), ventana.fin())) {
+            return ExcelExportUtil.exportar(salida, "Movimientos", COLUMNAS_MOVIMIENTOS, filas, f -> f);
+        }
+    }
+
+    public long exportarCreditos(OutputStream salida) throws IOException {
+        log.info("Exportando créditos a Excel");
+
+        try (Stream<Object[]> filas = creditRepository.streamParaExportar()) {
+            return ExcelExportUtil.exportar(salida, "Créditos", COLUMNAS_CREDITOS, filas, f -> new Object[] {
+                    f[0], f[1], f[3], nombreCliente(f, 2),
+                    f[8], f[9], f[10], f[11], f[12] });
+        }
+    }
+
+    // ========================================
+    // PDF
+    // ========================================
+
+    /**
+     * Reporte de ventas en PDF. La cantidad y el total se calculan antes
+     * (el resumen va arriba de la tabla); las filas se leen del cursor.
+     */
+    public void exportarVentasPdf(TimeWindow ventana, OutputStream salida,
+            String empresaNombre, String empresaRuc) throws IOException {
+
+        long cantidad = saleRepository.contarEnVentana(ventana.inicio(), ventana.fin());
+        BigDecimal total = salesSummaryService.sumarTotal(ventana.inicio(), ventana.ultimoInstante());
+
+        try (Stream<Object[]> filas = saleRepository.streamParaExportar(ventana.inicio(), ventana.fin())) {
+            Iterator<FilaReporteVenta> ventas = filas
+                    .map(f -> new FilaReporteVenta((LocalDateTime) f[1], nombreCliente(f, 2),
+                            (String) f[0], (BigDecimal) f[14]))
+                    .iterator();
+
+            PdfGeneratorUtil.writeReporteVentasPdf(salida, ventas, cantidad, total,
+                    ventana.inicio(), ventana.ultimoInstante(), empresaNombre, empresaRuc);
+        }
+    }
+
+    /**
+     * Reporte de inventario (productos activos) en PDF
+     */
+    public void exportarInventarioPdf(OutputStream salida, String empresaNombre, String empresaRuc)
+            throws IOException {
+
+        try (Stream<Object[]> filas = productRepository.streamInventarioParaExportar()) {
+            Iterator<FilaReporteInventario> productos = filas
+                    .map(f -> new FilaReporteInventario((String) f[1], (String) f[0], (String) f[2],
+                            (Integer) f[6], precioActual((BigDecimal) f[4], (BigDecimal) f[5])))
+                    .iterator();
+
+            PdfGeneratorUtil.writeReporteInventarioPdf(salida, productos, empresaNombre, empresaRuc);
+        }
+    }
+
+    /**
+     * Reporte de créditos activos en PDF (pocos registros: se arma en
+     * memoria con PdfGeneratorUtil y se copia a la salida)
+     */
+    public void exportarCreditosPdf(OutputStream salida, String empresaNombre, String empresaRuc)
+            throws IOException {
+
+        BigDecimal deudaTotal = creditService.obtenerTotalDeudaPendiente();
+        salida.write(PdfGeneratorUtil.generateReporteCreditosPdf(
+                creditService.obtenerActivos(),
+                deudaTotal != null ? deudaTotal : BigDecimal.ZERO,
+                creditService.obtenerCuotasVencidas().size(),
+                empresaNombre,
+                empresaRuc));
+    }
+
+    // ========================================
+    // UTILIDADES
+    // ========================================
+
+    /**
+     * Nombre del cliente con Customer.getNombreCompleto(), a partir de las
+     * columnas tipoDocumento, numeroDocumento, nombres, apellidoPaterno,
+     * apellidoMaterno y razonSocial (desde 'inicio'), sin cargar la entidad.
+     */
+    private static String nombreCliente(Object[] fila, int inicio) {
+        return Customer.builder()
+                .tipoDocumento((TipoDocumento) fila[inicio])
+                .nombres((String) fila[inicio + 2])
+                .apellidoPaterno((String) fila[inicio + 3])
+                .apellidoMaterno((String) fila[inicio + 4])
+                .razonSocial((String) fila[inicio + 5])
+                .build()
+                .getNombreCompleto();
+    }
+
+    /**
+     * Igual que Product.getPrecioActual(): la oferta si es mayor a cero
+     */
+    private static BigDecimal precioActual(BigDecimal precioBase, BigDecimal precioOferta) {
+        return precioOferta != null && precioOferta.compareTo(BigDecimal.ZERO) > 0 ? precioOferta : precioBase;
+    }
+
+    private static Integer disponible(Object stockActual, Object stockReservado) {
+        int actual = stockActual != null ? ((Number) stockActual).intValue() : 0;
+        int reservado = stockReservado != null ? ((Number) stockReservado).intValue() : 0;
+        return Math.max(0, actual - reservado);
+    }
+}
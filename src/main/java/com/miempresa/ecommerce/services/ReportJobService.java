@@ -0,0 +1,294 @@
+package com.miempresa.ecommerce.services;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.miempresa.ecommerce.config.EmpresaConfig;
+import com.miempresa.ecommerce.models.ReportJob;
+import com.miempresa.ecommerce.models.ReportSpec;
+import com.miempresa.ecommerce.models.enums.EstadoTrabajoReporte;
+import com.miempresa.ecommerce.models.enums.FormatoReporte;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * SERVICE: REPORTES EN SEGUNDO PLANO
+ *
+ * Genera los reportes grandes fuera del hilo de la petición:
+ * el cliente recibe un ID, consulta el estado y descarga el archivo.
+ *
+ * - Un pool fijo de hilos con cola acotada genera los archivos en un
+ *   subdirectorio 'spool' de app.reportes.directorio; si la cola está llena
+ *   se rechaza la solicitud
+ * - Cada usuario puede tener a lo sumo 'max-por-usuario' reportes en curso
+ * - Una solicitud idéntica a otra en curso se une a ese trabajo
+ * - Los trabajos terminados se borran (con su archivo) tras la retención
+ *
+ * Los trabajos viven en memoria: al reiniciar se limpia el spool (y nada
+ * más, por si app.reportes.directorio apunta a un directorio compartido).
+ */
+
+@Service
+@Slf4j
+public class ReportJobService {
+
+    private final ReportExportService reportExportService;
+    private final EmpresaConfig empresaConfig;
+
+    // Subdirectorio propio del servicio: solo aquí se borran archivos
+    private static final String SPOOL = "spool";
+
+    private final Path directorio;
+    private final int maxPorUsuario;
+    private final long retencionMinutos;
+    private final ThreadPoolExecutor executor;
+
+    // id -> trabajo (todos, hasta que vence la retención)
+    private final Map<String, ReportJob> trabajos = new ConcurrentHashMap<>();
+
+    // especificación -> trabajo pendiente o en proceso (para no repetirlo)
+    private final Map<ReportSpec, ReportJob> enCurso = new ConcurrentHashMap<>();
+
+    // usuario -> trabajos suyos pendientes o en proceso
+    private final Map<String, AtomicInteger> activosPorUsuario = new ConcurrentHashMap<>();
+
+    public ReportJobService(ReportExportService reportExportService, EmpresaConfig empresaConfig,
+            @Value("${app.reportes.directorio}") String directorio,
+            @Value("${app.reportes.hilos:2}") int hilos,
+            @Value("${app.reportes.tamanio-cola:20}") int tamanioCola,
+            @Value("${app.reportes.max-por-usuario:2}") int maxPorUsuario,
+            @Value("${app.reportes.retencion-minutos:60}") long retencionMinutos) {
+        this.reportExportService = reportExportService;
+        this.empresaConfig = empresaConfig;
+        this.directorio = Paths.get(directorio).toAbsolutePath().resolve(SPOOL);
+        this.maxPorUsuario = maxPorUsuario;
+        this.retencionMinutos = retencionMinutos;
+
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(tamanioCola), tarea -> {
+                    Thread hilo = new Thread(tarea, "reportes-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                });
+    }
+
+    @PostConstruct
+    public void inicializar() throws IOException {
+        Files.createDirectories(directorio);
+        int borrados = borrarArchivos(directorio);
+        log.info("Directorio de reportes: {} ({} archivos anteriores eliminados)", directorio, borrados);
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        executor.shutdownNow();
+    }
+
+    // ========================================
+    // SOLICITUD
+    // ========================================
+
+    /**
+     * Encola un reporte. Si ya hay uno igual pendiente o en proceso,
+     * el usuario se suma a ese trabajo en lugar de crear otro.
+     */
+    public synchronized ReportJob solicitar(ReportSpec spec, String usuario) {
+        ReportJob existente = enCurso.get(spec);
+        if (existente != null) {
+            existente.getSolicitantes().add(usuario);
+            log.info("Reporte {} de {} unido al trabajo en curso {}", spec.tipo(), usuario, existente.getId());
+            return existente;
+        }
+
+        AtomicInteger activos = activosPorUsuario.computeIfAbsent(usuario, u -> new AtomicInteger());
+        if (activos.get() >= maxPorUsuario) {
+            throw new RuntimeException("Ya tiene " + maxPorUsuario
+                    + " reportes en proceso. Espere a que terminen para solicitar otro.");
+        }
+
+        ReportJob trabajo = new ReportJob(UUID.randomUUID().toString(), spec, usuario);
+        trabajos.put(trabajo.getId(), trabajo);
+        enCurso.put(spec, trabajo);
+        activos.incrementAndGet();
+
+        try {
+            executor.execute(() -> generar(trabajo, activos));
+        } catch (RejectedExecutionException e) {
+            trabajos.remove(trabajo.getId());
+            enCurso.remove(spec);
+            activos.decrementAndGet();
+            throw new RuntimeException("Hay demasiados reportes en cola. Intente nuevamente en unos minutos.");
+        }
+
+        log.info("Reporte {} ({}) encolado para {}: {}", spec.tipo(), spec.formato(), usuario, trabajo.getId());
+        return trabajo;
+    }
+
+    /**
+     * Devuelve un trabajo, solo si el usuario lo solicitó
+     */
+    public ReportJob obtener(String id, String usuario) {
+        ReportJob trabajo = trabajos.get(id);
+        if (trabajo == null || !trabajo.getSolicitantes().contains(usuario)) {
+            throw new RuntimeException("Reporte no encontrado o vencido");
+        }
+        return trabajo;
+    }
+
+    /**
+     * Trabajos solicitados por el usuario (más recientes primero)
+     */
+    public List<ReportJob> listar(String usuario) {
+        List<ReportJob> lista = new ArrayList<>();
+        for (ReportJob trabajo : trabajos.values()) {
+            if (trabajo.getSolicitantes().contains(usuario)) {
+                lista.add(trabajo);
+            }
+        }
+        lista.sort((a, b) -> b.getFechaSolicitud().compareTo(a.getFechaSolicitud()));
+        return lista;
+    }
+
+    // ========================================
+    // GENERACIÓN
+    // ========================================
+
+    private void generar(ReportJob trabajo, AtomicInteger activos) {
+        ReportSpec spec = trabajo.getSpec();
+        Path parcial = directorio.resolve(trabajo.getId() + ".part");
+        Path destino = directorio.resolve(trabajo.getId() + spec.formato().getExtension());
+        long inicio = System.currentTimeMillis();
+
+        trabajo.setEstado(EstadoTrabajoReporte.EN_PROCESO);
+        try {
+            try (OutputStream salida = new BufferedOutputStream(Files.newOutputStream(parcial))) {
+                escribir(spec, salida);
+            }
+            // El archivo solo aparece con su nombre final cuando está completo
+            Files.move(parcial, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            trabajo.setArchivo(destino);
+            trabajo.setTamanio(Files.size(destino));
+            trabajo.setEstado(EstadoTrabajoReporte.COMPLETADO);
+            log.info("Reporte {} generado en {} ms ({} bytes)", trabajo.getId(),
+                    System.currentTimeMillis() - inicio, trabajo.getTamanio());
+
+        } catch (Exception e) {
+            log.error("Error al generar reporte {}: {}", trabajo.getId(), e.getMessage(), e);
+            trabajo.setError(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            trabajo.setEstado(EstadoTrabajoReporte.ERROR);
+            borrar(parcial);
+
+        } finally {
+            synchronized (this) {
+                enCurso.remove(spec, trabajo);
+                activos.decrementAndGet();
+            }
+            trabajo.setFechaFin(LocalDateTime.now());
+        }
+    }
+
+    private void escribir(ReportSpec spec, OutputStream salida) throws IOException {
+        String nombre = empresaConfig.getNombre();
+        String ruc = empresaConfig.getRuc();
+        boolean pdf = spec.formato() == FormatoReporte.PDF;
+
+        switch (spec.tipo()) {
+            case VENTAS -> {
+                if (pdf) {
+                    reportExportService.exportarVentasPdf(spec.ventana(), salida, nombre, ruc);
+                } else {
+                    reportExportService.exportarVentas(spec.ventana(), salida);
+                }
+            }
+            case INVENTARIO -> {
+                if (pdf) {
+                    reportExportService.exportarInventarioPdf(salida, nombre, ruc);
+                } else {
+                    reportExportService.exportarInventario(salida);
+                }
+            }
+            case MOVIMIENTOS -> reportExportService.exportarMovimientos(spec.ventana(), salida);
+            case CREDITOS -> {
+                if (pdf) {
+                    reportExportService.exportarCreditosPdf(salida, nombre, ruc);
+                } else {
+                    reportExportService.exportarCreditos(salida);
+                }
+            }
+        }
+    }
+
+    // ========================================
+    // RETENCIÓN
+    // ========================================
+
+    /**
+     * Elimina los trabajos terminados cuya retención venció
+     */
+    @Scheduled(fixedDelayString = "${app.reportes.intervalo-limpieza-ms:300000}")
+    public void limpiarVencidos() {
+        LocalDateTime limite = LocalDateTime.now().minusMinutes(retencionMinutos);
+        int eliminados = 0;
+
+        for (ReportJob trabajo : trabajos.values()) {
+            if (trabajo.getEstado().estaTerminado() && trabajo.getFechaFin() != null
+                    && trabajo.getFechaFin().isBefore(limite)) {
+                trabajos.remove(trabajo.getId());
+                if (trabajo.getArchivo() != null) {
+                    borrar(trabajo.getArchivo());
+                }
+                eliminados++;
+            }
+        }
+
+        if (eliminados > 0) {
+            log.info("Reportes vencidos eliminados: {}", eliminados);
+        }
+    }
+
+    private static int borrarArchivos(Path directorio) throws IOException {
+        int borrados = 0;
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio, "*.{part,pdf,xlsx}")) {
+            for (Path archivo : archivos) {
+                if (Files.isRegularFile(archivo) && borrar(archivo)) {
+                    borrados++;
+                }
+            }
+        }
+        return borrados;
+    }
+
+    private static boolean borrar(Path archivo) {
+        try {
+            return Files.deleteIfExists(archivo);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar {}: {}", archivo, e.getMessage());
+            return false;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate; // Asegúrate de importar LocalDate
 import java.time.LocalDateTime;
 import java.util.ArrayList; // Asegúrate de importar ArrayList
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,7 +20,6 @@ import com.miempresa.ecommerce.models.SaleDetail;
 import com.miempresa.ecommerce.models.User;
 import com.miempresa.ecommerce.models.enums.EstadoCredito;
 import com.miempresa.ecommerce.models.enums.EstadoVenta;
-import com.miempresa.ecommerce.models.enums.MetodoPago;
 import com.miempresa.ecommerce.models.enums.MotivoMovimiento;
 import com.miempresa.ecommerce.models.enums.TipoMovimiento;
 import com.miempresa.ecommerce.models.enums.TipoPago;
@@ -29,6 +29,7 @@ import com.miempresa.ecommerce.repositories.PaymentRepository;
 import com.miempresa.ecommerce.repositories.ProductRepository;
 import com.miempresa.ecommerce.repositories.SaleDetailRepository;
 import com.miempresa.ecommerce.repositories.SaleRepository;
+import com.miempresa.ecommerce.utils.TimeWindow;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -52,6 +53,11 @@ public class SaleService {
     private final CreditRepository creditRepository;
     private final ProductRepository productRepository;
     private final InventoryMovementRepository inventoryMovementRepository;
+    private final DocumentNumberService documentNumberService;
+    private final OverdueInstallmentCounter overdueInstallmentCounter;
+    private final SalesSummaryService salesSummaryService;
+    private final BoletaService boletaService;
+    private final LowStockTracker lowStockTracker;
 
     // ========================================
     // CREAR VENTA - ✅ CORREGIDO
@@ -76,7 +82,7 @@ public class SaleService {
         }
 
         // 1. Datos básicos
-        venta.setNumeroVenta(generarNumeroVenta());
+        venta.setNumeroVenta(documentNumberService.siguienteNumeroVenta());
         venta.setUsuario(usuario);
         venta.setEstado(EstadoVenta.COMPLETADA);
 
@@ -96,40 +102,50 @@ public class SaleService {
         log.info("Total calculado (con desc: {}, envío: {}): S/ {}", venta.getDescuento(), venta.getCostoEnvio(),
                 venta.getTotal());
 
-        // 5. Descontar Stock y Registrar Movimiento
-        for (SaleDetail detalle : detalles) {
-            Product producto = detalle.getProducto();
-            if (producto == null) { // Añadir validación por si acaso
+        // 5. Descontar Stock (UPDATE atómico condicional)
+        // Se recorre en orden de ID de producto para que dos ventas concurrentes
+        // bloqueen las filas en el mismo orden y no se produzcan deadlocks.
+        List<SaleDetail> detallesOrdenados = new ArrayList<>(detalles);
+        for (SaleDetail detalle : detallesOrdenados) {
+            if (detalle.getProducto() == null || detalle.getProducto().getId() == null) {
                 log.error("Error crítico: Detalle ID {} no tiene producto asociado.", detalle.getId());
                 throw new RuntimeException("Error interno: Detalle de venta inválido.");
             }
-            if (!producto.disminuirStock(detalle.getCantidad())) {
+        }
+        detallesOrdenados.sort(Comparator.comparing(d -> d.getProducto().getId()));
+
+        // Stock resultante de cada línea, en el orden de detallesOrdenados
+        List<Integer> stocksNuevos = new ArrayList<>(detallesOrdenados.size());
+        for (SaleDetail detalle : detallesOrdenados) {
+            Product producto = detalle.getProducto();
+            Integer cantidad = detalle.getCantidad();
+            if (cantidad == null || cantidad <= 0
+                    || productRepository.disminuirStockSiDisponible(producto.getId(), cantidad) == 0) {
                 log.error("Stock insuficiente para {} (ID {}) al crear venta.", producto.getNombre(), producto.getId());
                 throw new RuntimeException("Stock insuficiente para: " + producto.getNombre());
             }
-            productRepository.save(producto);
-
-            // 6. Registrar movimiento de inventario (el ID de venta se actualizará después)
-            registrarMovimientoInventario(producto, detalle.getCantidad(),
-                    TipoMovimiento.SALIDA, MotivoMovimiento.VENTA,
-                    null, usuario);
+            stocksNuevos.add(productRepository.obtenerStockActual(producto.getId()).orElse(0));
         }
 
-        // 7. Guardar Venta
+        // 6. Guardar Venta
         Sale ventaGuardada = saleRepository.save(venta);
         log.info("Venta guardada (ID: {}), procesando crédito y pagos...", ventaGuardada.getId());
 
-        // 8. Crear Crédito si aplica
+        // El abono inicial se guarda al crear el crédito: debe tener venta y usuario
+        for (Payment pago : pagos) {
+            pago.setVenta(ventaGuardada);
+            pago.setUsuario(usuario);
+        }
+
+        // 7. Crear Crédito si aplica
         Credit creditoGuardado = null;
         if (ventaGuardada.getTipoPago() == TipoPago.CREDITO) {
             creditoGuardado = crearCredito(ventaGuardada, pagos.isEmpty() ? null : pagos.get(0), numCuotas);
         }
 
-        // 9. Registrar Pagos
+        // 8. Registrar Pagos
         List<Payment> pagosGuardados = new ArrayList<>();
         for (Payment pago : pagos) {
-            pago.setVenta(ventaGuardada);
-            pago.setUsuario(usuario);
             // Si es un abono inicial a crédito, asociarlo al crédito
             if (creditoGuardado != null && pago.getMonto().compareTo(BigDecimal.ZERO) > 0) {
                 pago.setCredito(creditoGuardado);
@@ -142,22 +158,24 @@ public class SaleService {
         // saleRepository.save(ventaGuardada); // Guardar venta de nuevo con pagos
         // asociados
 
-        // 10. Actualizar referencias en movimientos de inventario
-        log.info("Actualizando referencias de movimiento para venta ID: {}", ventaGuardada.getId());
-        // Asegurarse que los detalles tengan el producto cargado
-        // Si la relación es LAZY, podrías necesitar recargar la venta o los detalles
-        // Sale ventaConDetalles =
-        // saleRepository.findById(ventaGuardada.getId()).orElse(ventaGuardada); //
-        // Ejemplo
-        for (SaleDetail detalle : ventaGuardada.getDetalles()) {
-            if (detalle.getProducto() != null) {
-                actualizarReferenciaMovimiento(detalle.getProducto(), ventaGuardada.getId());
-            } else {
-                log.warn("Detalle ID {} no tiene producto asociado al actualizar referencia de movimiento.",
-                        detalle.getId());
-                // Considera recargar si es necesario
-            }
+        // 9. Movimientos de inventario: ya con el ID de la venta como
+        // referencia, se escriben una sola vez y en un lote
+        List<InventoryMovement> movimientos = new ArrayList<>(detallesOrdenados.size());
+        for (int i = 0; i < detallesOrdenados.size(); i++) {
+            SaleDetail detalle = detallesOrdenados.get(i);
+            movimientos.add(crearMovimientoInventario(detalle.getProducto(), detalle.getCantidad(),
+                    TipoMovimiento.SALIDA, MotivoMovimiento.VENTA,
+                    ventaGuardada.getId(), usuario, stocksNuevos.get(i)));
         }
+        inventoryMovementRepository.saveAll(movimientos);
+        lowStockTracker.registrarCambios(detallesOrdenados.stream().map(d -> d.getProducto().getId()).toList());
+
+        // 10. Boleta en segundo plano, una vez confirmada la venta
+        boletaService.generarDespuesDelCommit(ventaGuardada.getId(), ventaGuardada.getNumeroVenta());
+
+        // 11. Sumarla al resumen del día al final: la fila del día es la
+        // misma para todas las ventas y su bloqueo dura hasta el commit
+        salesSummaryService.registrarVenta(ventaGuardada);
 
         log.info("Venta {} creada exitosamente.", ventaGuardada.getNumeroVenta());
         return ventaGuardada;
@@ -198,6 +216,7 @@ public class SaleService {
             creditRepository.save(creditoGuardado); // Guardar estado actualizado del crédito
         }
 
+        overdueInstallmentCounter.invalidar();
         return creditoGuardado;
     }
 
@@ -253,6 +272,7 @@ public class SaleService {
                 // credito.getCuotas().forEach(c -> c.setEstado(EstadoCuota.ANULADA)); // Si
                 // tienes ese estado
                 creditRepository.save(credito);
+                overdueInstallmentCounter.invalidar();
             } else {
                 log.warn("Venta a crédito {} no tiene un crédito asociado registrado. No se puede anular el crédito.",
                         venta.getNumeroVenta());
@@ -265,6 +285,7 @@ public class SaleService {
         if (venta.getDetalles() == null || venta.getDetalles().isEmpty()) {
             log.warn("La venta {} no tiene detalles para devolver stock.", venta.getNumeroVenta());
         } else {
+            List<InventoryMovement> devoluciones = new ArrayList<>();
             for (SaleDetail detalle : venta.getDetalles()) {
                 try {
                     // Cargar explícitamente el producto si es LAZY y no está cargado
@@ -291,18 +312,16 @@ public class SaleService {
                         continue;
                     }
 
-                    Integer stockAntesDev = producto.getStockActual() != null ? producto.getStockActual() : 0;
-
-                    producto.aumentarStock(cantidadDevuelta);
-                    productRepository.save(producto);
+                    productRepository.aumentarStock(producto.getId(), cantidadDevuelta);
+                    Integer stockNuevo = productRepository.obtenerStockActual(producto.getId()).orElse(0);
                     log.info("Stock de producto '{}' (ID {}) aumentado en {}. Stock: {} -> {}",
-                            producto.getNombre(), producto.getId(), cantidadDevuelta, stockAntesDev,
-                            producto.getStockActual());
+                            producto.getNombre(), producto.getId(), cantidadDevuelta,
+                            stockNuevo - cantidadDevuelta, stockNuevo);
 
                     // Registrar movimiento de devolución (ENTRADA)
-                    registrarMovimientoInventario(producto, cantidadDevuelta,
+                    devoluciones.add(crearMovimientoInventario(producto, cantidadDevuelta,
                             TipoMovimiento.ENTRADA, MotivoMovimiento.DEVOLUCION, // Usar DEVOLUCION para anulación
-                            ventaId, usuario); // Pasar ventaId como referencia
+                            ventaId, usuario, stockNuevo)); // Pasar ventaId como referencia
                 } catch (Exception e) {
                     log.error(
                             "Error al devolver stock o registrar movimiento para detalle ID {} (Producto ID {}) en venta {}: {}",
@@ -313,57 +332,20 @@ public class SaleService {
                             e);
                 }
             }
+            inventoryMovementRepository.saveAll(devoluciones);
+            lowStockTracker.registrarCambios(devoluciones.stream().map(m -> m.getProducto().getId()).toList());
         }
 
         // 5. Anular la venta
         venta.setEstado(EstadoVenta.ANULADA);
         venta.setFechaAnulacion(LocalDateTime.now()); // Guardar fecha de anulación
         saleRepository.save(venta);
+        boletaService.invalidarDespuesDelCommit(venta.getNumeroVenta());
 
-        log.info("Venta {} anulada correctamente por usuario {}", venta.getNumeroVenta(), usuario.getUsername());
-    }
-
-    // ========================================
-    // ABONOS A CRÉDITO
-    // ========================================
+        // 6. Restarla del resumen del día como última escritura
+        salesSummaryService.revertirVenta(venta);
 
-    /**
-     * Registra un abono a un crédito (Llamado desde CreditService)
-     */
-    public Payment registrarAbono(Long creditoId, BigDecimal monto, MetodoPago metodoPago,
-            String referencia, User usuario) {
-        log.info("Registrando abono de {} al crédito ID: {}", monto, creditoId);
-
-        Credit credito = creditRepository.findById(creditoId)
-                .orElseThrow(() -> new RuntimeException("Crédito no encontrado"));
-
-        if (!credito.estaActivo()) {
-            throw new RuntimeException("El crédito no está activo");
-        }
-        if (monto.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new RuntimeException("El monto debe ser mayor a cero");
-        }
-        if (monto.compareTo(credito.getMontoPendiente()) > 0) {
-            throw new RuntimeException(String.format(
-                    "El monto (S/ %.2f) supera la deuda pendiente (S/ %.2f)",
-                    monto, credito.getMontoPendiente()));
-        }
-
-        Payment pago = Payment.builder()
-                .venta(credito.getVenta())
-                .credito(credito)
-                .monto(monto)
-                .metodoPago(metodoPago)
-                .referencia(referencia)
-                .usuario(usuario)
-                .build();
-
-        Payment pagoGuardado = paymentRepository.save(pago);
-        credito.aplicarPagoConDetalle(pagoGuardado);
-        creditRepository.save(credito);
-
-        log.info("Abono registrado exitosamente. Nuevo saldo: S/ {}", credito.getMontoPendiente());
-        return pagoGuardado;
+        log.info("Venta {} anulada correctamente por usuario {}", venta.getNumeroVenta(), usuario.getUsername());
     }
 
     // ========================================
@@ -372,7 +354,7 @@ public class SaleService {
 
     @Transactional(readOnly = true)
     public Optional<Sale> buscarPorId(Long id) {
-        return saleRepository.findById(id);
+        return saleRepository.findDetalleById(id);
     }
 
     @Transactional(readOnly = true)
@@ -387,12 +369,14 @@ public class SaleService {
 
     @Transactional(readOnly = true)
     public List<Sale> obtenerDelDia() {
-        return saleRepository.obtenerVentasDelDia();
+        TimeWindow dia = TimeWindow.diaActual();
+        return saleRepository.obtenerVentasCompletadasEnVentana(dia.inicio(), dia.fin());
     }
 
     @Transactional(readOnly = true)
     public List<Sale> obtenerDelMes() {
-        return saleRepository.obtenerVentasDelMes();
+        TimeWindow mes = TimeWindow.mesActual();
+        return saleRepository.obtenerVentasCompletadasEnVentana(mes.inicio(), mes.fin());
     }
 
     @Transactional(readOnly = true)
@@ -407,31 +391,26 @@ public class SaleService {
 
     @Transactional(readOnly = true)
     public BigDecimal calcularTotalVentasPorFecha(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
-        BigDecimal total = saleRepository.sumarVentasPorFecha(fechaInicio, fechaFin);
-        return total != null ? total : BigDecimal.ZERO;
+        return salesSummaryService.sumarTotal(fechaInicio, fechaFin);
+    }
+
+    @Transactional(readOnly = true)
+    public long contarVentasPorFecha(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        return salesSummaryService.contarVentas(fechaInicio, fechaFin);
     }
 
     // ========================================
     // UTILIDADES PRIVADAS - ✅ MEJORADAS
     // ========================================
 
-    private String generarNumeroVenta() {
-        String year = String.valueOf(LocalDateTime.now().getYear());
-        String prefijo = "VEN-" + year + "-";
-        Long siguiente = saleRepository.generarSiguienteNumero(prefijo + "%");
-        // Asegúrate que generarSiguienteNumero maneje el caso inicial devolviendo 1L o
-        // usa:
-        // Long num = Optional.ofNullable(saleRepository.generarSiguienteNumero(prefijo
-        // + "%")).orElse(0L);
-        // Long siguiente = num + 1L;
-        return String.format("%s%05d", prefijo, siguiente);
-    }
-
-    private InventoryMovement registrarMovimientoInventario(Product producto, Integer cantidad,
+    /**
+     * Arma el movimiento sin guardarlo: quien llama guarda todos los de la
+     * venta juntos con saveAll
+     */
+    private InventoryMovement crearMovimientoInventario(Product producto, Integer cantidad,
             TipoMovimiento tipo, MotivoMovimiento motivo,
-            Long referenciaId, User usuario) {
+            Long referenciaId, User usuario, Integer stockNuevo) {
 
-        Integer stockNuevo = producto.getStockActual() != null ? producto.getStockActual() : 0;
         Integer stockAnterior;
         if (tipo == TipoMovimiento.SALIDA) {
             stockAnterior = stockNuevo + cantidad;
@@ -442,7 +421,7 @@ public class SaleService {
             stockAnterior = 0; // Evitar stock anterior negativo en devoluciones si stock era 0
         }
 
-        InventoryMovement movimiento = InventoryMovement.builder()
+        return InventoryMovement.builder()
                 .producto(producto)
                 .usuario(usuario)
                 .tipo(tipo)
@@ -454,34 +433,5 @@ public class SaleService {
                 .referenciaTipo(
                         motivo == MotivoMovimiento.VENTA || motivo == MotivoMovimiento.DEVOLUCION ? "VENTA" : "OTRO")
                 .build();
-
-        return inventoryMovementRepository.save(movimiento);
-    }
-
-    private void actualizarReferenciaMovimiento(Product producto, Long ventaId) {
-        if (producto == null || ventaId == null) {
-            log.warn("Producto o Venta ID nulos al intentar actualizar referencia de movimiento.");
-            return;
-        }
-
-        List<InventoryMovement> movimientos = inventoryMovementRepository
-                .findByProductoIdAndMotivoAndTipoAndReferenciaIdIsNullOrderByFechaMovimientoDesc(
-                        producto.getId(),
-                        MotivoMovimiento.VENTA,
-                        TipoMovimiento.SALIDA);
-
-        movimientos.stream()
-                .findFirst()
-                .ifPresent(m -> {
-                    m.setReferenciaId(ventaId);
-                    inventoryMovementRepository.save(m);
-                    log.debug("Referencia de venta {} actualizada para movimiento ID {}", ventaId, m.getId());
-                });
-
-        if (movimientos.isEmpty()) {
-            log.warn(
-                    "No se encontró un movimiento de inventario de SALIDA por VENTA sin referencia para el producto ID {} asociado a la venta ID {}",
-                    producto.getId(), ventaId);
-        }
     }
 }
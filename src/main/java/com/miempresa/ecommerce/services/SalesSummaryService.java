@@ -0,0 +1,315 @@
+package com.miempresa.ecommerce.services;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.miempresa.ecommerce.models.DailySalesSummary;
+import com.miempresa.ecommerce.models.Sale;
+import com.miempresa.ecommerce.models.enums.TipoPago;
+import com.miempresa.ecommerce.repositories.DailySalesSummaryRepository;
+import com.miempresa.ecommerce.repositories.SaleRepository;
+import com.miempresa.ecommerce.utils.TimeWindow;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * SERVICE: RESUMEN DIARIO DE VENTAS
+ *
+ * Mantiene 'ventas_resumen_diario' y responde los totales por rango.
+ *
+ * - crearVenta / anularVenta suman o restan en la fila del día, dentro
+ *   de la misma transacción que la venta y como su última escritura
+ * - Las filas de hoy y mañana se crean de antemano (al arrancar y cada
+ *   noche), así la venta solo hace un UPDATE
+ * - Los días completos del rango se leen del resumen (una fila por día);
+ *   solo los tramos parciales de los extremos consultan 'ventas'
+ * - reconstruir() recalcula un rango desde las ventas (carga inicial o
+ *   corrección); si el resumen está vacío se hace al arrancar
+ */
+
+@Service
+@Transactional
+@RequiredArgsConstructor
+@Slf4j
+public class SalesSummaryService {
+
+    private static final LocalTime ULTIMO_SEGUNDO = LocalTime.of(23, 59, 59);
+
+    private final DailySalesSummaryRepository summaryRepository;
+    private final SaleRepository saleRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    // ========================================
+    // MANTENIMIENTO POR VENTA
+    // ========================================
+
+    /**
+     * Suma una venta completada a su día
+     */
+    public void registrarVenta(Sale venta) {
+        acumular(venta, 1);
+    }
+
+    /**
+     * Resta una venta anulada de su día (el de la venta, no el de la anulación)
+     */
+    public void revertirVenta(Sale venta) {
+        acumular(venta, -1);
+    }
+
+    private void acumular(Sale venta, int signo) {
+        LocalDate fecha = venta.getFechaVenta() != null
+                ? venta.getFechaVenta().toLocalDate()
+                : TimeWindow.hoy();
+
+        BigDecimal factor = BigDecimal.valueOf(signo);
+        BigDecimal subtotal = monto(venta.getSubtotal()).multiply(factor);
+        BigDecimal descuento = monto(venta.getDescuento()).multiply(factor);
+        BigDecimal costoEnvio = monto(venta.getCostoEnvio()).multiply(factor);
+        BigDecimal igv = monto(venta.getIgv()).multiply(factor);
+        BigDecimal total = monto(venta.getTotal()).multiply(factor);
+        boolean contado = venta.getTipoPago() != TipoPago.CREDITO;
+        long cantidadContado = contado ? signo : 0;
+        long cantidadCredito = contado ? 0 : signo;
+        BigDecimal totalContado = contado ? total : BigDecimal.ZERO;
+        BigDecimal totalCredito = contado ? BigDecimal.ZERO : total;
+
+        int filas = summaryRepository.acumular(fecha, signo, subtotal, descuento, costoEnvio, igv, total,
+                cantidadContado, totalContado, cantidadCredito, totalCredito);
+        if (filas > 0) {
+            return;
+        }
+
+        // Día sin fila (no se preparó de antemano): se crea aquí con la venta.
+        // Si otra venta la inserta a la vez, la clave única revierte esta
+        // transacción en lugar de perder el importe.
+        log.warn("Resumen del día {} no estaba creado; se inserta con la venta {}", fecha, venta.getNumeroVenta());
+        summaryRepository.saveAndFlush(DailySalesSummary.builder()
+                .fecha(fecha)
+                .cantidadVentas((long) signo)
+                .subtotal(subtotal)
+                .descuento(descuento)
+                .costoEnvio(costoEnvio)
+                .igv(igv)
+                .total(total)
+                .cantidadContado(cantidadContado)
+                .totalContado(totalContado)
+                .cantidadCredito(cantidadCredito)
+                .totalCredito(totalCredito)
+                .build());
+    }
+
+    // ========================================
+    // FILAS DEL DÍA
+    // ========================================
+
+    /**
+     * Crea las filas de hoy y mañana antes de que lleguen sus ventas.
+     * Corre fuera de cualquier venta: al arrancar y cada noche.
+     */
+    @Scheduled(cron = "0 0 23 * * *", zone = "America/Lima")
+    public void prepararDias() {
+        LocalDate hoy = TimeWindow.hoy();
+        prepararDia(hoy);
+        prepararDia(hoy.plusDays(1));
+    }
+
+    /**
+     * Crea la fila vacía de un día en su propia transacción; si otra
+     * instancia la creó primero, no hay nada que hacer.
+     */
+    private void prepararDia(LocalDate fecha) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            tx.executeWithoutResult(status -> {
+                if (!summaryRepository.existsByFecha(fecha)) {
+                    summaryRepository.saveAndFlush(DailySalesSummary.builder().fecha(fecha).build());
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Resumen del día {} creado por otra instancia", fecha);
+        }
+    }
+
+    // ========================================
+    // CONSULTAS POR RANGO
+    // ========================================
+
+    /**
+     * Total de ventas completadas entre dos instantes (ambos incluidos)
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal sumarTotal(LocalDateTime inicio, LocalDateTime fin) {
+        Tramos tramos = dividir(inicio, fin);
+        BigDecimal total = BigDecimal.ZERO;
+        if (tramos.tieneDias()) {
+            total = total.add(monto(summaryRepository.sumarTotal(tramos.desde(), tramos.hasta())));
+        }
+        for (LocalDateTime[] borde : tramos.bordes()) {
+            total = total.add(monto(saleRepository.sumarVentasPorFecha(borde[0], borde[1])));
+        }
+        return total;
+    }
+
+    /**
+     * Cantidad de ventas completadas entre dos instantes (ambos incluidos)
+     */
+    @Transactional(readOnly = true)
+    public long contarVentas(LocalDateTime inicio, LocalDateTime fin) {
+        Tramos tramos = dividir(inicio, fin);
+        long cantidad = 0;
+        if (tramos.tieneDias()) {
+            Long dias = summaryRepository.contarVentas(tramos.desde(), tramos.hasta());
+            cantidad += dias != null ? dias : 0;
+        }
+        for (LocalDateTime[] borde : tramos.bordes()) {
+            cantidad += saleRepository.contarVentasPorFecha(borde[0], borde[1]);
+        }
+        return cantidad;
+    }
+
+    /**
+     * Separa el rango en días completos (del resumen) y los tramos
+     * sueltos del inicio y del fin (de 'ventas').
+     */
+    private Tramos dividir(LocalDateTime inicio, LocalDateTime fin) {
+        List<LocalDateTime[]> bordes = new ArrayList<>();
+        if (inicio == null || fin == null || inicio.isAfter(fin)) {
+            return new Tramos(null, null, bordes);
+        }
+
+        boolean inicioEnMedianoche = inicio.toLocalTime().truncatedTo(ChronoUnit.SECONDS).equals(LocalTime.MIDNIGHT);
+        boolean finEnUltimoSegundo = !fin.toLocalTime().isBefore(ULTIMO_SEGUNDO);
+
+        LocalDate desde = inicioEnMedianoche ? inicio.toLocalDate() : inicio.toLocalDate().plusDays(1);
+        LocalDate hasta = finEnUltimoSegundo ? fin.toLocalDate() : fin.toLocalDate().minusDays(1);
+
+        if (desde.isAfter(hasta)) {
+            bordes.add(new LocalDateTime[] { inicio, fin });
+            return new Tramos(null, null, bordes);
+        }
+
+        if (!inicioEnMedianoche) {
+            bordes.add(new LocalDateTime[] { inicio, desde.atStartOfDay().minusNanos(1) });
+        }
+        if (!finEnUltimoSegundo) {
+            bordes.add(new LocalDateTime[] { hasta.plusDays(1).atStartOfDay(), fin });
+        }
+        return new Tramos(desde, hasta, bordes);
+    }
+
+    private record Tramos(LocalDate desde, LocalDate hasta, List<LocalDateTime[]> bordes) {
+        boolean tieneDias() {
+            return desde != null;
+        }
+    }
+
+    // ========================================
+    // RECONSTRUCCIÓN
+    // ========================================
+
+    /**
+     * Carga inicial: si el resumen está vacío y ya hay ventas, se arma
+     * desde la primera venta hasta hoy. Luego se preparan hoy y mañana.
+     * La reconstrucción confirma en su propia transacción antes de
+     * prepararDias(): si no, la fila de hoy aún sin confirmar bloquea la
+     * inserción de prepararDia.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void inicializar() {
+        if (summaryRepository.count() == 0) {
+            LocalDateTime primera = saleRepository.obtenerFechaPrimeraVenta();
+            if (primera != null) {
+                new TransactionTemplate(transactionManager).executeWithoutResult(
+                        status -> reconstruir(primera.toLocalDate(), TimeWindow.hoy()));
+            }
+        }
+        prepararDias();
+    }
+
+    /**
+     * Recalcula el resumen de un rango de días desde la tabla 'ventas'.
+     * Conviene ejecutarlo fuera del horario de atención: una venta que se
+     * confirme durante la reconstrucción puede quedar fuera del resumen.
+     *
+     * @return días con ventas reconstruidos
+     */
+    public int reconstruir(LocalDate desde, LocalDate hasta) {
+        if (desde == null || hasta == null || desde.isAfter(hasta)) {
+            throw new RuntimeException("Rango de fechas inválido para reconstruir el resumen");
+        }
+        log.info("Reconstruyendo resumen diario de ventas: {} a {}", desde, hasta);
+
+        summaryRepository.eliminarEntre(desde, hasta);
+        summaryRepository.flush();
+
+        Map<LocalDate, DailySalesSummary> filas = new TreeMap<>();
+        for (Object[] fila : saleRepository.resumirPorDia(desde.atStartOfDay(), hasta.plusDays(1).atStartOfDay())) {
+            LocalDate fecha = (LocalDate) fila[0];
+            filas.put(fecha, DailySalesSummary.builder()
+                    .fecha(fecha)
+                    .cantidadVentas(entero(fila[1]))
+                    .subtotal(decimal(fila[2]))
+                    .descuento(decimal(fila[3]))
+                    .costoEnvio(decimal(fila[4]))
+                    .igv(decimal(fila[5]))
+                    .total(decimal(fila[6]))
+                    .cantidadContado(entero(fila[7]))
+                    .totalContado(decimal(fila[8]))
+                    .cantidadCredito(entero(fila[9]))
+                    .totalCredito(decimal(fila[10]))
+                    .build());
+        }
+        int diasConVentas = filas.size();
+
+        // Los días sin ventas quedan con su fila en cero: las ventas que
+        // lleguen después solo actualizan
+        for (LocalDate fecha = desde; !fecha.isAfter(hasta); fecha = fecha.plusDays(1)) {
+            filas.putIfAbsent(fecha, DailySalesSummary.builder().fecha(fecha).build());
+        }
+        summaryRepository.saveAll(filas.values());
+
+        log.info("Resumen diario reconstruido: {} días con ventas", diasConVentas);
+        return diasConVentas;
+    }
+
+    // ========================================
+    // UTILIDADES
+    // ========================================
+
+    private static BigDecimal monto(BigDecimal valor) {
+        return valor != null ? valor : BigDecimal.ZERO;
+    }
+
+    private static long entero(Object valor) {
+        return valor != null ? ((Number) valor).longValue() : 0L;
+    }
+
+    private static BigDecimal decimal(Object valor) {
+        if (valor == null) {
+            return BigDecimal.ZERO;
+        }
+        return valor instanceof BigDecimal bd ? bd : new BigDecimal(valor.toString());
+    }
+}
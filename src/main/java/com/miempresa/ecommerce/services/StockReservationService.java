@@ -0,0 +1,209 @@
+package com.miempresa.ecommerce.services;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.miempresa.ecommerce.models.Order;
+import com.miempresa.ecommerce.models.OrderDetail;
+import com.miempresa.ecommerce.models.StockReservation;
+import com.miempresa.ecommerce.models.enums.EstadoReserva;
+import com.miempresa.ecommerce.repositories.ProductRepository;
+import com.miempresa.ecommerce.repositories.StockReservationRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * SERVICE: RESERVA DE STOCK
+ *
+ * Aparta el stock de los pedidos web desde que se crean, para que dos
+ * clientes no puedan comprar las mismas últimas unidades.
+ *
+ * - Crear pedido → reserva (stockReservado += cantidad)
+ * - Confirmar pedido → la reserva pasa a vencer con el TTL de confirmados
+ * - Cancelar pedido (pendiente o confirmado sin facturar) → libera
+ * - Convertir a venta → consume (la venta descuenta stockActual)
+ * - Pedido PENDIENTE sin confirmar tras el TTL → expira y libera
+ * - Pedido CONFIRMADO sin facturar tras el TTL de confirmados → expira y libera
+ *
+ * Todo se hace con UPDATE condicionales sobre 'productos', sin bloqueos
+ * pesimistas: disponible = stockActual - stockReservado.
+ */
+
+@Service
+@Transactional
+@RequiredArgsConstructor
+@Slf4j
+public class StockReservationService {
+
+    private static final int LOTE_EXPIRACION = 200;
+
+    private final StockReservationRepository reservationRepository;
+    private final ProductRepository productRepository;
+
+    // Tiempo que un pedido pendiente mantiene apartado su stock
+    @Value("${app.reservas.ttl-minutos:30}")
+    private long ttlMinutos;
+
+    // Tiempo que un pedido confirmado mantiene su stock hasta facturarse
+    @Value("${app.reservas.ttl-confirmado-horas:72}")
+    private long ttlConfirmadoHoras;
+
+    // ========================================
+    // RESERVAR
+    // ========================================
+
+    /**
+     * Reserva el stock de todas las líneas de un pedido ya guardado.
+     * Si alguna línea no alcanza, lanza excepción y la transacción del
+     * pedido se revierte completa (incluidas las reservas previas).
+     */
+    public List<StockReservation> reservarPedido(Order pedido) {
+        log.info("Reservando stock para pedido {}", pedido.getNumeroPedido());
+        return reservarLineas(pedido, pedido.getDetalles());
+    }
+
+    /**
+     * Verifica que el pedido conserve sus reservas antes de confirmarlo.
+     * Las líneas cuya reserva expiró se vuelven a reservar si aún hay stock,
+     * y todas pasan a vencer con el TTL de pedidos confirmados.
+     */
+    public void asegurarReservas(Order pedido) {
+        Set<Long> reservados = new HashSet<>();
+        for (StockReservation reserva : reservationRepository.buscarPorPedidoYEstado(
+                pedido.getId(), EstadoReserva.ACTIVA)) {
+            reservados.add(reserva.getProducto().getId());
+        }
+
+        List<OrderDetail> sinReserva = pedido.getDetalles().stream()
+                .filter(d -> !reservados.contains(d.getProducto().getId()))
+                .toList();
+
+        if (!sinReserva.isEmpty()) {
+            log.info("Pedido {}: re-reservando {} líneas con reserva vencida",
+                    pedido.getNumeroPedido(), sinReserva.size());
+            reservarLineas(pedido, sinReserva);
+        }
+
+        reservationRepository.cambiarVencimiento(pedido.getId(),
+                LocalDateTime.now().plusHours(ttlConfirmadoHoras));
+    }
+
+    private List<StockReservation> reservarLineas(Order pedido, List<OrderDetail> detalles) {
+        // Orden por ID de producto: evita deadlocks entre pedidos concurrentes
+        List<OrderDetail> ordenados = new ArrayList<>(detalles);
+        ordenados.sort(Comparator.comparing(d -> d.getProducto().getId()));
+
+        LocalDateTime expiracion = LocalDateTime.now().plusMinutes(ttlMinutos);
+        List<StockReservation> reservas = new ArrayList<>();
+
+        for (OrderDetail detalle : ordenados) {
+            Long productoId = detalle.getProducto().getId();
+            Integer cantidad = detalle.getCantidad();
+
+            if (cantidad == null || cantidad <= 0) {
+                throw new RuntimeException(
+                        "La cantidad del producto '" + detalle.getNombreProducto() + "' debe ser mayor a cero.");
+            }
+
+            if (productRepository.reservarStock(productoId, cantidad) == 0) {
+                log.warn("Sin stock disponible para reservar producto ID {} ({} unidades) en pedido {}",
+                        productoId, cantidad, pedido.getNumeroPedido());
+                throw new RuntimeException("Stock insuficiente para: " + detalle.getNombreProducto());
+            }
+
+            reservas.add(StockReservation.builder()
+                    .pedido(pedido)
+                    .producto(detalle.getProducto())
+                    .cantidad(cantidad)
+                    .estado(EstadoReserva.ACTIVA)
+                    .fechaExpiracion(expiracion)
+                    .build());
+        }
+
+        return reservationRepository.saveAll(reservas);
+    }
+
+    // ========================================
+    // LIBERAR / CONSUMIR
+    // ========================================
+
+    /**
+     * Libera las reservas activas de un pedido cancelado (pendiente o
+     * confirmado sin facturar)
+     */
+    public void liberarPedido(Long pedidoId) {
+        cerrarReservas(pedidoId, EstadoReserva.LIBERADA);
+    }
+
+    /**
+     * Cierra las reservas de un pedido que se convierte en venta.
+     * Debe llamarse en la misma transacción que SaleService.crearVenta:
+     * la fila del producto queda bloqueada hasta el commit, así que las
+     * unidades liberadas solo pueden ser tomadas por esta venta.
+     */
+    public void consumirPedido(Long pedidoId) {
+        cerrarReservas(pedidoId, EstadoReserva.CONSUMIDA);
+    }
+
+    private void cerrarReservas(Long pedidoId, EstadoReserva estadoFinal) {
+        List<StockReservation> activas = reservationRepository.buscarPorPedidoYEstado(
+                pedidoId, EstadoReserva.ACTIVA);
+
+        for (StockReservation reserva : activas) {
+            cerrar(reserva.getId(), reserva.getProducto().getId(), reserva.getCantidad(), estadoFinal);
+        }
+
+        if (!activas.isEmpty()) {
+            log.info("Pedido ID {}: {} reservas marcadas como {}", pedidoId, activas.size(), estadoFinal);
+        }
+    }
+
+    /**
+     * Pasa la reserva a su estado final y devuelve las unidades.
+     * El cambio de estado es condicional: si otro proceso (ej. la expiración)
+     * ya la cerró, no se libera dos veces.
+     */
+    private void cerrar(Long reservaId, Long productoId, Integer cantidad, EstadoReserva estadoFinal) {
+        if (reservationRepository.cerrarSiActiva(reservaId, estadoFinal) == 0) {
+            return;
+        }
+        if (productRepository.liberarStockReservado(productoId, cantidad) == 0) {
+            log.warn("Stock reservado del producto ID {} era menor a {} al cerrar reserva ID {}",
+                    productoId, cantidad, reservaId);
+        }
+    }
+
+    // ========================================
+    // EXPIRACIÓN PROGRAMADA
+    // ========================================
+
+    /**
+     * Libera las reservas vencidas de pedidos pendientes o confirmados
+     * que no se facturaron a tiempo
+     */
+    @Scheduled(fixedDelayString = "${app.reservas.intervalo-expiracion-ms:60000}")
+    public void expirarVencidas() {
+        List<Long> vencidas = reservationRepository.buscarVencidas(LocalDateTime.now(),
+                PageRequest.of(0, LOTE_EXPIRACION));
+        if (vencidas.isEmpty()) {
+            return;
+        }
+
+        for (StockReservation reserva : reservationRepository.findAllById(vencidas)) {
+            cerrar(reserva.getId(), reserva.getProducto().getId(), reserva.getCantidad(), EstadoReserva.EXPIRADA);
+        }
+
+        log.info("Reservas de stock expiradas: {}", vencidas.size());
+    }
+}
@@ -4,6 +4,7 @@ import com.miempresa.ecommerce.models.Permission;
 import com.miempresa.ecommerce.models.Profile;
 import com.miempresa.ecommerce.repositories.PermissionRepository;
 import com.miempresa.ecommerce.repositories.ProfileRepository;
+import com.miempresa.ecommerce.security.PermissionRegistry;
 import com.miempresa.ecommerce.services.ProfileService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,6 +28,7 @@ public class ProfileServiceImpl implements ProfileService {
 
     private final ProfileRepository profileRepository;
     private final PermissionRepository permissionRepository;
+    private final PermissionRegistry permissionRegistry;
 
     @Override
     public Profile guardar(Profile profile) {
@@ -37,7 +39,9 @@ public class ProfileServiceImpl implements ProfileService {
             throw new RuntimeException("Ya existe un perfil con ese nombre");
         }
 
-        return profileRepository.save(profile);
+        Profile guardado = profileRepository.save(profile);
+        permissionRegistry.invalidar(guardado.getId());
+        return guardado;
     }
 
     @Override
@@ -74,6 +78,7 @@ public class ProfileServiceImpl implements ProfileService {
             Profile profile = profileOpt.get();
             profile.setActivo(false);
             profileRepository.save(profile);
+            permissionRegistry.invalidar(id);
         } else {
             throw new RuntimeException("Perfil no encontrado");
         }
@@ -106,6 +111,7 @@ public class ProfileServiceImpl implements ProfileService {
             permisoOpt.ifPresent(profile::agregarPermiso);
         }
 
+        permissionRegistry.invalidar(perfilId);
         return profileRepository.save(profile);
     }
 
@@ -137,6 +143,7 @@ public class ProfileServiceImpl implements ProfileService {
         Profile profile = profileOpt.get();
         profile.setActivo(activo);
 
+        permissionRegistry.invalidar(id);
         return profileRepository.save(profile);
     }
 }
\ No newline at end of file
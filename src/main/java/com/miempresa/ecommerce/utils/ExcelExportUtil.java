@@ -0,0 +1,182 @@
+package com.miempresa.ecommerce.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * UTILIDAD: EXPORTACIÓN A EXCEL
+ *
+ * Escribe hojas XLSX con Apache POI en modo streaming (SXSSF).
+ * Solo se mantienen en memoria las últimas VENTANA_FILAS filas; el resto
+ * se vuelca a un temporal comprimido y al final se copia a la salida.
+ *
+ * Las filas llegan como Stream (cursor de la base de datos), así que el
+ * uso de memoria no depende de la cantidad de registros.
+ */
+
+@Slf4j
+public class ExcelExportUtil {
+
+    public static final String CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    private static final int VENTANA_FILAS = 100;
+    private static final int ANCHO_COLUMNA = 18 * 256;
+    private static final int MAX_FILAS_HOJA = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+    private static final DateTimeFormatter FILE_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    /**
+     * Escribe un libro con una hoja de datos.
+     * Si las filas superan el máximo de Excel se continúa en hojas nuevas
+     * ("Ventas (2)", "Ventas (3)", ...), repitiendo los encabezados.
+     *
+     * @param salida      Stream de salida (ej. el de la respuesta HTTP)
+     * @param nombreHoja  Nombre de la hoja
+     * @param encabezados Títulos de columna
+     * @param filas       Registros a exportar (no se cierra aquí)
+     * @param mapeo       Convierte cada registro en los valores de sus celdas
+     * @return Cantidad de filas de datos escritas
+     */
+    public static <T> long exportar(OutputStream salida, String nombreHoja, String[] encabezados,
+            Stream<T> filas, Function<T, Object[]> mapeo) throws IOException {
+
+        SXSSFWorkbook libro = new SXSSFWorkbook(VENTANA_FILAS);
+        libro.setCompressTempFiles(true);
+
+        try {
+            Estilos estilos = new Estilos(libro);
+
+            int numeroHoja = 1;
+            SXSSFSheet hoja = crearHoja(libro, nombreHoja, numeroHoja, encabezados, estilos);
+            int filaActual = 1;
+            long total = 0;
+
+            Iterator<T> iterador = filas.iterator();
+            while (iterador.hasNext()) {
+                if (filaActual >= MAX_FILAS_HOJA) {
+                    hoja = crearHoja(libro, nombreHoja, ++numeroHoja, encabezados, estilos);
+                    filaActual = 1;
+                }
+
+                Row fila = hoja.createRow(filaActual++);
+                Object[] valores = mapeo.apply(iterador.next());
+                for (int i = 0; i < valores.length; i++) {
+                    escribirCelda(fila.createCell(i), valores[i], estilos);
+                }
+                total++;
+            }
+
+            libro.write(salida);
+            salida.flush();
+
+            log.info("Excel '{}' exportado: {} filas en {} hojas", nombreHoja, total, numeroHoja);
+            return total;
+
+        } finally {
+            libro.close();
+            libro.dispose();
+        }
+    }
+
+    /**
+     * Genera nombre de archivo único para una exportación
+     *
+     * @param tipoReporte Tipo de reporte (ventas, inventario, etc.)
+     * @return Nombre de archivo con timestamp
+     */
+    public static String generarNombreArchivo(String tipoReporte) {
+        return "reporte-" + tipoReporte + "-" +
+                LocalDateTime.now().format(FILE_DATE_FORMAT) + ".xlsx";
+    }
+
+    // ========================================
+    // HOJAS Y CELDAS
+    // ========================================
+
+    private static SXSSFSheet crearHoja(SXSSFWorkbook libro, String nombreHoja, int numeroHoja,
+            String[] encabezados, Estilos estilos) {
+
+        SXSSFSheet hoja = libro.createSheet(numeroHoja == 1 ? nombreHoja : nombreHoja + " (" + numeroHoja + ")");
+
+        Row fila = hoja.createRow(0);
+        for (int i = 0; i < encabezados.length; i++) {
+            Cell celda = fila.createCell(i);
+            celda.setCellValue(encabezados[i]);
+            celda.setCellStyle(estilos.encabezado);
+            hoja.setColumnWidth(i, ANCHO_COLUMNA);
+        }
+        hoja.createFreezePane(0, 1);
+        return hoja;
+    }
+
+    private static void escribirCelda(Cell celda, Object valor, Estilos estilos) {
+        if (valor == null) {
+            return;
+        }
+
+        if (valor instanceof BigDecimal monto) {
+            celda.setCellValue(monto.doubleValue());
+            celda.setCellStyle(estilos.moneda);
+        } else if (valor instanceof Number numero) {
+            celda.setCellValue(numero.doubleValue());
+        } else if (valor instanceof LocalDateTime fechaHora) {
+            celda.setCellValue(fechaHora);
+            celda.setCellStyle(estilos.fechaHora);
+        } else if (valor instanceof LocalDate fecha) {
+            celda.setCellValue(fecha);
+            celda.setCellStyle(estilos.fecha);
+        } else if (valor instanceof Boolean booleano) {
+            celda.setCellValue(booleano ? "Sí" : "No");
+        } else if (valor instanceof Enum<?> constante) {
+            celda.setCellValue(constante.name());
+        } else {
+            celda.setCellValue(valor.toString());
+        }
+    }
+
+    /**
+     * Estilos compartidos por todas las celdas del libro
+     * (Excel admite un número limitado de estilos por archivo)
+     */
+    private static class Estilos {
+
+        private final CellStyle encabezado;
+        private final CellStyle moneda;
+        private final CellStyle fecha;
+        private final CellStyle fechaHora;
+
+        Estilos(SXSSFWorkbook libro) {
+            Font negrita = libro.createFont();
+            negrita.setBold(true);
+
+            encabezado = libro.createCellStyle();
+            encabezado.setFont(negrita);
+
+            moneda = libro.createCellStyle();
+            moneda.setDataFormat(libro.createDataFormat().getFormat("#,##0.00"));
+
+            fecha = libro.createCellStyle();
+            fecha.setDataFormat(libro.createDataFormat().getFormat("dd/mm/yyyy"));
+
+            fechaHora = libro.createCellStyle();
+            fechaHora.setDataFormat(libro.createDataFormat().getFormat("dd/mm/yyyy hh:mm"));
+        }
+    }
+}
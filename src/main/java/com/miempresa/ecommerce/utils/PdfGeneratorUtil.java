@@ -3,19 +3,23 @@ package com.miempresa.ecommerce.utils;
 import java.io.ByteArrayOutputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 import java.util.List;
 
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.AreaBreak;
 import com.itextpdf.layout.element.Paragraph;
 import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.AreaBreakType;
 import com.itextpdf.layout.properties.TextAlignment;
 import com.miempresa.ecommerce.models.Credit;
-import com.miempresa.ecommerce.models.Product;
 import com.miempresa.ecommerce.models.Sale;
 import com.miempresa.ecommerce.models.SaleDetail;
 
@@ -36,6 +40,22 @@ public class PdfGeneratorUtil {
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
     private static final DateTimeFormatter FILE_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
 
+    // Filas que se acumulan antes de volcarlas a la página (tablas grandes)
+    private static final int FILAS_POR_FLUSH = 100;
+
+    /**
+     * Fila del reporte de ventas
+     */
+    public record FilaReporteVenta(LocalDateTime fecha, String cliente, String numeroVenta, BigDecimal total) {
+    }
+
+    /**
+     * Fila del reporte de inventario (precio = precio actual del producto)
+     */
+    public record FilaReporteInventario(String nombre, String sku, String categoria, Integer stock,
+            BigDecimal precio) {
+    }
+
     /**
      * Genera una boleta en PDF
      * 
@@ -54,204 +74,219 @@ public class PdfGeneratorUtil {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
 
         try {
-            // Crear documento PDF
-            PdfWriter writer = new PdfWriter(baos);
-            PdfDocument pdf = new PdfDocument(writer);
-            Document document = new Document(pdf);
+            PdfDocument pdf = new PdfDocument(new PdfWriter(baos));
+            Document document = PdfRenderContext.de(empresaNombre, empresaRuc, empresaDireccion)
+                    .nuevoDocumento(pdf);
 
-            // ========================================
-            // ENCABEZADO
-            // ========================================
+            escribirBoleta(document, venta);
 
-            document.add(new Paragraph(empresaNombre)
-                    .setFontSize(18)
-                    .setBold()
-                    .setTextAlignment(TextAlignment.CENTER));
+            // Cerrar documento
+            document.close();
 
-            document.add(new Paragraph("RUC: " + empresaRuc)
-                    .setFontSize(10)
-                    .setTextAlignment(TextAlignment.CENTER));
+            log.info("Boleta PDF generada exitosamente");
 
-            document.add(new Paragraph(empresaDireccion)
-                    .setFontSize(10)
-                    .setTextAlignment(TextAlignment.CENTER));
+        } catch (Exception e) {
+            log.error("Error al generar boleta PDF: {}", e.getMessage(), e);
+            throw new IOException("Error al generar PDF", e);
+        }
 
-            document.add(new Paragraph("\n"));
+        return baos.toByteArray();
+    }
 
-            // ========================================
-            // TÍTULO
-            // ========================================
+    /**
+     * Escribe varias boletas en un solo PDF, una por página (o más si la
+     * boleta es larga), directamente en la salida.
+     *
+     * Las fuentes y el encabezado de la empresa se crean una vez para todo
+     * el documento; cada página referencia el mismo encabezado.
+     *
+     * @param salida           Stream de salida (ej. el de la respuesta HTTP)
+     * @param ventas           Ventas con cliente, usuario y detalles cargados
+     * @param empresaNombre    Nombre de la empresa
+     * @param empresaRuc       RUC de la empresa
+     * @param empresaDireccion Dirección de la empresa
+     * @return Cantidad de boletas escritas
+     */
+    public static int writeBoletasPdf(OutputStream salida, Iterator<Sale> ventas, String empresaNombre,
+            String empresaRuc, String empresaDireccion) throws IOException {
 
-            document.add(new Paragraph("BOLETA DE VENTA")
-                    .setFontSize(14)
-                    .setBold()
-                    .setTextAlignment(TextAlignment.CENTER));
+        int cantidad = 0;
+        try {
+            PdfDocument pdf = new PdfDocument(new PdfWriter(salida));
+            Document document = PdfRenderContext.de(empresaNombre, empresaRuc, empresaDireccion)
+                    .nuevoDocumentoConEncabezadoPorPagina(pdf);
 
-            document.add(new Paragraph(venta.getNumeroVenta())
-                    .setFontSize(12)
-                    .setTextAlignment(TextAlignment.CENTER));
+            while (ventas.hasNext()) {
+                if (cantidad > 0) {
+                    document.add(new AreaBreak(AreaBreakType.NEXT_PAGE));
+                }
+                escribirBoleta(document, ventas.next());
+                cantidad++;
+            }
 
-            document.add(new Paragraph("\n"));
+            if (cantidad == 0) {
+                document.add(new Paragraph("No hay boletas para imprimir.")
+                        .addStyle(PdfRenderContext.centrado()));
+            }
 
-            // ========================================
-            // DATOS DEL CLIENTE
-            // ========================================
+            document.close();
 
-            document.add(new Paragraph("DATOS DEL CLIENTE")
-                    .setFontSize(11)
-                    .setBold());
+            log.info("Lote de {} boletas PDF generado exitosamente", cantidad);
+            return cantidad;
 
-            document.add(new Paragraph(
-                    "Cliente: " + venta.getCliente().getNombreCompleto()));
+        } catch (Exception e) {
+            log.error("Error al generar lote de boletas PDF ({} escritas): {}", cantidad, e.getMessage(), e);
+            throw new IOException("Error al generar lote de boletas PDF", e);
+        }
+    }
 
-            document.add(new Paragraph(
-                    "Documento: " + venta.getCliente().getTipoDocumento() +
-                            " - " + venta.getCliente().getNumeroDocumento()));
+    /**
+     * Cuerpo de la boleta (todo lo que va debajo del encabezado de la empresa)
+     */
+    static void escribirBoleta(Document document, Sale venta) {
+        // ========================================
+        // TÍTULO
+        // ========================================
 
-            document.add(new Paragraph(
-                    "Fecha: " + venta.getFechaVenta().format(DATE_FORMAT)));
+        document.add(new Paragraph("BOLETA DE VENTA")
+                .addStyle(PdfRenderContext.titulo()));
 
-            document.add(new Paragraph(
-                    "Vendedor: " + venta.getUsuario().getNombreCompleto()));
+        document.add(new Paragraph(venta.getNumeroVenta())
+                .setFontSize(12)
+                .setTextAlignment(TextAlignment.CENTER));
 
-            document.add(new Paragraph("\n"));
+        document.add(new Paragraph("\n"));
 
-            // ========================================
-            // DETALLE DE PRODUCTOS
-            // ========================================
+        // ========================================
+        // DATOS DEL CLIENTE
+        // ========================================
 
-            document.add(new Paragraph("DETALLE DE LA COMPRA")
-                    .setFontSize(11)
-                    .setBold());
+        document.add(new Paragraph("DATOS DEL CLIENTE")
+                .addStyle(PdfRenderContext.subseccion()));
 
-            // Crear tabla
-            float[] columnWidths = { 3, 1, 1, 1 };
-            Table table = new Table(columnWidths);
-            table.setWidth(500);
+        document.add(new Paragraph(
+                "Cliente: " + venta.getCliente().getNombreCompleto()));
 
-            // Encabezados
-            table.addHeaderCell("Producto");
-            table.addHeaderCell("Cant.");
-            table.addHeaderCell("P. Unit.");
-            table.addHeaderCell("Subtotal");
-
-            // Filas de productos
-            for (SaleDetail detalle : venta.getDetalles()) {
-                table.addCell(detalle.getNombreProducto());
-                table.addCell(String.valueOf(detalle.getCantidad()));
-                table.addCell("S/ " + detalle.getPrecioUnitario());
-                table.addCell("S/ " + detalle.getSubtotal());
-            }
+        document.add(new Paragraph(
+                "Documento: " + venta.getCliente().getTipoDocumento() +
+                        " - " + venta.getCliente().getNumeroDocumento()));
 
-            document.add(table);
-            document.add(new Paragraph("\n"));
+        document.add(new Paragraph(
+                "Fecha: " + venta.getFechaVenta().format(DATE_FORMAT)));
 
-            // ========================================
-            // TOTALES
-            // ========================================
+        document.add(new Paragraph(
+                "Vendedor: " + venta.getUsuario().getNombreCompleto()));
 
-            document.add(new Paragraph("Subtotal: S/ " + venta.getSubtotal())
-                    .setTextAlignment(TextAlignment.RIGHT));
+        document.add(new Paragraph("\n"));
 
-            if (venta.getDescuento() != null &&
-                    venta.getDescuento().compareTo(BigDecimal.ZERO) > 0) {
-                document.add(new Paragraph("Descuento: S/ " + venta.getDescuento())
-                        .setTextAlignment(TextAlignment.RIGHT));
-            }
+        // ========================================
+        // DETALLE DE PRODUCTOS
+        // ========================================
 
-            if (venta.getCostoEnvio() != null &&
-                    venta.getCostoEnvio().compareTo(BigDecimal.ZERO) > 0) {
-                document.add(new Paragraph("Envío: S/ " + venta.getCostoEnvio())
-                        .setTextAlignment(TextAlignment.RIGHT));
-            }
+        document.add(new Paragraph("DETALLE DE LA COMPRA")
+                .addStyle(PdfRenderContext.subseccion()));
 
-            document.add(new Paragraph("IGV (18%): S/ " + venta.getIgv())
-                    .setTextAlignment(TextAlignment.RIGHT));
+        // Crear tabla
+        float[] columnWidths = { 3, 1, 1, 1 };
+        Table table = new Table(columnWidths);
+        table.setWidth(500);
 
-            document.add(new Paragraph("TOTAL: S/ " + venta.getTotal())
-                    .setFontSize(14)
-                    .setBold()
-                    .setTextAlignment(TextAlignment.RIGHT));
+        // Encabezados
+        table.addHeaderCell("Producto");
+        table.addHeaderCell("Cant.");
+        table.addHeaderCell("P. Unit.");
+        table.addHeaderCell("Subtotal");
 
-            document.add(new Paragraph("\n"));
+        // Filas de productos
+        for (SaleDetail detalle : venta.getDetalles()) {
+            table.addCell(detalle.getNombreProducto());
+            table.addCell(String.valueOf(detalle.getCantidad()));
+            table.addCell("S/ " + detalle.getPrecioUnitario());
+            table.addCell("S/ " + detalle.getSubtotal());
+        }
 
-            // ========================================
-            // INFORMACIÓN ADICIONAL
-            // ========================================
+        document.add(table);
+        document.add(new Paragraph("\n"));
 
-            document.add(new Paragraph("Tipo de Pago: " + venta.getTipoPago().getNombre())
-                    .setFontSize(9));
+        // ========================================
+        // TOTALES
+        // ========================================
 
-            document.add(new Paragraph("\n"));
+        document.add(new Paragraph("Subtotal: S/ " + venta.getSubtotal())
+                .addStyle(PdfRenderContext.derecha()));
 
-            document.add(new Paragraph("Gracias por su compra")
-                    .setFontSize(10)
-                    .setTextAlignment(TextAlignment.CENTER));
+        if (venta.getDescuento() != null &&
+                venta.getDescuento().compareTo(BigDecimal.ZERO) > 0) {
+            document.add(new Paragraph("Descuento: S/ " + venta.getDescuento())
+                    .addStyle(PdfRenderContext.derecha()));
+        }
 
-            // Cerrar documento
-            document.close();
+        if (venta.getCostoEnvio() != null &&
+                venta.getCostoEnvio().compareTo(BigDecimal.ZERO) > 0) {
+            document.add(new Paragraph("Envío: S/ " + venta.getCostoEnvio())
+                    .addStyle(PdfRenderContext.derecha()));
+        }
 
-            log.info("Boleta PDF generada exitosamente");
+        document.add(new Paragraph("IGV (18%): S/ " + venta.getIgv())
+                .addStyle(PdfRenderContext.derecha()));
 
-        } catch (Exception e) {
-            log.error("Error al generar boleta PDF: {}", e.getMessage(), e);
-            throw new IOException("Error al generar PDF", e);
-        }
+        document.add(new Paragraph("TOTAL: S/ " + venta.getTotal())
+                .addStyle(PdfRenderContext.total()));
 
-        return baos.toByteArray();
+        document.add(new Paragraph("\n"));
+
+        // ========================================
+        // INFORMACIÓN ADICIONAL
+        // ========================================
+
+        document.add(new Paragraph("Tipo de Pago: " + venta.getTipoPago().getNombre())
+                .setFontSize(9));
+
+        document.add(new Paragraph("\n"));
+
+        document.add(new Paragraph("Gracias por su compra")
+                .addStyle(PdfRenderContext.centrado()));
     }
 
     /**
-     * Genera un reporte de ventas en PDF
+     * Escribe un reporte de ventas en PDF directamente en la salida.
+     *
+     * La tabla se arma en modo "tabla grande" de iText: cada FILAS_POR_FLUSH
+     * filas se envían a la página y se liberan, así que la memoria no
+     * depende de la cantidad de ventas. Por eso el resumen (cantidad y
+     * total) se recibe ya calculado en lugar de sumarse aquí.
      * 
-     * @param ventas        Lista de ventas
+     * @param salida        Stream de salida (ej. el de la respuesta HTTP)
+     * @param ventas        Filas de ventas (se recorren una sola vez)
+     * @param cantidad      Cantidad de ventas del período
      * @param total         Total de ventas
      * @param inicio        Fecha de inicio del período
      * @param fin           Fecha de fin del período
      * @param empresaNombre Nombre de la empresa
      * @param empresaRuc    RUC de la empresa
-     * @return Array de bytes del PDF generado
      */
-    public static byte[] generateReporteVentasPdf(
-            List<Sale> ventas,
+    public static void writeReporteVentasPdf(
+            OutputStream salida,
+            Iterator<FilaReporteVenta> ventas,
+            long cantidad,
             BigDecimal total,
             LocalDateTime inicio,
             LocalDateTime fin,
             String empresaNombre,
             String empresaRuc) throws IOException {
 
-        log.info("Generando reporte de ventas PDF");
-
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        log.info("Generando reporte de ventas PDF ({} ventas)", cantidad);
 
         try {
-            PdfWriter writer = new PdfWriter(baos);
-            PdfDocument pdf = new PdfDocument(writer);
-            Document document = new Document(pdf);
-
-            // ========================================
-            // ENCABEZADO
-            // ========================================
-
-            document.add(new Paragraph(empresaNombre)
-                    .setFontSize(18)
-                    .setBold()
-                    .setTextAlignment(TextAlignment.CENTER));
-
-            document.add(new Paragraph("RUC: " + empresaRuc)
-                    .setFontSize(10)
-                    .setTextAlignment(TextAlignment.CENTER));
-
-            document.add(new Paragraph("\n"));
+            PdfDocument pdf = new PdfDocument(new PdfWriter(salida));
+            Document document = PdfRenderContext.de(empresaNombre, empresaRuc, null).nuevoDocumento(pdf);
 
             // ========================================
             // TÍTULO
             // ========================================
 
             document.add(new Paragraph("REPORTE DE VENTAS")
-                    .setFontSize(16)
-                    .setBold()
-                    .setTextAlignment(TextAlignment.CENTER));
+                    .addStyle(PdfRenderContext.tituloReporte()));
 
             document.add(new Paragraph(
                     "Período: " + inicio.format(DATE_FORMAT) + " - " + fin.format(DATE_FORMAT))
@@ -270,18 +305,17 @@ public class PdfGeneratorUtil {
             // ========================================
 
             document.add(new Paragraph("RESUMEN EJECUTIVO")
-                    .setFontSize(12)
-                    .setBold());
+                    .addStyle(PdfRenderContext.seccion()));
 
-            document.add(new Paragraph("Total de ventas realizadas: " + ventas.size()));
+            document.add(new Paragraph("Total de ventas realizadas: " + cantidad));
             document.add(new Paragraph("Monto total recaudado: S/ " + total)
                     .setBold());
 
-            if (!ventas.isEmpty()) {
+            if (cantidad > 0) {
                 BigDecimal promedioVenta = total.divide(
-                        BigDecimal.valueOf(ventas.size()),
+                        BigDecimal.valueOf(cantidad),
                         2,
-                        BigDecimal.ROUND_HALF_UP);
+                        RoundingMode.HALF_UP);
                 document.add(new Paragraph("Promedio por venta: S/ " + promedioVenta));
             }
 
@@ -291,13 +325,12 @@ public class PdfGeneratorUtil {
             // TABLA DE VENTAS
             // ========================================
 
-            if (!ventas.isEmpty()) {
+            if (ventas.hasNext()) {
                 document.add(new Paragraph("DETALLE DE VENTAS")
-                        .setFontSize(12)
-                        .setBold());
+                        .addStyle(PdfRenderContext.seccion()));
 
                 float[] columnWidths = { 2, 3, 2, 1.5f };
-                Table table = new Table(columnWidths);
+                Table table = new Table(columnWidths, true);
                 table.setWidth(500);
 
                 // Encabezados
@@ -306,15 +339,23 @@ public class PdfGeneratorUtil {
                 table.addHeaderCell("Nº Venta");
                 table.addHeaderCell("Total");
 
+                document.add(table);
+
                 // Filas de ventas
-                for (Sale venta : ventas) {
-                    table.addCell(venta.getFechaVenta().format(DATE_FORMAT));
-                    table.addCell(venta.getCliente().getNombreCompleto());
-                    table.addCell(venta.getNumeroVenta());
-                    table.addCell("S/ " + venta.getTotal());
+                int filas = 0;
+                while (ventas.hasNext()) {
+                    FilaReporteVenta venta = ventas.next();
+                    table.addCell(venta.fecha().format(DATE_FORMAT));
+                    table.addCell(venta.cliente());
+                    table.addCell(venta.numeroVenta());
+                    table.addCell("S/ " + venta.total());
+
+                    if (++filas % FILAS_POR_FLUSH == 0) {
+                        table.flush();
+                    }
                 }
 
-                document.add(table);
+                table.complete();
             } else {
                 document.add(new Paragraph("No se encontraron ventas en el período seleccionado.")
                         .setItalic()
@@ -328,12 +369,10 @@ public class PdfGeneratorUtil {
             // ========================================
 
             document.add(new Paragraph("_".repeat(80))
-                    .setFontSize(8)
-                    .setTextAlignment(TextAlignment.CENTER));
+                    .addStyle(PdfRenderContext.nota()));
 
             document.add(new Paragraph("Este documento fue generado automáticamente por el sistema")
-                    .setFontSize(8)
-                    .setTextAlignment(TextAlignment.CENTER));
+                    .addStyle(PdfRenderContext.nota()));
 
             // Cerrar documento
             document.close();
@@ -344,8 +383,6 @@ public class PdfGeneratorUtil {
             log.error("Error al generar reporte PDF: {}", e.getMessage(), e);
             throw new IOException("Error al generar reporte PDF", e);
         }
-
-        return baos.toByteArray();
     }
 
     /**
@@ -362,51 +399,35 @@ public class PdfGeneratorUtil {
     }
 
     /**
-     * ✅ NUEVO: Genera PDF de reporte de inventario
+     * ✅ NUEVO: Escribe el PDF de reporte de inventario directamente en la
+     * salida, con la tabla en modo "tabla grande" (ver writeReporteVentasPdf)
      *
-     * @param productos     Lista de productos
+     * @param salida        Stream de salida (ej. el de la respuesta HTTP)
+     * @param productos     Filas de productos (se recorren una sola vez)
      * @param empresaNombre Nombre de la empresa
      * @param empresaRuc    RUC de la empresa
-     * @return Array de bytes del PDF generado
      */
-    public static byte[] generateReporteInventarioPdf(List<Product> productos,
+    public static void writeReporteInventarioPdf(OutputStream salida, Iterator<FilaReporteInventario> productos,
             String empresaNombre, String empresaRuc) throws IOException {
 
-        log.info("Generando reporte PDF de inventario con {} productos", productos.size());
-
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        log.info("Generando reporte PDF de inventario");
 
         try {
-            PdfWriter writer = new PdfWriter(baos);
+            PdfWriter writer = new PdfWriter(salida);
             PdfDocument pdf = new PdfDocument(writer);
-            Document document = new Document(pdf);
-
-            // Encabezado
-            document.add(new Paragraph(empresaNombre)
-                    .setFontSize(16)
-                    .setBold()
-                    .setTextAlignment(TextAlignment.CENTER));
-
-            document.add(new Paragraph("RUC: " + empresaRuc)
-                    .setFontSize(10)
-                    .setTextAlignment(TextAlignment.CENTER));
-
-            document.add(new Paragraph("\n"));
+            Document document = PdfRenderContext.de(empresaNombre, empresaRuc, null).nuevoDocumento(pdf);
 
             document.add(new Paragraph("REPORTE DE INVENTARIO")
-                    .setFontSize(14)
-                    .setBold()
-                    .setTextAlignment(TextAlignment.CENTER));
+                    .addStyle(PdfRenderContext.titulo()));
 
             document.add(new Paragraph("Fecha: " + LocalDateTime.now().format(DATE_FORMAT))
-                    .setFontSize(10)
-                    .setTextAlignment(TextAlignment.CENTER));
+                    .addStyle(PdfRenderContext.centrado()));
 
             document.add(new Paragraph("\n"));
 
             // Tabla de productos
             float[] columnWidths = { 3f, 2f, 2f, 1.5f, 2f, 2f };
-            Table table = new Table(columnWidths);
+            Table table = new Table(columnWidths, true);
             table.setWidth(520);
 
             // Encabezados
@@ -417,56 +438,56 @@ public class PdfGeneratorUtil {
             table.addHeaderCell(new Paragraph("Precio").setBold());
             table.addHeaderCell(new Paragraph("Valor Total").setBold());
 
-            // Datos
+            document.add(table);
+
+            // Datos (los totales se acumulan mientras se escriben las filas)
             BigDecimal valorTotalInventario = BigDecimal.ZERO;
+            long totalProductos = 0;
 
-            for (Product producto : productos) {
-                if (producto == null)
-                    continue;
+            while (productos.hasNext()) {
+                FilaReporteInventario producto = productos.next();
 
-                table.addCell(producto.getNombre() != null ? producto.getNombre() : "");
-                table.addCell(producto.getCodigoSku() != null ? producto.getCodigoSku() : "");
-                table.addCell(
-                        producto.getCategoria() != null && producto.getCategoria().getNombre() != null
-                                ? producto.getCategoria().getNombre()
-                                : "");
+                table.addCell(producto.nombre() != null ? producto.nombre() : "");
+                table.addCell(producto.sku() != null ? producto.sku() : "");
+                table.addCell(producto.categoria() != null ? producto.categoria() : "");
 
-                Integer stock = producto.getStockActual() != null ? producto.getStockActual() : 0;
-                table.addCell(stock.toString());
+                int stock = producto.stock() != null ? producto.stock() : 0;
+                table.addCell(String.valueOf(stock));
 
-                BigDecimal precio = producto.getPrecioActual() != null ? producto.getPrecioActual()
-                        : BigDecimal.ZERO;
-                table.addCell("S/ " + precio.setScale(2, java.math.RoundingMode.HALF_UP).toString());
+                BigDecimal precio = producto.precio() != null ? producto.precio() : BigDecimal.ZERO;
+                table.addCell("S/ " + precio.setScale(2, RoundingMode.HALF_UP).toString());
 
-                BigDecimal valorTotal = precio.multiply(new BigDecimal(stock));
+                BigDecimal valorTotal = precio.multiply(BigDecimal.valueOf(stock));
                 valorTotalInventario = valorTotalInventario.add(valorTotal);
-                table.addCell("S/ " + valorTotal.setScale(2, java.math.RoundingMode.HALF_UP).toString());
+                table.addCell("S/ " + valorTotal.setScale(2, RoundingMode.HALF_UP).toString());
+
+                if (++totalProductos % FILAS_POR_FLUSH == 0) {
+                    table.flush();
+                }
             }
 
-            document.add(table);
+            table.complete();
 
             // Total
             document.add(new Paragraph("\n"));
             document.add(new Paragraph("Valor Total del Inventario: S/ "
-                    + valorTotalInventario.setScale(2, java.math.RoundingMode.HALF_UP).toString())
+                    + valorTotalInventario.setScale(2, RoundingMode.HALF_UP).toString())
                     .setFontSize(12)
                     .setBold()
-                    .setTextAlignment(TextAlignment.RIGHT));
+                    .addStyle(PdfRenderContext.derecha()));
 
-            document.add(new Paragraph("Total de Productos: " + productos.size())
+            document.add(new Paragraph("Total de Productos: " + totalProductos)
                     .setFontSize(10)
-                    .setTextAlignment(TextAlignment.RIGHT));
+                    .addStyle(PdfRenderContext.derecha()));
 
             document.close();
 
-            log.info("Reporte PDF de inventario generado exitosamente");
+            log.info("Reporte PDF de inventario generado exitosamente: {} productos", totalProductos);
 
         } catch (Exception e) {
             log.error("Error al generar reporte PDF de inventario: {}", e.getMessage(), e);
             throw new IOException("Error al generar reporte PDF de inventario", e);
         }
-
-        return baos.toByteArray();
     }
 
     /**
@@ -490,35 +511,19 @@ public class PdfGeneratorUtil {
         try {
             PdfWriter writer = new PdfWriter(baos);
             PdfDocument pdf = new PdfDocument(writer);
-            Document document = new Document(pdf);
-
-            // Encabezado
-            document.add(new Paragraph(empresaNombre)
-                    .setFontSize(16)
-                    .setBold()
-                    .setTextAlignment(TextAlignment.CENTER));
-
-            document.add(new Paragraph("RUC: " + empresaRuc)
-                    .setFontSize(10)
-                    .setTextAlignment(TextAlignment.CENTER));
-
-            document.add(new Paragraph("\n"));
+            Document document = PdfRenderContext.de(empresaNombre, empresaRuc, null).nuevoDocumento(pdf);
 
             document.add(new Paragraph("REPORTE DE CRÉDITOS Y COBRANZAS")
-                    .setFontSize(14)
-                    .setBold()
-                    .setTextAlignment(TextAlignment.CENTER));
+                    .addStyle(PdfRenderContext.titulo()));
 
             document.add(new Paragraph("Fecha: " + LocalDateTime.now().format(DATE_FORMAT))
-                    .setFontSize(10)
-                    .setTextAlignment(TextAlignment.CENTER));
+                    .addStyle(PdfRenderContext.centrado()));
 
             document.add(new Paragraph("\n"));
 
             // Resumen
             document.add(new Paragraph("RESUMEN EJECUTIVO")
-                    .setFontSize(12)
-                    .setBold());
+                    .addStyle(PdfRenderContext.seccion()));
 
             document.add(new Paragraph("Total de Créditos Activos: " + creditos.size()));
             document.add(new Paragraph("Deuda Total Pendiente: S/ "
@@ -0,0 +1,282 @@
+package com.miempresa.ecommerce.utils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.events.PdfDocumentEvent;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.Style;
+import com.itextpdf.layout.element.Image;
+import com.itextpdf.layout.properties.TextAlignment;
+
+/**
+ * UTILIDAD: CONTEXTO DE RENDERIZADO PDF
+ *
+ * Recursos que todos los PDFs comparten y que antes se armaban de cero
+ * en cada boleta o reporte:
+ *
+ * - Programas de fuente (Helvetica normal y negrita), leídos una sola vez
+ * - Estilos de párrafo (títulos, secciones, notas)
+ * - El encabezado de la empresa (nombre, RUC, dirección), con las líneas
+ *   ya medidas, partidas al ancho de la página y centradas por cada
+ *   versión de los datos de la empresa
+ *
+ * iText no permite compartir un PdfFont ni un PdfFormXObject entre
+ * documentos, así que por documento solo se crean las fuentes a partir
+ * de los programas y se dibuja el encabezado en un XObject sin pasar
+ * por el motor de maquetación.
+ */
+public final class PdfRenderContext {
+
+    // Márgenes por defecto de Document (36pt por lado) sobre A4
+    private static final float MARGEN = 36f;
+    private static final float ANCHO_CONTENIDO = PageSize.A4.getWidth() - 2 * MARGEN;
+
+    private static final float INTERLINEADO = 1.2f;
+    private static final float SEPARACION_LINEAS = 4f;
+    private static final float ESPACIO_DESPUES = 16f;
+
+    // Tamaño máximo del caché (los datos de la empresa casi nunca cambian)
+    private static final int MAX_CONTEXTOS = 8;
+
+    private static final FontProgram PROGRAMA_NORMAL = cargarPrograma(StandardFonts.HELVETICA);
+    private static final FontProgram PROGRAMA_NEGRITA = cargarPrograma(StandardFonts.HELVETICA_BOLD);
+
+    private static final Map<Empresa, PdfRenderContext> CONTEXTOS = new ConcurrentHashMap<>();
+
+    // ========================================
+    // ESTILOS DE PÁRRAFO
+    // ========================================
+    // Un Style de iText es mutable: cada llamada devuelve uno nuevo para
+    // que dos documentos generados a la vez no compartan la instancia.
+
+    public static Style titulo() {
+        return new Style().setFontSize(14).setBold().setTextAlignment(TextAlignment.CENTER);
+    }
+
+    public static Style tituloReporte() {
+        return new Style().setFontSize(16).setBold().setTextAlignment(TextAlignment.CENTER);
+    }
+
+    public static Style seccion() {
+        return new Style().setFontSize(12).setBold();
+    }
+
+    public static Style subseccion() {
+        return new Style().setFontSize(11).setBold();
+    }
+
+    public static Style centrado() {
+        return new Style().setFontSize(10).setTextAlignment(TextAlignment.CENTER);
+    }
+
+    public static Style nota() {
+        return new Style().setFontSize(8).setTextAlignment(TextAlignment.CENTER);
+    }
+
+    public static Style derecha() {
+        return new Style().setTextAlignment(TextAlignment.RIGHT);
+    }
+
+    public static Style total() {
+        return new Style().setFontSize(14).setBold().setTextAlignment(TextAlignment.RIGHT);
+    }
+
+    /**
+     * Datos de la empresa que aparecen en el encabezado (la dirección es opcional)
+     */
+    private record Empresa(String nombre, String ruc, String direccion) {
+    }
+
+    /**
+     * Línea del encabezado ya medida: posición de la línea base dentro del XObject
+     */
+    private record Linea(String texto, boolean negrita, float tamanio, float x, float y) {
+    }
+
+    private final List<Linea> lineas;
+    private final float altoEncabezado;
+
+    private PdfRenderContext(Empresa empresa) {
+        List<Linea> textos = new ArrayList<>();
+        textos.add(new Linea(texto(empresa.nombre()), true, 18, 0, 0));
+        textos.add(new Linea("RUC: " + texto(empresa.ruc()), false, 10, 0, 0));
+        if (empresa.direccion() != null) {
+            textos.add(new Linea(empresa.direccion(), false, 10, 0, 0));
+        }
+
+        // Fuentes sueltas (sin documento): solo se usan para medir
+        PdfFont normal = crearFuente(PROGRAMA_NORMAL);
+        PdfFont negrita = crearFuente(PROGRAMA_NEGRITA);
+
+        // Cada texto se parte en los renglones que entran en el ancho
+        List<List<String>> renglones = new ArrayList<>();
+        float alto = SEPARACION_LINEAS * (textos.size() - 1);
+        for (Linea texto : textos) {
+            List<String> partes = partir(texto.texto(), texto.negrita() ? negrita : normal, texto.tamanio());
+            renglones.add(partes);
+            alto += partes.size() * texto.tamanio() * INTERLINEADO;
+        }
+
+        // Centrar cada renglón y ubicarlo de arriba hacia abajo
+        List<Linea> medidas = new ArrayList<>();
+        float arriba = alto;
+        for (int i = 0; i < textos.size(); i++) {
+            Linea texto = textos.get(i);
+            PdfFont fuente = texto.negrita() ? negrita : normal;
+            for (String parte : renglones.get(i)) {
+                float ancho = fuente.getWidth(parte, texto.tamanio());
+                medidas.add(new Linea(parte, texto.negrita(), texto.tamanio(),
+                        Math.max(0, (ANCHO_CONTENIDO - ancho) / 2),
+                        arriba - texto.tamanio()));
+                arriba -= texto.tamanio() * INTERLINEADO;
+            }
+            arriba -= SEPARACION_LINEAS;
+        }
+
+        this.lineas = List.copyOf(medidas);
+        this.altoEncabezado = alto;
+    }
+
+    /**
+     * Parte un texto en renglones que entran en ANCHO_CONTENIDO, por
+     * palabras; una palabra más ancha que la línea se corta por caracteres.
+     */
+    private static List<String> partir(String texto, PdfFont fuente, float tamanio) {
+        List<String> renglones = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        for (String palabra : texto.trim().split("\\s+")) {
+            String propuesta = actual.isEmpty() ? palabra : actual + " " + palabra;
+            if (fuente.getWidth(propuesta, tamanio) <= ANCHO_CONTENIDO) {
+                actual.setLength(0);
+                actual.append(propuesta);
+                continue;
+            }
+            if (!actual.isEmpty()) {
+                renglones.add(actual.toString());
+                actual.setLength(0);
+            }
+            for (char caracter : palabra.toCharArray()) {
+                String conCaracter = actual.toString() + caracter;
+                if (!actual.isEmpty() && fuente.getWidth(conCaracter, tamanio) > ANCHO_CONTENIDO) {
+                    renglones.add(actual.toString());
+                    actual.setLength(0);
+                }
+                actual.append(caracter);
+            }
+        }
+        renglones.add(actual.toString());
+        return renglones;
+    }
+
+    /**
+     * Contexto para los datos de empresa indicados (se arma una sola vez por versión)
+     *
+     * @param empresaNombre    Nombre de la empresa
+     * @param empresaRuc       RUC de la empresa
+     * @param empresaDireccion Dirección (null para omitirla del encabezado)
+     */
+    public static PdfRenderContext de(String empresaNombre, String empresaRuc, String empresaDireccion) {
+        Empresa empresa = new Empresa(empresaNombre, empresaRuc, empresaDireccion);
+        PdfRenderContext contexto = CONTEXTOS.get(empresa);
+        if (contexto == null) {
+            if (CONTEXTOS.size() >= MAX_CONTEXTOS) {
+                CONTEXTOS.clear();
+            }
+            contexto = CONTEXTOS.computeIfAbsent(empresa, PdfRenderContext::new);
+        }
+        return contexto;
+    }
+
+    // ========================================
+    // POR DOCUMENTO
+    // ========================================
+
+    /**
+     * Crea el Document con la fuente compartida y el encabezado de la empresa ya agregado
+     */
+    public Document nuevoDocumento(PdfDocument pdf) {
+        PdfFont normal = crearFuente(PROGRAMA_NORMAL);
+        PdfFont negrita = crearFuente(PROGRAMA_NEGRITA);
+
+        Document document = new Document(pdf);
+        document.setFont(normal);
+        document.add(new Image(encabezado(pdf, normal, negrita)).setMarginBottom(ESPACIO_DESPUES));
+        return document;
+    }
+
+    /**
+     * Crea un Document que dibuja el encabezado al inicio de cada página.
+     * El XObject se escribe una sola vez en el archivo y cada página solo
+     * lo referencia (documentos de muchas páginas, ej. boletas en lote).
+     */
+    public Document nuevoDocumentoConEncabezadoPorPagina(PdfDocument pdf) {
+        PdfFont normal = crearFuente(PROGRAMA_NORMAL);
+        PdfFont negrita = crearFuente(PROGRAMA_NEGRITA);
+        PdfFormXObject plantilla = encabezado(pdf, normal, negrita);
+
+        pdf.addEventHandler(PdfDocumentEvent.START_PAGE, evento -> {
+            PdfPage pagina = ((PdfDocumentEvent) evento).getPage();
+            Rectangle area = pagina.getPageSize();
+            new PdfCanvas(pagina)
+                    .addXObjectAt(plantilla, MARGEN, area.getTop() - MARGEN - altoEncabezado)
+                    .release();
+        });
+
+        Document document = new Document(pdf);
+        document.setFont(normal);
+        document.setTopMargin(MARGEN + altoEncabezado + ESPACIO_DESPUES);
+        return document;
+    }
+
+    private PdfFormXObject encabezado(PdfDocument pdf, PdfFont normal, PdfFont negrita) {
+        PdfFormXObject plantilla = new PdfFormXObject(new Rectangle(ANCHO_CONTENIDO, altoEncabezado));
+        PdfCanvas canvas = new PdfCanvas(plantilla, pdf);
+
+        for (Linea linea : lineas) {
+            canvas.beginText()
+                    .setFontAndSize(linea.negrita() ? negrita : normal, linea.tamanio())
+                    .moveText(linea.x(), linea.y())
+                    .showText(linea.texto())
+                    .endText();
+        }
+        canvas.release();
+        return plantilla;
+    }
+
+    // ========================================
+    // UTILIDADES
+    // ========================================
+
+    private static PdfFont crearFuente(FontProgram programa) {
+        return PdfFontFactory.createFont(programa, PdfEncodings.WINANSI);
+    }
+
+    private static FontProgram cargarPrograma(String nombre) {
+        try {
+            return FontProgramFactory.createFont(nombre);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo cargar la fuente " + nombre, e);
+        }
+    }
+
+    private static String texto(String valor) {
+        return valor != null ? valor : "";
+    }
+}
@@ -0,0 +1,243 @@
+package com.miempresa.ecommerce.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+
+import com.miempresa.ecommerce.models.Sale;
+import com.miempresa.ecommerce.models.SaleDetail;
+
+/**
+ * UTILIDAD: TICKET PARA IMPRESORAS TÉRMICAS
+ *
+ * Arma el comprobante de una venta en texto de ancho fijo, sin pasar
+ * por iText. Dos salidas con el mismo contenido:
+ *
+ * - Texto plano (UTF-8): para ver o imprimir desde el navegador
+ * - ESC/POS: bytes listos para enviar a la impresora térmica
+ *   (negrita, centrado, título a doble alto y corte de papel)
+ *
+ * El ticket ocupa unos cientos de bytes.
+ */
+public class TicketEscPosUtil {
+
+    // Columnas habituales: 32 (papel de 58 mm) y 42/48 (papel de 80 mm)
+    public static final int COLUMNAS_POR_DEFECTO = 42;
+    public static final int MIN_COLUMNAS = 24;
+    public static final int MAX_COLUMNAS = 64;
+
+    public static final String CONTENT_TYPE_ESCPOS = "application/vnd.escpos";
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    // Página de códigos PC850 (latín: tildes y ñ); ESC t 2 la selecciona en la impresora
+    private static final Charset CHARSET_ESCPOS = Charset.forName("IBM850");
+
+    // ========================================
+    // COMANDOS ESC/POS
+    // ========================================
+
+    private static final byte ESC = 0x1B;
+    private static final byte GS = 0x1D;
+
+    private static final byte[] INICIALIZAR = { ESC, '@' };
+    private static final byte[] PAGINA_PC850 = { ESC, 't', 2 };
+    private static final byte[] ALINEAR_IZQUIERDA = { ESC, 'a', 0 };
+    private static final byte[] ALINEAR_CENTRO = { ESC, 'a', 1 };
+    private static final byte[] NEGRITA_SI = { ESC, 'E', 1 };
+    private static final byte[] NEGRITA_NO = { ESC, 'E', 0 };
+    private static final byte[] DOBLE_ALTO = { GS, '!', 0x01 };
+    private static final byte[] TAMANIO_NORMAL = { GS, '!', 0x00 };
+    // Avanza 3 líneas y corta parcialmente
+    private static final byte[] CORTAR = { GS, 'V', 66, 3 };
+
+    /**
+     * Ticket en texto plano de ancho fijo
+     *
+     * @param venta    Venta con cliente, usuario y detalles cargados
+     * @param columnas Caracteres por línea
+     */
+    public static String generarTicketTexto(Sale venta, String empresaNombre, String empresaRuc,
+            String empresaDireccion, int columnas) {
+        Ticket ticket = new Ticket(false, columnas);
+        escribir(ticket, venta, empresaNombre, empresaRuc, empresaDireccion);
+        return ticket.salida.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Ticket como secuencia de bytes ESC/POS
+     *
+     * @param venta    Venta con cliente, usuario y detalles cargados
+     * @param columnas Caracteres por línea de la impresora
+     */
+    public static byte[] generarTicketEscPos(Sale venta, String empresaNombre, String empresaRuc,
+            String empresaDireccion, int columnas) {
+        Ticket ticket = new Ticket(true, columnas);
+        ticket.comando(INICIALIZAR);
+        ticket.comando(PAGINA_PC850);
+        escribir(ticket, venta, empresaNombre, empresaRuc, empresaDireccion);
+        ticket.comando(CORTAR);
+        return ticket.salida.toByteArray();
+    }
+
+    // ========================================
+    // CONTENIDO
+    // ========================================
+
+    private static void escribir(Ticket ticket, Sale venta, String empresaNombre, String empresaRuc,
+            String empresaDireccion) {
+
+        // Encabezado
+        ticket.comando(ALINEAR_CENTRO);
+        ticket.comando(NEGRITA_SI);
+        ticket.comando(DOBLE_ALTO);
+        ticket.centrado(empresaNombre);
+        ticket.comando(TAMANIO_NORMAL);
+        ticket.comando(NEGRITA_NO);
+        ticket.centrado("RUC: " + empresaRuc);
+        if (empresaDireccion != null && !empresaDireccion.isBlank()) {
+            ticket.centrado(empresaDireccion);
+        }
+        ticket.separador();
+
+        ticket.comando(NEGRITA_SI);
+        ticket.centrado("BOLETA DE VENTA");
+        ticket.comando(NEGRITA_NO);
+        ticket.centrado(venta.getNumeroVenta());
+        ticket.comando(ALINEAR_IZQUIERDA);
+        ticket.separador();
+
+        // Datos de la venta
+        if (venta.getFechaVenta() != null) {
+            ticket.linea("Fecha: " + venta.getFechaVenta().format(DATE_FORMAT));
+        }
+        if (venta.getCliente() != null) {
+            ticket.linea("Cliente: " + venta.getCliente().getNombreCompleto());
+            ticket.linea(venta.getCliente().getTipoDocumento() + ": " + venta.getCliente().getNumeroDocumento());
+        }
+        if (venta.getUsuario() != null) {
+            ticket.linea("Vendedor: " + venta.getUsuario().getNombreCompleto());
+        }
+        ticket.separador();
+
+        // Detalle: nombre en una línea, cantidad x precio e importe en la siguiente
+        for (SaleDetail detalle : venta.getDetalles()) {
+            ticket.linea(detalle.getNombreProducto());
+            ticket.columnas("  " + detalle.getCantidad() + " x " + monto(detalle.getPrecioUnitario()),
+                    monto(detalle.getSubtotal()));
+        }
+        ticket.separador();
+
+        // Totales
+        ticket.columnas("Subtotal", monto(venta.getSubtotal()));
+        if (esPositivo(venta.getDescuento())) {
+            ticket.columnas("Descuento", "-" + monto(venta.getDescuento()));
+        }
+        if (esPositivo(venta.getCostoEnvio())) {
+            ticket.columnas("Envío", monto(venta.getCostoEnvio()));
+        }
+        ticket.columnas("IGV (18%)", monto(venta.getIgv()));
+        ticket.comando(NEGRITA_SI);
+        ticket.columnas("TOTAL", "S/ " + monto(venta.getTotal()));
+        ticket.comando(NEGRITA_NO);
+        ticket.separador();
+
+        if (venta.getTipoPago() != null) {
+            ticket.linea("Pago: " + venta.getTipoPago().getNombre());
+        }
+        ticket.comando(ALINEAR_CENTRO);
+        ticket.centrado("Gracias por su compra");
+        ticket.comando(ALINEAR_IZQUIERDA);
+    }
+
+    private static String monto(BigDecimal valor) {
+        return (valor != null ? valor : BigDecimal.ZERO).setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    private static boolean esPositivo(BigDecimal valor) {
+        return valor != null && valor.compareTo(BigDecimal.ZERO) > 0;
+    }
+
+    // ========================================
+    // ESCRITURA DE ANCHO FIJO
+    // ========================================
+
+    /**
+     * Acumula las líneas del ticket. En texto plano los comandos se omiten
+     * y el centrado se hace con espacios; en ESC/POS lo hace la impresora.
+     */
+    private static class Ticket {
+
+        private final boolean escPos;
+        private final int ancho;
+        private final ByteArrayOutputStream salida = new ByteArrayOutputStream(512);
+
+        Ticket(boolean escPos, int columnas) {
+            this.escPos = escPos;
+            this.ancho = Math.max(MIN_COLUMNAS, Math.min(MAX_COLUMNAS, columnas));
+        }
+
+        void comando(byte[] comando) {
+            if (escPos) {
+                salida.writeBytes(comando);
+            }
+        }
+
+        void linea(String texto) {
+            String limpio = limpiar(texto);
+            // Las líneas largas se parten en el ancho del papel
+            for (int inicio = 0; inicio < limpio.length(); inicio += ancho) {
+                escribirLinea(limpio.substring(inicio, Math.min(limpio.length(), inicio + ancho)));
+            }
+            if (limpio.isEmpty()) {
+                escribirLinea("");
+            }
+        }
+
+        void centrado(String texto) {
+            String limpio = limpiar(texto);
+            if (limpio.length() > ancho) {
+                linea(limpio);
+                return;
+            }
+            escribirLinea(escPos ? limpio : " ".repeat((ancho - limpio.length()) / 2) + limpio);
+        }
+
+        /**
+         * Texto a la izquierda y valor alineado a la derecha en la misma línea.
+         * Si el valor no deja lugar para el texto, cada uno va en su línea.
+         */
+        void columnas(String izquierda, String derecha) {
+            String izq = limpiar(izquierda);
+            String der = limpiar(derecha);
+            if (der.length() >= ancho) {
+                if (!izq.isEmpty()) {
+                    linea(izq);
+                }
+                linea(der);
+                return;
+            }
+            int espacio = ancho - der.length();
+            if (izq.length() >= espacio) {
+                izq = izq.substring(0, Math.max(0, espacio - 1));
+            }
+            escribirLinea(izq + " ".repeat(espacio - izq.length()) + der);
+        }
+
+        void separador() {
+            escribirLinea("-".repeat(ancho));
+        }
+
+        private void escribirLinea(String texto) {
+            salida.writeBytes(texto.getBytes(escPos ? CHARSET_ESCPOS : StandardCharsets.UTF_8));
+            salida.write('\n');
+        }
+
+        private static String limpiar(String texto) {
+            return texto == null ? "" : texto.replaceAll("[\\r\\n\\t]+", " ").strip();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.miempresa.ecommerce.utils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * UTILIDAD: VENTANAS DE TIEMPO
+ *
+ * Rangos semiabiertos [inicio, fin) de día, últimos 7 días, mes y año
+ * en la zona horaria del negocio (America/Lima).
+ *
+ * Las consultas comparan la columna contra los límites
+ * (fecha >= inicio AND fecha < fin) en vez de aplicar DATE(), YEAR()
+ * o MONTH() a cada fila, así la BD recorre solo el tramo del índice.
+ *
+ * Ejemplo: TimeWindow.mesActual() → [2025-06-01T00:00, 2025-07-01T00:00)
+ */
+public record TimeWindow(LocalDateTime inicio, LocalDateTime fin) {
+
+    public static final ZoneId ZONA = ZoneId.of("America/Lima");
+
+    public TimeWindow {
+        if (inicio == null || fin == null || !inicio.isBefore(fin)) {
+            throw new IllegalArgumentException("Ventana de tiempo inválida: [" + inicio + ", " + fin + ")");
+        }
+    }
+
+    // ========================================
+    // FECHA ACTUAL EN LA ZONA DEL NEGOCIO
+    // ========================================
+
+    public static LocalDate hoy() {
+        return LocalDate.now(ZONA);
+    }
+
+    public static LocalDateTime ahora() {
+        return LocalDateTime.now(ZONA);
+    }
+
+    // ========================================
+    // VENTANAS
+    // ========================================
+
+    public static TimeWindow dia(LocalDate fecha) {
+        return new TimeWindow(fecha.atStartOfDay(), fecha.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * Últimos 7 días hasta la fecha inclusive (no la semana de calendario):
+     * el período "semana" de reportes y ventas siempre fue móvil
+     */
+    public static TimeWindow semana(LocalDate fecha) {
+        TimeWindow dia = dia(fecha);
+        return new TimeWindow(dia.inicio().minusDays(6), dia.fin());
+    }
+
+    public static TimeWindow mes(LocalDate fecha) {
+        LocalDate primero = fecha.withDayOfMonth(1);
+        return new TimeWindow(primero.atStartOfDay(), primero.plusMonths(1).atStartOfDay());
+    }
+
+    public static TimeWindow anio(LocalDate fecha) {
+        LocalDate primero = fecha.withDayOfYear(1);
+        return new TimeWindow(primero.atStartOfDay(), primero.plusYears(1).atStartOfDay());
+    }
+
+    public static TimeWindow diaActual() {
+        return dia(hoy());
+    }
+
+    public static TimeWindow semanaActual() {
+        return semana(hoy());
+    }
+
+    public static TimeWindow mesActual() {
+        return mes(hoy());
+    }
+
+    public static TimeWindow anioActual() {
+        return anio(hoy());
+    }
+
+    /**
+     * Ventana de un período con nombre: "hoy"/"dia", "ayer", "semana",
+     * "mes" o "anio". Devuelve null si el período no se reconoce.
+     */
+    public static TimeWindow periodo(String periodo) {
+        if (periodo == null) {
+            return null;
+        }
+        return switch (periodo.toLowerCase()) {
+            case "hoy", "dia" -> diaActual();
+            case "ayer" -> dia(hoy().minusDays(1));
+            case "semana" -> semanaActual();
+            case "mes" -> mesActual();
+            case "anio" -> anioActual();
+            default -> null;
+        };
+    }
+
+    // ========================================
+    // LÍMITES
+    // ========================================
+
+    /**
+     * Último instante dentro de la ventana, para los métodos que reciben
+     * un rango cerrado (BETWEEN). Se resta un microsegundo, la precisión
+     * de DATETIME(6), para que la BD no lo redondee al inicio de 'fin'.
+     */
+    public LocalDateTime ultimoInstante() {
+        return fin.minus(1, ChronoUnit.MICROS);
+    }
+
+    public boolean contiene(LocalDateTime instante) {
+        return !instante.isBefore(inicio) && instante.isBefore(fin);
+    }
+}
@@ -1009,6 +1009,62 @@ VALUES
         NOW()
     );
 
+-- ============================================
+-- 10. SECUENCIAS DE ID (INSERT EN LOTE)
+-- ============================================
+-- Las tablas de alto volumen toman su ID de <tabla>_seq (ver application.properties).
+-- En una BD que venía usando AUTO_INCREMENT, cada secuencia arranca después
+-- del mayor ID existente. Solo se adelanta, nunca retrocede: se puede
+-- ejecutar en cada arranque.
+INSERT INTO venta_detalles_seq (next_val)
+SELECT m.siguiente FROM (SELECT COALESCE(MAX(id), 0) + 1 AS siguiente FROM venta_detalles) m
+WHERE NOT EXISTS (SELECT 1 FROM venta_detalles_seq);
+
+UPDATE venta_detalles_seq SET next_val = (SELECT COALESCE(MAX(id), 0) + 1 FROM venta_detalles)
+WHERE next_val <= (SELECT COALESCE(MAX(id), 0) FROM venta_detalles);
+
+INSERT INTO pagos_seq (next_val)
+SELECT m.siguiente FROM (SELECT COALESCE(MAX(id), 0) + 1 AS siguiente FROM pagos) m
+WHERE NOT EXISTS (SELECT 1 FROM pagos_seq);
+
+UPDATE pagos_seq SET next_val = (SELECT COALESCE(MAX(id), 0) + 1 FROM pagos)
+WHERE next_val <= (SELECT COALESCE(MAX(id), 0) FROM pagos);
+
+INSERT INTO cuotas_seq (next_val)
+SELECT m.siguiente FROM (SELECT COALESCE(MAX(id), 0) + 1 AS siguiente FROM cuotas) m
+WHERE NOT EXISTS (SELECT 1 FROM cuotas_seq);
+
+UPDATE cuotas_seq SET next_val = (SELECT COALESCE(MAX(id), 0) + 1 FROM cuotas)
+WHERE next_val <= (SELECT COALESCE(MAX(id), 0) FROM cuotas);
+
+INSERT INTO pago_cuota_seq (next_val)
+SELECT m.siguiente FROM (SELECT COALESCE(MAX(id), 0) + 1 AS siguiente FROM pago_cuota) m
+WHERE NOT EXISTS (SELECT 1 FROM pago_cuota_seq);
+
+UPDATE pago_cuota_seq SET next_val = (SELECT COALESCE(MAX(id), 0) + 1 FROM pago_cuota)
+WHERE next_val <= (SELECT COALESCE(MAX(id), 0) FROM pago_cuota);
+
+INSERT INTO movimientos_inventario_seq (next_val)
+SELECT m.siguiente FROM (SELECT COALESCE(MAX(id), 0) + 1 AS siguiente FROM movimientos_inventario) m
+WHERE NOT EXISTS (SELECT 1 FROM movimientos_inventario_seq);
+
+UPDATE movimientos_inventario_seq SET next_val = (SELECT COALESCE(MAX(id), 0) + 1 FROM movimientos_inventario)
+WHERE next_val <= (SELECT COALESCE(MAX(id), 0) FROM movimientos_inventario);
+
+INSERT INTO pedido_detalles_seq (next_val)
+SELECT m.siguiente FROM (SELECT COALESCE(MAX(id), 0) + 1 AS siguiente FROM pedido_detalles) m
+WHERE NOT EXISTS (SELECT 1 FROM pedido_detalles_seq);
+
+UPDATE pedido_detalles_seq SET next_val = (SELECT COALESCE(MAX(id), 0) + 1 FROM pedido_detalles)
+WHERE next_val <= (SELECT COALESCE(MAX(id), 0) FROM pedido_detalles);
+
+INSERT INTO reservas_stock_seq (next_val)
+SELECT m.siguiente FROM (SELECT COALESCE(MAX(id), 0) + 1 AS siguiente FROM reservas_stock) m
+WHERE NOT EXISTS (SELECT 1 FROM reservas_stock_seq);
+
+UPDATE reservas_stock_seq SET next_val = (SELECT COALESCE(MAX(id), 0) + 1 FROM reservas_stock)
+WHERE next_val <= (SELECT COALESCE(MAX(id), 0) FROM reservas_stock);
+
 -- ============================================
 -- FIN DEL SCRIPT
 -- ============================================
@@ -0,0 +1,258 @@
+package com.miempresa.ecommerce.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import com.miempresa.ecommerce.models.Category;
+import com.miempresa.ecommerce.models.Credit;
+import com.miempresa.ecommerce.models.InventoryMovement;
+import com.miempresa.ecommerce.models.Permission;
+import com.miempresa.ecommerce.models.Product;
+import com.miempresa.ecommerce.models.Sale;
+import com.miempresa.ecommerce.models.SaleDetail;
+import com.miempresa.ecommerce.models.User;
+import com.miempresa.ecommerce.models.enums.EstadoVenta;
+import com.miempresa.ecommerce.models.enums.MotivoMovimiento;
+import com.miempresa.ecommerce.models.enums.TipoMovimiento;
+import com.miempresa.ecommerce.models.enums.TipoPago;
+import com.miempresa.ecommerce.repositories.CreditRepository;
+import com.miempresa.ecommerce.repositories.InventoryMovementRepository;
+import com.miempresa.ecommerce.repositories.PermissionRepository;
+import com.miempresa.ecommerce.repositories.SaleRepository;
+import com.miempresa.ecommerce.repositories.UserRepository;
+import com.miempresa.ecommerce.soporte.DatosDePrueba;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Igual que FetchPlanTest, pero a través de la petición completa
+ * (controlador, vista o JSON y open-in-view): cuenta las sentencias
+ * que cada pantalla o endpoint prepara y que no crezcan con las filas.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "api.decolecta.token=prueba",
+        "logging.file.name=",
+        "app.upload.dir=${java.io.tmpdir}/ecommerce-prueba/productos/",
+        "app.boletas.dir=${java.io.tmpdir}/ecommerce-prueba/boletas/" })
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@Import(DatosDePrueba.class)
+class FetchPlanMvcTest {
+
+    private static final int VENTAS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private CreditRepository creditRepository;
+
+    @Autowired
+    private InventoryMovementRepository movementRepository;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private DatosDePrueba datos;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String username;
+    private UserDetails sesion;
+    private List<Product> productos;
+    private Long productoId;
+    private Long ventaId;
+    private Long creditoId;
+
+    @BeforeEach
+    void crearDatos() {
+        User usuario = datos.usuario(Set.of(permiso("MODULO_VENTAS"), permiso("MODULO_INVENTARIO")));
+        usuario.setPassword(passwordEncoder.encode("clave"));
+        userRepository.save(usuario);
+        username = usuario.getUsername();
+        sesion = userDetailsService.loadUserByUsername(username);
+
+        Category categoria = datos.categoria();
+        productos = new ArrayList<>();
+        for (int p = 0; p < 3; p++) {
+            productos.add(datos.producto(categoria, "PlayStation " + p, "2499.00", 500, 5));
+        }
+        productoId = productos.get(0).getId();
+        crearVentas(usuario);
+    }
+
+    @Test
+    void listadoDeVentas() throws Exception {
+        assertNoCreceConLasFilas(get("/admin/ventas").with(user(sesion)), 1);
+    }
+
+    @Test
+    void detalleDeVenta() throws Exception {
+        // La venta con sus detalles y productos, y sus pagos aparte
+        assertNoCreceConLasFilas(get("/admin/ventas/ver/{id}", ventaId).with(user(sesion)), 2);
+    }
+
+    @Test
+    void listadoDeCreditos() throws Exception {
+        // Créditos activos con sus cuotas, deuda total y cuotas vencidas
+        assertNoCreceConLasFilas(get("/admin/creditos").with(user(sesion)), 3);
+    }
+
+    @Test
+    void detalleDeCreditoEnJson() throws Exception {
+        // Jackson recorre la venta, su vendedor con perfil y permisos, los
+        // detalles con producto, categoría e imágenes, y los pagos: una
+        // consulta por asociación (default_batch_fetch_size), no por fila
+        assertNoCreceConLasFilas(get("/api/creditos/{id}", creditoId).with(user(sesion)), 9);
+    }
+
+    @Test
+    void movimientosDeUnProducto() throws Exception {
+        // Los movimientos y los productos del filtro
+        assertNoCreceConLasFilas(get("/admin/inventario").param("productoId", productoId.toString())
+                .with(user(sesion)), 2);
+    }
+
+    @Test
+    void movimientosDeUnProductoEnJson() throws Exception {
+        // Movimientos con producto y usuario; categoría, imágenes, perfiles
+        // y permisos de todos los usuarios en una consulta cada uno
+        assertNoCreceConLasFilas(get("/api/inventario/movimientos/producto/{id}", productoId)
+                .with(user(sesion)), 5);
+    }
+
+    @Test
+    void login() throws Exception {
+        // Usuario con perfil y permisos en una consulta
+        assertThat(contarConsultas(formLogin().user(username).password("clave"), status().is3xxRedirection()))
+                .isEqualTo(1);
+    }
+
+    /**
+     * Cuenta las consultas de la petición, agrega otro lote de ventas con
+     * otros clientes y vendedores, y vuelve a contar: deben ser las mismas
+     */
+    private void assertNoCreceConLasFilas(RequestBuilder peticion, long esperadas) throws Exception {
+        assertThat(contarConsultas(peticion, status().isOk())).isEqualTo(esperadas);
+        crearVentas(datos.usuario());
+        assertThat(contarConsultas(peticion, status().isOk())).isEqualTo(esperadas);
+    }
+
+    /**
+     * Hace la petición una vez para calentar cachés (permisos, plantillas)
+     * y devuelve las sentencias preparadas en la segunda
+     */
+    private long contarConsultas(RequestBuilder peticion, ResultMatcher estado) throws Exception {
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        mockMvc.perform(peticion).andExpect(estado);
+        estadisticas.clear();
+        mockMvc.perform(peticion).andExpect(estado);
+        return estadisticas.getPrepareStatementCount();
+    }
+
+    /**
+     * Registra VENTAS ventas a crédito de los tres productos, cada una con
+     * otro cliente, más un movimiento del primero por venta. Solo la
+     * primera venta es del usuario dado; las demás, de otros vendedores.
+     */
+    private void crearVentas(User usuario) {
+        String sufijo = datos.sufijo();
+        for (int i = 0; i < VENTAS; i++) {
+            User vendedor = i == 0 ? usuario : datos.usuario();
+            Sale venta = Sale.builder()
+                    .numeroVenta("W" + sufijo.substring(sufijo.length() - 6) + "-" + i)
+                    .cliente(datos.cliente())
+                    .usuario(vendedor)
+                    .subtotal(new BigDecimal("6353.39"))
+                    .igv(new BigDecimal("1143.61"))
+                    .total(new BigDecimal("7497.00"))
+                    .tipoPago(TipoPago.CREDITO)
+                    .estado(EstadoVenta.COMPLETADA)
+                    .build();
+            for (Product producto : productos) {
+                venta.getDetalles().add(SaleDetail.builder()
+                        .venta(venta)
+                        .producto(producto)
+                        .nombreProducto(producto.getNombre())
+                        .precioUnitario(producto.getPrecioBase())
+                        .cantidad(1)
+                        .subtotal(producto.getPrecioBase())
+                        .build());
+            }
+            venta = saleRepository.save(venta);
+
+            movementRepository.save(InventoryMovement.builder()
+                    .producto(productos.get(0))
+                    .usuario(vendedor)
+                    .tipo(TipoMovimiento.SALIDA)
+                    .motivo(MotivoMovimiento.VENTA)
+                    .cantidad(1)
+                    .stockAnterior(500 - i)
+                    .stockNuevo(499 - i)
+                    .build());
+
+            Credit credito = Credit.builder()
+                    .venta(venta)
+                    .cliente(venta.getCliente())
+                    .montoTotal(venta.getTotal())
+                    .montoPendiente(venta.getTotal())
+                    .numCuotas(3)
+                    .fechaInicio(LocalDate.now())
+                    .build();
+            credito.calcularMontoCuota();
+            credito.generarCuotas();
+            credito = creditRepository.save(credito);
+
+            if (ventaId == null) {
+                ventaId = venta.getId();
+                creditoId = credito.getId();
+            }
+        }
+    }
+
+    private Permission permiso(String codigo) {
+        return permissionRepository.findByCodigo(codigo).orElseGet(() -> permissionRepository.save(
+                Permission.builder().codigo(codigo).nombre(codigo).activo(true).build()));
+    }
+}
@@ -0,0 +1,226 @@
+package com.miempresa.ecommerce.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.miempresa.ecommerce.models.Credit;
+import com.miempresa.ecommerce.models.Customer;
+import com.miempresa.ecommerce.models.InventoryMovement;
+import com.miempresa.ecommerce.models.Permission;
+import com.miempresa.ecommerce.models.Product;
+import com.miempresa.ecommerce.models.Sale;
+import com.miempresa.ecommerce.models.SaleDetail;
+import com.miempresa.ecommerce.models.User;
+import com.miempresa.ecommerce.models.enums.EstadoVenta;
+import com.miempresa.ecommerce.models.enums.MotivoMovimiento;
+import com.miempresa.ecommerce.models.enums.TipoMovimiento;
+import com.miempresa.ecommerce.models.enums.TipoPago;
+import com.miempresa.ecommerce.soporte.DatosDePrueba;
+import com.miempresa.ecommerce.soporte.PruebaJpa;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Verifica que cada caso de uso cargue lo que su vista necesita en una
+ * sola consulta (planes de carga con entity graphs, asociaciones LAZY).
+ */
+@PruebaJpa(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class FetchPlanTest {
+
+    private static final int VENTAS = 5;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private CreditRepository creditRepository;
+
+    @Autowired
+    private InventoryMovementRepository movementRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private DatosDePrueba datos;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private String username;
+    private Long clienteId;
+    private Long productoId;
+    private List<Long> ventaIds;
+
+    @BeforeEach
+    void crearDatos() {
+        String sufijo = datos.sufijo();
+
+        Permission permiso = permissionRepository.save(Permission.builder()
+                .codigo("VENTAS_" + sufijo)
+                .nombre("Ventas")
+                .activo(true)
+                .build());
+        User usuario = datos.usuario(Set.of(permiso));
+        username = usuario.getUsername();
+
+        Customer cliente = datos.cliente();
+        clienteId = cliente.getId();
+
+        Product producto = datos.producto(datos.categoria(), "PlayStation 5", "2499.00", 50, 5);
+        productoId = producto.getId();
+
+        ventaIds = new ArrayList<>();
+        for (int i = 0; i < VENTAS; i++) {
+            Sale venta = Sale.builder()
+                    .numeroVenta("B" + sufijo.substring(sufijo.length() - 6) + "-" + i)
+                    .cliente(cliente)
+                    .usuario(usuario)
+                    .subtotal(new BigDecimal("2117.80"))
+                    .igv(new BigDecimal("381.20"))
+                    .total(new BigDecimal("2499.00"))
+                    .tipoPago(TipoPago.CONTADO)
+                    .estado(EstadoVenta.COMPLETADA)
+                    .build();
+            for (int d = 0; d < 2; d++) {
+                venta.getDetalles().add(SaleDetail.builder()
+                        .venta(venta)
+                        .producto(producto)
+                        .nombreProducto(producto.getNombre())
+                        .precioUnitario(producto.getPrecioBase())
+                        .cantidad(1)
+                        .subtotal(producto.getPrecioBase())
+                        .build());
+            }
+            ventaIds.add(saleRepository.save(venta).getId());
+
+            movementRepository.save(InventoryMovement.builder()
+                    .producto(producto)
+                    .usuario(usuario)
+                    .tipo(TipoMovimiento.SALIDA)
+                    .motivo(MotivoMovimiento.VENTA)
+                    .cantidad(1)
+                    .stockAnterior(50 - i)
+                    .stockNuevo(49 - i)
+                    .build());
+        }
+
+        creditRepository.save(Credit.builder()
+                .venta(saleRepository.getReferenceById(ventaIds.get(0)))
+                .cliente(cliente)
+                .montoTotal(new BigDecimal("2499.00"))
+                .montoPendiente(new BigDecimal("2499.00"))
+                .numCuotas(3)
+                .montoCuota(new BigDecimal("833.00"))
+                .fechaInicio(LocalDate.now())
+                .build());
+    }
+
+    @Test
+    void listadoDeVentasCargaClienteYVendedorEnUnaConsulta() {
+        long consultas = contarConsultas(() -> {
+            List<Sale> ventas = saleRepository.findByClienteIdOrderByFechaVentaDesc(clienteId);
+            ventas.forEach(v -> {
+                v.getCliente().getNombreCompleto();
+                v.getUsuario().getNombreCompleto();
+            });
+            return ventas.size();
+        });
+        assertThat(consultas).isEqualTo(1);
+    }
+
+    @Test
+    void detalleDeVentaCargaDetallesYProductosEnUnaConsulta() {
+        long consultas = contarConsultas(() -> {
+            Sale venta = saleRepository.findDetalleById(ventaIds.get(0)).orElseThrow();
+            venta.getCliente().getNombreCompleto();
+            venta.getUsuario().getNombreCompleto();
+            venta.getDetalles().forEach(d -> d.getProducto().getNombre());
+            return venta.getDetalles().size();
+        });
+        assertThat(consultas).isEqualTo(1);
+    }
+
+    @Test
+    void boletasEnLoteSeCarganEnUnaConsulta() {
+        long consultas = contarConsultas(() -> {
+            List<Sale> ventas = saleRepository.buscarParaBoletas(ventaIds);
+            ventas.forEach(v -> {
+                v.getCliente().getNombreCompleto();
+                v.getUsuario().getNombreCompleto();
+                v.getDetalles().forEach(SaleDetail::getNombreProducto);
+            });
+            return ventas.size();
+        });
+        assertThat(consultas).isEqualTo(1);
+    }
+
+    @Test
+    void detalleDeCreditoCargaClienteVentaYCuotasEnUnaConsulta() {
+        long consultas = contarConsultas(() -> {
+            Credit credito = creditRepository.findByVentaId(ventaIds.get(0)).orElseThrow();
+            credito.getCliente().getNombreCompleto();
+            credito.getVenta().getNumeroVenta();
+            return credito.getCuotas().size();
+        });
+        assertThat(consultas).isEqualTo(1);
+    }
+
+    @Test
+    void listadoDeMovimientosCargaProductoYUsuarioEnUnaConsulta() {
+        long consultas = contarConsultas(() -> {
+            List<InventoryMovement> movimientos = movementRepository
+                    .findByProductoIdOrderByFechaMovimientoDesc(productoId);
+            movimientos.forEach(m -> {
+                m.getProducto().getNombre();
+                m.getUsuario().getNombreCompleto();
+            });
+            return movimientos.size();
+        });
+        assertThat(consultas).isEqualTo(1);
+    }
+
+    @Test
+    void loginCargaPerfilYPermisosEnUnaConsulta() {
+        long consultas = contarConsultas(() -> {
+            User usuario = userRepository.findParaAutenticacionByUsername(username).orElseThrow();
+            return usuario.getPerfil().getPermisos().size();
+        });
+        assertThat(consultas).isEqualTo(1);
+    }
+
+    /**
+     * Ejecuta el caso de uso en una transacción de lectura (como la vista)
+     * y devuelve las sentencias SQL preparadas durante él
+     */
+    private long contarConsultas(Supplier<Integer> casoDeUso) {
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        TransactionTemplate lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+
+        estadisticas.clear();
+        Integer elementos = lectura.execute(status -> casoDeUso.get());
+        assertThat(elementos).isNotNull();
+        return estadisticas.getPrepareStatementCount();
+    }
+}
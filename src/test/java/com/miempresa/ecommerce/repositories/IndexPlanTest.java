@@ -0,0 +1,306 @@
+package com.miempresa.ecommerce.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.miempresa.ecommerce.models.enums.EstadoCredito;
+import com.miempresa.ecommerce.models.enums.EstadoPedido;
+import com.miempresa.ecommerce.models.enums.EstadoVenta;
+import com.miempresa.ecommerce.soporte.PruebaJpa;
+
+/**
+ * Verifica con EXPLAIN que las consultas frecuentes usen los índices
+ * declarados en las entidades (ventas, cuotas, movimientos, créditos,
+ * productos y pedidos) sobre un conjunto de datos sembrado. Explica el
+ * SQL que Hibernate genera para cada método del repositorio (capturado
+ * con un StatementInspector), no una copia escrita a mano.
+ * Siembra con IDs fijos, por eso usa su propia base de datos.
+ */
+@PruebaJpa(properties = "spring.datasource.url=jdbc:h2:mem:indices;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+class IndexPlanTest {
+
+    private static final int CLIENTES = 200;
+    private static final int PRODUCTOS = 500;
+    private static final int VENTAS = 5000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SentenciasCapturadas sentencias;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private InstallmentRepository installmentRepository;
+
+    @Autowired
+    private InventoryMovementRepository movementRepository;
+
+    @Autowired
+    private CreditRepository creditRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @BeforeEach
+    void sembrarDatos() {
+        Integer ventas = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ventas", Integer.class);
+        if (ventas != null && ventas > 0) {
+            return;
+        }
+
+        jdbcTemplate.update("""
+                INSERT INTO perfiles (id, nombre, activo, fecha_creacion)
+                VALUES (1, 'ADMINISTRADOR', TRUE, CURRENT_TIMESTAMP)
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO usuarios (id, nombre, apellido, email, username, password, activo, perfil_id, fecha_creacion)
+                VALUES (1, 'Luis', 'Quispe', 'luis@tienda.pe', 'luis', 'x', TRUE, 1, CURRENT_TIMESTAMP)
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO categorias (id, nombre, activo, fecha_creacion)
+                SELECT X, 'Categoría ' || X, TRUE, CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, 20)
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO clientes (id, tipo_documento, numero_documento, nombres, activo, fecha_registro)
+                SELECT X, 'DNI', LPAD(CAST(X AS VARCHAR), 8, '0'), 'Cliente ' || X, TRUE, CURRENT_TIMESTAMP
+                FROM SYSTEM_RANGE(1, ?)
+                """, CLIENTES);
+        jdbcTemplate.update("""
+                INSERT INTO productos (id, nombre, precio_base, precio_oferta, stock_actual, stock_reservado,
+                                       stock_minimo, categoria_id, activo, es_destacado, fecha_creacion)
+                SELECT X, 'Producto ' || X, MOD(X * 37, 500) + 10,
+                       CASE WHEN MOD(X, 7) = 0 THEN MOD(X * 37, 500) + 5 END,
+                       MOD(X, 40), 0, 5, MOD(X, 20) + 1, MOD(X, 10) <> 0, FALSE, CURRENT_TIMESTAMP
+                FROM SYSTEM_RANGE(1, ?)
+                """, PRODUCTOS);
+
+        // Una venta cada 2 horas hacia atrás; 1 de cada 10 anulada
+        jdbcTemplate.update("""
+                INSERT INTO ventas (id, numero_venta, cliente_id, usuario_id, subtotal, igv, total, tipo_pago,
+                                    estado, fecha_venta)
+                SELECT X, 'B001-' || LPAD(CAST(X AS VARCHAR), 8, '0'), MOD(X, ?) + 1, 1, 84.75, 15.25, 100,
+                       CASE WHEN MOD(X, 4) = 0 THEN 'CREDITO' ELSE 'CONTADO' END,
+                       CASE WHEN MOD(X, 10) = 0 THEN 'ANULADA' ELSE 'COMPLETADA' END,
+                       DATEADD(HOUR, -2 * X, TIMESTAMP '2025-06-30 20:00:00')
+                FROM SYSTEM_RANGE(1, ?)
+                """, CLIENTES, VENTAS);
+        jdbcTemplate.update("""
+                INSERT INTO creditos (id, venta_id, cliente_id, monto_total, monto_pendiente, num_cuotas, monto_cuota,
+                                      fecha_inicio, estado, fecha_creacion)
+                SELECT v.id, v.id, v.cliente_id, 100, 100, 3, 33.33, CAST(v.fecha_venta AS DATE),
+                       CASE WHEN MOD(v.id, 3) = 0 THEN 'COMPLETADO' ELSE 'ACTIVO' END, v.fecha_venta
+                FROM ventas v WHERE v.tipo_pago = 'CREDITO'
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO cuotas (id, credito_id, numero_cuota, monto, monto_pagado, monto_pendiente,
+                                    fecha_vencimiento, estado)
+                SELECT (c.id - 1) * 3 + n.X, c.id, n.X, 33.33, 0, 33.33, DATEADD(MONTH, n.X, c.fecha_inicio), 'PENDIENTE'
+                FROM creditos c CROSS JOIN SYSTEM_RANGE(1, 3) n
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO movimientos_inventario (id, producto_id, usuario_id, tipo, motivo, cantidad,
+                                                    stock_anterior, stock_nuevo, fecha_movimiento)
+                SELECT X, MOD(X, ?) + 1, 1, 'SALIDA', 'VENTA', 1, 10, 9,
+                       DATEADD(HOUR, -X, TIMESTAMP '2025-06-30 20:00:00')
+                FROM SYSTEM_RANGE(1, ?)
+                """, PRODUCTOS, VENTAS);
+        jdbcTemplate.update("""
+                INSERT INTO pedidos (numero_pedido, cliente_id, subtotal, costo_envio, total, tipo_entrega, estado,
+                                     fecha_pedido)
+                SELECT 'PED-' || LPAD(CAST(X AS VARCHAR), 8, '0'), MOD(X, ?) + 1, 100, 0, 100, 'RECOJO_TIENDA',
+                       CASE WHEN MOD(X, 20) = 0 THEN 'PENDIENTE' ELSE 'CONFIRMADO' END,
+                       DATEADD(HOUR, -3 * X, TIMESTAMP '2025-06-30 20:00:00')
+                FROM SYSTEM_RANGE(1, ?)
+                """, CLIENTES, VENTAS);
+
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void ventasCompletadasPorRangoUsanEstadoYFecha() {
+        assertUsaIndice(() -> saleRepository.obtenerIdsPorEstadoYFecha(EstadoVenta.COMPLETADA,
+                LocalDateTime.of(2025, 6, 1, 0, 0), LocalDateTime.of(2025, 6, 7, 23, 59, 59)),
+                "idx_ventas_estado_fecha");
+    }
+
+    @Test
+    void ventasDelDiaConVentanaSemiabiertaUsanEstadoYFecha() {
+        assertUsaIndice(() -> saleRepository.obtenerVentasCompletadasEnVentana(
+                LocalDateTime.of(2025, 6, 15, 0, 0), LocalDateTime.of(2025, 6, 16, 0, 0)),
+                "idx_ventas_estado_fecha");
+    }
+
+    @Test
+    void exportacionDeVentasPorRangoUsaFecha() {
+        assertUsaIndice(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            try (Stream<Object[]> filas = saleRepository.streamParaExportar(
+                    LocalDateTime.of(2025, 6, 1, 0, 0), LocalDateTime.of(2025, 6, 8, 0, 0))) {
+                filas.count();
+            }
+        }), "idx_ventas_fecha");
+    }
+
+    @Test
+    void ventasDeUnClienteSeBuscanPorIndiceDeCliente() {
+        // Filtra ventas.cliente_id, no el id de un JOIN a clientes; sin rango
+        // de fechas H2 puede tomar el índice de la FK o idx_ventas_cliente_fecha
+        assertUsaIndice(() -> saleRepository.findByClienteIdOrderByFechaVentaDesc(12L),
+                "CLIENTE_ID = ?1");
+    }
+
+    @Test
+    void cuotasVencidasUsanVencimientoYSaldo() {
+        assertUsaIndice(() -> installmentRepository.obtenerCuotasVencidas(LocalDate.of(2024, 10, 1)),
+                "idx_cuotas_vencimiento_pendiente");
+    }
+
+    @Test
+    void kardexDeProductoUsaProductoYFecha() {
+        assertUsaIndice(() -> movementRepository.obtenerKardex(7L,
+                LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2025, 7, 1, 0, 0)),
+                "idx_movimientos_producto_fecha");
+    }
+
+    @Test
+    void movimientosDeUnProductoSeBuscanPorIndiceDeProducto() {
+        assertUsaIndice(() -> movementRepository.findByProductoIdOrderByFechaMovimientoDesc(7L),
+                "PRODUCTO_ID = ?1");
+    }
+
+    @Test
+    void creditosActivosDeClienteUsanClienteYEstado() {
+        assertUsaIndice(() -> creditRepository.findByClienteIdAndEstadoOrderByFechaCreacionDesc(
+                12L, EstadoCredito.ACTIVO), "idx_creditos_cliente_estado");
+    }
+
+    @Test
+    void catalogoPorCategoriaUsaActivoYCategoria() {
+        assertUsaIndice(() -> productRepository.findByCategoriaIdAndActivoTrue(3L),
+                "idx_productos_activo_categoria");
+    }
+
+    @Test
+    void catalogoPorNombreUsaActivoYNombre() {
+        // Página intermedia: el cursor es un rango sobre el índice del orden
+        assertUsaIndice(() -> productRepository.paginarPorNombre(List.of(true), "Producto 250", 250L,
+                PageRequest.of(0, 25)), "idx_productos_activo_nombre");
+    }
+
+    @Test
+    void catalogoPorPrecioUsaActivoYPrecioVigente() {
+        assertUsaIndice(() -> productRepository.paginarPorPrecioAsc(List.of(true), new BigDecimal("200.00"),
+                250L, PageRequest.of(0, 25)), "idx_productos_activo_precio");
+        assertUsaIndice(() -> productRepository.paginarPorPrecioDesc(List.of(true), new BigDecimal("200.00"),
+                250L, PageRequest.of(0, 25)), "idx_productos_activo_precio");
+    }
+
+    @Test
+    void catalogoPorRecientesUsaActivoEId() {
+        assertUsaIndice(() -> productRepository.paginarPorRecientes(List.of(true), 250L,
+                PageRequest.of(0, 25)), "idx_productos_activo_id");
+    }
+
+    @Test
+    void catalogoDeUnaCategoriaUsaElIndiceDeSuOrden() {
+        // Pantalla de categoría de la tienda: un índice por orden; por
+        // recientes basta (activo, categoria_id), que en InnoDB ya
+        // termina en el id
+        assertUsaIndice(() -> productRepository.paginarPorNombreEnCategoria(List.of(true), 3L,
+                "Producto 250", 250L, PageRequest.of(0, 25)), "idx_productos_activo_categoria_nombre");
+        assertUsaIndice(() -> productRepository.paginarPorPrecioAscEnCategoria(List.of(true), 3L,
+                new BigDecimal("200.00"), 250L, PageRequest.of(0, 25)), "idx_productos_activo_categoria_precio");
+        assertUsaIndice(() -> productRepository.paginarPorPrecioDescEnCategoria(List.of(true), 3L,
+                new BigDecimal("200.00"), 250L, PageRequest.of(0, 25)), "idx_productos_activo_categoria_precio");
+        assertUsaIndice(() -> productRepository.paginarPorRecientesEnCategoria(List.of(true), 3L, 250L,
+                PageRequest.of(0, 25)), "CATEGORIA_ID = ?2");
+    }
+
+    @Test
+    void pedidosPorEstadoUsanEstadoYFecha() {
+        assertUsaIndice(() -> orderRepository.findByEstadoOrderByFechaPedidoDesc(EstadoPedido.PENDIENTE),
+                "idx_pedidos_estado_fecha");
+    }
+
+    /**
+     * Ejecuta la consulta del repositorio, toma el SQL que generó Hibernate
+     * y le pide el plan a H2. Los parámetros van en null: H2 arma el plan
+     * al preparar la sentencia, sin mirar sus valores.
+     * 'indice' es el nombre del índice o la condición con la que se recorre.
+     */
+    private void assertUsaIndice(Runnable consulta, String indice) {
+        sentencias.limpiar();
+        consulta.run();
+        String sql = sentencias.unica();
+
+        Object[] parametros = new Object[(int) sql.chars().filter(c -> c == '?').count()];
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, parametros);
+        assertThat(plan).as("Plan de: %s", sql).containsIgnoringCase(indice);
+    }
+
+    /**
+     * Guarda las sentencias SELECT que prepara Hibernate
+     */
+    static class SentenciasCapturadas implements StatementInspector {
+
+        private final List<String> sentencias = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.regionMatches(true, 0, "select", 0, 6)) {
+                sentencias.add(sql);
+            }
+            return sql;
+        }
+
+        void limpiar() {
+            sentencias.clear();
+        }
+
+        String unica() {
+            assertThat(sentencias).as("Consultas preparadas").hasSize(1);
+            return sentencias.get(0);
+        }
+    }
+
+    @TestConfiguration
+    static class CapturaDeSentencias {
+
+        @Bean
+        SentenciasCapturadas sentenciasCapturadas() {
+            return new SentenciasCapturadas();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer inspectorDeSentencias(SentenciasCapturadas sentencias) {
+            return propiedades -> propiedades.put(AvailableSettings.STATEMENT_INSPECTOR, sentencias);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.miempresa.ecommerce.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.miempresa.ecommerce.soporte.DatosDePrueba;
+import com.miempresa.ecommerce.soporte.PruebaJpa;
+
+/**
+ * Verifica que el descuento atómico de stock no sobrevenda
+ * cuando muchos terminales venden el mismo SKU a la vez.
+ */
+@PruebaJpa
+class ProductRepositoryStockTest {
+
+    private static final int STOCK_INICIAL = 100;
+    private static final int HILOS = 16;
+    private static final int INTENTOS_POR_HILO = 20;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DatosDePrueba datos;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void disminuirStockConcurrenteNoSobrevende() throws Exception {
+        Long productoId = datos.producto(STOCK_INICIAL).getId();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Integer>> resultados = new ArrayList<>();
+
+        for (int h = 0; h < HILOS; h++) {
+            resultados.add(executor.submit(() -> {
+                largada.await();
+                int vendidos = 0;
+                for (int i = 0; i < INTENTOS_POR_HILO; i++) {
+                    Integer filas = tx.execute(status -> productRepository.disminuirStockSiDisponible(productoId, 1));
+                    vendidos += filas != null ? filas : 0;
+                }
+                return vendidos;
+            }));
+        }
+
+        largada.countDown();
+        int totalVendidos = 0;
+        for (Future<Integer> resultado : resultados) {
+            totalVendidos += resultado.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(totalVendidos).isEqualTo(STOCK_INICIAL);
+        assertThat(productRepository.obtenerStockActual(productoId)).contains(0);
+    }
+
+    @Test
+    void disminuirStockRechazaCantidadMayorAlDisponible() {
+        Long productoId = datos.producto(3).getId();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        Integer insuficiente = tx.execute(status -> productRepository.disminuirStockSiDisponible(productoId, 4));
+        Integer exacto = tx.execute(status -> productRepository.disminuirStockSiDisponible(productoId, 3));
+
+        assertThat(insuficiente).isZero();
+        assertThat(exacto).isEqualTo(1);
+        assertThat(productRepository.obtenerStockActual(productoId)).contains(0);
+    }
+
+    @Test
+    void stockReservadoNoSePuedeVender() {
+        Long productoId = datos.producto(5).getId();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        Integer reserva = tx.execute(status -> productRepository.reservarStock(productoId, 4));
+        Integer reservaExcedida = tx.execute(status -> productRepository.reservarStock(productoId, 2));
+        Integer ventaExcedida = tx.execute(status -> productRepository.disminuirStockSiDisponible(productoId, 2));
+        Integer venta = tx.execute(status -> productRepository.disminuirStockSiDisponible(productoId, 1));
+        Integer liberada = tx.execute(status -> productRepository.liberarStockReservado(productoId, 4));
+
+        assertThat(reserva).isEqualTo(1);
+        assertThat(reservaExcedida).isZero();
+        assertThat(ventaExcedida).isZero();
+        assertThat(venta).isEqualTo(1);
+        assertThat(liberada).isEqualTo(1);
+        assertThat(productRepository.obtenerStockActual(productoId)).contains(4);
+    }
+}
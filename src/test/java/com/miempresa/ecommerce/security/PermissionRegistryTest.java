@@ -0,0 +1,54 @@
+package com.miempresa.ecommerce.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.miempresa.ecommerce.repositories.ProfileRepository;
+
+/**
+ * Verifica los permisos por bits y su invalidación.
+ */
+class PermissionRegistryTest {
+
+    private final ProfileRepository profileRepository = mock(ProfileRepository.class);
+    private final PermissionRegistry registry = new PermissionRegistry(profileRepository);
+
+    @Test
+    void permisosDelPerfilSeVerificanPorBit() {
+        registry.registrar("MODULO_USUARIOS");
+        when(profileRepository.obtenerCodigosPermisos(2L))
+                .thenReturn(List.of("MODULO_PRODUCTOS", "MODULO_VENTAS"));
+
+        ProfilePermissions permisos = registry.permisosDe(2L);
+
+        assertThat(permisos.contains("MODULO_PRODUCTOS")).isTrue();
+        assertThat(permisos.contains("MODULO_VENTAS")).isTrue();
+        assertThat(permisos.contains("MODULO_USUARIOS")).isFalse();
+        assertThat(permisos.contains("NO_EXISTE")).isFalse();
+        assertThat(permisos).containsExactlyInAnyOrder("MODULO_PRODUCTOS", "MODULO_VENTAS");
+        assertThat(permisos.tieneIndice(registry.indice("MODULO_VENTAS"))).isTrue();
+    }
+
+    @Test
+    void perfilSeCargaUnaVezHastaInvalidarse() {
+        when(profileRepository.obtenerCodigosPermisos(1L))
+                .thenReturn(List.of("MODULO_PRODUCTOS"))
+                .thenReturn(List.of("MODULO_PRODUCTOS", "MODULO_REPORTES"));
+
+        ProfilePermissions primero = registry.permisosDe(1L);
+        assertThat(registry.permisosDe(1L)).isSameAs(primero);
+        assertThat(primero.contains("MODULO_REPORTES")).isFalse();
+
+        registry.invalidar(1L);
+
+        assertThat(registry.permisosDe(1L).contains("MODULO_REPORTES")).isTrue();
+        verify(profileRepository, times(2)).obtenerCodigosPermisos(1L);
+    }
+}
@@ -0,0 +1,115 @@
+package com.miempresa.ecommerce.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import com.miempresa.ecommerce.models.Brand;
+import com.miempresa.ecommerce.models.Category;
+import com.miempresa.ecommerce.models.Product;
+import com.miempresa.ecommerce.soporte.DatosDePrueba;
+import com.miempresa.ecommerce.soporte.PruebaJpa;
+
+/**
+ * Verifica el índice de búsqueda del catálogo: normalización de términos,
+ * coincidencia por prefijo y que altas, cambios y bajas hechas desde el
+ * formulario (categoría y marca solo con ID) se reflejen al confirmar.
+ */
+@PruebaJpa
+@Import({ ProductService.class, CatalogSearchService.class, LowStockTracker.class })
+class CatalogSearchServiceTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CatalogSearchService catalogSearchService;
+
+    @Autowired
+    private DatosDePrueba datos;
+
+    private Category categoria;
+    private Brand marca;
+    private String codigo;
+
+    @BeforeEach
+    void prepararIndice() {
+        catalogSearchService.reconstruir();
+        categoria = datos.categoria();
+        marca = datos.marca();
+        // Palabra que solo tiene el producto de esta prueba
+        codigo = "m" + datos.sufijo();
+    }
+
+    @Test
+    void tokenizarQuitaTildesMayusculasYSeparadores() {
+        assertThat(CatalogSearchService.tokenizar("Cámara Réflex EOS-R50, 24.2MP"))
+                .containsExactly("camara", "reflex", "eos", "r50", "24", "2mp");
+        assertThat(CatalogSearchService.tokenizar("  ")).isEmpty();
+        assertThat(CatalogSearchService.tokenizar(null)).isEmpty();
+    }
+
+    @Test
+    void guardarDesdeElFormularioIndexaCategoriaYMarca() {
+        Long id = productService.guardar(delFormulario("Control " + codigo)).getId();
+
+        String sufijoCategoria = categoria.getNombre().substring(categoria.getNombre().indexOf(' ') + 1);
+        String sufijoMarca = marca.getNombre().substring(marca.getNombre().indexOf(' ') + 1);
+        assertThat(catalogSearchService.buscar(sufijoCategoria, 10)).containsExactly(id);
+        assertThat(catalogSearchService.buscar(sufijoMarca, 10)).containsExactly(id);
+        assertThat(catalogSearchService.buscar("control " + codigo, 10)).containsExactly(id);
+    }
+
+    @Test
+    void coincidePorPrefijoDePalabraNoPorSubcadena() {
+        Long id = productService.guardar(delFormulario("PlayStation " + codigo)).getId();
+
+        assertThat(catalogSearchService.buscar("play " + codigo, 10)).containsExactly(id);
+        assertThat(catalogSearchService.buscar("PLAYSTÁTION " + codigo.substring(0, 4), 10)).contains(id);
+        assertThat(catalogSearchService.buscar("station " + codigo, 10)).isEmpty();
+    }
+
+    @Test
+    void actualizarReemplazaLosTerminosAnteriores() {
+        Long id = productService.guardar(delFormulario("Teclado " + codigo)).getId();
+
+        productService.actualizar(id, delFormulario("Mouse " + codigo));
+
+        assertThat(catalogSearchService.buscar("teclado " + codigo, 10)).isEmpty();
+        assertThat(catalogSearchService.buscar("mouse " + codigo, 10)).containsExactly(id);
+    }
+
+    @Test
+    void desactivarLoQuitaYReactivarloLoVuelveAIndexar() {
+        Long id = productService.guardar(delFormulario("Monitor " + codigo)).getId();
+
+        productService.eliminar(id);
+        assertThat(catalogSearchService.buscar(codigo, 10)).isEmpty();
+
+        productService.cambiarEstado(id, true);
+        assertThat(catalogSearchService.buscar(codigo, 10)).containsExactly(id);
+    }
+
+    /**
+     * Producto como lo envía el formulario: categoría y marca solo con ID
+     */
+    private Product delFormulario(String nombre) {
+        return Product.builder()
+                .nombre(nombre)
+                .precioBase(new BigDecimal("150.00"))
+                .stockActual(10)
+                .stockMinimo(1)
+                .categoria(Category.builder().id(categoria.getId()).build())
+                .marca(Brand.builder().id(marca.getId()).build())
+                .activo(true)
+                .esDestacado(false)
+                .imagenes(new ArrayList<>())
+                .build();
+    }
+}
@@ -0,0 +1,138 @@
+package com.miempresa.ecommerce.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.miempresa.ecommerce.models.DashboardResumen;
+
+/**
+ * Verifica que una tarjeta lenta no retrase el panel más allá del tiempo
+ * máximo y que, al cancelarla, su hilo se interrumpa, y que dos usuarios
+ * que abren el panel a la vez carguen todas sus tarjetas en paralelo.
+ */
+class DashboardServiceTest {
+
+    private static final long TIMEOUT_MS = 300;
+    private static final int TARJETAS = 10;
+
+    private final SaleService saleService = mock(SaleService.class);
+    private final ProductService productService = mock(ProductService.class);
+    private final CustomerService customerService = mock(CustomerService.class);
+    private final OrderService orderService = mock(OrderService.class);
+    private final CreditService creditService = mock(CreditService.class);
+    private final OverdueInstallmentCounter overdueInstallmentCounter = mock(OverdueInstallmentCounter.class);
+
+    private final CountDownLatch interrumpida = new CountDownLatch(1);
+    private DashboardService dashboardService;
+
+    @BeforeEach
+    void crearServicio() {
+        dashboardService = nuevoServicio(TIMEOUT_MS);
+    }
+
+    @AfterEach
+    void cerrar() {
+        dashboardService.cerrar();
+    }
+
+    @Test
+    void todasLasTarjetasCarganATiempo() {
+        when(creditService.contarActivos()).thenReturn(7L);
+
+        DashboardResumen resumen = dashboardService.cargar();
+
+        assertThat(resumen.esParcial()).isFalse();
+        assertThat(resumen.getValores()).containsEntry("creditosActivos", 7L);
+    }
+
+    @Test
+    void tarjetaLentaSeCancelaYSuHiloSeInterrumpe() throws Exception {
+        when(creditService.contarActivos())
+                .thenAnswer(invocacion -> {
+                    try {
+                        Thread.sleep(60_000);
+                    } catch (InterruptedException e) {
+                        interrumpida.countDown();
+                        throw e;
+                    }
+                    return 7L;
+                })
+                .thenReturn(7L);
+
+        long inicio = System.nanoTime();
+        DashboardResumen lento = dashboardService.cargar();
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio)).isLessThan(TIMEOUT_MS + 2_000);
+        assertThat(lento.getFallidos()).contains("creditosActivos");
+        assertThat(lento.getValores()).containsEntry("creditosActivos", 0L);
+        assertThat(interrumpida.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // La siguiente carga completa todas las tarjetas
+        DashboardResumen siguiente = dashboardService.cargar();
+        assertThat(siguiente.getFallidos()).isEmpty();
+        assertThat(siguiente.getValores()).containsEntry("creditosActivos", 7L);
+    }
+
+    @Test
+    void dosCargasSimultaneasNoSeEsperanEntreSi() throws Exception {
+        // Cada consulta espera a que arranquen las de ambas cargas: si hubiera
+        // un límite común menor que todas sus tarjetas, se vencería el tiempo
+        CountDownLatch iniciadas = new CountDownLatch(2 * TARJETAS);
+        when(saleService.calcularTotalVentasPorFecha(any(), any())).then(juntas(iniciadas, BigDecimal.TEN));
+        when(orderService.contarPorEstado(any())).then(juntas(iniciadas, 1L));
+        when(productService.contarActivos()).then(juntas(iniciadas, 2L));
+        when(customerService.contarActivos()).then(juntas(iniciadas, 3L));
+        when(creditService.contarActivos()).then(juntas(iniciadas, 4L));
+        when(creditService.obtenerTotalDeudaPendiente()).then(juntas(iniciadas, BigDecimal.ONE));
+        when(overdueInstallmentCounter.obtener()).then(juntas(iniciadas, 5L));
+        when(saleService.obtenerDelDia()).then(juntas(iniciadas, List.of()));
+        when(orderService.obtenerPendientes()).then(juntas(iniciadas, List.of()));
+        when(productService.obtenerProductosStockBajo()).then(juntas(iniciadas, List.of()));
+
+        DashboardService servicio = nuevoServicio(5_000);
+        try {
+            CompletableFuture<DashboardResumen> primera = CompletableFuture.supplyAsync(servicio::cargar);
+            CompletableFuture<DashboardResumen> segunda = CompletableFuture.supplyAsync(servicio::cargar);
+
+            for (DashboardResumen resumen : List.of(primera.get(10, TimeUnit.SECONDS),
+                    segunda.get(10, TimeUnit.SECONDS))) {
+                assertThat(resumen.getFallidos()).isEmpty();
+                assertThat(resumen.getValores()).containsEntry("creditosActivos", 4L);
+            }
+        } finally {
+            servicio.cerrar();
+        }
+    }
+
+    /**
+     * Respuesta que devuelve 'valor' cuando ya arrancaron todas las consultas
+     */
+    private static Answer<Object> juntas(CountDownLatch iniciadas, Object valor) {
+        return invocacion -> {
+            iniciadas.countDown();
+            if (!iniciadas.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Las consultas no corrieron a la vez");
+            }
+            return valor;
+        };
+    }
+
+    private DashboardService nuevoServicio(long timeoutMs) {
+        return new DashboardService(saleService, productService, customerService, orderService,
+                creditService, overdueInstallmentCounter, mock(PlatformTransactionManager.class), timeoutMs);
+    }
+}
@@ -0,0 +1,173 @@
+package com.miempresa.ecommerce.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.miempresa.ecommerce.models.DocumentCounter;
+import com.miempresa.ecommerce.repositories.DocumentCounterRepository;
+import com.miempresa.ecommerce.repositories.OrderRepository;
+import com.miempresa.ecommerce.repositories.SaleRepository;
+import com.miempresa.ecommerce.soporte.PruebaJpa;
+
+/**
+ * Verifica que los correlativos no se repitan entre hilos ni entre
+ * instancias (como tras un reinicio), que el bloque siguiente se reserve
+ * por adelantado y que un bloqueo de la fila del contador se reintente.
+ */
+@PruebaJpa(properties = "app.numeracion.tamanio-bloque=7")
+@Import(DocumentNumberService.class)
+class DocumentNumberServiceTest {
+
+    private static final int HILOS = 8;
+    private static final int NUMEROS_POR_HILO = 25;
+
+    @Autowired
+    private DocumentNumberService documentNumberService;
+
+    @Autowired
+    private DocumentCounterRepository counterRepository;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void numerosConcurrentesSonUnicos() throws Exception {
+        Set<String> emitidos = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> tareas = new ArrayList<>();
+
+        for (int h = 0; h < HILOS; h++) {
+            tareas.add(executor.submit(() -> {
+                largada.await();
+                for (int i = 0; i < NUMEROS_POR_HILO; i++) {
+                    emitidos.add(documentNumberService.siguienteNumeroVenta());
+                }
+                return null;
+            }));
+        }
+
+        largada.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(emitidos).hasSize(HILOS * NUMEROS_POR_HILO);
+        assertThat(emitidos).allMatch(n -> n.startsWith("VEN-" + LocalDate.now().getYear() + "-"));
+    }
+
+    @Test
+    void otraInstanciaContinuaDespuesDelBloqueReservado() {
+        String primero = documentNumberService.siguienteNumeroPedido();
+        long reservado = contador("PED", LocalDate.now().getYear());
+
+        // Simula un reinicio: instancia nueva sin bloques en memoria
+        String despues = nuevaInstancia(counterRepository).siguienteNumeroPedido();
+
+        // Empieza después de todo lo ya reservado, aunque no se haya usado
+        assertThat(reservado).isGreaterThanOrEqualTo(correlativo(primero));
+        assertThat(correlativo(despues)).isEqualTo(reservado + 1);
+    }
+
+    @Test
+    void elBloqueSiguienteSeReservaAntesDeAgotarElActual() throws Exception {
+        // El servicio del contexto adelanta un bloque al arrancar: se espera
+        // a que termine para que no avance el contador durante la prueba
+        documentNumberService.siguienteNumeroPedido();
+
+        DocumentNumberService servicio = nuevaInstancia(counterRepository);
+        int anio = LocalDate.now().getYear();
+        long base = contador("PED", anio);
+
+        // Bloque base+1..base+7: al entregar el 4.º (la mitad) se pide el siguiente
+        for (int i = 0; i < 4; i++) {
+            servicio.siguienteNumeroPedido();
+        }
+        esperarContador("PED", anio, base + 14);
+
+        // Se agota el bloque y sigue con el adelantado sin tocar el contador
+        for (int i = 0; i < 3; i++) {
+            servicio.siguienteNumeroPedido();
+        }
+        assertThat(correlativo(servicio.siguienteNumeroPedido())).isEqualTo(base + 8);
+        assertThat(contador("PED", anio)).isEqualTo(base + 14);
+
+        servicio.cerrar();
+    }
+
+    @Test
+    void reintentaSiLaFilaDelContadorEstaBloqueada() {
+        DocumentCounterRepository ocupado = mock(DocumentCounterRepository.class,
+                AdditionalAnswers.delegatesTo(counterRepository));
+        doAnswer(invocacion -> {
+            throw new CannotAcquireLockException("Lock wait timeout exceeded");
+        }).doAnswer(AdditionalAnswers.delegatesTo(counterRepository))
+                .when(ocupado).buscarParaActualizar(any(), any());
+
+        DocumentNumberService servicio = nuevaInstancia(ocupado);
+        assertThat(servicio.siguienteNumeroPedido()).startsWith("PED-" + LocalDate.now().getYear() + "-");
+        verify(ocupado, times(2)).buscarParaActualizar(any(), any());
+
+        servicio.cerrar();
+    }
+
+    private DocumentNumberService nuevaInstancia(DocumentCounterRepository repositorio) {
+        DocumentNumberService servicio = new DocumentNumberService(repositorio, saleRepository,
+                orderRepository, transactionManager);
+        ReflectionTestUtils.setField(servicio, "tamanioBloque", 7);
+        return servicio;
+    }
+
+    /**
+     * Espera a que el hilo de fondo avance el contador al menos 'minimo'
+     */
+    private void esperarContador(String prefijo, int anio, long minimo) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 10_000;
+        while (contador(prefijo, anio) < minimo && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+        }
+        assertThat(contador(prefijo, anio)).isEqualTo(minimo);
+    }
+
+    private long contador(String prefijo, int anio) {
+        return counterRepository.findAll().stream()
+                .filter(c -> c.getPrefijo().equals(prefijo) && c.getAnio() == anio)
+                .mapToLong(DocumentCounter::getUltimoAsignado)
+                .findFirst()
+                .orElse(0);
+    }
+
+    private long correlativo(String numero) {
+        return Long.parseLong(numero.substring(numero.lastIndexOf('-') + 1));
+    }
+}
@@ -0,0 +1,165 @@
+package com.miempresa.ecommerce.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.miempresa.ecommerce.models.Category;
+import com.miempresa.ecommerce.models.InventoryMovement;
+import com.miempresa.ecommerce.models.User;
+import com.miempresa.ecommerce.models.enums.MotivoMovimiento;
+import com.miempresa.ecommerce.models.enums.TipoMovimiento;
+import com.miempresa.ecommerce.repositories.InventoryMovementRepository;
+import com.miempresa.ecommerce.repositories.InventorySnapshotRepository;
+import com.miempresa.ecommerce.repositories.ProductRepository;
+import com.miempresa.ecommerce.services.InventorySnapshotService.Kardex;
+import com.miempresa.ecommerce.services.InventorySnapshotService.StockALaFecha;
+import com.miempresa.ecommerce.services.InventorySnapshotService.Valorizacion;
+import com.miempresa.ecommerce.soporte.DatosDePrueba;
+import com.miempresa.ecommerce.soporte.PruebaJpa;
+
+/**
+ * Verifica que el stock a una fecha salga del corte más cercano más los
+ * movimientos del intervalo, y que el kardex y la valorización lo usen.
+ */
+@PruebaJpa(properties = "app.inventario.cortes.tamanio-lote=2")
+@Import(InventorySnapshotService.class)
+class InventorySnapshotServiceTest {
+
+    private static final LocalDateTime CORTE = LocalDateTime.of(2025, 3, 3, 0, 0);
+
+    @Autowired
+    private InventorySnapshotService snapshotService;
+
+    @Autowired
+    private InventorySnapshotRepository snapshotRepository;
+
+    @Autowired
+    private InventoryMovementRepository movementRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DatosDePrueba datos;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User usuario;
+    private Category categoria;
+    private Long teclado;
+
+    @BeforeEach
+    void crearHistorial() {
+        snapshotRepository.deleteAll();
+        movementRepository.deleteAll();
+        productRepository.deleteAll();
+
+        usuario = datos.usuario();
+        categoria = datos.categoria();
+
+        // Entran 10 el 1/3, salen 3 el 5/3: hoy quedan 7
+        teclado = crearProducto("Teclado", 7, LocalDateTime.of(2025, 1, 1, 0, 0));
+        registrar(teclado, TipoMovimiento.ENTRADA, 10, LocalDateTime.of(2025, 3, 1, 10, 0));
+        registrar(teclado, TipoMovimiento.SALIDA, 3, LocalDateTime.of(2025, 3, 5, 16, 30));
+    }
+
+    @Test
+    void elCorteGuardaElStockDeEseInstante() {
+        crearProducto("Mouse", 4, LocalDateTime.of(2025, 2, 1, 0, 0));
+        crearProducto("Audífonos", 9, LocalDateTime.of(2025, 2, 1, 0, 0));
+
+        // Tres productos en bloques de dos
+        assertThat(snapshotService.generarCorte(CORTE)).isEqualTo(3);
+        assertThat(snapshotService.generarCorte(CORTE)).isZero();
+
+        assertThat(snapshotRepository.findAll())
+                .filteredOn(corte -> corte.getFechaCorte().equals(CORTE))
+                .hasSize(3);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT stock FROM inventario_cortes WHERE producto_id = ?", Integer.class, teclado))
+                .isEqualTo(10);
+    }
+
+    @Test
+    void stockALaFechaDesdeElCorteMasCercano() {
+        snapshotService.generarCorte(CORTE);
+
+        // Después del corte: corte + movimientos
+        assertThat(snapshotService.obtenerStockAl(teclado, LocalDateTime.of(2025, 3, 6, 0, 0))).isEqualTo(7);
+        // Antes del primer corte: corte - movimientos
+        assertThat(snapshotService.obtenerStockAl(teclado, LocalDateTime.of(2025, 3, 2, 0, 0))).isEqualTo(10);
+        assertThat(snapshotService.obtenerStockAl(teclado, LocalDateTime.of(2025, 2, 28, 0, 0))).isZero();
+        // Antes de que existiera el producto
+        assertThat(snapshotService.obtenerStockAl(teclado, LocalDateTime.of(2024, 12, 1, 0, 0))).isZero();
+    }
+
+    @Test
+    void noRecorreLosMovimientosAnterioresAlCorte() {
+        snapshotService.generarCorte(CORTE);
+
+        // Un movimiento anterior al corte ya está dentro de él: no se vuelve a sumar
+        registrar(teclado, TipoMovimiento.SALIDA, 1, LocalDateTime.of(2025, 2, 10, 9, 0));
+
+        assertThat(snapshotService.obtenerStockAl(teclado, LocalDateTime.of(2025, 3, 6, 0, 0))).isEqualTo(7);
+    }
+
+    @Test
+    void productoCreadoDespuesDelCorteSaleDelStockActual() {
+        snapshotService.generarCorte(CORTE);
+        Long monitor = crearProducto("Monitor", 5, LocalDateTime.of(2025, 3, 4, 12, 0));
+
+        Valorizacion valorizacion = snapshotService.valorizar(LocalDateTime.of(2025, 3, 6, 0, 0));
+
+        assertThat(valorizacion.productos())
+                .extracting(StockALaFecha::productoId, StockALaFecha::stock)
+                .containsExactly(tuple(monitor, 5), tuple(teclado, 7));
+        assertThat(valorizacion.unidades()).isEqualTo(12);
+        assertThat(valorizacion.total()).isEqualByComparingTo("1200.00");
+
+        assertThat(snapshotService.obtenerStockAl(LocalDateTime.of(2025, 3, 4, 0, 0)))
+                .extracting(StockALaFecha::productoId)
+                .containsExactly(teclado);
+    }
+
+    @Test
+    void kardexConSaldoInicialYFinal() {
+        snapshotService.generarCorte(CORTE);
+
+        Kardex kardex = snapshotService.obtenerKardex(teclado,
+                LocalDateTime.of(2025, 3, 4, 0, 0), LocalDateTime.of(2025, 3, 7, 0, 0));
+
+        assertThat(kardex.saldoInicial()).isEqualTo(10);
+        assertThat(kardex.movimientos()).hasSize(1);
+        assertThat(kardex.saldoFinal()).isEqualTo(7);
+    }
+
+    private Long crearProducto(String nombre, int stock, LocalDateTime creado) {
+        Long id = datos.producto(categoria, nombre, "100.00", stock, 1).getId();
+        jdbcTemplate.update("UPDATE productos SET fecha_creacion = ? WHERE id = ?", creado, id);
+        return id;
+    }
+
+    private void registrar(Long productoId, TipoMovimiento tipo, int cantidad, LocalDateTime fecha) {
+        InventoryMovement movimiento = movementRepository.save(InventoryMovement.builder()
+                .producto(productRepository.getReferenceById(productoId))
+                .usuario(usuario)
+                .tipo(tipo)
+                .motivo(tipo == TipoMovimiento.ENTRADA ? MotivoMovimiento.COMPRA : MotivoMovimiento.VENTA)
+                .cantidad(cantidad)
+                .stockAnterior(0)
+                .stockNuevo(0)
+                .build());
+        // fecha_movimiento la pone Hibernate al insertar
+        jdbcTemplate.update("UPDATE movimientos_inventario SET fecha_movimiento = ? WHERE id = ?",
+                fecha, movimiento.getId());
+    }
+}
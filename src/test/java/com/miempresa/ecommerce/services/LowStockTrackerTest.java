@@ -0,0 +1,178 @@
+package com.miempresa.ecommerce.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.miempresa.ecommerce.models.Category;
+import com.miempresa.ecommerce.models.Product;
+import com.miempresa.ecommerce.repositories.ProductRepository;
+import com.miempresa.ecommerce.services.LowStockTracker.StockAlertEvent;
+import com.miempresa.ecommerce.soporte.DatosDePrueba;
+import com.miempresa.ecommerce.soporte.PruebaJpa;
+
+/**
+ * Verifica que las alertas de stock se carguen al arrancar y se actualicen
+ * solo con los cambios confirmados, publicando un evento al entrar o salir.
+ */
+@PruebaJpa
+class LowStockTrackerTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DatosDePrueba datos;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Object> eventos = new ArrayList<>();
+    private LowStockTracker tracker;
+
+    private Long normal;
+    private Long bajo;
+    private Long agotado;
+
+    @BeforeEach
+    void crearProductos() {
+        productRepository.deleteAll();
+
+        Category categoria = datos.categoria();
+        normal = crear(categoria, 30, 5).getId();
+        bajo = crear(categoria, 3, 5).getId();
+        agotado = crear(categoria, 0, 5).getId();
+
+        tracker = new LowStockTracker(productRepository, eventos::add, transactionManager);
+        tracker.cargar();
+    }
+
+    @Test
+    void cargaLosProductosEnAlerta() {
+        assertThat(tracker.estaListo()).isTrue();
+        assertThat(tracker.idsStockBajo()).containsExactlyInAnyOrder(bajo, agotado);
+        assertThat(tracker.idsSinStock()).containsExactly(agotado);
+        assertThat(tracker.contarStockBajo()).isEqualTo(2);
+    }
+
+    @Test
+    void ventaConfirmadaLlevaElProductoAAlerta() {
+        enTransaccion(() -> {
+            productRepository.disminuirStockSiDisponible(normal, 30);
+            tracker.registrarCambio(normal);
+            // Antes del commit no cambia nada
+            assertThat(tracker.idsStockBajo()).doesNotContain(normal);
+        });
+
+        assertThat(tracker.idsStockBajo()).contains(normal);
+        assertThat(tracker.idsSinStock()).contains(normal);
+        assertThat(eventos).containsExactly(new StockAlertEvent(normal, true, true, 0, 5));
+    }
+
+    @Test
+    void reposicionSacaDeAlertaYReversionNoCambiaNada() {
+        enTransaccion(() -> {
+            productRepository.aumentarStock(agotado, 50);
+            tracker.registrarCambio(agotado);
+        });
+        assertThat(tracker.idsStockBajo()).containsExactly(bajo);
+        assertThat(tracker.idsSinStock()).isEmpty();
+        assertThat(eventos).containsExactly(new StockAlertEvent(agotado, false, false, 50, 5));
+
+        TransactionTemplate plantilla = new TransactionTemplate(transactionManager);
+        plantilla.executeWithoutResult(status -> {
+            productRepository.disminuirStockSiDisponible(agotado, 50);
+            tracker.registrarCambio(agotado);
+            status.setRollbackOnly();
+        });
+        assertThat(tracker.idsSinStock()).isEmpty();
+        assertThat(eventos).hasSize(1);
+    }
+
+    @Test
+    void subirElMinimoYDesactivarSeReflejan() {
+        enTransaccion(() -> {
+            Product producto = productRepository.findById(normal).orElseThrow();
+            producto.setStockMinimo(40);
+            Product desactivado = productRepository.findById(bajo).orElseThrow();
+            desactivado.setActivo(false);
+            tracker.registrarCambios(List.of(normal, bajo));
+        });
+
+        assertThat(tracker.idsStockBajo()).containsExactlyInAnyOrder(normal, agotado);
+        assertThat(tracker.contarSinStock()).isEqualTo(1);
+    }
+
+    @Test
+    void unaFallaAlReleerNoAfectaLaTransaccionConfirmada() {
+        ProductRepository repositorio = mock(ProductRepository.class);
+        when(repositorio.obtenerNivelesStock(any())).thenThrow(new IllegalStateException("sin conexión"));
+        LowStockTracker conFalla = new LowStockTracker(repositorio, eventos::add, transactionManager);
+
+        assertThatCode(() -> enTransaccion(() -> conFalla.registrarCambio(normal))).doesNotThrowAnyException();
+        assertThat(eventos).isEmpty();
+    }
+
+    @Test
+    void unaLecturaLentaNoBloqueaNiPisaUnaMasNueva() throws Exception {
+        Object[] agotadoAntes = { normal, 0, 5, true };
+        Object[] repuestoDespues = { normal, 30, 5, true };
+        CountDownLatch leyendo = new CountDownLatch(1);
+        CountDownLatch soltar = new CountDownLatch(1);
+
+        ProductRepository repositorio = mock(ProductRepository.class);
+        when(repositorio.obtenerNivelesStockEnAlerta()).thenReturn(List.of());
+        when(repositorio.obtenerNivelesStock(any()))
+                .thenAnswer(invocacion -> {
+                    leyendo.countDown();
+                    soltar.await(5, TimeUnit.SECONDS);
+                    return List.<Object[]>of(agotadoAntes);
+                })
+                .thenReturn(List.<Object[]>of(repuestoDespues));
+        LowStockTracker rastreador = new LowStockTracker(repositorio, eventos::add, transactionManager);
+        rastreador.cargar();
+
+        ExecutorService hilos = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> vieja = hilos.submit(() -> rastreador.registrarCambio(normal));
+            assertThat(leyendo.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // La segunda lectura termina mientras la primera sigue leyendo
+            hilos.submit(() -> rastreador.registrarCambio(normal)).get(2, TimeUnit.SECONDS);
+
+            soltar.countDown();
+            vieja.get(5, TimeUnit.SECONDS);
+        } finally {
+            soltar.countDown();
+            hilos.shutdownNow();
+        }
+
+        assertThat(rastreador.idsSinStock()).isEmpty();
+        assertThat(rastreador.idsStockBajo()).isEmpty();
+        assertThat(eventos).isEmpty();
+    }
+
+    private Product crear(Category categoria, int stock, int minimo) {
+        return datos.producto(categoria, "Silla " + stock, "899.00", stock, minimo);
+    }
+
+    private void enTransaccion(Runnable accion) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> accion.run());
+    }
+}
@@ -0,0 +1,88 @@
+package com.miempresa.ecommerce.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.miempresa.ecommerce.repositories.InstallmentRepository;
+
+/**
+ * Verifica que el contador de cuotas vencidas se reutilice durante el TTL,
+ * se descarte al confirmar un cambio y que un recálculo que se cruza con
+ * una invalidación no deje guardado un valor viejo.
+ */
+class OverdueInstallmentCounterTest {
+
+    private final InstallmentRepository installmentRepository = mock(InstallmentRepository.class);
+    private final OverdueInstallmentCounter contador = new OverdueInstallmentCounter(installmentRepository);
+
+    @BeforeEach
+    void configurarTtl() {
+        ReflectionTestUtils.setField(contador, "ttlSegundos", 60L);
+    }
+
+    @AfterEach
+    void limpiarTransaccion() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void reutilizaElValorDuranteElTtl() {
+        when(installmentRepository.contarCuotasVencidas(any())).thenReturn(4L);
+
+        assertThat(contador.obtener()).isEqualTo(4);
+        assertThat(contador.obtener()).isEqualTo(4);
+        verify(installmentRepository, times(1)).contarCuotasVencidas(any());
+    }
+
+    @Test
+    void invalidarFuerzaUnNuevoConteo() {
+        when(installmentRepository.contarCuotasVencidas(any())).thenReturn(4L, 3L);
+
+        contador.obtener();
+        contador.invalidar();
+
+        assertThat(contador.obtener()).isEqualTo(3);
+    }
+
+    @Test
+    void dentroDeUnaTransaccionSeDescartaAlConfirmar() {
+        when(installmentRepository.contarCuotasVencidas(any())).thenReturn(4L, 3L);
+        contador.obtener();
+
+        TransactionSynchronizationManager.initSynchronization();
+        contador.invalidar();
+        assertThat(contador.obtener()).isEqualTo(4);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(contador.obtener()).isEqualTo(3);
+    }
+
+    @Test
+    void invalidacionDuranteElRecalculoNoGuardaElValorViejo() {
+        // Un abono confirma mientras corre el COUNT, que no llegó a verlo
+        when(installmentRepository.contarCuotasVencidas(any()))
+                .thenAnswer(invocacion -> {
+                    contador.invalidar();
+                    return 4L;
+                })
+                .thenReturn(3L);
+
+        assertThat(contador.obtener()).isEqualTo(4);
+        assertThat(contador.obtener()).isEqualTo(3);
+        assertThat(contador.obtener()).isEqualTo(3);
+        verify(installmentRepository, times(2)).contarCuotasVencidas(any());
+    }
+}
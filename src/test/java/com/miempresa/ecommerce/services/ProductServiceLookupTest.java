@@ -0,0 +1,86 @@
+package com.miempresa.ecommerce.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import com.miempresa.ecommerce.models.Category;
+import com.miempresa.ecommerce.models.Product;
+import com.miempresa.ecommerce.soporte.DatosDePrueba;
+import com.miempresa.ecommerce.soporte.PruebaJpa;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Verifica que las líneas de un carrito, venta POS o pedido se resuelvan
+ * con una sola consulta de productos, sin importar cuántas sean.
+ */
+@PruebaJpa(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ ProductService.class, CatalogSearchService.class, LowStockTracker.class })
+class ProductServiceLookupTest {
+
+    private static final int LINEAS = 25;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private DatosDePrueba datos;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private List<Long> ids;
+
+    @BeforeEach
+    void crearProductos() {
+        Category categoria = datos.categoria();
+
+        ids = new ArrayList<>();
+        for (int i = 0; i < LINEAS; i++) {
+            ids.add(datos.producto(categoria, "Producto " + i, "10.00", 10, 1).getId());
+        }
+    }
+
+    @Test
+    void unaConsultaSinImportarLaCantidadDeLineas() {
+        assertThat(consultasPara(ids.subList(0, 1))).isEqualTo(1);
+        assertThat(consultasPara(ids)).isEqualTo(1);
+    }
+
+    @Test
+    void ignoraNulosYRepetidos() {
+        List<Long> lineas = new ArrayList<>(ids.subList(0, 3));
+        lineas.add(ids.get(0));
+        lineas.add(null);
+
+        Map<Long, Product> productos = productService.buscarPorIds(lineas);
+
+        assertThat(productos).containsOnlyKeys(ids.subList(0, 3));
+    }
+
+    @Test
+    void obtenerPorIdsFallaSiFaltaAlguno() {
+        List<Long> lineas = List.of(ids.get(0), -1L);
+
+        assertThatThrownBy(() -> productService.obtenerPorIds(lineas))
+                .hasMessage("Producto no encontrado: ID -1");
+    }
+
+    private long consultasPara(List<Long> lineas) {
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+        assertThat(productService.buscarPorIds(lineas)).hasSize(lineas.size());
+        return estadisticas.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,153 @@
+package com.miempresa.ecommerce.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import com.miempresa.ecommerce.models.Category;
+import com.miempresa.ecommerce.models.KeysetPage;
+import com.miempresa.ecommerce.models.Product;
+import com.miempresa.ecommerce.models.enums.OrdenProducto;
+import com.miempresa.ecommerce.repositories.ProductRepository;
+import com.miempresa.ecommerce.soporte.DatosDePrueba;
+import com.miempresa.ecommerce.soporte.PruebaJpa;
+
+/**
+ * Verifica que recorrer el catálogo por cursor devuelva cada producto una
+ * sola vez y en orden (por precio, el de oferta si lo hay), con y sin
+ * categoría, y que un cursor alterado lleve a la primera página.
+ */
+@PruebaJpa
+@Import({ ProductService.class, CatalogSearchService.class, LowStockTracker.class })
+class ProductServicePaginationTest {
+
+    private static final int TAMANIO = 2;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DatosDePrueba datos;
+
+    private Long categoriaId;
+    private List<Product> productos;
+
+    @BeforeEach
+    void crearProductos() {
+        Category categoria = datos.categoria();
+        categoriaId = categoria.getId();
+
+        // Precios y nombres repetidos: el ID desempata
+        productos = new ArrayList<>();
+        productos.add(datos.producto(categoria, "Teclado", "150.00", 5, 1));
+        productos.add(datos.producto(categoria, "Audífonos", "99.90", 5, 1));
+        productos.add(datos.producto(categoria, "Teclado", "150.00", 5, 1));
+        productos.add(datos.producto(categoria, "Mouse", "45.00", 5, 1));
+
+        // En oferta: se ordena por el precio que ve el cliente, no el base
+        Product monitor = datos.producto(categoria, "Monitor", "899.00", 5, 1);
+        monitor.setPrecioOferta(new BigDecimal("120.00"));
+        productos.add(productRepository.save(monitor));
+    }
+
+    @ParameterizedTest
+    @EnumSource(OrdenProducto.class)
+    void recorrerTodasLasPaginasDevuelveCadaProductoUnaVez(OrdenProducto orden) {
+        List<Long> recorridos = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            KeysetPage<Product> pagina = productService.paginar(orden, cursor, TAMANIO, true, categoriaId);
+            pagina.getContenido().forEach(p -> recorridos.add(p.getId()));
+            cursor = pagina.getSiguienteCursor();
+            paginas++;
+        } while (cursor != null);
+
+        assertThat(paginas).isEqualTo(3);
+        assertThat(recorridos).containsExactlyElementsOf(productos.stream()
+                .sorted(comparador(orden))
+                .map(Product::getId)
+                .toList());
+    }
+
+    @ParameterizedTest
+    @EnumSource(OrdenProducto.class)
+    void elPanelRecorreTodasLasCategoriasConLosInactivos(OrdenProducto orden) {
+        Product inactivo = datos.producto(datos.categoria(), "Cable", "15.00", 5, 1);
+        inactivo.setActivo(false);
+        productos.add(productRepository.save(inactivo));
+
+        List<Long> propios = productos.stream().map(Product::getId).toList();
+        List<Long> recorridos = new ArrayList<>();
+        String cursor = null;
+        do {
+            KeysetPage<Product> pagina = productService.paginar(orden, cursor, TAMANIO, false, null);
+            pagina.getContenido().stream()
+                    .map(Product::getId)
+                    .filter(propios::contains)
+                    .forEach(recorridos::add);
+            cursor = pagina.getSiguienteCursor();
+        } while (cursor != null);
+
+        assertThat(recorridos).containsExactlyElementsOf(productos.stream()
+                .sorted(comparador(orden))
+                .map(Product::getId)
+                .toList());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "%%%", "no es base64!", "c2luLXNlcGFyYWRvcg", "YWJjfHh5eg", "fA" })
+    void cursorInvalidoDevuelveLaPrimeraPagina(String cursor) {
+        assertThat(idsDe(productService.paginar(OrdenProducto.NOMBRE, cursor, TAMANIO, true, categoriaId)))
+                .isEqualTo(idsDe(productService.paginar(OrdenProducto.NOMBRE, null, TAMANIO, true, categoriaId)));
+    }
+
+    @Test
+    void cursorDeOtroOrdenNoRompeElOrdenPorPrecio() {
+        String cursorNombre = productService
+                .paginar(OrdenProducto.NOMBRE, null, TAMANIO, true, categoriaId)
+                .getSiguienteCursor();
+
+        assertThat(idsDe(productService.paginar(OrdenProducto.PRECIO_MENOR, cursorNombre, TAMANIO, true, categoriaId)))
+                .isEqualTo(idsDe(productService.paginar(OrdenProducto.PRECIO_MENOR, null, TAMANIO, true, categoriaId)));
+    }
+
+    @Test
+    void precioAlteradoEnElCursorDevuelveLaPrimeraPagina() {
+        String alterado = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("1e99999x|" + productos.get(0).getId()).getBytes(StandardCharsets.UTF_8));
+
+        assertThat(idsDe(productService.paginar(OrdenProducto.PRECIO_MAYOR, alterado, TAMANIO, true, categoriaId)))
+                .isEqualTo(idsDe(productService.paginar(OrdenProducto.PRECIO_MAYOR, null, TAMANIO, true, categoriaId)));
+    }
+
+    private static List<Long> idsDe(KeysetPage<Product> pagina) {
+        return pagina.getContenido().stream().map(Product::getId).toList();
+    }
+
+    private static Comparator<Product> comparador(OrdenProducto orden) {
+        Comparator<Product> porId = Comparator.comparing(Product::getId);
+        return switch (orden) {
+            case RECIENTES -> porId.reversed();
+            case NOMBRE -> Comparator.comparing(Product::getNombre).thenComparing(porId);
+            case PRECIO_MENOR -> Comparator.comparing(Product::getPrecioActual).thenComparing(porId);
+            case PRECIO_MAYOR -> Comparator.comparing(Product::getPrecioActual).thenComparing(porId).reversed();
+        };
+    }
+}
@@ -0,0 +1,52 @@
+package com.miempresa.ecommerce.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.miempresa.ecommerce.models.Product;
+import com.miempresa.ecommerce.repositories.ProductRepository;
+import com.miempresa.ecommerce.soporte.DatosDePrueba;
+import com.miempresa.ecommerce.soporte.PruebaJpa;
+
+/**
+ * Verifica que los ajustes de stock devuelvan el valor vigente aunque el
+ * producto ya estuviera cargado en la sesión (como con open-in-view).
+ */
+@PruebaJpa
+@Import({ ProductService.class, CatalogSearchService.class, LowStockTracker.class })
+class ProductServiceStockTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DatosDePrueba datos;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void ajustesDeStockNoDevuelvenLaCopiaVieja() {
+        Long id = datos.producto(10).getId();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Product cargado = productRepository.findById(id).orElseThrow();
+
+            assertThat(productService.aumentarStock(id, 5).getStockActual()).isEqualTo(15);
+            assertThat(cargado.getStockActual()).isEqualTo(15);
+
+            assertThat(productService.disminuirStock(id, 12).getStockActual()).isEqualTo(3);
+            assertThat(cargado.getStockActual()).isEqualTo(3);
+        });
+
+        assertThat(productRepository.findById(id).orElseThrow().getStockActual()).isEqualTo(3);
+    }
+}
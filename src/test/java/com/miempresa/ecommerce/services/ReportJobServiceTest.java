@@ -0,0 +1,133 @@
+package com.miempresa.ecommerce.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.miempresa.ecommerce.config.EmpresaConfig;
+import com.miempresa.ecommerce.models.ReportJob;
+import com.miempresa.ecommerce.models.ReportSpec;
+import com.miempresa.ecommerce.models.enums.EstadoTrabajoReporte;
+import com.miempresa.ecommerce.models.enums.FormatoReporte;
+import com.miempresa.ecommerce.models.enums.TipoReporte;
+import com.miempresa.ecommerce.utils.TimeWindow;
+
+/**
+ * Verifica la deduplicación, el límite por usuario, el archivo generado,
+ * que la limpieza inicial no salga del spool y las ventanas de fechas.
+ */
+class ReportJobServiceTest {
+
+    @TempDir
+    Path directorio;
+
+    private final ReportExportService reportExportService = mock(ReportExportService.class);
+    private final CountDownLatch liberar = new CountDownLatch(1);
+    private ReportJobService service;
+
+    private Path ajeno;
+    private Path sobrante;
+
+    @BeforeEach
+    void preparar() throws Exception {
+        // Un archivo de otra aplicación y uno de un arranque anterior
+        ajeno = Files.writeString(directorio.resolve("factura.pdf"), "ajeno");
+        sobrante = Files.writeString(Files.createDirectories(directorio.resolve("spool")).resolve("viejo.xlsx"), "x");
+
+        // El inventario en Excel queda bloqueado hasta liberar el latch
+        doAnswer(inv -> {
+            liberar.await(5, TimeUnit.SECONDS);
+            inv.getArgument(0, OutputStream.class).write("contenido".getBytes());
+            return 1L;
+        }).when(reportExportService).exportarInventario(any());
+
+        service = new ReportJobService(reportExportService, new EmpresaConfig(), directorio.toString(), 2, 10, 1, 60);
+        service.inicializar();
+    }
+
+    @AfterEach
+    void cerrar() {
+        liberar.countDown();
+        service.cerrar();
+    }
+
+    @Test
+    void solicitudesIgualesComparenTrabajoYSeRespetaElLimite() throws Exception {
+        ReportSpec inventario = ReportSpec.de(TipoReporte.INVENTARIO, FormatoReporte.EXCEL, null, null, null);
+
+        ReportJob primero = service.solicitar(inventario, "ana");
+        ReportJob segundo = service.solicitar(inventario, "luis");
+        assertThat(segundo).isSameAs(primero);
+        assertThat(primero.getSolicitantes()).containsExactlyInAnyOrder("ana", "luis");
+
+        // ana ya tiene un reporte en curso (límite 1)
+        ReportSpec creditos = ReportSpec.de(TipoReporte.CREDITOS, FormatoReporte.EXCEL, null, null, null);
+        assertThatThrownBy(() -> service.solicitar(creditos, "ana")).isInstanceOf(RuntimeException.class);
+
+        liberar.countDown();
+        esperarFin(primero);
+
+        assertThat(primero.getEstado()).isEqualTo(EstadoTrabajoReporte.COMPLETADO);
+        assertThat(Files.readString(primero.getArchivo())).isEqualTo("contenido");
+        assertThat(service.obtener(primero.getId(), "luis")).isSameAs(primero);
+        assertThatThrownBy(() -> service.obtener(primero.getId(), "otro")).isInstanceOf(RuntimeException.class);
+        verify(reportExportService, times(1)).exportarInventario(any());
+
+        // Terminado el anterior, ana puede pedir otro
+        assertThat(service.solicitar(creditos, "ana")).isNotNull();
+    }
+
+    @Test
+    void alArrancarSoloLimpiaElSpool() throws Exception {
+        assertThat(ajeno).exists();
+        assertThat(sobrante).doesNotExist();
+
+        ReportJob trabajo = service.solicitar(
+                ReportSpec.de(TipoReporte.INVENTARIO, FormatoReporte.EXCEL, null, null, null), "ana");
+        liberar.countDown();
+        esperarFin(trabajo);
+
+        assertThat(trabajo.getArchivo().getParent()).isEqualTo(directorio.resolve("spool"));
+    }
+
+    @Test
+    void lasFechasSeTomanComoVentanaSemiabierta() {
+        // Período: termina en la medianoche siguiente, sin restar nanos
+        ReportSpec hoy = ReportSpec.de(TipoReporte.VENTAS, FormatoReporte.EXCEL, null, null, "hoy");
+        assertThat(hoy.ventana()).isEqualTo(TimeWindow.diaActual());
+
+        // Fechas del formulario: el fin queda dentro, el microsegundo siguiente no
+        LocalDateTime inicio = LocalDateTime.of(2025, 6, 1, 0, 0);
+        LocalDateTime fin = LocalDateTime.of(2025, 6, 7, 23, 59, 59);
+        TimeWindow ventana = ReportSpec.de(TipoReporte.MOVIMIENTOS, FormatoReporte.EXCEL, inicio, fin, null)
+                .ventana();
+        assertThat(ventana.contiene(fin)).isTrue();
+        assertThat(ventana.fin()).isEqualTo(fin.plusNanos(1_000));
+
+        assertThatThrownBy(() -> ReportSpec.de(TipoReporte.VENTAS, FormatoReporte.EXCEL, fin, inicio, null))
+                .hasMessageContaining("posterior");
+    }
+
+    private void esperarFin(ReportJob trabajo) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5000;
+        while (trabajo.getFechaFin() == null && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.miempresa.ecommerce.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.miempresa.ecommerce.models.Category;
+import com.miempresa.ecommerce.models.Customer;
+import com.miempresa.ecommerce.models.Payment;
+import com.miempresa.ecommerce.models.Product;
+import com.miempresa.ecommerce.models.Sale;
+import com.miempresa.ecommerce.models.SaleDetail;
+import com.miempresa.ecommerce.models.User;
+import com.miempresa.ecommerce.models.enums.MetodoPago;
+import com.miempresa.ecommerce.models.enums.TipoPago;
+import com.miempresa.ecommerce.repositories.CreditRepository;
+import com.miempresa.ecommerce.repositories.InventoryMovementRepository;
+import com.miempresa.ecommerce.repositories.PaymentRepository;
+import com.miempresa.ecommerce.repositories.ProductRepository;
+import com.miempresa.ecommerce.repositories.SaleDetailRepository;
+import com.miempresa.ecommerce.repositories.SaleRepository;
+import com.miempresa.ecommerce.soporte.DatosDePrueba;
+import com.miempresa.ecommerce.soporte.PruebaJpa;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Verifica que una venta a crédito escriba sus detalles, cuotas, pagos y
+ * movimientos en lotes: un INSERT preparado por tabla, no uno por fila.
+ */
+@PruebaJpa(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.order_updates=true",
+        "spring.jpa.properties.hibernate.id.optimizer.pooled.preferred=pooled-lo",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.miempresa.ecommerce.services.SaleServiceBatchTest$RegistroSql"
+})
+class SaleServiceBatchTest {
+
+    private static final int LINEAS = 10;
+    private static final int CUOTAS = 24;
+
+    /**
+     * Registra cada sentencia que Hibernate prepara (un lote se prepara una vez)
+     */
+    public static class RegistroSql implements StatementInspector {
+
+        static final Queue<String> SENTENCIAS = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public String inspect(String sql) {
+            SENTENCIAS.add(sql.toLowerCase());
+            return sql;
+        }
+    }
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private SaleDetailRepository saleDetailRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private CreditRepository creditRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryMovementRepository inventoryMovementRepository;
+
+    @Autowired
+    private DatosDePrueba datos;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private SaleService saleService;
+    private User usuario;
+    private Customer cliente;
+    private List<Product> productos;
+
+    @BeforeEach
+    void crearDatos() {
+        String sufijo = datos.sufijo();
+
+        DocumentNumberService documentNumberService = mock(DocumentNumberService.class);
+        when(documentNumberService.siguienteNumeroVenta())
+                .thenReturn("B" + sufijo.substring(sufijo.length() - 8));
+
+        saleService = new SaleService(saleRepository, saleDetailRepository, paymentRepository,
+                creditRepository, productRepository, inventoryMovementRepository, documentNumberService,
+                mock(OverdueInstallmentCounter.class), mock(SalesSummaryService.class),
+                mock(BoletaService.class), mock(LowStockTracker.class));
+
+        usuario = datos.usuario();
+        cliente = datos.cliente();
+
+        Category categoria = datos.categoria();
+        productos = new ArrayList<>();
+        for (int i = 0; i < LINEAS; i++) {
+            productos.add(datos.producto(categoria, "Mando " + i, "100.00", 20, 1));
+        }
+    }
+
+    @Test
+    void ventaACreditoInsertaCadaTablaEnUnLote() {
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+        RegistroSql.SENTENCIAS.clear();
+
+        Sale venta = new TransactionTemplate(transactionManager).execute(status -> {
+            List<SaleDetail> detalles = productos.stream()
+                    .map(p -> SaleDetail.builder().producto(p).cantidad(2).build())
+                    .toList();
+            Payment inicial = Payment.builder()
+                    .monto(new BigDecimal("150.00"))
+                    .metodoPago(MetodoPago.EFECTIVO)
+                    .build();
+            Sale nueva = Sale.builder()
+                    .cliente(cliente)
+                    .tipoPago(TipoPago.CREDITO)
+                    .build();
+            return saleService.crearVenta(nueva, new ArrayList<>(detalles), List.of(inicial), usuario,
+                    CUOTAS, BigDecimal.ZERO, BigDecimal.ZERO);
+        });
+
+        assertThat(venta).isNotNull();
+        assertThat(contarFilas("venta_detalles", "venta_id", venta.getId())).isEqualTo(LINEAS);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM cuotas c JOIN creditos cr ON cr.id = c.credito_id WHERE cr.venta_id = ?",
+                Integer.class, venta.getId())).isEqualTo(CUOTAS);
+
+        // Cada movimiento se escribe una vez, ya referenciando la venta
+        assertThat(contarFilas("movimientos_inventario", "referencia_id", venta.getId())).isEqualTo(LINEAS);
+        assertThat(RegistroSql.SENTENCIAS).noneMatch(sql -> sql.startsWith("update movimientos_inventario"));
+
+        // Filas insertadas vs. INSERT preparados: cada tabla va en un lote
+        assertThat(estadisticas.getEntityInsertCount()).isGreaterThan(LINEAS * 2 + CUOTAS);
+        assertThat(insertsPreparados("venta_detalles")).isEqualTo(1);
+        assertThat(insertsPreparados("cuotas")).isEqualTo(1);
+        assertThat(insertsPreparados("movimientos_inventario")).isEqualTo(1);
+        assertThat(insertsPreparados("pagos")).isEqualTo(1);
+    }
+
+    private long insertsPreparados(String tabla) {
+        return RegistroSql.SENTENCIAS.stream()
+                .filter(sql -> sql.startsWith("insert into " + tabla + " "))
+                .count();
+    }
+
+    private Integer contarFilas(String tabla, String columna, Long valor) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + tabla + " WHERE " + columna + " = ?", Integer.class, valor);
+    }
+}
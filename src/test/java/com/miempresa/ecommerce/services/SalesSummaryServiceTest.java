@@ -0,0 +1,229 @@
+package com.miempresa.ecommerce.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.miempresa.ecommerce.models.Customer;
+import com.miempresa.ecommerce.models.DailySalesSummary;
+import com.miempresa.ecommerce.models.Sale;
+import com.miempresa.ecommerce.models.User;
+import com.miempresa.ecommerce.models.enums.EstadoVenta;
+import com.miempresa.ecommerce.models.enums.TipoPago;
+import com.miempresa.ecommerce.repositories.DailySalesSummaryRepository;
+import com.miempresa.ecommerce.repositories.SaleRepository;
+import com.miempresa.ecommerce.soporte.DatosDePrueba;
+import com.miempresa.ecommerce.soporte.PruebaJpa;
+import com.miempresa.ecommerce.utils.TimeWindow;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Verifica que el resumen diario acumule y revierta ventas, que los rangos
+ * combinen días completos del resumen con los tramos parciales de 'ventas'
+ * y que la reconstrucción deje una fila por día.
+ */
+@PruebaJpa
+@Import(SalesSummaryService.class)
+class SalesSummaryServiceTest {
+
+    // Cada prueba usa sus propios días: la BD se comparte dentro de la clase
+    private static final LocalDate DIA = LocalDate.of(2025, 3, 10);
+    private static final LocalDate D1 = LocalDate.of(2025, 4, 1);
+    private static final LocalDate D2 = D1.plusDays(1);
+    private static final LocalDate D3 = D1.plusDays(2);
+    private static final LocalDate R1 = LocalDate.of(2025, 5, 1);
+    private static final LocalDate A1 = LocalDate.of(2025, 6, 2);
+
+    @Autowired
+    private SalesSummaryService salesSummaryService;
+
+    @Autowired
+    private DailySalesSummaryRepository summaryRepository;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private DatosDePrueba datos;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Customer cliente;
+    private User usuario;
+
+    @BeforeEach
+    void crearClienteYUsuario() {
+        cliente = datos.cliente();
+        usuario = datos.usuario();
+    }
+
+    @Test
+    void alArrancarPreparaLasFilasDeHoyYManana() {
+        LocalDate hoy = TimeWindow.hoy();
+
+        assertThat(summaryRepository.existsByFecha(hoy)).isTrue();
+        assertThat(summaryRepository.existsByFecha(hoy.plusDays(1))).isTrue();
+    }
+
+    @Test
+    void alArrancarConVentasYSinResumenLoReconstruye() {
+        guardar(A1.atTime(10, 0), EstadoVenta.COMPLETADA, "118.00");
+        guardar(A1.atTime(17, 0), EstadoVenta.COMPLETADA, "59.00");
+
+        // Base existente: hay ventas pero el resumen está vacío
+        summaryRepository.deleteAll();
+        salesSummaryService.inicializar();
+
+        DailySalesSummary fila = summaryRepository.findByFecha(A1).orElseThrow();
+        assertThat(fila.getCantidadVentas()).isEqualTo(2L);
+        assertThat(fila.getTotal()).isEqualByComparingTo("177.00");
+        LocalDate hoy = TimeWindow.hoy();
+        assertThat(summaryRepository.existsByFecha(hoy)).isTrue();
+        assertThat(summaryRepository.existsByFecha(hoy.plusDays(1))).isTrue();
+    }
+
+    @Test
+    void acumulaYRevierteVentasDelDia() {
+        Sale contado = venta(DIA.atTime(9, 30), TipoPago.CONTADO, "118.00");
+        Sale credito = venta(DIA.atTime(16, 0), TipoPago.CREDITO, "236.00");
+
+        // El día no estaba preparado: la primera venta crea la fila
+        assertThat(summaryRepository.existsByFecha(DIA)).isFalse();
+        enTransaccion(() -> {
+            salesSummaryService.registrarVenta(contado);
+            salesSummaryService.registrarVenta(credito);
+        });
+        enTransaccion(() -> salesSummaryService.revertirVenta(contado));
+
+        DailySalesSummary fila = summaryRepository.findByFecha(DIA).orElseThrow();
+        assertThat(fila.getCantidadVentas()).isEqualTo(1L);
+        assertThat(fila.getTotal()).isEqualByComparingTo("236.00");
+        assertThat(fila.getCantidadContado()).isZero();
+        assertThat(fila.getTotalContado()).isEqualByComparingTo("0");
+        assertThat(fila.getCantidadCredito()).isEqualTo(1L);
+        assertThat(fila.getTotalCredito()).isEqualByComparingTo("236.00");
+
+        // Rango de días completos: sale del resumen
+        assertThat(salesSummaryService.sumarTotal(DIA.atStartOfDay(), DIA.atTime(23, 59, 59)))
+                .isEqualByComparingTo("236.00");
+        assertThat(salesSummaryService.contarVentas(DIA.minusDays(1).atStartOfDay(), DIA.atTime(23, 59, 59)))
+                .isEqualTo(1L);
+    }
+
+    @Test
+    void losTramosParcialesSeLeenDeVentas() {
+        guardar(D1.atTime(10, 0), EstadoVenta.COMPLETADA, "100.00");
+        guardar(D2.atTime(8, 0), EstadoVenta.COMPLETADA, "200.00");
+        guardar(D2.atTime(20, 0), EstadoVenta.COMPLETADA, "300.00");
+        guardar(D3.atTime(12, 0), EstadoVenta.COMPLETADA, "400.00");
+        salesSummaryService.reconstruir(D1, D3);
+
+        // Solo el inicio es parcial
+        assertThat(salesSummaryService.sumarTotal(D1.atTime(12, 0), D3.atTime(23, 59, 59)))
+                .isEqualByComparingTo("900.00");
+        // Solo el fin es parcial (ambos extremos incluidos)
+        assertThat(salesSummaryService.sumarTotal(D1.atStartOfDay(), D3.atTime(11, 59, 59)))
+                .isEqualByComparingTo("600.00");
+        assertThat(salesSummaryService.sumarTotal(D1.atStartOfDay(), D3.atTime(12, 0)))
+                .isEqualByComparingTo("1000.00");
+        // Ambos parciales, con días completos en medio
+        assertThat(salesSummaryService.sumarTotal(D1.atTime(10, 0, 1), D3.atTime(11, 59, 59)))
+                .isEqualByComparingTo("500.00");
+        assertThat(salesSummaryService.contarVentas(D1.atTime(10, 0), D3.atTime(12, 0)))
+                .isEqualTo(4L);
+        // Dentro de un mismo día no hay días completos
+        assertThat(salesSummaryService.sumarTotal(D2.atTime(9, 0), D2.atTime(21, 0)))
+                .isEqualByComparingTo("300.00");
+        assertThat(salesSummaryService.contarVentas(D2.atTime(7, 0), D2.atTime(21, 0)))
+                .isEqualTo(2L);
+        // Rango invertido
+        assertThat(salesSummaryService.sumarTotal(D3.atStartOfDay(), D1.atStartOfDay()))
+                .isEqualByComparingTo("0");
+
+        // Los días completos vienen del resumen, no de 'ventas'
+        guardar(D2.atTime(15, 0), EstadoVenta.COMPLETADA, "50.00");
+        assertThat(salesSummaryService.sumarTotal(D2.atStartOfDay(), D2.atTime(23, 59, 59)))
+                .isEqualByComparingTo("500.00");
+        assertThat(salesSummaryService.sumarTotal(D2.atTime(0, 0, 1), D2.atTime(23, 59, 59)))
+                .isEqualByComparingTo("550.00");
+    }
+
+    @Test
+    void reconstruirRecalculaYDejaUnaFilaPorDia() {
+        guardar(R1.atTime(9, 0), EstadoVenta.COMPLETADA, "118.00");
+        guardar(R1.atTime(18, 0), EstadoVenta.COMPLETADA, "236.00");
+        guardar(R1.atTime(19, 0), EstadoVenta.ANULADA, "999.00");
+        guardar(R1.plusDays(2).atTime(11, 0), EstadoVenta.COMPLETADA, "59.00");
+
+        // Fila desfasada que la reconstrucción debe reemplazar
+        enTransaccion(() -> salesSummaryService.registrarVenta(
+                venta(R1.atTime(9, 0), TipoPago.CONTADO, "5000.00")));
+
+        assertThat(salesSummaryService.reconstruir(R1, R1.plusDays(3))).isEqualTo(2);
+
+        DailySalesSummary primero = summaryRepository.findByFecha(R1).orElseThrow();
+        assertThat(primero.getCantidadVentas()).isEqualTo(2L);
+        assertThat(primero.getTotal()).isEqualByComparingTo("354.00");
+        assertThat(primero.getCantidadContado()).isEqualTo(2L);
+        assertThat(primero.getTotalContado()).isEqualByComparingTo("354.00");
+
+        // Los días sin ventas quedan con su fila en cero
+        DailySalesSummary vacio = summaryRepository.findByFecha(R1.plusDays(1)).orElseThrow();
+        assertThat(vacio.getCantidadVentas()).isZero();
+        assertThat(vacio.getTotal()).isEqualByComparingTo("0");
+        assertThat(summaryRepository.existsByFecha(R1.plusDays(3))).isTrue();
+
+        assertThat(salesSummaryService.sumarTotal(R1.atStartOfDay(), R1.plusDays(3).atTime(23, 59, 59)))
+                .isEqualByComparingTo("413.00");
+    }
+
+    private Sale venta(LocalDateTime fecha, TipoPago tipoPago, String total) {
+        BigDecimal monto = new BigDecimal(total);
+        BigDecimal subtotal = monto.divide(new BigDecimal("1.18"), 2, RoundingMode.HALF_UP);
+        return Sale.builder()
+                .fechaVenta(fecha)
+                .tipoPago(tipoPago)
+                .subtotal(subtotal)
+                .igv(monto.subtract(subtotal))
+                .total(monto)
+                .build();
+    }
+
+    /**
+     * Guarda la venta en 'ventas' sin pasar por el resumen
+     */
+    private void guardar(LocalDateTime fecha, EstadoVenta estado, String total) {
+        Sale venta = venta(fecha, TipoPago.CONTADO, total);
+        venta.setNumeroVenta("V" + datos.sufijo());
+        venta.setCliente(cliente);
+        venta.setUsuario(usuario);
+        venta.setEstado(estado);
+        Long id = saleRepository.save(venta).getId();
+
+        // fecha_venta la pone Hibernate al insertar
+        enTransaccion(() -> entityManager
+                .createQuery("UPDATE Sale s SET s.fechaVenta = :fecha WHERE s.id = :id")
+                .setParameter("fecha", fecha)
+                .setParameter("id", id)
+                .executeUpdate());
+    }
+
+    private void enTransaccion(Runnable accion) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> accion.run());
+    }
+}
@@ -0,0 +1,166 @@
+package com.miempresa.ecommerce.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.miempresa.ecommerce.models.Order;
+import com.miempresa.ecommerce.models.OrderDetail;
+import com.miempresa.ecommerce.models.Product;
+import com.miempresa.ecommerce.models.StockReservation;
+import com.miempresa.ecommerce.models.enums.EstadoPedido;
+import com.miempresa.ecommerce.models.enums.EstadoReserva;
+import com.miempresa.ecommerce.models.enums.TipoEntrega;
+import com.miempresa.ecommerce.repositories.OrderRepository;
+import com.miempresa.ecommerce.repositories.ProductRepository;
+import com.miempresa.ecommerce.repositories.SaleDetailRepository;
+import com.miempresa.ecommerce.repositories.SaleRepository;
+import com.miempresa.ecommerce.repositories.StockReservationRepository;
+import com.miempresa.ecommerce.soporte.DatosDePrueba;
+import com.miempresa.ecommerce.soporte.PruebaJpa;
+
+/**
+ * Verifica que el stock reservado de un pedido se devuelva en cada final
+ * posible: cancelación antes o después de confirmar, y vencimiento de un
+ * pedido confirmado que nunca se facturó.
+ */
+@PruebaJpa(properties = "app.reservas.ttl-confirmado-horas=72")
+@Import(StockReservationService.class)
+class StockReservationServiceTest {
+
+    @Autowired
+    private StockReservationService reservationService;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private SaleDetailRepository saleDetailRepository;
+
+    @Autowired
+    private DatosDePrueba datos;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private OrderService orderService;
+    private Long productoId;
+    private Long pedidoId;
+
+    @BeforeEach
+    void crearPedidoConReserva() {
+        orderService = new OrderService(orderRepository, mock(ProductService.class), mock(SaleService.class),
+                saleDetailRepository, reservationService, mock(DocumentNumberService.class), saleRepository);
+
+        Product producto = datos.producto(10);
+        productoId = producto.getId();
+
+        Order pedido = Order.builder()
+                .numeroPedido("PED-" + datos.sufijo())
+                .cliente(datos.cliente())
+                .costoEnvio(BigDecimal.ZERO)
+                .tipoEntrega(TipoEntrega.RECOJO_TIENDA)
+                .estado(EstadoPedido.PENDIENTE)
+                .build();
+        OrderDetail detalle = OrderDetail.builder()
+                .producto(producto)
+                .cantidad(3)
+                .build();
+        detalle.establecerDatosProducto();
+        detalle.calcularSubtotal();
+        pedido.agregarDetalle(detalle);
+        pedido.calcularTotal();
+
+        pedidoId = enTransaccion(() -> {
+            Order guardado = orderRepository.save(pedido);
+            reservationService.reservarPedido(guardado);
+            return guardado.getId();
+        });
+        assertThat(stockReservado()).isEqualTo(3);
+    }
+
+    @Test
+    void cancelarPedidoPendienteLiberaLaReserva() {
+        enTransaccion(() -> {
+            orderService.cancelarPedido(pedidoId);
+            return null;
+        });
+
+        assertThat(stockReservado()).isZero();
+        assertThat(estadoReserva()).isEqualTo(EstadoReserva.LIBERADA);
+    }
+
+    @Test
+    void cancelarPedidoConfirmadoSinFacturarLiberaLaReserva() {
+        confirmar();
+
+        enTransaccion(() -> {
+            orderService.cancelarPedido(pedidoId);
+            return null;
+        });
+
+        assertThat(orderRepository.findById(pedidoId).orElseThrow().getEstado()).isEqualTo(EstadoPedido.CANCELADO);
+        assertThat(stockReservado()).isZero();
+        assertThat(estadoReserva()).isEqualTo(EstadoReserva.LIBERADA);
+    }
+
+    @Test
+    void confirmarExtiendeLaReservaYAlVencerSeLibera() {
+        confirmar();
+
+        StockReservation reserva = reservationRepository.buscarPorPedidoYEstado(pedidoId, EstadoReserva.ACTIVA).get(0);
+        assertThat(reserva.getFechaExpiracion()).isAfter(LocalDateTime.now().plusHours(71));
+
+        // El pedido confirmado nunca se facturó (un día de margen por la zona
+        // horaria con la que Hibernate guarda las fechas)
+        jdbcTemplate.update("UPDATE reservas_stock SET fecha_expiracion = ? WHERE pedido_id = ?",
+                LocalDateTime.now().minusDays(1), pedidoId);
+        reservationService.expirarVencidas();
+
+        assertThat(stockReservado()).isZero();
+        assertThat(estadoReserva()).isEqualTo(EstadoReserva.EXPIRADA);
+    }
+
+    private void confirmar() {
+        enTransaccion(() -> orderService.confirmarPedido(pedidoId));
+    }
+
+    private int stockReservado() {
+        return productRepository.findById(productoId).orElseThrow().getStockReservado();
+    }
+
+    private EstadoReserva estadoReserva() {
+        return reservationRepository.findAll().stream()
+                .filter(r -> r.getPedido().getId().equals(pedidoId))
+                .findFirst()
+                .orElseThrow()
+                .getEstado();
+    }
+
+    private <T> T enTransaccion(Supplier<T> accion) {
+        return new TransactionTemplate(transactionManager).execute(status -> accion.get());
+    }
+}
@@ -0,0 +1,123 @@
+package com.miempresa.ecommerce.soporte;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.miempresa.ecommerce.models.Brand;
+import com.miempresa.ecommerce.models.Category;
+import com.miempresa.ecommerce.models.Customer;
+import com.miempresa.ecommerce.models.Permission;
+import com.miempresa.ecommerce.models.Product;
+import com.miempresa.ecommerce.models.Profile;
+import com.miempresa.ecommerce.models.User;
+import com.miempresa.ecommerce.models.enums.TipoDocumento;
+import com.miempresa.ecommerce.repositories.BrandRepository;
+import com.miempresa.ecommerce.repositories.CategoryRepository;
+import com.miempresa.ecommerce.repositories.CustomerRepository;
+import com.miempresa.ecommerce.repositories.ProductRepository;
+import com.miempresa.ecommerce.repositories.ProfileRepository;
+import com.miempresa.ecommerce.repositories.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Crea y guarda datos mínimos válidos para las pruebas (@PruebaJpa).
+ * Los campos únicos (nombres, SKU, documentos) llevan un sufijo propio
+ * en cada llamada, así las pruebas no chocan entre sí.
+ */
+@RequiredArgsConstructor
+public class DatosDePrueba {
+
+    private static final AtomicLong SECUENCIA = new AtomicLong(System.currentTimeMillis() % 10_000_000);
+
+    private final CategoryRepository categoryRepository;
+    private final BrandRepository brandRepository;
+    private final ProductRepository productRepository;
+    private final ProfileRepository profileRepository;
+    private final UserRepository userRepository;
+    private final CustomerRepository customerRepository;
+
+    /**
+     * Sufijo único de 8 dígitos
+     */
+    public String sufijo() {
+        return String.format("%08d", SECUENCIA.incrementAndGet() % 100_000_000);
+    }
+
+    public Category categoria() {
+        return categoryRepository.save(Category.builder()
+                .nombre("Categoría " + sufijo())
+                .build());
+    }
+
+    public Brand marca() {
+        return brandRepository.save(Brand.builder()
+                .nombre("Marca " + sufijo())
+                .build());
+    }
+
+    /**
+     * Producto activo, no destacado
+     */
+    public Product producto(Category categoria, String nombre, String precio, int stock, int stockMinimo) {
+        return productRepository.save(Product.builder()
+                .nombre(nombre)
+                .codigoSku("SKU-" + sufijo())
+                .precioBase(new BigDecimal(precio))
+                .stockActual(stock)
+                .stockMinimo(stockMinimo)
+                .categoria(categoria)
+                .activo(true)
+                .esDestacado(false)
+                .imagenes(new ArrayList<>())
+                .build());
+    }
+
+    /**
+     * Producto en una categoría propia
+     */
+    public Product producto(int stock) {
+        return producto(categoria(), "Producto " + sufijo(), "100.00", stock, 5);
+    }
+
+    public User usuario() {
+        return usuario(Set.of());
+    }
+
+    /**
+     * Usuario activo con un perfil propio que tiene los permisos indicados
+     */
+    public User usuario(Set<Permission> permisos) {
+        String sufijo = sufijo();
+        Profile perfil = profileRepository.save(Profile.builder()
+                .nombre("PERFIL_" + sufijo)
+                .activo(true)
+                .permisos(new HashSet<>(permisos))
+                .build());
+        return userRepository.save(User.builder()
+                .nombre("Luis")
+                .apellido("Quispe")
+                .email(sufijo + "@tienda.pe")
+                .username("usuario" + sufijo)
+                .password("x")
+                .activo(true)
+                .perfil(perfil)
+                .build());
+    }
+
+    /**
+     * Cliente con DNI
+     */
+    public Customer cliente() {
+        return customerRepository.save(Customer.builder()
+                .tipoDocumento(TipoDocumento.DNI)
+                .numeroDocumento(sufijo())
+                .nombres("Ana")
+                .apellidoPaterno("Pérez")
+                .activo(true)
+                .build());
+    }
+}
@@ -0,0 +1,42 @@
+package com.miempresa.ecommerce.soporte;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.annotation.AliasFor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Prueba de repositorios y servicios sobre H2 en memoria
+ * (ver src/test/resources/application-h2.properties).
+ *
+ * - Cada método confirma de verdad sus transacciones (sin el rollback
+ *   automático de @DataJpaTest), como en producción: las pruebas de
+ *   concurrencia, lotes y after-commit lo necesitan
+ * - DatosDePrueba queda disponible para crear categorías, productos,
+ *   usuarios y clientes
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(DatosDePrueba.class)
+public @interface PruebaJpa {
+
+    /**
+     * Propiedades adicionales de la prueba (formato clave=valor)
+     */
+    @AliasFor(annotation = DataJpaTest.class, attribute = "properties")
+    String[] properties() default {};
+}
@@ -0,0 +1,149 @@
+package com.miempresa.ecommerce.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.EventType;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfCanvasProcessor;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import com.itextpdf.kernel.pdf.canvas.parser.data.IEventData;
+import com.itextpdf.kernel.pdf.canvas.parser.data.TextRenderInfo;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.IEventListener;
+import com.miempresa.ecommerce.models.Customer;
+import com.miempresa.ecommerce.models.Sale;
+import com.miempresa.ecommerce.models.SaleDetail;
+import com.miempresa.ecommerce.models.User;
+import com.miempresa.ecommerce.models.enums.TipoDocumento;
+import com.miempresa.ecommerce.models.enums.TipoPago;
+import com.miempresa.ecommerce.utils.PdfGeneratorUtil.FilaReporteVenta;
+
+/**
+ * Verifica que el reporte de ventas en modo tabla grande
+ * produzca un PDF válido de varias páginas, y que las boletas
+ * (sueltas o en lote) lleven el encabezado compartido de la empresa,
+ * partido en renglones cuando no entra en el ancho de la página.
+ */
+class PdfGeneratorUtilTest {
+
+    @Test
+    void reporteDeVentasGrandeSeEscribeCompleto() throws Exception {
+        int cantidad = 2_500;
+        LocalDateTime inicio = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+        Iterator<FilaReporteVenta> ventas = IntStream.range(0, cantidad)
+                .mapToObj(i -> new FilaReporteVenta(inicio.plusMinutes(i), "Cliente " + i,
+                        "VEN-2025-" + String.format("%05d", i), new BigDecimal("10.00")))
+                .iterator();
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        PdfGeneratorUtil.writeReporteVentasPdf(salida, ventas, cantidad, new BigDecimal("25000.00"),
+                inicio, inicio.plusDays(30), "MI EMPRESA", "20123456789");
+
+        try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(salida.toByteArray())))) {
+            assertThat(pdf.getNumberOfPages()).isGreaterThan(10);
+        }
+    }
+
+    @Test
+    void boletaIncluyeEncabezadoDeLaEmpresa() throws Exception {
+        byte[] boleta = PdfGeneratorUtil.generateBoletaPdf(boleta(), "MI EMPRESA", "20123456789",
+                "Av. Principal 123, Lima");
+
+        // Dos boletas seguidas reutilizan el mismo contexto
+        PdfGeneratorUtil.generateBoletaPdf(boleta(), "MI EMPRESA", "20123456789", "Av. Principal 123, Lima");
+
+        try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(boleta)))) {
+            String texto = PdfTextExtractor.getTextFromPage(pdf.getFirstPage());
+            assertThat(texto).contains("MI EMPRESA", "RUC: 20123456789", "Av. Principal 123, Lima",
+                    "BOLETA DE VENTA", "B001-00000001");
+        }
+    }
+
+    @Test
+    void loteDeBoletasRepiteElEncabezadoEnCadaPagina() throws Exception {
+        Iterator<Sale> ventas = IntStream.range(0, 3).mapToObj(i -> boleta()).iterator();
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        int cantidad = PdfGeneratorUtil.writeBoletasPdf(salida, ventas, "MI EMPRESA", "20123456789",
+                "Av. Principal 123, Lima");
+
+        assertThat(cantidad).isEqualTo(3);
+        try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(salida.toByteArray())))) {
+            assertThat(pdf.getNumberOfPages()).isEqualTo(3);
+            for (int pagina = 1; pagina <= 3; pagina++) {
+                assertThat(PdfTextExtractor.getTextFromPage(pdf.getPage(pagina)))
+                        .contains("RUC: 20123456789", "BOLETA DE VENTA");
+            }
+        }
+    }
+
+    @Test
+    void encabezadoLargoSeParteDentroDeLosMargenes() throws Exception {
+        String direccion = "Av. Nicolás de Piérola 1234, Oficina 502, Cercado de Lima, "
+                + "frente al Parque Universitario, Lima, Perú";
+        byte[] boleta = PdfGeneratorUtil.generateBoletaPdf(boleta(),
+                "COMERCIALIZADORA DE VIDEOJUEGOS Y ACCESORIOS DEL PERÚ SOCIEDAD ANÓNIMA CERRADA",
+                "20123456789", direccion);
+
+        try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(boleta)))) {
+            float limite = pdf.getFirstPage().getPageSize().getWidth() - 36f;
+            List<Float> bordes = new ArrayList<>();
+            new PdfCanvasProcessor(new IEventListener() {
+                @Override
+                public void eventOccurred(IEventData data, EventType type) {
+                    bordes.add(((TextRenderInfo) data).getBaseline().getEndPoint().get(0));
+                }
+
+                @Override
+                public Set<EventType> getSupportedEvents() {
+                    return Set.of(EventType.RENDER_TEXT);
+                }
+            }).processPageContent(pdf.getFirstPage());
+
+            assertThat(bordes).isNotEmpty().allSatisfy(x -> assertThat(x).isLessThanOrEqualTo(limite + 0.5f));
+            assertThat(PdfTextExtractor.getTextFromPage(pdf.getFirstPage()))
+                    .contains("SOCIEDAD ANÓNIMA CERRADA", "Parque Universitario, Lima, Perú", "BOLETA DE VENTA");
+        }
+    }
+
+    static Sale boleta() {
+        Sale venta = Sale.builder()
+                .numeroVenta("B001-00000001")
+                .cliente(Customer.builder()
+                        .tipoDocumento(TipoDocumento.DNI)
+                        .numeroDocumento("12345678")
+                        .nombres("Ana")
+                        .apellidoPaterno("Pérez")
+                        .build())
+                .usuario(User.builder().nombre("Luis").apellido("Torres").build())
+                .subtotal(new BigDecimal("84.75"))
+                .igv(new BigDecimal("15.25"))
+                .total(new BigDecimal("100.00"))
+                .tipoPago(TipoPago.CONTADO)
+                .fechaVenta(LocalDateTime.of(2025, 1, 15, 10, 30))
+                .build();
+
+        for (int i = 1; i <= 3; i++) {
+            venta.getDetalles().add(SaleDetail.builder()
+                    .nombreProducto("Producto " + i)
+                    .cantidad(i)
+                    .precioUnitario(new BigDecimal("10.00"))
+                    .subtotal(new BigDecimal("10.00").multiply(BigDecimal.valueOf(i)))
+                    .build());
+        }
+        return venta;
+    }
+}
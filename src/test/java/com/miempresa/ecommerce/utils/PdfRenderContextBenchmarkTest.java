@@ -0,0 +1,95 @@
+package com.miempresa.ecommerce.utils;
+
+import java.io.ByteArrayOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.properties.TextAlignment;
+import com.miempresa.ecommerce.models.Sale;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mide boletas por segundo antes y después de PdfRenderContext.
+ *
+ * "Antes" arma el encabezado como lo hacía PdfGeneratorUtil (tres párrafos
+ * maquetados en cada documento); "después" usa generateBoletaPdf.
+ * El cuerpo de la boleta es el mismo en ambos casos.
+ *
+ * No corre en el build normal:
+ * mvn test -Dtest=PdfRenderContextBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Slf4j
+class PdfRenderContextBenchmarkTest {
+
+    private static final String NOMBRE = "MI EMPRESA SAC";
+    private static final String RUC = "20123456789";
+    private static final String DIRECCION = "Av. Principal 123, Lima";
+
+    private static final int CALENTAMIENTO = 2_000;
+    private static final int MEDICION = 5_000;
+
+    @Test
+    void boletasPorSegundo() throws Exception {
+        Sale venta = PdfGeneratorUtilTest.boleta();
+
+        Medicion antes = () -> boletaSinContexto(venta);
+        Medicion despues = () -> PdfGeneratorUtil.generateBoletaPdf(venta, NOMBRE, RUC, DIRECCION);
+
+        medir(antes, CALENTAMIENTO);
+        medir(despues, CALENTAMIENTO);
+
+        double porSegundoAntes = medir(antes, MEDICION);
+        double porSegundoDespues = medir(despues, MEDICION);
+
+        log.info("Boletas/s antes: {} | después: {} | mejora: {}%",
+                Math.round(porSegundoAntes), Math.round(porSegundoDespues),
+                String.format("%.1f", (porSegundoDespues / porSegundoAntes - 1) * 100));
+    }
+
+    private static double medir(Medicion medicion, int iteraciones) throws Exception {
+        long bytes = 0;
+        long inicio = System.nanoTime();
+        for (int i = 0; i < iteraciones; i++) {
+            bytes += medicion.generar().length;
+        }
+        long nanos = System.nanoTime() - inicio;
+        if (bytes == 0) {
+            throw new IllegalStateException("Sin salida");
+        }
+        return iteraciones / (nanos / 1_000_000_000.0);
+    }
+
+    private static byte[] boletaSinContexto(Sale venta) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdf = new PdfDocument(new PdfWriter(baos));
+        Document document = new Document(pdf);
+
+        document.add(new Paragraph(NOMBRE)
+                .setFontSize(18)
+                .setBold()
+                .setTextAlignment(TextAlignment.CENTER));
+        document.add(new Paragraph("RUC: " + RUC)
+                .setFontSize(10)
+                .setTextAlignment(TextAlignment.CENTER));
+        document.add(new Paragraph(DIRECCION)
+                .setFontSize(10)
+                .setTextAlignment(TextAlignment.CENTER));
+        document.add(new Paragraph("\n"));
+
+        PdfGeneratorUtil.escribirBoleta(document, venta);
+        document.close();
+        return baos.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface Medicion {
+        byte[] generar() throws Exception;
+    }
+}
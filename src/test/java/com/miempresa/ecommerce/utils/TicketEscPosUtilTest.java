@@ -0,0 +1,50 @@
+package com.miempresa.ecommerce.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+import com.miempresa.ecommerce.models.Sale;
+
+/**
+ * Verifica el ancho fijo del ticket de texto y el marco ESC/POS
+ * (inicialización al principio y corte de papel al final).
+ */
+class TicketEscPosUtilTest {
+
+    @Test
+    void ticketDeTextoRespetaElAnchoDeColumnas() {
+        String ticket = TicketEscPosUtil.generarTicketTexto(PdfGeneratorUtilTest.boleta(),
+                "MI EMPRESA", "20123456789", "Av. Principal 123, Lima", 32);
+
+        assertThat(ticket.lines()).allSatisfy(linea -> assertThat(linea.length()).isLessThanOrEqualTo(32));
+        assertThat(ticket).contains("B001-00000001", "Producto 3", "100.00", "Pérez");
+    }
+
+    @Test
+    void valorMasAnchoQueLaLineaVaEnSuPropiaLinea() {
+        // "S/ 1000000000000000000000.00" no entra en 24 columnas
+        Sale venta = PdfGeneratorUtilTest.boleta();
+        venta.setTotal(new BigDecimal("1000000000000000000000"));
+
+        String ticket = TicketEscPosUtil.generarTicketTexto(venta, "MI EMPRESA", "20123456789", null, 24);
+
+        assertThat(ticket.lines()).allSatisfy(linea -> assertThat(linea.length()).isLessThanOrEqualTo(24));
+        assertThat(ticket.lines()).contains("TOTAL");
+        assertThat(ticket.replace("\n", "")).contains("TOTALS/ 1000000000000000000000.00");
+    }
+
+    @Test
+    void ticketEscPosEsCompactoYTerminaConCorte() {
+        byte[] ticket = TicketEscPosUtil.generarTicketEscPos(PdfGeneratorUtilTest.boleta(),
+                "MI EMPRESA", "20123456789", "Av. Principal 123, Lima", 42);
+
+        assertThat(ticket.length).isLessThan(1_024);
+        assertThat(ticket[0]).isEqualTo((byte) 0x1B);
+        assertThat(ticket[1]).isEqualTo((byte) '@');
+        assertThat(ticket[ticket.length - 4]).isEqualTo((byte) 0x1D);
+        assertThat(ticket[ticket.length - 3]).isEqualTo((byte) 'V');
+    }
+}
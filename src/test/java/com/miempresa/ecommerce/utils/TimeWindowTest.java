@@ -0,0 +1,51 @@
+package com.miempresa.ecommerce.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifica los límites semiabiertos [inicio, fin) de cada ventana
+ * y el último instante usado por los rangos cerrados.
+ */
+class TimeWindowTest {
+
+    @Test
+    void ventanasDeDiaSemanaMesYAnio() {
+        LocalDate jueves = LocalDate.of(2024, 2, 29);
+
+        assertThat(TimeWindow.dia(jueves)).isEqualTo(new TimeWindow(
+                LocalDateTime.of(2024, 2, 29, 0, 0), LocalDateTime.of(2024, 3, 1, 0, 0)));
+        // Semana móvil: los 7 días que terminan en la fecha
+        assertThat(TimeWindow.semana(jueves)).isEqualTo(new TimeWindow(
+                LocalDateTime.of(2024, 2, 23, 0, 0), LocalDateTime.of(2024, 3, 1, 0, 0)));
+        assertThat(TimeWindow.mes(jueves)).isEqualTo(new TimeWindow(
+                LocalDateTime.of(2024, 2, 1, 0, 0), LocalDateTime.of(2024, 3, 1, 0, 0)));
+        assertThat(TimeWindow.anio(jueves)).isEqualTo(new TimeWindow(
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2025, 1, 1, 0, 0)));
+    }
+
+    @Test
+    void finEsExclusivoYUltimoInstanteQuedaDentro() {
+        TimeWindow dia = TimeWindow.dia(LocalDate.of(2025, 6, 30));
+
+        assertThat(dia.contiene(LocalDateTime.of(2025, 6, 30, 0, 0))).isTrue();
+        assertThat(dia.contiene(dia.ultimoInstante())).isTrue();
+        assertThat(dia.contiene(LocalDateTime.of(2025, 7, 1, 0, 0))).isFalse();
+        assertThat(dia.ultimoInstante()).isEqualTo(LocalDateTime.of(2025, 6, 30, 23, 59, 59, 999_999_000));
+    }
+
+    @Test
+    void periodosConNombre() {
+        assertThat(TimeWindow.periodo("hoy")).isEqualTo(TimeWindow.dia(TimeWindow.hoy()));
+        assertThat(TimeWindow.periodo("ayer")).isEqualTo(TimeWindow.dia(TimeWindow.hoy().minusDays(1)));
+        assertThat(TimeWindow.periodo("semana")).isEqualTo(new TimeWindow(
+                TimeWindow.hoy().minusDays(6).atStartOfDay(), TimeWindow.hoy().plusDays(1).atStartOfDay()));
+        assertThat(TimeWindow.periodo("MES")).isEqualTo(TimeWindow.mesActual());
+        assertThat(TimeWindow.periodo("trimestre")).isNull();
+        assertThat(TimeWindow.periodo(null)).isNull();
+    }
+}